@@ -0,0 +1,12 @@
+-- metric rollups
+create table ACT_RU_METER_ROLLUP (
+  ID_ nvarchar(64) not null,
+  NAME_ nvarchar(64) not null,
+  REPORTER_ nvarchar(255),
+  INTERVAL_ int not null,
+  VALUE_ numeric(19,0),
+  MILLISECONDS_ numeric(19,0) not null,
+  primary key (ID_)
+);
+
+CREATE INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP(INTERVAL_, NAME_, MILLISECONDS_);
@@ -0,0 +1,12 @@
+-- metric rollups
+create table ACT_RU_METER_ROLLUP (
+  ID_ NVARCHAR2(64) not null,
+  NAME_ NVARCHAR2(64) not null,
+  REPORTER_ NVARCHAR2(255),
+  INTERVAL_ INTEGER not null,
+  VALUE_ NUMBER(19,0),
+  MILLISECONDS_ NUMBER(19,0) not null,
+  primary key (ID_)
+);
+
+CREATE INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP(INTERVAL_, NAME_, MILLISECONDS_);
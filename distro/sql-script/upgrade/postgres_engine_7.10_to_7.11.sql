@@ -0,0 +1,12 @@
+-- metric rollups
+create table ACT_RU_METER_ROLLUP (
+  ID_ varchar(64) not null,
+  NAME_ varchar(64) not null,
+  REPORTER_ varchar(255),
+  INTERVAL_ integer not null,
+  VALUE_ bigint,
+  MILLISECONDS_ bigint not null,
+  primary key (ID_)
+);
+
+CREATE INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP(INTERVAL_, NAME_, MILLISECONDS_);
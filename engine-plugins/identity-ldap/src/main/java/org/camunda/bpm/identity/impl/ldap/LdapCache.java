@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.identity.impl.ldap;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Bounded, thread-safe cache for LDAP search results. Entries expire after
+ * a fixed time to live; once the maximum size is reached, the least recently
+ * used entry is evicted.</p>
+ *
+ * <p>The cache is shared by all {@link LdapIdentityProviderSession}s of a process engine
+ * and keeps hit, miss and eviction counts.</p>
+ *
+ * @param <V> the type of the cached values
+ */
+public class LdapCache<V> {
+
+  protected final String name;
+  protected final int maxSize;
+  protected final long timeToLive;
+
+  protected final LinkedHashMap<String, CacheEntry<V>> entries;
+
+  protected final AtomicLong hits = new AtomicLong();
+  protected final AtomicLong misses = new AtomicLong();
+  protected final AtomicLong evictions = new AtomicLong();
+
+  public LdapCache(String name, final int maxSize, long timeToLive) {
+    this.name = name;
+    this.maxSize = maxSize;
+    this.timeToLive = timeToLive;
+
+    // access ordered map, the eldest entry is the least recently used one
+    this.entries = new LinkedHashMap<String, CacheEntry<V>>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<V>> eldest) {
+        boolean evict = size() > LdapCache.this.maxSize;
+        if (evict) {
+          evictions.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  /**
+   * @return the cached value or <code>null</code> if no value is cached
+   *  for the given key or if it is expired
+   */
+  public V get(String key) {
+    long now = ClockUtil.getCurrentTime().getTime();
+
+    synchronized (entries) {
+      CacheEntry<V> entry = entries.get(key);
+
+      if (entry != null && entry.isExpired(now)) {
+        entries.remove(key);
+        evictions.incrementAndGet();
+        entry = null;
+      }
+
+      if (entry == null) {
+        misses.incrementAndGet();
+        return null;
+      }
+      else {
+        hits.incrementAndGet();
+        return entry.value;
+      }
+    }
+  }
+
+  public void put(String key, V value) {
+    long expiresAt = ClockUtil.getCurrentTime().getTime() + timeToLive;
+
+    synchronized (entries) {
+      entries.put(key, new CacheEntry<V>(value, expiresAt));
+    }
+  }
+
+  /**
+   * Removes all expired entries from the cache.
+   */
+  public void purgeExpired() {
+    long now = ClockUtil.getCurrentTime().getTime();
+
+    synchronized (entries) {
+      Iterator<CacheEntry<V>> iterator = entries.values().iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next().isExpired(now)) {
+          iterator.remove();
+          evictions.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  public String toString() {
+    return "LdapCache[name=" + name
+        + ", size=" + size()
+        + ", hits=" + getHitCount()
+        + ", misses=" + getMissCount()
+        + ", evictions=" + getEvictionCount()
+        + "]";
+  }
+
+  protected static class CacheEntry<V> {
+
+    protected final V value;
+    protected final long expiresAt;
+
+    public CacheEntry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+      return now >= expiresAt;
+    }
+  }
+
+}
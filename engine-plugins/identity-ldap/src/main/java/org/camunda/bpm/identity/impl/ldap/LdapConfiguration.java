@@ -66,6 +66,12 @@ public class LdapConfiguration {
 
   protected boolean authorizationCheckEnabled = true;
 
+  protected boolean connectionPoolingEnabled = false;
+
+  protected boolean cacheEnabled = false;
+  protected long cacheTimeToLive = 5 * 60 * 1000;
+  protected int cacheMaxSize = 1000;
+
   // getters / setters //////////////////////////////////////
 
   public String getInitialContextFactory() {
@@ -283,4 +289,50 @@ public class LdapConfiguration {
     this.authorizationCheckEnabled = authorizationCheckEnabled;
   }
 
+  public boolean isConnectionPoolingEnabled() {
+    return connectionPoolingEnabled;
+  }
+
+  /**
+   * Enables pooling of the connections opened with the manager credentials. The pool
+   * itself is provided by the JNDI LDAP service provider and can be tuned with the
+   * <code>com.sun.jndi.ldap.connect.pool.*</code> system properties.
+   */
+  public void setConnectionPoolingEnabled(boolean connectionPoolingEnabled) {
+    this.connectionPoolingEnabled = connectionPoolingEnabled;
+  }
+
+  public boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  /**
+   * Enables caching of users, groups and group memberships looked up by id.
+   */
+  public void setCacheEnabled(boolean cacheEnabled) {
+    this.cacheEnabled = cacheEnabled;
+  }
+
+  public long getCacheTimeToLive() {
+    return cacheTimeToLive;
+  }
+
+  /**
+   * @param cacheTimeToLive the time in milliseconds a cached entry is valid
+   */
+  public void setCacheTimeToLive(long cacheTimeToLive) {
+    this.cacheTimeToLive = cacheTimeToLive;
+  }
+
+  public int getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  /**
+   * @param cacheMaxSize the maximum number of entries held by each of the caches
+   */
+  public void setCacheMaxSize(int cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
 }
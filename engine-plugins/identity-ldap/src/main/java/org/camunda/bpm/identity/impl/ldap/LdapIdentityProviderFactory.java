@@ -15,9 +15,12 @@
  */
 package org.camunda.bpm.identity.impl.ldap;
 
+import java.util.List;
+
 import org.camunda.bpm.engine.impl.identity.ReadOnlyIdentityProvider;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+import org.camunda.bpm.engine.impl.persistence.entity.GroupEntity;
 
 /**
  * @author Daniel Meyer
@@ -26,13 +29,49 @@ import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 public class LdapIdentityProviderFactory implements SessionFactory {
 
   protected LdapConfiguration ldapConfiguration;
+
+  protected LdapCache<List<LdapUserEntity>> userCache;
+  protected LdapCache<List<GroupEntity>> groupCache;
+  protected LdapCache<List<String>> membershipCache;
   
   public Class<?> getSessionType() {
     return ReadOnlyIdentityProvider.class;
   }
 
   public Session openSession() {
-    return new LdapIdentityProviderSession(ldapConfiguration);
+    return new LdapIdentityProviderSession(ldapConfiguration, userCache, groupCache, membershipCache);
+  }
+
+  /**
+   * Creates the caches shared by all sessions if caching is enabled
+   * in the {@link LdapConfiguration}.
+   */
+  public void initCaches() {
+    if (ldapConfiguration.isCacheEnabled()) {
+      int maxSize = ldapConfiguration.getCacheMaxSize();
+      long timeToLive = ldapConfiguration.getCacheTimeToLive();
+
+      userCache = new LdapCache<List<LdapUserEntity>>("users", maxSize, timeToLive);
+      groupCache = new LdapCache<List<GroupEntity>>("groups", maxSize, timeToLive);
+      membershipCache = new LdapCache<List<String>>("memberships", maxSize, timeToLive);
+    }
+    else {
+      userCache = null;
+      groupCache = null;
+      membershipCache = null;
+    }
+  }
+
+  /**
+   * Removes all entries from the caches, e.g. after changes in the directory
+   * which must become visible before the entries expire.
+   */
+  public void clearCaches() {
+    if (userCache != null) {
+      userCache.clear();
+      groupCache.clear();
+      membershipCache.clear();
+    }
   }
   
   public LdapConfiguration getLdapConfiguration() {
@@ -43,4 +82,16 @@ public class LdapIdentityProviderFactory implements SessionFactory {
     this.ldapConfiguration = ldapConfiguration;
   }
 
+  public LdapCache<List<LdapUserEntity>> getUserCache() {
+    return userCache;
+  }
+
+  public LdapCache<List<GroupEntity>> getGroupCache() {
+    return groupCache;
+  }
+
+  public LdapCache<List<String>> getMembershipCache() {
+    return membershipCache;
+  }
+
 }
@@ -72,8 +72,22 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
   protected LdapConfiguration ldapConfiguration;
   protected LdapContext initialContext;
 
+  protected LdapCache<List<LdapUserEntity>> userCache;
+  protected LdapCache<List<GroupEntity>> groupCache;
+  protected LdapCache<List<String>> membershipCache;
+
   public LdapIdentityProviderSession(LdapConfiguration ldapConfiguration) {
+    this(ldapConfiguration, null, null, null);
+  }
+
+  public LdapIdentityProviderSession(LdapConfiguration ldapConfiguration,
+      LdapCache<List<LdapUserEntity>> userCache,
+      LdapCache<List<GroupEntity>> groupCache,
+      LdapCache<List<String>> membershipCache) {
     this.ldapConfiguration = ldapConfiguration;
+    this.userCache = userCache;
+    this.groupCache = groupCache;
+    this.membershipCache = membershipCache;
   }
 
   // Session Lifecycle //////////////////////////////////
@@ -84,16 +98,25 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
   public void close() {
     if (initialContext != null) {
-      try {
-        initialContext.close();
-      } catch (Exception e) {
-        // ignore
-        LOG.log(Level.FINE, "exception while closing LDAP DIR CTX", e);
-      }
+      closeQuietly(initialContext);
+      initialContext = null;
+    }
+  }
+
+  protected void closeQuietly(LdapContext context) {
+    try {
+      context.close();
+    } catch (Exception e) {
+      // ignore
+      LOG.log(Level.FINE, "exception while closing LDAP DIR CTX", e);
     }
   }
 
   protected InitialLdapContext openContext(String userDn, String password) {
+    return openContext(userDn, password, false);
+  }
+
+  protected InitialLdapContext openContext(String userDn, String password, boolean pooled) {
     Hashtable<String, String> env = new Hashtable<String, String>();
     env.put(Context.INITIAL_CONTEXT_FACTORY, ldapConfiguration.getInitialContextFactory());
     env.put(Context.SECURITY_AUTHENTICATION, ldapConfiguration.getSecurityAuthentication());
@@ -110,6 +133,11 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
       env.put(Context.SECURITY_PROTOCOL, "ssl");
     }
 
+    // reuse connections of the JNDI connection pool
+    if(pooled) {
+      env.put("com.sun.jndi.ldap.connect.pool", "true");
+    }
+
     // add additional properties
     Map<String, String> contextProperties = ldapConfiguration.getContextProperties();
     if(contextProperties != null) {
@@ -130,7 +158,7 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
   protected void ensureContextInitialized() {
     if(initialContext == null) {
-      initialContext = openContext(ldapConfiguration.getManagerDn(), ldapConfiguration.getManagerPassword());
+      initialContext = openContext(ldapConfiguration.getManagerDn(), ldapConfiguration.getManagerPassword(), ldapConfiguration.isConnectionPoolingEnabled());
     }
   }
 
@@ -177,24 +205,31 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
     // compose group search filter
     String groupSearchFilter = "(& " + ldapConfiguration.getGroupSearchFilter() + ")";
 
+    String cacheKey = createCacheKey(baseDn, groupSearchFilter, null);
+    List<String> groupMemberList = getCached(membershipCache, cacheKey);
+
     NamingEnumeration<SearchResult> enumeration = null;
     try {
-      enumeration = initialContext.search(baseDn, groupSearchFilter, ldapConfiguration.getSearchControls());
-
-      List<String> groupMemberList = new ArrayList<String>();
-
-      // first find group
-      while (enumeration.hasMoreElements()) {
-        SearchResult result = enumeration.nextElement();
-        Attribute memberAttribute = result.getAttributes().get(ldapConfiguration.getGroupMemberAttribute());
-        if (null != memberAttribute) {
-          NamingEnumeration<?> allMembers = memberAttribute.getAll();
-
-          // iterate group members
-          while (allMembers.hasMoreElements()) {
-            groupMemberList.add((String) allMembers.nextElement());
+      if (groupMemberList == null) {
+        enumeration = initialContext.search(baseDn, groupSearchFilter, ldapConfiguration.getSearchControls());
+
+        groupMemberList = new ArrayList<String>();
+
+        // first find group
+        while (enumeration.hasMoreElements()) {
+          SearchResult result = enumeration.nextElement();
+          Attribute memberAttribute = result.getAttributes().get(ldapConfiguration.getGroupMemberAttribute());
+          if (null != memberAttribute) {
+            NamingEnumeration<?> allMembers = memberAttribute.getAll();
+
+            // iterate group members
+            while (allMembers.hasMoreElements()) {
+              groupMemberList.add((String) allMembers.nextElement());
+            }
           }
         }
+
+        putCached(membershipCache, cacheKey, groupMemberList);
       }
 
       List<User> userList = new ArrayList<User>();
@@ -235,10 +270,22 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
       applyRequestControls(query);
     }
 
+    String filter = getUserSearchFilter(query);
+
+    // lookups of single users are served from the cache if possible
+    if(userCache != null && (ignorePagination || isIdRestricted(query.getId(), query.getIds()))) {
+      String cacheKey = createCacheKey(userBaseDn, filter, query);
+      List<LdapUserEntity> users = getCached(userCache, cacheKey);
+      if(users == null) {
+        users = searchUsers(userBaseDn, filter);
+        putCached(userCache, cacheKey, users);
+      }
+      return filterUsers(users, query, ignorePagination);
+    }
+
     NamingEnumeration<SearchResult> enumeration = null;
     try {
 
-      String filter = getUserSearchFilter(query);
       enumeration = initialContext.search(userBaseDn, filter, ldapConfiguration.getSearchControls());
 
       // perform client-side paging
@@ -275,6 +322,54 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
     }
   }
 
+  protected List<LdapUserEntity> searchUsers(String userBaseDn, String filter) {
+    NamingEnumeration<SearchResult> enumeration = null;
+    try {
+      enumeration = initialContext.search(userBaseDn, filter, ldapConfiguration.getSearchControls());
+
+      List<LdapUserEntity> users = new ArrayList<LdapUserEntity>();
+      while (enumeration.hasMoreElements()) {
+        users.add(transformUser(enumeration.nextElement()));
+      }
+
+      return users;
+
+    } catch (NamingException e) {
+      throw new IdentityProviderException("Could not query for users", e);
+
+    } finally {
+      try {
+        if (enumeration != null) {
+          enumeration.close();
+        }
+      } catch (Exception e) {
+        // ignore silently
+      }
+    }
+  }
+
+  protected List<User> filterUsers(List<LdapUserEntity> users, LdapUserQueryImpl query, boolean ignorePagination) {
+    // perform client-side paging
+    int resultCount = 0;
+    List<User> userList = new ArrayList<User>();
+    for (LdapUserEntity user : users) {
+      if(userList.size() >= query.getMaxResults() && !ignorePagination) {
+        break;
+      }
+
+      if(isAuthenticatedUser(user) || isAuthorized(READ, USER, user.getId())) {
+
+        if(resultCount >= query.getFirstResult() || ignorePagination) {
+          userList.add(user);
+        }
+
+        resultCount ++;
+      }
+    }
+
+    return userList;
+  }
+
   public boolean checkPassword(String userId, String password) {
 
     // prevent a null password
@@ -306,7 +401,8 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
 
       try {
         // bind authenticate for user + supplied password
-        openContext(user.getDn(), password);
+        InitialLdapContext userContext = openContext(user.getDn(), password);
+        closeQuietly(userContext);
         return true;
 
       } catch(LdapAuthenticationException e) {
@@ -392,10 +488,22 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
       applyRequestControls(query);
     }
 
+    String filter = getGroupSearchFilter(query);
+
+    // lookups by id and by member are served from the cache if possible
+    if(groupCache != null && (query.getUserId() != null || isIdRestricted(query.getId(), query.getIds()))) {
+      String cacheKey = createCacheKey(groupBaseDn, filter, query);
+      List<GroupEntity> groups = getCached(groupCache, cacheKey);
+      if(groups == null) {
+        groups = searchGroups(groupBaseDn, filter);
+        putCached(groupCache, cacheKey, groups);
+      }
+      return filterGroups(groups, query);
+    }
+
     NamingEnumeration<SearchResult> enumeration = null;
     try {
 
-      String filter = getGroupSearchFilter(query);
       enumeration = initialContext.search(groupBaseDn, filter, ldapConfiguration.getSearchControls());
 
       // perform client-side paging
@@ -433,6 +541,54 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
     }
   }
 
+  protected List<GroupEntity> searchGroups(String groupBaseDn, String filter) {
+    NamingEnumeration<SearchResult> enumeration = null;
+    try {
+      enumeration = initialContext.search(groupBaseDn, filter, ldapConfiguration.getSearchControls());
+
+      List<GroupEntity> groups = new ArrayList<GroupEntity>();
+      while (enumeration.hasMoreElements()) {
+        groups.add(transformGroup(enumeration.nextElement()));
+      }
+
+      return groups;
+
+    } catch (NamingException e) {
+      throw new IdentityProviderException("Could not query for groups", e);
+
+    } finally {
+      try {
+        if (enumeration != null) {
+          enumeration.close();
+        }
+      } catch (Exception e) {
+        // ignore silently
+      }
+    }
+  }
+
+  protected List<Group> filterGroups(List<GroupEntity> groups, LdapGroupQuery query) {
+    // perform client-side paging
+    int resultCount = 0;
+    List<Group> groupList = new ArrayList<Group>();
+    for (GroupEntity group : groups) {
+      if(groupList.size() >= query.getMaxResults()) {
+        break;
+      }
+
+      if(isAuthorized(READ, GROUP, group.getId())) {
+
+        if(resultCount >= query.getFirstResult()) {
+          groupList.add(group);
+        }
+
+        resultCount ++;
+      }
+    }
+
+    return groupList;
+  }
+
   protected String getGroupSearchFilter(LdapGroupQuery query) {
 
     StringWriter search = new StringWriter();
@@ -496,6 +652,41 @@ public class LdapIdentityProviderSession implements ReadOnlyIdentityProvider {
     }
   }
 
+  protected boolean isIdRestricted(String id, String[] ids) {
+    return id != null || (ids != null && ids.length > 0);
+  }
+
+  /**
+   * The key of a cached search result is composed of the search base, the filter and,
+   * if sort controls are used, the requested ordering.
+   */
+  protected String createCacheKey(String baseDn, String filter, AbstractQuery<?, ?> query) {
+    StringBuilder key = new StringBuilder();
+    key.append(baseDn).append('|').append(filter);
+    if(query != null && ldapConfiguration.isSortControlSupported()) {
+      List<QueryOrderingProperty> orderBy = query.getOrderingProperties();
+      if(orderBy != null) {
+        for (QueryOrderingProperty orderingProperty : orderBy) {
+          key.append('|').append(orderingProperty);
+        }
+      }
+    }
+    return key.toString();
+  }
+
+  protected <T> T getCached(LdapCache<T> cache, String key) {
+    if(cache == null) {
+      return null;
+    }
+    return cache.get(key);
+  }
+
+  protected <T> void putCached(LdapCache<T> cache, String key, T value) {
+    if(cache != null) {
+      cache.put(key, value);
+    }
+  }
+
   protected String getStringAttributeValue(String attrName, Attributes attributes) throws NamingException {
     Attribute attribute = attributes.get(attrName);
     if(attribute != null){
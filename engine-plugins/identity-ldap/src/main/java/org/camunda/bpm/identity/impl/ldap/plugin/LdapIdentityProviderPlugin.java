@@ -52,6 +52,7 @@ public class LdapIdentityProviderPlugin extends LdapConfiguration implements Pro
     
     LdapIdentityProviderFactory ldapIdentityProviderFactory = new LdapIdentityProviderFactory();
     ldapIdentityProviderFactory.setLdapConfiguration(this);
+    ldapIdentityProviderFactory.initCaches();
     processEngineConfiguration.setIdentityProviderSessionFactory(ldapIdentityProviderFactory);
     
   }
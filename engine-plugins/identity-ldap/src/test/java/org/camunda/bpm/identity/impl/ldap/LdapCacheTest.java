@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.identity.impl.ldap;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Represents a test case where connection pooling and caching are enabled.
+ */
+public class LdapCacheTest extends ResourceProcessEngineTestCase {
+
+  public LdapCacheTest() {
+    super("camunda.ldap.cache.cfg.xml");
+  }
+
+  protected static LdapTestEnvironment ldapTestEnvironment;
+
+  protected LdapIdentityProviderFactory identityProviderFactory;
+
+  @Override
+  protected void setUp() throws Exception {
+    if(ldapTestEnvironment == null) {
+      ldapTestEnvironment = new LdapTestEnvironment();
+      ldapTestEnvironment.init();
+    }
+    super.setUp();
+
+    identityProviderFactory = (LdapIdentityProviderFactory) processEngineConfiguration.getIdentityProviderSessionFactory();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    ClockUtil.reset();
+    if(ldapTestEnvironment != null) {
+      ldapTestEnvironment.shutdown();
+      ldapTestEnvironment = null;
+    }
+    super.tearDown();
+  }
+
+  public void testUserLookupIsCached() {
+    LdapCache<List<LdapUserEntity>> userCache = identityProviderFactory.getUserCache();
+
+    User user = identityService.createUserQuery().userId("roman").singleResult();
+    assertNotNull(user);
+    assertEquals(0, userCache.getHitCount());
+    assertEquals(1, userCache.getMissCount());
+
+    user = identityService.createUserQuery().userId("roman").singleResult();
+    assertNotNull(user);
+    assertEquals("roman", user.getId());
+    assertEquals(1, userCache.getHitCount());
+    assertEquals(1, userCache.getMissCount());
+  }
+
+  public void testNonExistingUserLookupIsCached() {
+    LdapCache<List<LdapUserEntity>> userCache = identityProviderFactory.getUserCache();
+
+    assertNull(identityService.createUserQuery().userId("non-existing").singleResult());
+    assertNull(identityService.createUserQuery().userId("non-existing").singleResult());
+
+    assertEquals(1, userCache.getHitCount());
+  }
+
+  public void testGroupMembershipLookupIsCached() {
+    LdapCache<?> groupCache = identityProviderFactory.getGroupCache();
+
+    List<Group> groups = identityService.createGroupQuery().groupMember("daniel").list();
+    assertEquals(3, groups.size());
+    long misses = groupCache.getMissCount();
+
+    groups = identityService.createGroupQuery().groupMember("daniel").list();
+    assertEquals(3, groups.size());
+    assertEquals(misses, groupCache.getMissCount());
+    assertEquals(1, groupCache.getHitCount());
+  }
+
+  public void testGroupMembersLookupIsCached() {
+    LdapCache<List<String>> membershipCache = identityProviderFactory.getMembershipCache();
+
+    List<User> users = identityService.createUserQuery().memberOfGroup("development").list();
+    assertEquals(3, users.size());
+    assertEquals(1, membershipCache.getMissCount());
+
+    users = identityService.createUserQuery().memberOfGroup("development").list();
+    assertEquals(3, users.size());
+    assertEquals(1, membershipCache.getMissCount());
+    assertEquals(1, membershipCache.getHitCount());
+  }
+
+  public void testUnrestrictedQueryIsNotCached() {
+    LdapCache<List<LdapUserEntity>> userCache = identityProviderFactory.getUserCache();
+
+    identityService.createUserQuery().list();
+    identityService.createUserQuery().list();
+
+    assertEquals(0, userCache.getHitCount());
+    assertEquals(0, userCache.getMissCount());
+  }
+
+  public void testCachedEntryExpires() {
+    LdapCache<List<LdapUserEntity>> userCache = identityProviderFactory.getUserCache();
+
+    identityService.createUserQuery().userId("roman").singleResult();
+
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 60001));
+
+    User user = identityService.createUserQuery().userId("roman").singleResult();
+    assertNotNull(user);
+    assertEquals(0, userCache.getHitCount());
+    assertEquals(2, userCache.getMissCount());
+    assertEquals(1, userCache.getEvictionCount());
+  }
+
+  public void testLoginWithCacheEnabled() {
+    assertTrue(identityService.checkPassword("roman", "roman"));
+    assertFalse(identityService.checkPassword("roman", "ro"));
+    assertTrue(identityService.checkPassword("roman", "roman"));
+  }
+
+}
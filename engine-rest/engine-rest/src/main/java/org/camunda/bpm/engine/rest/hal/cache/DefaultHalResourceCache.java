@@ -15,24 +15,43 @@
  */
 package org.camunda.bpm.engine.rest.hal.cache;
 
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.NavigableSet;
-import java.util.TreeSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.rest.cache.Cache;
 
+/**
+ * <p>Thread-safe cache with a maximum capacity and a time to live for its entries.</p>
+ *
+ * <p>All entries live equally long, so the order of insertion is also the order of
+ * expiration. The entries are kept in an insertion ordered queue next to the map, and
+ * both expired entries and the entries above the capacity are removed from the head
+ * of the queue. Each entry is enqueued and dequeued once, so eviction takes amortized
+ * constant time.</p>
+ */
 public class DefaultHalResourceCache implements Cache {
 
   public final static Comparator<HalResourceCacheEntry> COMPARATOR = HalResourceCacheEntryComparator.getInstance();
 
   protected int capacity;
   protected long secondsToLive;
-  protected Map<String, HalResourceCacheEntry> cache;
+  protected ConcurrentMap<String, HalResourceCacheEntry> cache;
+
+  /*
+   * entries in order of insertion; replaced and removed entries
+   * stay in the queue until they reach its head
+   */
+  protected Queue<HalResourceCacheEntry> insertionOrder;
+  protected AtomicInteger insertionOrderSize;
+
+  protected AtomicLong hitCount;
+  protected AtomicLong missCount;
 
   public DefaultHalResourceCache() {
     this(100, 100);
@@ -41,7 +60,11 @@ public class DefaultHalResourceCache implements Cache {
   public DefaultHalResourceCache(int capacity, long secondsToLive) {
     this.capacity = capacity;
     this.secondsToLive = secondsToLive;
-    cache = new HashMap<String, HalResourceCacheEntry>();
+    cache = new ConcurrentHashMap<String, HalResourceCacheEntry>();
+    insertionOrder = new ConcurrentLinkedQueue<HalResourceCacheEntry>();
+    insertionOrderSize = new AtomicInteger();
+    hitCount = new AtomicLong();
+    missCount = new AtomicLong();
   }
 
   public int getCapacity() {
@@ -64,8 +87,27 @@ public class DefaultHalResourceCache implements Cache {
     return cache.size();
   }
 
+  /**
+   * @return the number of requested resources which were found in the cache
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return the number of requested resources which were not found in the cache or expired
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
   public void put(String id, Object resource) {
-    cache.put(id, new HalResourceCacheEntry(id, resource));
+    HalResourceCacheEntry cacheEntry = new HalResourceCacheEntry(id, resource);
+    cache.put(id, cacheEntry);
+
+    insertionOrder.add(cacheEntry);
+    insertionOrderSize.incrementAndGet();
+
     ensureCapacityLimit();
   }
 
@@ -74,58 +116,51 @@ public class DefaultHalResourceCache implements Cache {
   }
 
   public Object get(String id) {
-    HalResourceCacheEntry cacheEntry = cache.get(id);
+    HalResourceCacheEntry cacheEntry = id != null ? cache.get(id) : null;
     if (cacheEntry != null) {
       if (expired(cacheEntry)) {
-        remove(cacheEntry.getId());
+        cache.remove(id, cacheEntry);
+        missCount.incrementAndGet();
         return null;
       }
       else {
+        hitCount.incrementAndGet();
         return cacheEntry.getResource();
       }
     }
     else {
+      missCount.incrementAndGet();
       return null;
     }
   }
 
   public void destroy() {
     cache.clear();
+    insertionOrder.clear();
+    insertionOrderSize.set(0);
   }
 
   protected void ensureCapacityLimit() {
-    if (size() > getCapacity()) {
-      List<HalResourceCacheEntry> resources = new ArrayList<HalResourceCacheEntry>(cache.values());
-      NavigableSet<HalResourceCacheEntry> remainingResources = new TreeSet<HalResourceCacheEntry>(COMPARATOR);
-
-      // remove expired resources
-      for (HalResourceCacheEntry resource : resources) {
-        if (expired(resource)) {
-          remove(resource.getId());
-        }
-        else {
-          remainingResources.add(resource);
-        }
-
-        if (size() <= getCapacity()) {
-          // abort if capacity is reached
-          return;
-        }
+    // the queue contains every cached entry, so limiting the
+    // queue to the capacity limits the cache as well
+    while (insertionOrderSize.get() > getCapacity() || isOldestEntryExpired()) {
+      HalResourceCacheEntry oldestEntry = insertionOrder.poll();
+      if (oldestEntry == null) {
+        break;
       }
 
-      // if still exceed capacity remove oldest
-      while (remainingResources.size() > capacity) {
-        HalResourceCacheEntry resourceToRemove = remainingResources.pollFirst();
-        if (resourceToRemove != null) {
-          remove(resourceToRemove.getId());
-        }
-        else {
-          break;
-        }
-      }
+      insertionOrderSize.decrementAndGet();
+
+      // the entry may already have been replaced by a newer one
+      cache.remove(oldestEntry.getId(), oldestEntry);
     }
   }
 
+  protected boolean isOldestEntryExpired() {
+    HalResourceCacheEntry oldestEntry = insertionOrder.peek();
+    return oldestEntry != null && expired(oldestEntry);
+  }
+
   protected boolean expired(HalResourceCacheEntry entry) {
     return entry.getCreateTime() + secondsToLive * 1000 < ClockUtil.getCurrentTime().getTime();
   }
@@ -23,11 +23,11 @@ import org.camunda.bpm.engine.rest.dto.runtime.VariableInstanceDto;
 import org.camunda.bpm.engine.rest.dto.runtime.VariableInstanceQueryDto;
 import org.camunda.bpm.engine.rest.sub.runtime.VariableInstanceResource;
 import org.camunda.bpm.engine.rest.sub.runtime.impl.VariableInstanceResourceImpl;
+import org.camunda.bpm.engine.rest.util.DtoList;
 import org.camunda.bpm.engine.runtime.VariableInstance;
 import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
 
 import javax.ws.rs.core.UriInfo;
-import java.util.ArrayList;
 import java.util.List;
 
 public class VariableInstanceRestServiceImpl extends AbstractRestProcessEngineAware implements VariableInstanceRestService {
@@ -68,12 +68,11 @@ public class VariableInstanceRestServiceImpl extends AbstractRestProcessEngineAw
       matchingInstances = query.list();
     }
 
-    List<VariableInstanceDto> instanceResults = new ArrayList<VariableInstanceDto>();
-    for (VariableInstance instance : matchingInstances) {
-      VariableInstanceDto resultInstance = VariableInstanceDto.fromVariableInstance(instance);
-      instanceResults.add(resultInstance);
-    }
-    return instanceResults;
+    return new DtoList<VariableInstance, VariableInstanceDto>(matchingInstances) {
+      protected VariableInstanceDto toDto(VariableInstance instance) {
+        return VariableInstanceDto.fromVariableInstance(instance);
+      }
+    };
   }
 
   private List<VariableInstance> executePaginatedQuery(VariableInstanceQuery query, Integer firstResult, Integer maxResults) {
@@ -25,9 +25,9 @@ import org.camunda.bpm.engine.rest.dto.history.HistoricActivityInstanceQueryDto;
 import org.camunda.bpm.engine.rest.history.HistoricActivityInstanceRestService;
 import org.camunda.bpm.engine.rest.sub.history.HistoricActivityInstanceResource;
 import org.camunda.bpm.engine.rest.sub.history.impl.HistoricActivityInstanceResourceImpl;
+import org.camunda.bpm.engine.rest.util.DtoList;
 
 import javax.ws.rs.core.UriInfo;
-import java.util.ArrayList;
 import java.util.List;
 
 public class HistoricActivityInstanceRestServiceImpl implements HistoricActivityInstanceRestService {
@@ -62,12 +62,11 @@ public class HistoricActivityInstanceRestServiceImpl implements HistoricActivity
       matchingHistoricActivityInstances = query.list();
     }
 
-    List<HistoricActivityInstanceDto> historicActivityInstanceResults = new ArrayList<HistoricActivityInstanceDto>();
-    for (HistoricActivityInstance historicActivityInstance : matchingHistoricActivityInstances) {
-      HistoricActivityInstanceDto resultHistoricActivityInstance = HistoricActivityInstanceDto.fromHistoricActivityInstance(historicActivityInstance);
-      historicActivityInstanceResults.add(resultHistoricActivityInstance);
-    }
-    return historicActivityInstanceResults;
+    return new DtoList<HistoricActivityInstance, HistoricActivityInstanceDto>(matchingHistoricActivityInstances) {
+      protected HistoricActivityInstanceDto toDto(HistoricActivityInstance historicActivityInstance) {
+        return HistoricActivityInstanceDto.fromHistoricActivityInstance(historicActivityInstance);
+      }
+    };
   }
 
   private List<HistoricActivityInstance> executePaginatedQuery(HistoricActivityInstanceQuery query, Integer firstResult, Integer maxResults) {
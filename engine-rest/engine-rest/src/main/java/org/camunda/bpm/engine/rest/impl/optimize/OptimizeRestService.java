@@ -31,13 +31,13 @@ import org.camunda.bpm.engine.rest.dto.history.HistoricTaskInstanceDto;
 import org.camunda.bpm.engine.rest.dto.history.UserOperationLogEntryDto;
 import org.camunda.bpm.engine.rest.dto.history.optimize.HistoricOptimizeVariableUpdateDto;
 import org.camunda.bpm.engine.rest.impl.AbstractRestProcessEngineAware;
+import org.camunda.bpm.engine.rest.util.DtoList;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -70,12 +70,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricActivityInstance> historicActivityInstances =
       config.getOptimizeService().getCompletedHistoricActivityInstances(finishedAfter, finishedAt, maxResults);
 
-    List<HistoricActivityInstanceDto> result = new ArrayList<>();
-    for (HistoricActivityInstance instance : historicActivityInstances) {
-      HistoricActivityInstanceDto dto = HistoricActivityInstanceDto.fromHistoricActivityInstance(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricActivityInstance, HistoricActivityInstanceDto>(historicActivityInstances) {
+      protected HistoricActivityInstanceDto toDto(HistoricActivityInstance instance) {
+        return HistoricActivityInstanceDto.fromHistoricActivityInstance(instance);
+      }
+    };
   }
 
   @GET
@@ -94,12 +93,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricActivityInstance> historicActivityInstances =
       config.getOptimizeService().getRunningHistoricActivityInstances(startedAfter, startedAt, maxResults);
 
-    List<HistoricActivityInstanceDto> result = new ArrayList<>();
-    for (HistoricActivityInstance instance : historicActivityInstances) {
-      HistoricActivityInstanceDto dto = HistoricActivityInstanceDto.fromHistoricActivityInstance(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricActivityInstance, HistoricActivityInstanceDto>(historicActivityInstances) {
+      protected HistoricActivityInstanceDto toDto(HistoricActivityInstance instance) {
+        return HistoricActivityInstanceDto.fromHistoricActivityInstance(instance);
+      }
+    };
   }
 
   @GET
@@ -118,12 +116,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricTaskInstance> historicTaskInstances =
       config.getOptimizeService().getCompletedHistoricTaskInstances(finishedAfter, finishedAt, maxResults);
 
-    List<HistoricTaskInstanceDto> result = new ArrayList<>();
-    for (HistoricTaskInstance instance : historicTaskInstances) {
-      HistoricTaskInstanceDto dto = HistoricTaskInstanceDto.fromHistoricTaskInstance(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricTaskInstance, HistoricTaskInstanceDto>(historicTaskInstances) {
+      protected HistoricTaskInstanceDto toDto(HistoricTaskInstance instance) {
+        return HistoricTaskInstanceDto.fromHistoricTaskInstance(instance);
+      }
+    };
   }
 
   @GET
@@ -142,12 +139,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricTaskInstance> historicTaskInstances =
       config.getOptimizeService().getRunningHistoricTaskInstances(startedAfter, startedAt, maxResults);
 
-    List<HistoricTaskInstanceDto> result = new ArrayList<>();
-    for (HistoricTaskInstance instance : historicTaskInstances) {
-      HistoricTaskInstanceDto dto = HistoricTaskInstanceDto.fromHistoricTaskInstance(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricTaskInstance, HistoricTaskInstanceDto>(historicTaskInstances) {
+      protected HistoricTaskInstanceDto toDto(HistoricTaskInstance instance) {
+        return HistoricTaskInstanceDto.fromHistoricTaskInstance(instance);
+      }
+    };
   }
 
   @GET
@@ -166,12 +162,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<UserOperationLogEntry> operationLogEntries =
       config.getOptimizeService().getHistoricUserOperationLogs(occurredAfter, occurredAt, maxResults);
 
-    List<UserOperationLogEntryDto> result = new ArrayList<>();
-    for (UserOperationLogEntry logEntry : operationLogEntries) {
-      UserOperationLogEntryDto dto = UserOperationLogEntryDto.map(logEntry);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<UserOperationLogEntry, UserOperationLogEntryDto>(operationLogEntries) {
+      protected UserOperationLogEntryDto toDto(UserOperationLogEntry logEntry) {
+        return UserOperationLogEntryDto.map(logEntry);
+      }
+    };
   }
 
   @GET
@@ -188,12 +183,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricProcessInstance> historicProcessInstances =
       config.getOptimizeService().getCompletedHistoricProcessInstances(finishedAfter, finishedAt, maxResults);
 
-    List<HistoricProcessInstanceDto> result = new ArrayList<>();
-    for (HistoricProcessInstance instance : historicProcessInstances) {
-      HistoricProcessInstanceDto dto = HistoricProcessInstanceDto.fromHistoricProcessInstance(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricProcessInstance, HistoricProcessInstanceDto>(historicProcessInstances) {
+      protected HistoricProcessInstanceDto toDto(HistoricProcessInstance instance) {
+        return HistoricProcessInstanceDto.fromHistoricProcessInstance(instance);
+      }
+    };
   }
 
   @GET
@@ -210,12 +204,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricProcessInstance> historicProcessInstances =
       config.getOptimizeService().getRunningHistoricProcessInstances(startedAfter, startedAt, maxResults);
 
-    List<HistoricProcessInstanceDto> result = new ArrayList<>();
-    for (HistoricProcessInstance instance : historicProcessInstances) {
-      HistoricProcessInstanceDto dto = HistoricProcessInstanceDto.fromHistoricProcessInstance(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricProcessInstance, HistoricProcessInstanceDto>(historicProcessInstances) {
+      protected HistoricProcessInstanceDto toDto(HistoricProcessInstance instance) {
+        return HistoricProcessInstanceDto.fromHistoricProcessInstance(instance);
+      }
+    };
   }
 
   @GET
@@ -232,13 +225,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricVariableUpdate> historicVariableUpdates =
       config.getOptimizeService().getHistoricVariableUpdates(occurredAfter, occurredAt, maxResults);
 
-    List<HistoricOptimizeVariableUpdateDto> result = new ArrayList<>();
-    for (HistoricVariableUpdate instance : historicVariableUpdates) {
-      HistoricOptimizeVariableUpdateDto dto =
-        HistoricOptimizeVariableUpdateDto.fromHistoricVariableUpdate(instance);
-      result.add(dto);
-    }
-    return result;
+    return new DtoList<HistoricVariableUpdate, HistoricOptimizeVariableUpdateDto>(historicVariableUpdates) {
+      protected HistoricOptimizeVariableUpdateDto toDto(HistoricVariableUpdate instance) {
+        return HistoricOptimizeVariableUpdateDto.fromHistoricVariableUpdate(instance);
+      }
+    };
   }
 
   @GET
@@ -255,14 +246,11 @@ public class OptimizeRestService extends AbstractRestProcessEngineAware {
     List<HistoricDecisionInstance> historicDecisionInstances =
       config.getOptimizeService().getHistoricDecisionInstances(evaluatedAfter, evaluatedAt, maxResults);
 
-    List<HistoricDecisionInstanceDto> resultList = new ArrayList<>();
-    for (HistoricDecisionInstance historicDecisionInstance : historicDecisionInstances) {
-      HistoricDecisionInstanceDto dto =
-        HistoricDecisionInstanceDto.fromHistoricDecisionInstance(historicDecisionInstance);
-      resultList.add(dto);
-    }
-
-    return resultList;
+    return new DtoList<HistoricDecisionInstance, HistoricDecisionInstanceDto>(historicDecisionInstances) {
+      protected HistoricDecisionInstanceDto toDto(HistoricDecisionInstance historicDecisionInstance) {
+        return HistoricDecisionInstanceDto.fromHistoricDecisionInstance(historicDecisionInstance);
+      }
+    };
   }
 
   protected int ensureValidMaxResults(int givenMaxResults) {
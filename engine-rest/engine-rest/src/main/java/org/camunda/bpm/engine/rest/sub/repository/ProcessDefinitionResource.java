@@ -31,6 +31,7 @@ import org.camunda.bpm.engine.rest.sub.VariableResource;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
@@ -40,7 +41,7 @@ public interface ProcessDefinitionResource {
 
   @GET
   @Produces(MediaType.APPLICATION_JSON)
-  ProcessDefinitionDto getProcessDefinition();
+  Response getProcessDefinition(@Context Request request);
 
   @GET
   @Path("/xml")
@@ -49,7 +50,7 @@ public interface ProcessDefinitionResource {
 
   @GET
   @Path("/diagram")
-  Response getProcessDefinitionDiagram();
+  Response getProcessDefinitionDiagram(@Context Request request);
 
   @DELETE
   Response deleteProcessDefinition(@QueryParam("cascade") boolean cascade,
@@ -55,6 +55,7 @@ import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.sub.repository.ProcessDefinitionResource;
 import org.camunda.bpm.engine.rest.util.ApplicationContextPathUtil;
 import org.camunda.bpm.engine.rest.util.EncodingUtil;
+import org.camunda.bpm.engine.rest.util.EntityTagUtil;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstanceWithVariables;
 import org.camunda.bpm.engine.runtime.ProcessInstantiationBuilder;
@@ -62,8 +63,11 @@ import org.camunda.bpm.engine.runtime.RestartProcessInstanceBuilder;
 import org.camunda.bpm.engine.variable.VariableMap;
 
 import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 import java.io.ByteArrayInputStream;
@@ -89,7 +93,7 @@ public class ProcessDefinitionResourceImpl implements ProcessDefinitionResource
   }
 
   @Override
-  public ProcessDefinitionDto getProcessDefinition() {
+  public Response getProcessDefinition(Request request) {
     RepositoryService repoService = engine.getRepositoryService();
 
     ProcessDefinition definition;
@@ -99,9 +103,18 @@ public class ProcessDefinitionResourceImpl implements ProcessDefinitionResource
       throw new InvalidRequestException(Status.NOT_FOUND, e, "No matching definition with id " + processDefinitionId);
     }
 
+    // the definition itself is immutable except for the suspension state and the history time to live;
+    // the revision of the cached definition is not used since it may be outdated
+    EntityTag tag = EntityTagUtil.forValues(definition.getId(), definition.getDeploymentId(),
+        definition.isSuspended(), definition.getHistoryTimeToLive());
+    ResponseBuilder notModified = EntityTagUtil.evaluatePreconditions(request, tag);
+    if (notModified != null) {
+      return notModified.build();
+    }
+
     ProcessDefinitionDto result = ProcessDefinitionDto.fromProcessDefinition(definition);
 
-    return result;
+    return Response.ok(result, MediaType.APPLICATION_JSON_TYPE).tag(tag).build();
   }
 
   @Override
@@ -267,8 +280,19 @@ public class ProcessDefinitionResourceImpl implements ProcessDefinitionResource
   }
 
   @Override
-  public Response getProcessDefinitionDiagram() {
+  public Response getProcessDefinitionDiagram(Request request) {
     ProcessDefinition definition = engine.getRepositoryService().getProcessDefinition(processDefinitionId);
+
+    // a deployed diagram never changes, so the resource is not loaded again if the client has it already
+    EntityTag tag = null;
+    if (definition.getDiagramResourceName() != null) {
+      tag = EntityTagUtil.forValues(definition.getDeploymentId(), definition.getDiagramResourceName());
+      ResponseBuilder notModified = EntityTagUtil.evaluatePreconditions(request, tag);
+      if (notModified != null) {
+        return notModified.build();
+      }
+    }
+
     InputStream processDiagram = engine.getRepositoryService().getProcessDiagram(processDefinitionId);
     if (processDiagram == null) {
       return Response.noContent().build();
@@ -276,7 +300,8 @@ public class ProcessDefinitionResourceImpl implements ProcessDefinitionResource
       String fileName = definition.getDiagramResourceName();
       return Response.ok(processDiagram)
           .header("Content-Disposition", "attachment; filename=" + fileName)
-          .type(getMediaTypeForFileSuffix(fileName)).build();
+          .type(getMediaTypeForFileSuffix(fileName))
+          .tag(tag).build();
     }
   }
 
@@ -24,7 +24,10 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
 import org.camunda.bpm.engine.rest.dto.runtime.ActivityInstanceDto;
@@ -37,7 +40,7 @@ public interface ProcessInstanceResource {
 
   @GET
   @Produces(MediaType.APPLICATION_JSON)
-  ProcessInstanceDto getProcessInstance();
+  Response getProcessInstance(@Context Request request);
 
   @DELETE
   void deleteProcessInstance(@QueryParam("skipCustomListeners") @DefaultValue("false") boolean skipCustomListeners,
@@ -15,6 +15,11 @@
  */
 package org.camunda.bpm.engine.rest.sub.runtime.impl;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 
 import org.camunda.bpm.engine.AuthorizationException;
@@ -31,6 +36,7 @@ import org.camunda.bpm.engine.rest.dto.runtime.modification.ProcessInstanceModif
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.sub.VariableResource;
 import org.camunda.bpm.engine.rest.sub.runtime.ProcessInstanceResource;
+import org.camunda.bpm.engine.rest.util.EntityTagUtil;
 import org.camunda.bpm.engine.runtime.ActivityInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstanceModificationBuilder;
@@ -50,7 +56,7 @@ public class ProcessInstanceResourceImpl implements ProcessInstanceResource {
   }
 
   @Override
-  public ProcessInstanceDto getProcessInstance() {
+  public Response getProcessInstance(Request request) {
     RuntimeService runtimeService = engine.getRuntimeService();
     ProcessInstance instance = runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult();
 
@@ -58,8 +64,14 @@ public class ProcessInstanceResourceImpl implements ProcessInstanceResource {
       throw new InvalidRequestException(Status.NOT_FOUND, "Process instance with id " + processInstanceId + " does not exist");
     }
 
+    EntityTag tag = EntityTagUtil.forRevision(instance, processInstanceId, null);
+    ResponseBuilder notModified = EntityTagUtil.evaluatePreconditions(request, tag);
+    if (notModified != null) {
+      return notModified.build();
+    }
+
     ProcessInstanceDto result = ProcessInstanceDto.fromProcessInstance(instance);
-    return result;
+    return Response.ok(result, MediaType.APPLICATION_JSON_TYPE).tag(tag).build();
   }
 
   @Override
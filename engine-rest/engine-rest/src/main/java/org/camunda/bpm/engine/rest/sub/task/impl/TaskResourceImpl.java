@@ -21,9 +21,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Variant;
 
@@ -56,6 +58,7 @@ import org.camunda.bpm.engine.rest.sub.task.TaskCommentResource;
 import org.camunda.bpm.engine.rest.sub.task.TaskResource;
 import org.camunda.bpm.engine.rest.util.ApplicationContextPathUtil;
 import org.camunda.bpm.engine.rest.util.EncodingUtil;
+import org.camunda.bpm.engine.rest.util.EntityTagUtil;
 import org.camunda.bpm.engine.task.IdentityLink;
 import org.camunda.bpm.engine.task.Task;
 import org.camunda.bpm.engine.variable.VariableMap;
@@ -149,34 +152,33 @@ public class TaskResourceImpl implements TaskResource {
   public Object getTask(Request request) {
     Variant variant = request.selectVariant(VARIANTS);
     if (variant != null) {
-      if (MediaType.APPLICATION_JSON_TYPE.equals(variant.getMediaType())) {
-        return getJsonTask();
-      }
-      else if (Hal.APPLICATION_HAL_JSON_TYPE.equals(variant.getMediaType())) {
-        return getHalTask();
+      MediaType mediaType = variant.getMediaType();
+      if (MediaType.APPLICATION_JSON_TYPE.equals(mediaType) || Hal.APPLICATION_HAL_JSON_TYPE.equals(mediaType)) {
+        Task task = getTaskById(taskId);
+        if (task == null) {
+          throw new InvalidRequestException(Status.NOT_FOUND, "No matching task with id " + taskId);
+        }
+
+        // the representations differ, so each of them gets its own tag
+        EntityTag tag = EntityTagUtil.forRevision(task, taskId, mediaType.getSubtype());
+        ResponseBuilder notModified = EntityTagUtil.evaluatePreconditions(request, tag);
+        if (notModified != null) {
+          return notModified.build();
+        }
+
+        Object entity;
+        if (MediaType.APPLICATION_JSON_TYPE.equals(mediaType)) {
+          entity = TaskDto.fromEntity(task);
+        }
+        else {
+          entity = HalTask.generate(task, engine);
+        }
+        return Response.ok(entity, mediaType).tag(tag).build();
       }
     }
     throw new InvalidRequestException(Status.NOT_ACCEPTABLE, "No acceptable content-type found");
   }
 
-  public TaskDto getJsonTask() {
-    Task task = getTaskById(taskId);
-    if (task == null) {
-      throw new InvalidRequestException(Status.NOT_FOUND, "No matching task with id " + taskId);
-    }
-
-    return TaskDto.fromEntity(task);
-  }
-
-  public HalTask getHalTask() {
-    Task task = getTaskById(taskId);
-    if (task == null) {
-      throw new InvalidRequestException(Status.NOT_FOUND, "No matching task with id " + taskId);
-    }
-
-    return HalTask.generate(task, engine);
-  }
-
   @Override
   public FormDto getForm() {
     FormService formService = engine.getFormService();
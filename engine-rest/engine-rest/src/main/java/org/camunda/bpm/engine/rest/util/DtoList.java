@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.util;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>Read-only list of DTOs which converts the underlying query results only when
+ * an element is accessed.</p>
+ *
+ * <p>When a resource method returns such a list, the JSON provider converts and
+ * writes one DTO after the other to the response. This avoids holding a second list
+ * with a DTO for every query result in memory while large result pages are written.</p>
+ *
+ * @param <E> the type of the query results
+ * @param <D> the type of the DTOs
+ */
+public abstract class DtoList<E, D> extends AbstractList<D> {
+
+  protected List<E> results;
+
+  public DtoList(List<E> results) {
+    this.results = results;
+  }
+
+  protected abstract D toDto(E result);
+
+  public D get(int index) {
+    return toDto(results.get(index));
+  }
+
+  public int size() {
+    return results.size();
+  }
+
+  public Iterator<D> iterator() {
+    final Iterator<E> resultIterator = results.iterator();
+
+    return new Iterator<D>() {
+
+      public boolean hasNext() {
+        return resultIterator.hasNext();
+      }
+
+      public D next() {
+        return toDto(resultIterator.next());
+      }
+
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.util;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
+
+/**
+ * Builds entity tags for conditional requests. A tag identifies the state of a
+ * resource, e.g. by the id and revision of the entity it is backed by, so that
+ * a client which already has this state receives <code>304 Not Modified</code>
+ * instead of the full representation.
+ */
+public class EntityTagUtil {
+
+  protected static final String SEPARATOR = "-";
+
+  /**
+   * @param representation distinguishes the tags of different representations of
+   *   the same entity, may be <code>null</code>
+   *
+   * @return a tag built from the id and revision of the entity or <code>null</code>
+   *   if the entity does not carry a revision
+   */
+  public static EntityTag forRevision(Object entity, String id, String representation) {
+    if (entity instanceof HasDbRevision) {
+      int revision = ((HasDbRevision) entity).getRevision();
+      if (representation != null) {
+        return forValues(representation, id, revision);
+      }
+      else {
+        return forValues(id, revision);
+      }
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * @return a tag built from the given values which must together identify the
+   *   state of the resource
+   */
+  public static EntityTag forValues(Object... values) {
+    StringBuilder builder = new StringBuilder();
+    for (Object value : values) {
+      if (builder.length() > 0) {
+        builder.append(SEPARATOR);
+      }
+      builder.append(value);
+    }
+    return new EntityTag(builder.toString());
+  }
+
+  /**
+   * @return a response builder for <code>304 Not Modified</code> if the request
+   *   matches the tag or <code>null</code> if the resource must be sent
+   */
+  public static ResponseBuilder evaluatePreconditions(Request request, EntityTag tag) {
+    if (request == null || tag == null) {
+      return null;
+    }
+    return request.evaluatePreconditions(tag);
+  }
+
+}
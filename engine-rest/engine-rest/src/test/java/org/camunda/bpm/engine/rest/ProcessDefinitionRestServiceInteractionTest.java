@@ -41,6 +41,7 @@ import org.camunda.bpm.engine.rest.helper.variable.EqualsPrimitiveValue;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsUntypedValue;
 import org.camunda.bpm.engine.rest.sub.repository.impl.ProcessDefinitionResourceImpl;
 import org.camunda.bpm.engine.rest.util.EncodingUtil;
+import org.camunda.bpm.engine.rest.util.EntityTagUtil;
 import org.camunda.bpm.engine.rest.util.ModificationInstructionBuilder;
 import org.camunda.bpm.engine.rest.util.VariablesBuilder;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
@@ -60,6 +61,7 @@ import org.mockito.Matchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Response.Status;
 import java.io.*;
 import java.net.URISyntaxException;
@@ -267,6 +269,21 @@ public class ProcessDefinitionRestServiceInteractionTest extends AbstractRestSer
     Assert.assertArrayEquals(expected, actual);
   }
 
+  @Test
+  public void testProcessDiagramNotModified() {
+    EntityTag tag = EntityTagUtil.forValues(MockProvider.EXAMPLE_DEPLOYMENT_ID,
+        MockProvider.EXAMPLE_PROCESS_DEFINITION_DIAGRAM_RESOURCE_NAME);
+
+    given().pathParam("id", MockProvider.EXAMPLE_PROCESS_DEFINITION_ID)
+      .header("If-None-Match", "\"" + tag.getValue() + "\"")
+    .then().expect()
+      .statusCode(Status.NOT_MODIFIED.getStatusCode())
+    .when().get(DIAGRAM_DEFINITION_URL);
+
+    verify(repositoryServiceMock).getProcessDefinition(MockProvider.EXAMPLE_PROCESS_DEFINITION_ID);
+    verify(repositoryServiceMock, never()).getProcessDiagram(MockProvider.EXAMPLE_PROCESS_DEFINITION_ID);
+  }
+
   @Test
   public void testProcessDiagramNullFilename() throws FileNotFoundException, URISyntaxException {
     // setup additional mock behavior
@@ -1445,6 +1462,34 @@ public class ProcessDefinitionRestServiceInteractionTest extends AbstractRestSer
     verify(repositoryServiceMock).getProcessDefinition(MockProvider.EXAMPLE_PROCESS_DEFINITION_ID);
   }
 
+  @Test
+  public void testDefinitionRetrievalNotModified() {
+    String etag = given().pathParam("id", MockProvider.EXAMPLE_PROCESS_DEFINITION_ID)
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .header("ETag", notNullValue())
+      .body("id", equalTo(MockProvider.EXAMPLE_PROCESS_DEFINITION_ID))
+    .when().get(SINGLE_PROCESS_DEFINITION_URL)
+      .header("ETag");
+
+    given().pathParam("id", MockProvider.EXAMPLE_PROCESS_DEFINITION_ID)
+      .header("If-None-Match", etag)
+    .then().expect()
+      .statusCode(Status.NOT_MODIFIED.getStatusCode())
+    .when().get(SINGLE_PROCESS_DEFINITION_URL);
+
+    // a suspension changes the tag
+    ProcessDefinition mockDefinition = repositoryServiceMock.getProcessDefinition(MockProvider.EXAMPLE_PROCESS_DEFINITION_ID);
+    when(mockDefinition.isSuspended()).thenReturn(!MockProvider.EXAMPLE_PROCESS_DEFINITION_IS_SUSPENDED);
+
+    given().pathParam("id", MockProvider.EXAMPLE_PROCESS_DEFINITION_ID)
+      .header("If-None-Match", etag)
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("suspended", equalTo(!MockProvider.EXAMPLE_PROCESS_DEFINITION_IS_SUSPENDED))
+    .when().get(SINGLE_PROCESS_DEFINITION_URL);
+  }
+
   @Test
   public void testNonExistingProcessDefinitionRetrieval() {
     String nonExistingId = "aNonExistingDefinitionId";
@@ -48,6 +48,7 @@ import org.camunda.bpm.engine.impl.HistoryServiceImpl;
 import org.camunda.bpm.engine.impl.ManagementServiceImpl;
 import org.camunda.bpm.engine.impl.RuntimeServiceImpl;
 import org.camunda.bpm.engine.impl.batch.BatchEntity;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceDto;
@@ -824,6 +825,38 @@ public class ProcessInstanceRestServiceInteractionTest extends
       .when().get(SINGLE_PROCESS_INSTANCE_URL);
   }
 
+  @Test
+  public void testGetSingleInstanceNotModified() {
+    ProcessInstance mockInstance = mock(ProcessInstance.class, withSettings().extraInterfaces(HasDbRevision.class));
+    when(mockInstance.getId()).thenReturn(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID);
+    when(((HasDbRevision) mockInstance).getRevision()).thenReturn(1);
+    ProcessInstanceQuery sampleInstanceQuery = mock(ProcessInstanceQuery.class);
+    when(runtimeServiceMock.createProcessInstanceQuery()).thenReturn(sampleInstanceQuery);
+    when(sampleInstanceQuery.processInstanceId(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID)).thenReturn(sampleInstanceQuery);
+    when(sampleInstanceQuery.singleResult()).thenReturn(mockInstance);
+
+    String etag = given().pathParam("id", MockProvider.EXAMPLE_PROCESS_INSTANCE_ID)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .header("ETag", notNullValue())
+      .body("id", equalTo(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID))
+      .when().get(SINGLE_PROCESS_INSTANCE_URL)
+      .header("ETag");
+
+    given().pathParam("id", MockProvider.EXAMPLE_PROCESS_INSTANCE_ID)
+      .header("If-None-Match", etag)
+      .then().expect().statusCode(Status.NOT_MODIFIED.getStatusCode())
+      .when().get(SINGLE_PROCESS_INSTANCE_URL);
+
+    // an update of the instance changes the tag
+    when(((HasDbRevision) mockInstance).getRevision()).thenReturn(2);
+
+    given().pathParam("id", MockProvider.EXAMPLE_PROCESS_INSTANCE_ID)
+      .header("If-None-Match", etag)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .body("id", equalTo(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID))
+      .when().get(SINGLE_PROCESS_INSTANCE_URL);
+  }
+
   @Test
   public void testGetNonExistingProcessInstance() {
     ProcessInstanceQuery sampleInstanceQuery = mock(ProcessInstanceQuery.class);
@@ -63,6 +63,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -104,6 +105,7 @@ import org.camunda.bpm.engine.identity.User;
 import org.camunda.bpm.engine.identity.UserQuery;
 import org.camunda.bpm.engine.impl.calendar.DateTimeUtil;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.repository.CaseDefinition;
@@ -280,6 +282,37 @@ public class TaskRestServiceInteractionTest extends
     return "someContent".getBytes();
   }
 
+  @Test
+  public void testGetSingleTaskNotModified() {
+    Task taskWithRevision = mock(Task.class, withSettings().extraInterfaces(HasDbRevision.class));
+    when(taskWithRevision.getId()).thenReturn(EXAMPLE_TASK_ID);
+    when(((HasDbRevision) taskWithRevision).getRevision()).thenReturn(3);
+    when(mockQuery.singleResult()).thenReturn(taskWithRevision);
+
+    String etag = given().pathParam("id", EXAMPLE_TASK_ID)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .header("ETag", notNullValue())
+      .body("id", equalTo(EXAMPLE_TASK_ID))
+      .when().get(SINGLE_TASK_URL)
+      .header("ETag");
+
+    given().pathParam("id", EXAMPLE_TASK_ID)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .header("If-None-Match", etag)
+      .then().expect().statusCode(Status.NOT_MODIFIED.getStatusCode())
+      .when().get(SINGLE_TASK_URL);
+
+    when(((HasDbRevision) taskWithRevision).getRevision()).thenReturn(4);
+
+    given().pathParam("id", EXAMPLE_TASK_ID)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .header("If-None-Match", etag)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .body("id", equalTo(EXAMPLE_TASK_ID))
+      .when().get(SINGLE_TASK_URL);
+  }
+
   @Test
   public void testGetSingleTask() {
     given().pathParam("id", EXAMPLE_TASK_ID)
@@ -32,6 +32,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -341,6 +342,24 @@ public class VariableInstanceRestServiceQueryTest extends AbstractRestServiceTes
   }
 
 
+  @Test
+  public void testVariableInstanceListRetrieval() {
+    VariableInstance anotherMockInstance = MockProvider.mockVariableInstance().id("anotherVariableInstanceId").build();
+    mockedQuery = setUpMockVariableInstanceQuery(Arrays.asList(mockInstance, anotherMockInstance));
+
+    given()
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .and()
+        .body("size()", is(2))
+        .body("[0].id", equalTo(mockInstanceBuilder.getId()))
+        .body("[0].name", equalTo(mockInstanceBuilder.getName()))
+        .body("[0].value", equalTo(mockInstanceBuilder.getValue()))
+        .body("[1].id", equalTo("anotherVariableInstanceId"))
+        .body("[1].name", equalTo(mockInstanceBuilder.getName()))
+        .body("[1].value", equalTo(mockInstanceBuilder.getValue()))
+      .when().get(VARIABLE_INSTANCE_QUERY_URL);
+  }
+
   @Test
   public void testVariableInstanceRetrievalAsPost() {
     String queryVariableName = "aVariableInstanceName";
@@ -433,6 +433,27 @@ public class HistoricActivityInstanceRestServiceQueryTest extends AbstractRestSe
     Assert.assertEquals(MockProvider.EXAMPLE_TENANT_ID, returnedTenantId);
   }
 
+  @Test
+  public void testHistoricActivityInstanceListQuery() {
+    HistoricActivityInstance anotherMockInstance = MockProvider.createMockHistoricActivityInstance();
+    when(anotherMockInstance.getId()).thenReturn("anotherActivityInstanceId");
+    mockedQuery = setUpMockHistoricActivityInstanceQuery(Arrays.asList(MockProvider.createMockHistoricActivityInstance(), anotherMockInstance));
+
+    given()
+      .then()
+        .expect()
+          .statusCode(Status.OK.getStatusCode())
+          .body("size()", equalTo(2))
+          .body("[0].id", equalTo(MockProvider.EXAMPLE_HISTORIC_ACTIVITY_INSTANCE_ID))
+          .body("[0].activityId", equalTo(MockProvider.EXAMPLE_ACTIVITY_ID))
+          .body("[0].activityName", equalTo(MockProvider.EXAMPLE_ACTIVITY_NAME))
+          .body("[1].id", equalTo("anotherActivityInstanceId"))
+          .body("[1].activityId", equalTo(MockProvider.EXAMPLE_ACTIVITY_ID))
+          .body("[1].activityName", equalTo(MockProvider.EXAMPLE_ACTIVITY_NAME))
+        .when()
+          .get(HISTORIC_ACTIVITY_INSTANCE_RESOURCE_URL);
+  }
+
   @Test
   public void testAdditionalParameters() {
     Map<String, String> stringQueryParameters = getCompleteStringQueryParameters();
@@ -31,6 +31,7 @@ import java.util.Date;
 
 import static io.restassured.RestAssured.given;
 import static org.camunda.bpm.engine.rest.util.DateTimeUtils.DATE_FORMAT_WITH_TIMEZONE;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -138,4 +139,24 @@ public class OptimizeCompletedActivityInstanceRestServiceTest extends AbstractRe
     verifyNoMoreInteractions(mockedOptimizeService);
   }
 
+  @Test
+  public void testResponse() {
+    when(mockedOptimizeService.getCompletedHistoricActivityInstances(null, null, Integer.MAX_VALUE))
+      .thenReturn(MockProvider.createMockHistoricActivityInstances());
+
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(MockProvider.EXAMPLE_HISTORIC_ACTIVITY_INSTANCE_ID))
+        .body("[0].activityId", equalTo(MockProvider.EXAMPLE_ACTIVITY_ID))
+    .when()
+      .get(OPTIMIZE_COMPLETED_ACTIVITY_INSTANCE_PATH);
+
+    verify(mockedOptimizeService).getCompletedHistoricActivityInstances(null, null, Integer.MAX_VALUE);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
 }
@@ -31,6 +31,7 @@ import java.util.Date;
 
 import static io.restassured.RestAssured.given;
 import static org.camunda.bpm.engine.rest.util.DateTimeUtils.DATE_FORMAT_WITH_TIMEZONE;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -138,4 +139,24 @@ public class OptimizeCompletedProcessInstanceRestServiceTest extends AbstractRes
     verifyNoMoreInteractions(mockedOptimizeService);
   }
 
+  @Test
+  public void testResponse() {
+    when(mockedOptimizeService.getCompletedHistoricProcessInstances(null, null, Integer.MAX_VALUE))
+      .thenReturn(MockProvider.createMockHistoricProcessInstances());
+
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID))
+        .body("[0].processDefinitionKey", equalTo(MockProvider.EXAMPLE_PROCESS_DEFINITION_KEY))
+    .when()
+      .get(OPTIMIZE_COMPLETED_PROCESS_INSTANCE_PATH);
+
+    verify(mockedOptimizeService).getCompletedHistoricProcessInstances(null, null, Integer.MAX_VALUE);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
 }
@@ -31,6 +31,7 @@ import java.util.Date;
 
 import static io.restassured.RestAssured.given;
 import static org.camunda.bpm.engine.rest.util.DateTimeUtils.DATE_FORMAT_WITH_TIMEZONE;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -138,4 +139,24 @@ public class OptimizeRunningTaskInstanceRestServiceTest extends AbstractRestServ
     verifyNoMoreInteractions(mockedOptimizeService);
   }
 
+  @Test
+  public void testResponse() {
+    when(mockedOptimizeService.getRunningHistoricTaskInstances(null, null, Integer.MAX_VALUE))
+      .thenReturn(MockProvider.createMockHistoricTaskInstances());
+
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(MockProvider.EXAMPLE_HISTORIC_TASK_INST_ID))
+        .body("[0].name", equalTo(MockProvider.EXAMPLE_HISTORIC_TASK_INST_NAME))
+    .when()
+      .get(OPTIMIZE_RUNNING_TASK_INSTANCE_PATH);
+
+    verify(mockedOptimizeService).getRunningHistoricTaskInstances(null, null, Integer.MAX_VALUE);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
 }
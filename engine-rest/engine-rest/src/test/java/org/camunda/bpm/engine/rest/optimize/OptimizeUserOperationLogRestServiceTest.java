@@ -31,6 +31,7 @@ import java.util.Date;
 
 import static io.restassured.RestAssured.given;
 import static org.camunda.bpm.engine.rest.util.DateTimeUtils.DATE_FORMAT_WITH_TIMEZONE;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -137,4 +138,24 @@ public class OptimizeUserOperationLogRestServiceTest extends AbstractRestService
     verifyNoMoreInteractions(mockedOptimizeService);
   }
 
+  @Test
+  public void testResponse() {
+    when(mockedOptimizeService.getHistoricUserOperationLogs(null, null, Integer.MAX_VALUE))
+      .thenReturn(MockProvider.createUserOperationLogEntries());
+
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(MockProvider.EXAMPLE_USER_OPERATION_LOG_ID))
+        .body("[0].operationType", equalTo(MockProvider.EXAMPLE_USER_OPERATION_TYPE))
+    .when()
+      .get(OPTIMIZE_USER_OPERATION_LOG_PATH);
+
+    verify(mockedOptimizeService).getHistoricUserOperationLogs(null, null, Integer.MAX_VALUE);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
 }
@@ -35,6 +35,7 @@ import java.util.Date;
 
 import static io.restassured.RestAssured.given;
 import static org.camunda.bpm.engine.rest.util.DateTimeUtils.DATE_FORMAT_WITH_TIMEZONE;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doThrow;
@@ -166,4 +167,22 @@ public class OptimizeVariableUpdateRestServiceTest extends AbstractRestServiceTe
     verify(mockedOptimizeService).getHistoricVariableUpdates(null, null, Integer.MAX_VALUE);
     verifyNoMoreInteractions(mockedOptimizeService);
   }
+
+  @Test
+  public void testResponse() {
+    given()
+    .then()
+      .expect()
+        .statusCode(Status.OK.getStatusCode())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body("size()", equalTo(1))
+        .body("[0].id", equalTo(historicUpdateBuilder.getId()))
+        .body("[0].variableName", equalTo(historicUpdateBuilder.getName()))
+    .when()
+      .get(OPTIMIZE_VARIABLE_UPDATE_PATH);
+
+    verify(mockedOptimizeService).getHistoricVariableUpdates(null, null, Integer.MAX_VALUE);
+    verifyNoMoreInteractions(mockedOptimizeService);
+  }
+
 }
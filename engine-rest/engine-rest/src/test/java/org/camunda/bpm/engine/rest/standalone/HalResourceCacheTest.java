@@ -117,6 +117,54 @@ public class HalResourceCacheTest extends AbstractRestServiceTest {
     assertEquals(0, cache.size());
   }
 
+  @Test
+  public void testExpiredEntriesRemovedOnPut() {
+    cache.put("a", "a");
+    cache.put("b", "b");
+
+    forwardTime(cache.getSecondsToLive() + 1);
+
+    cache.put("c", "c");
+
+    // expired entries are removed without being requested
+    assertEquals(1, cache.size());
+    assertEquals("c", cache.get("c"));
+  }
+
+  @Test
+  public void testReplacedEntry() {
+    cache.put("a", "a");
+    cache.put("b", "b");
+
+    forwardTime(cache.getSecondsToLive() / 2);
+    cache.put("a", "newer a");
+
+    forwardTime(cache.getSecondsToLive() / 2 + 1);
+
+    // the replaced entry lives as long as its new value
+    assertNull(cache.get("b"));
+    assertEquals("newer a", cache.get("a"));
+
+    // and is not evicted by the queued old value
+    for (int i = 0; i < cache.getCapacity() - 1; i++) {
+      cache.put("id" + i, i);
+    }
+    assertEquals("newer a", cache.get("a"));
+    assertTrue(cache.size() <= cache.getCapacity());
+  }
+
+  @Test
+  public void testCacheStatistics() {
+    cache.put("hello", "world");
+
+    cache.get("hello");
+    cache.get("hello");
+    cache.get("unknown");
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
   @Test
   public void testInvalidConfigurationFormat() {
     try {
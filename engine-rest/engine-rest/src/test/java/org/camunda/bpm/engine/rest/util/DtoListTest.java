@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DtoListTest {
+
+  protected List<Integer> results;
+  protected List<String> dtos;
+  protected int conversions;
+
+  @Before
+  public void setUp() {
+    results = Arrays.asList(1, 2, 3);
+    conversions = 0;
+
+    dtos = new DtoList<Integer, String>(results) {
+      protected String toDto(Integer result) {
+        conversions++;
+        return "dto" + result;
+      }
+    };
+  }
+
+  @Test
+  public void shouldConvertResultsOnIteration() {
+    // given
+    List<String> iteratedDtos = new ArrayList<String>();
+    Iterator<String> iterator = dtos.iterator();
+
+    // when
+    while (iterator.hasNext()) {
+      iteratedDtos.add(iterator.next());
+    }
+
+    // then
+    assertEquals(Arrays.asList("dto1", "dto2", "dto3"), iteratedDtos);
+    assertEquals(3, conversions);
+  }
+
+  @Test
+  public void shouldConvertResultsOnlyWhenAccessed() {
+    // when
+    Iterator<String> iterator = dtos.iterator();
+
+    // then
+    assertEquals(0, conversions);
+    assertTrue(iterator.hasNext());
+    assertEquals(0, conversions);
+
+    iterator.next();
+    assertEquals(1, conversions);
+  }
+
+  @Test
+  public void shouldGetConvertedResult() {
+    assertEquals("dto2", dtos.get(1));
+    assertEquals(1, conversions);
+  }
+
+  @Test
+  public void shouldReturnSizeOfResults() {
+    assertEquals(3, dtos.size());
+    assertFalse(dtos.isEmpty());
+    assertEquals(0, conversions);
+  }
+
+  @Test
+  public void shouldNotRemoveOnIteration() {
+    // given
+    Iterator<String> iterator = dtos.iterator();
+    iterator.next();
+
+    // when
+    try {
+      iterator.remove();
+      fail("exception expected");
+    }
+    catch (UnsupportedOperationException e) {
+      // then
+      assertEquals(3, results.size());
+    }
+  }
+
+  @Test
+  public void shouldNotRemove() {
+    try {
+      dtos.remove(0);
+      fail("exception expected");
+    }
+    catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+}
@@ -64,6 +64,20 @@ public class SpringJobExecutor extends JobExecutor {
     }
 	}
 
+	public boolean supportsHandOff() {
+	  return true;
+	}
+
+	public boolean handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+	  try {
+	    taskExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
+	    return true;
+
+	  } catch (RejectedExecutionException e) {
+	    return false;
+	  }
+	}
+
 	@Override
 	protected void startExecutingJobs() {
 		startJobAcquisitionThread();
@@ -15,6 +15,9 @@
  */
 package org.camunda.bpm.container.impl.jmx.services;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.camunda.bpm.container.impl.jmx.MBeanServiceContainer;
@@ -22,6 +25,11 @@ import org.camunda.bpm.container.impl.spi.PlatformService;
 import org.camunda.bpm.container.impl.spi.PlatformServiceContainer;
 import org.camunda.bpm.engine.ManagementService;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.metrics.CommandProfiler;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.management.CommandStatistics;
 
 /**
  * <p>Represents a process engine managed by the {@link MBeanServiceContainer}</p>
@@ -81,4 +89,111 @@ public class JmxManagedProcessEngine implements PlatformService<ProcessEngine>,
     managementService.reportDbMetricsNow();
   }
 
+  public long getTimerPercentile(String metricName, double percentile) {
+    Histogram histogram = getHistogram(metricName);
+    if (histogram != null) {
+      return histogram.getSnapshot().getValueAtPercentile(percentile);
+    }
+    else {
+      return -1;
+    }
+  }
+
+  public long getTimerCount(String metricName) {
+    Histogram histogram = getHistogram(metricName);
+    if (histogram != null) {
+      return histogram.getSnapshot().getCount();
+    }
+    else {
+      return -1;
+    }
+  }
+
+  public Map<String, Long> getMeterTagValues(String metricName) {
+    MetricsRegistry metricsRegistry = getMetricsRegistry();
+    if (metricsRegistry != null) {
+      return new HashMap<String, Long>(metricsRegistry.getTagValues(metricName));
+    }
+    else {
+      return Collections.emptyMap();
+    }
+  }
+
+  public Map<String, Long> getCommandInvocationCounts() {
+    Map<String, Long> invocationCounts = new HashMap<String, Long>();
+    CommandProfiler commandProfiler = getCommandProfiler();
+    if (commandProfiler != null) {
+      for (CommandStatistics statistics : commandProfiler.getStatistics()) {
+        invocationCounts.put(statistics.getCommandName(), statistics.getInvocationCount());
+      }
+    }
+    return invocationCounts;
+  }
+
+  public Map<String, Long> getCommandStatementCounts() {
+    Map<String, Long> statementCounts = new HashMap<String, Long>();
+    CommandProfiler commandProfiler = getCommandProfiler();
+    if (commandProfiler != null) {
+      for (CommandStatistics statistics : commandProfiler.getStatistics()) {
+        statementCounts.put(statistics.getCommandName(), statistics.getStatementCount());
+      }
+    }
+    return statementCounts;
+  }
+
+  public long getCommandDurationPercentile(String commandName, double percentile) {
+    CommandProfiler commandProfiler = getCommandProfiler();
+    if (commandProfiler != null) {
+      CommandStatistics statistics = commandProfiler.getStatistics(commandName);
+      if (statistics != null) {
+        return statistics.getDurationPercentile(percentile);
+      }
+    }
+    return -1;
+  }
+
+  public int getCommandProfilingSampleInterval() {
+    CommandProfiler commandProfiler = getCommandProfiler();
+    if (commandProfiler != null) {
+      return commandProfiler.getSampleInterval();
+    }
+    else {
+      return -1;
+    }
+  }
+
+  public void setCommandProfilingSampleInterval(int sampleInterval) {
+    CommandProfiler commandProfiler = getCommandProfiler();
+    if (commandProfiler != null) {
+      commandProfiler.setSampleInterval(sampleInterval);
+    }
+  }
+
+  public void resetCommandStatistics() {
+    CommandProfiler commandProfiler = getCommandProfiler();
+    if (commandProfiler != null) {
+      commandProfiler.reset();
+    }
+  }
+
+  protected CommandProfiler getCommandProfiler() {
+    ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    return configuration.getCommandProfiler();
+  }
+
+  protected Histogram getHistogram(String metricName) {
+    MetricsRegistry metricsRegistry = getMetricsRegistry();
+    if (metricsRegistry != null) {
+      return metricsRegistry.getHistogramByName(metricName);
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected MetricsRegistry getMetricsRegistry() {
+    ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    return configuration.getMetricsRegistry();
+  }
+
 }
@@ -15,6 +15,7 @@
  */
 package org.camunda.bpm.container.impl.jmx.services;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.camunda.bpm.engine.ProcessEngine;
@@ -45,4 +46,60 @@ public interface JmxManagedProcessEngineMBean {
   public void unregisterDeployment(String deploymentId);
 
   public void reportDbMetrics();
+
+  /**
+   * @param metricName the name of a timer metric, e.g. <code>command-execution-time</code>
+   * @param percentile a value between 0 and 100
+   *
+   * @return the given percentile of the durations in microseconds which were recorded
+   *   since the metrics were reported last or -1 if timer metrics are not enabled
+   */
+  public long getTimerPercentile(String metricName, double percentile);
+
+  /**
+   * @return the number of durations which were recorded for the timer metric
+   *   since the metrics were reported last or -1 if timer metrics are not enabled
+   */
+  public long getTimerCount(String metricName);
+
+  /**
+   * @return the number of occurrences per process definition key or job type of
+   *   a tagged meter since the engine has started, e.g. of <code>activity-instance-start</code>
+   */
+  public Map<String, Long> getMeterTagValues(String metricName);
+
+  /**
+   * @return the number of profiled executions per command class name or an empty
+   *   map if command profiling is not enabled
+   */
+  public Map<String, Long> getCommandInvocationCounts();
+
+  /**
+   * @return the number of sql statements the profiled executions issued per command
+   *   class name or an empty map if command profiling is not enabled
+   */
+  public Map<String, Long> getCommandStatementCounts();
+
+  /**
+   * @param commandName the class name of a command
+   * @param percentile a value between 0 and 100
+   *
+   * @return the given percentile of the durations in microseconds of the profiled
+   *   executions or -1 if the command was not profiled
+   */
+  public long getCommandDurationPercentile(String commandName, double percentile);
+
+  /**
+   * @return the interval in which commands are profiled, e.g. 10 if every 10th command
+   *   is profiled, or -1 if command profiling is not enabled
+   */
+  public int getCommandProfilingSampleInterval();
+
+  /**
+   * Changes the interval in which commands are profiled. An interval of 0 pauses the
+   * profiling. Has no effect if command profiling is not enabled.
+   */
+  public void setCommandProfilingSampleInterval(int sampleInterval);
+
+  public void resetCommandStatistics();
 }
@@ -31,6 +31,7 @@ import org.camunda.bpm.engine.batch.BatchQuery;
 import org.camunda.bpm.engine.batch.BatchStatisticsQuery;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
+import org.camunda.bpm.engine.management.CommandStatistics;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
@@ -1170,6 +1171,23 @@ public interface ManagementService {
    */
   void reportDbMetricsNow();
 
+  /**
+   * Returns the statistics of the commands which this engine has profiled since
+   * it has started or the statistics were reset, one entry per command type.
+   *
+   * @throws ProcessEngineException if command profiling is disabled
+   * @throws AuthorizationException if the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}
+   */
+  List<CommandStatistics> getCommandStatistics();
+
+  /**
+   * Discards the statistics of the commands which this engine has profiled.
+   *
+   * @throws ProcessEngineException if command profiling is disabled
+   * @throws AuthorizationException if the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}
+   */
+  void resetCommandStatistics();
+
   /**
    * Creates a query to search for {@link org.camunda.bpm.engine.batch.Batch} instances.
    *
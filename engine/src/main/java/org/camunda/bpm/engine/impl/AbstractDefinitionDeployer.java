@@ -21,7 +21,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.camunda.bpm.application.ProcessApplicationReference;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
@@ -66,16 +71,114 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
   }
 
   protected List<DefinitionEntity> parseDefinitionResources(DeploymentEntity deployment, Properties properties) {
-    List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+    List<ResourceEntity> resources = new ArrayList<ResourceEntity>();
     for (ResourceEntity resource : deployment.getResources().values()) {
       LOG.debugProcessingResource(resource.getName());
       if (isResourceHandled(resource)) {
-        definitions.addAll(transformResource(deployment, resource, properties));
+        resources.add(resource);
       }
     }
+
+    ExecutorService executor = getProcessEngineConfiguration().getDeploymentParseExecutor();
+    if (executor != null && resources.size() > 1 && isParallelTransformationSupported()) {
+      return transformResourcesInParallel(executor, deployment, resources, properties);
+    }
+
+    List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+    for (ResourceEntity resource : resources) {
+      definitions.addAll(transformResource(deployment, resource, properties));
+    }
     return definitions;
   }
 
+  /**
+   * Transforms the resources on the given executor. The definitions are returned in the
+   * order of the resources, such that they are persisted in the same order as if the
+   * resources were transformed one after another.
+   */
+  protected List<DefinitionEntity> transformResourcesInParallel(ExecutorService executor, final DeploymentEntity deployment,
+      List<ResourceEntity> resources, final Properties properties) {
+
+    final ProcessEngineConfigurationImpl processEngineConfiguration = getProcessEngineConfiguration();
+    final ProcessApplicationReference processApplication = Context.getCurrentProcessApplication();
+    final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+    List<Future<Collection<DefinitionEntity>>> transformations = new ArrayList<Future<Collection<DefinitionEntity>>>();
+    for (final ResourceEntity resource : resources) {
+      transformations.add(executor.submit(new Callable<Collection<DefinitionEntity>>() {
+        public Collection<DefinitionEntity> call() throws Exception {
+          return transformResourceInContext(processEngineConfiguration, processApplication, classLoader, deployment, resource, properties);
+        }
+      }));
+    }
+
+    List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+    try {
+      for (Future<Collection<DefinitionEntity>> transformation : transformations) {
+        definitions.addAll(transformation.get());
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException("Interrupted while transforming the resources of deployment '" + deployment.getName() + "'", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else {
+        throw new ProcessEngineException("Unable to transform the resources of deployment '" + deployment.getName() + "'", cause);
+      }
+    }
+    finally {
+      // do not leave transformations behind if one of them failed
+      for (Future<Collection<DefinitionEntity>> transformation : transformations) {
+        transformation.cancel(true);
+      }
+    }
+
+    return definitions;
+  }
+
+  /**
+   * Transforms a resource on a thread of the deployment parse executor. The thread has no
+   * command context, so the transformation must not access the database.
+   */
+  protected Collection<DefinitionEntity> transformResourceInContext(ProcessEngineConfigurationImpl processEngineConfiguration,
+      ProcessApplicationReference processApplication, ClassLoader classLoader, DeploymentEntity deployment,
+      ResourceEntity resource, Properties properties) {
+
+    Thread currentThread = Thread.currentThread();
+    ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+
+    Context.setProcessEngineConfiguration(processEngineConfiguration);
+    if (processApplication != null) {
+      Context.setCurrentProcessApplication(processApplication);
+    }
+    currentThread.setContextClassLoader(classLoader);
+
+    try {
+      return transformResource(deployment, resource, properties);
+    }
+    finally {
+      currentThread.setContextClassLoader(previousClassLoader);
+      if (processApplication != null) {
+        Context.removeCurrentProcessApplication();
+      }
+      Context.removeProcessEngineConfiguration();
+    }
+  }
+
+  /**
+   * Returns <code>true</code> if {@link #transformDefinitions(DeploymentEntity, ResourceEntity, Properties)}
+   * can be invoked concurrently for the resources of a deployment. In this case, it must only access the
+   * deployment for reading and synchronize on the properties to modify them.
+   */
+  protected boolean isParallelTransformationSupported() {
+    return false;
+  }
+
   protected boolean isResourceHandled(ResourceEntity resource) {
     String resourceName = resource.getName();
 
@@ -86,6 +86,10 @@ public class ActivityStatisticsQueryImpl extends
     return includeIncidents || includeIncidentsForType != null;
   }
 
+  public String getIncludeIncidentsForType() {
+    return includeIncidentsForType;
+  }
+
   public String getProcessDefinitionId() {
     return processDefinitionId;
   }
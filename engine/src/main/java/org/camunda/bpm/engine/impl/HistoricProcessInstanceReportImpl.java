@@ -33,6 +33,7 @@ import org.camunda.bpm.engine.impl.db.TenantCheck;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
 import org.camunda.bpm.engine.query.PeriodUnit;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 
@@ -94,14 +95,7 @@ public class HistoricProcessInstanceReportImpl implements HistoricProcessInstanc
     CommandContext commandContext = Context.getCommandContext();
 
     if(commandContext == null) {
-      return commandExecutor.execute(new Command<List<DurationReportResult>>() {
-
-        @Override
-        public List<DurationReportResult> execute(CommandContext commandContext) {
-          return executeDurationReport(commandContext);
-        }
-
-      });
+      return commandExecutor.execute(new ExecuteDurationReportCmd());
     }
     else {
       return executeDurationReport(commandContext);
@@ -181,4 +175,13 @@ public class HistoricProcessInstanceReportImpl implements HistoricProcessInstanc
     return durationPeriodUnit.name();
   }
 
+  protected class ExecuteDurationReportCmd implements Command<List<DurationReportResult>>, ReadOnlyCommand {
+
+    @Override
+    public List<DurationReportResult> execute(CommandContext commandContext) {
+      return executeDurationReport(commandContext);
+    }
+
+  }
+
 }
@@ -79,6 +79,14 @@ public class ProcessDefinitionStatisticsQueryImpl extends AbstractQuery<ProcessD
     return includeIncidents || includeRootIncidents || includeIncidentsForType != null;
   }
 
+  public String getIncludeIncidentsForType() {
+    return includeIncidentsForType;
+  }
+
+  public boolean isIncludeRootIncidents() {
+    return includeRootIncidents;
+  }
+
   protected void checkQueryOk() {
     super.checkQueryOk();
     if (includeIncidents && includeIncidentsForType != null) {
@@ -63,6 +63,9 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
   protected boolean isTenantIdSet = false;
   protected String[] tenantIds;
 
+  // keyset cursor of batches which page through the query
+  protected String processInstanceIdAfter;
+
   public ProcessInstanceQueryImpl() {
   }
 
@@ -265,6 +268,22 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
       .findProcessInstancesIdsByQueryCriteria(this);
   }
 
+  /**
+   * @return the ids of the next page of process instances ordered by id which
+   *   follow {@link #getProcessInstanceIdAfter()}
+   */
+  public List<String> executeIdsPage(CommandContext commandContext, int maxResults) {
+    checkQueryOk();
+    ensureVariablesInitialized();
+    orderingProperties.clear();
+    orderByProcessInstanceId().asc();
+    this.firstResult = 0;
+    this.maxResults = maxResults;
+    return commandContext
+      .getExecutionManager()
+      .findProcessInstanceIdsPageByQueryCriteria(this, new Page(firstResult, maxResults));
+  }
+
   //getters /////////////////////////////////////////////////////////////////
 
   public String getProcessInstanceId() {
@@ -342,4 +361,24 @@ public class ProcessInstanceQueryImpl extends AbstractVariableQueryImpl<ProcessI
   public boolean isRootProcessInstances() {
     return isRootProcessInstances;
   }
+
+  public String[] getActivityIds() {
+    return activityIds;
+  }
+
+  public boolean isTenantIdSet() {
+    return isTenantIdSet;
+  }
+
+  public String[] getTenantIds() {
+    return tenantIds;
+  }
+
+  public String getProcessInstanceIdAfter() {
+    return processInstanceIdAfter;
+  }
+
+  public void setProcessInstanceIdAfter(String processInstanceIdAfter) {
+    this.processInstanceIdAfter = processInstanceIdAfter;
+  }
 }
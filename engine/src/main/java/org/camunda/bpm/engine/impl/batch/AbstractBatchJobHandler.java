@@ -54,6 +54,8 @@ public abstract class AbstractBatchJobHandler<T extends BatchConfiguration> impl
     int batchJobsPerSeed = batch.getBatchJobsPerSeed();
     int invocationsPerBatchJob = batch.getInvocationsPerBatchJob();
 
+    boolean lastPage = fetchNextIds(configuration, invocationsPerBatchJob * batchJobsPerSeed);
+
     List<String> ids = configuration.getIds();
     int numberOfItemsToProcess = Math.min(invocationsPerBatchJob * batchJobsPerSeed, ids.size());
     // view of process instances to process
@@ -82,7 +84,25 @@ public abstract class AbstractBatchJobHandler<T extends BatchConfiguration> impl
     // update batch configuration
     batch.setConfigurationBytes(writeConfiguration(configuration));
 
-    return ids.isEmpty();
+    return ids.isEmpty() && lastPage;
+  }
+
+  /**
+   * Fetches the next ids from the process instance query if the batch creates its
+   * jobs lazily. Does nothing if the configuration contains all ids.
+   *
+   * @return <code>true</code> if there are no more ids to fetch
+   */
+  protected boolean fetchNextIds(T configuration, int maxResults) {
+    ProcessInstanceQueryCursor cursor = configuration.getProcessInstanceQueryCursor();
+    if (cursor == null) {
+      return true;
+    }
+
+    List<String> ids = cursor.nextPage(Context.getCommandContext(), maxResults);
+    configuration.setIds(ids);
+
+    return ids.size() < maxResults;
   }
 
   protected abstract T createJobConfiguration(T configuration, List<String> processIdsForJob);
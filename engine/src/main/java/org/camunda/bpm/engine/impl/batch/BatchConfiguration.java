@@ -21,6 +21,7 @@ import java.util.List;
 public class BatchConfiguration {
 
   protected List<String> ids;
+  protected ProcessInstanceQueryCursor processInstanceQueryCursor;
 
   public BatchConfiguration(List<String> ids) {
     this.ids = ids;
@@ -34,4 +35,16 @@ public class BatchConfiguration {
     this.ids = ids;
   }
 
+  /**
+   * @return the query to fetch the ids from if the jobs of the batch are created
+   *   lazily or <code>null</code> if all ids are known up front
+   */
+  public ProcessInstanceQueryCursor getProcessInstanceQueryCursor() {
+    return processInstanceQueryCursor;
+  }
+
+  public void setProcessInstanceQueryCursor(ProcessInstanceQueryCursor processInstanceQueryCursor) {
+    this.processInstanceQueryCursor = processInstanceQueryCursor;
+  }
+
 }
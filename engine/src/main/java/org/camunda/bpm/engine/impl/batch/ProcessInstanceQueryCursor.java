@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.identity.Authentication;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Process instance query of a batch which creates its jobs lazily. Instead of
+ * collecting all process instance ids when the batch is created, the seed job
+ * fetches the next page of ids ordered by id after the last id it has seen
+ * (keyset pagination).
+ * <p>
+ * The query is executed with the authentication of the user who created the
+ * batch, so it returns the same process instances as the query at creation time.
+ *
+ * @see ProcessInstanceQueryCursorJsonConverter
+ */
+public class ProcessInstanceQueryCursor {
+
+  protected ProcessInstanceQueryImpl query;
+  protected String lastProcessInstanceId;
+
+  protected String userId;
+  protected List<String> groupIds;
+  protected List<String> tenantIds;
+
+  public ProcessInstanceQueryCursor(ProcessInstanceQueryImpl query) {
+    this.query = query;
+  }
+
+  public ProcessInstanceQueryCursor(ProcessInstanceQueryImpl query, Authentication authentication) {
+    this(query);
+    if (authentication != null) {
+      this.userId = authentication.getUserId();
+      this.groupIds = authentication.getGroupIds();
+      this.tenantIds = authentication.getTenantIds();
+    }
+  }
+
+  /**
+   * Fetches the ids of the next process instances and moves the cursor behind them.
+   *
+   * @return at most <code>maxResults</code> process instance ids
+   */
+  public List<String> nextPage(CommandContext commandContext, int maxResults) {
+    query.setProcessInstanceIdAfter(lastProcessInstanceId);
+
+    IdentityService identityService = commandContext.getProcessEngineConfiguration().getIdentityService();
+    Authentication currentAuthentication = identityService.getCurrentAuthentication();
+
+    List<String> ids;
+    identityService.setAuthentication(getAuthentication());
+    try {
+      ids = query.executeIdsPage(commandContext, maxResults);
+    }
+    finally {
+      identityService.setAuthentication(currentAuthentication);
+    }
+
+    if (!ids.isEmpty()) {
+      lastProcessInstanceId = ids.get(ids.size() - 1);
+    }
+
+    return new ArrayList<String>(ids);
+  }
+
+  protected Authentication getAuthentication() {
+    if (userId == null && tenantIds == null) {
+      return null;
+    }
+    else {
+      return new Authentication(userId, groupIds, tenantIds);
+    }
+  }
+
+  public ProcessInstanceQueryImpl getQuery() {
+    return query;
+  }
+
+  public String getLastProcessInstanceId() {
+    return lastProcessInstanceId;
+  }
+
+  public void setLastProcessInstanceId(String lastProcessInstanceId) {
+    this.lastProcessInstanceId = lastProcessInstanceId;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public void setUserId(String userId) {
+    this.userId = userId;
+  }
+
+  public List<String> getGroupIds() {
+    return groupIds;
+  }
+
+  public void setGroupIds(List<String> groupIds) {
+    this.groupIds = groupIds;
+  }
+
+  public List<String> getTenantIds() {
+    return tenantIds;
+  }
+
+  public void setTenantIds(List<String> tenantIds) {
+    this.tenantIds = tenantIds;
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
+import org.camunda.bpm.engine.impl.json.JsonProcessInstanceQueryConverter;
+import org.camunda.bpm.engine.impl.util.JsonUtil;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+
+public class ProcessInstanceQueryCursorJsonConverter extends JsonObjectConverter<ProcessInstanceQueryCursor> {
+
+  public static final ProcessInstanceQueryCursorJsonConverter INSTANCE = new ProcessInstanceQueryCursorJsonConverter();
+
+  public static final String QUERY = "query";
+  public static final String LAST_PROCESS_INSTANCE_ID = "lastProcessInstanceId";
+  public static final String USER_ID = "userId";
+  public static final String GROUP_IDS = "groupIds";
+  public static final String TENANT_IDS = "tenantIds";
+
+  public JSONObject toJsonObject(ProcessInstanceQueryCursor cursor) {
+    JSONObject json = new JSONObject();
+
+    JsonUtil.addField(json, QUERY, JsonProcessInstanceQueryConverter.INSTANCE, cursor.getQuery());
+    JsonUtil.addField(json, LAST_PROCESS_INSTANCE_ID, cursor.getLastProcessInstanceId());
+    JsonUtil.addField(json, USER_ID, cursor.getUserId());
+    JsonUtil.addListField(json, GROUP_IDS, cursor.getGroupIds());
+    JsonUtil.addListField(json, TENANT_IDS, cursor.getTenantIds());
+    return json;
+  }
+
+  public ProcessInstanceQueryCursor toObject(JSONObject json) {
+    ProcessInstanceQueryCursor cursor =
+        new ProcessInstanceQueryCursor(JsonUtil.jsonObject(json.getJSONObject(QUERY), JsonProcessInstanceQueryConverter.INSTANCE));
+
+    if (json.has(LAST_PROCESS_INSTANCE_ID)) {
+      cursor.setLastProcessInstanceId(json.getString(LAST_PROCESS_INSTANCE_ID));
+    }
+    if (json.has(USER_ID)) {
+      cursor.setUserId(json.getString(USER_ID));
+    }
+    if (json.has(GROUP_IDS)) {
+      cursor.setGroupIds(readList(json, GROUP_IDS));
+    }
+    if (json.has(TENANT_IDS)) {
+      cursor.setTenantIds(readList(json, TENANT_IDS));
+    }
+
+    return cursor;
+  }
+
+  protected List<String> readList(JSONObject json, String name) {
+    List<Object> objects = JsonUtil.jsonArrayAsList(json.getJSONArray(name));
+    List<String> list = new ArrayList<String>();
+    for (Object object : objects) {
+      list.add((String) object);
+    }
+    return list;
+  }
+
+}
@@ -15,6 +15,7 @@
  */
 package org.camunda.bpm.engine.impl.batch.deletion;
 
+import org.camunda.bpm.engine.impl.batch.ProcessInstanceQueryCursorJsonConverter;
 import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
 import org.camunda.bpm.engine.impl.util.JsonUtil;
 import org.camunda.bpm.engine.impl.util.json.JSONObject;
@@ -32,6 +33,7 @@ public class DeleteProcessInstanceBatchConfigurationJsonConverter extends JsonOb
 
   public static final String DELETE_REASON = "deleteReason";
   public static final String PROCESS_INSTANCE_IDS = "processInstanceIds";
+  public static final String PROCESS_INSTANCE_QUERY_CURSOR = "processInstanceQueryCursor";
   public static final String SKIP_CUSTOM_LISTENERS = "skipCustomListeners";
   public static final String SKIP_SUBPROCESSES = "skipSubprocesses";
 
@@ -40,6 +42,7 @@ public class DeleteProcessInstanceBatchConfigurationJsonConverter extends JsonOb
 
     JsonUtil.addField(json, DELETE_REASON, configuration.getDeleteReason());
     JsonUtil.addListField(json, PROCESS_INSTANCE_IDS, configuration.getIds());
+    JsonUtil.addField(json, PROCESS_INSTANCE_QUERY_CURSOR, ProcessInstanceQueryCursorJsonConverter.INSTANCE, configuration.getProcessInstanceQueryCursor());
     JsonUtil.addField(json, SKIP_CUSTOM_LISTENERS, configuration.isSkipCustomListeners());
     JsonUtil.addField(json, SKIP_SUBPROCESSES, configuration.isSkipSubprocesses());
     return json;
@@ -54,6 +57,11 @@ public class DeleteProcessInstanceBatchConfigurationJsonConverter extends JsonOb
       configuration.setDeleteReason(deleteReason);
     }
 
+    if (json.has(PROCESS_INSTANCE_QUERY_CURSOR)) {
+      configuration.setProcessInstanceQueryCursor(
+          JsonUtil.jsonObject(json.getJSONObject(PROCESS_INSTANCE_QUERY_CURSOR), ProcessInstanceQueryCursorJsonConverter.INSTANCE));
+    }
+
     return configuration;
   }
 
@@ -88,17 +88,22 @@ public class DeleteProcessInstancesJobHandler extends AbstractBatchJobHandler<De
   @Override
   public boolean createJobs(BatchEntity batch) {
     DeleteProcessInstanceBatchConfiguration configuration = readConfiguration(batch.getConfigurationBytes());
-
-    List<String> ids = configuration.getIds();
     final CommandContext commandContext = Context.getCommandContext();
 
     int batchJobsPerSeed = batch.getBatchJobsPerSeed();
     int invocationsPerBatchJob = batch.getInvocationsPerBatchJob();
 
+    boolean lastPage = fetchNextIds(configuration, invocationsPerBatchJob * batchJobsPerSeed);
+    List<String> ids = configuration.getIds();
+
     int numberOfItemsToProcess = Math.min(invocationsPerBatchJob * batchJobsPerSeed, ids.size());
     // view of process instances to process
     final List<String> processIds = ids.subList(0, numberOfItemsToProcess);
 
+    if (processIds.isEmpty()) {
+      return lastPage;
+    }
+
     List<String> deploymentIds = commandContext.runWithoutAuthorization(new Callable<List<String>>() {
       @Override
       public List<String> call() throws Exception {
@@ -127,7 +132,7 @@ public class DeleteProcessInstancesJobHandler extends AbstractBatchJobHandler<De
       createJobEntities(batch, configuration, null, processIds, invocationsPerBatchJob);
     }
 
-    return ids.isEmpty();
+    return ids.isEmpty() && lastPage;
   }
 
   protected void createJobEntities(BatchEntity batch, DeleteProcessInstanceBatchConfiguration configuration, String deploymentId,
@@ -16,24 +16,33 @@
 package org.camunda.bpm.engine.impl.batch.job;
 
 import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.batch.AbstractBatchJobHandler;
 import org.camunda.bpm.engine.impl.batch.BatchJobConfiguration;
 import org.camunda.bpm.engine.impl.batch.BatchJobContext;
 import org.camunda.bpm.engine.impl.batch.BatchJobDeclaration;
 import org.camunda.bpm.engine.impl.batch.SetRetriesBatchConfiguration;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
  * @author Askar Akhmerov
  */
 public class SetJobRetriesJobHandler extends AbstractBatchJobHandler<SetRetriesBatchConfiguration> {
+  protected static final EnginePersistenceLogger PERSISTENCE_LOGGER = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
   public static final BatchJobDeclaration JOB_DECLARATION = new BatchJobDeclaration(Batch.TYPE_SET_JOB_RETRIES);
 
   @Override
@@ -67,9 +76,14 @@ public class SetJobRetriesJobHandler extends AbstractBatchJobHandler<SetRetriesB
     commandContext.disableUserOperationLog();
     commandContext.setRestrictUserOperationLogToAuthenticatedUsers(true);
     try {
-      commandContext.getProcessEngineConfiguration()
-          .getManagementService()
-          .setJobRetries(batchConfiguration.getIds(), batchConfiguration.getRetries());
+      if (isBulkUpdatePossible(batchConfiguration, commandContext)) {
+        updateJobRetriesInBulk(batchConfiguration, commandContext);
+      }
+      else {
+        commandContext.getProcessEngineConfiguration()
+            .getManagementService()
+            .setJobRetries(batchConfiguration.getIds(), batchConfiguration.getRetries());
+      }
     } finally {
       commandContext.enableUserOperationLog();
       commandContext.setRestrictUserOperationLogToAuthenticatedUsers(initialLegacyRestrictions);
@@ -77,4 +91,41 @@ public class SetJobRetriesJobHandler extends AbstractBatchJobHandler<SetRetriesB
 
     commandContext.getByteArrayManager().delete(configurationEntity);
   }
+
+  /**
+   * The update is guarded by the conditions of {@link #isBulkUpdatePossible(SetRetriesBatchConfiguration, CommandContext)}:
+   * if a job has changed in the meantime, the batch job fails and is retried.
+   */
+  protected void updateJobRetriesInBulk(SetRetriesBatchConfiguration batchConfiguration, CommandContext commandContext) {
+    Set<String> jobIds = new HashSet<String>(batchConfiguration.getIds());
+    final DbBulkOperation retriesUpdate = commandContext.getJobManager()
+        .updateJobRetriesByIds(jobIds, batchConfiguration.getRetries());
+
+    final int expectedRowsAffected = jobIds.size();
+    commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTING, new TransactionListener() {
+      @Override
+      public void execute(CommandContext commandContext) {
+        if (retriesUpdate.getRowsAffected() != expectedRowsAffected) {
+          throw PERSISTENCE_LOGGER.concurrentUpdateDbEntityException(retriesUpdate);
+        }
+      }
+    });
+  }
+
+  /**
+   * The retries of all jobs can be set with one statement if there are no per-job
+   * side effects, i.e. no job is authorized individually, no incident is resolved
+   * or created and no inconsistent lock needs a reset. The user operation log is
+   * disabled for batch jobs anyway.
+   */
+  protected boolean isBulkUpdatePossible(SetRetriesBatchConfiguration batchConfiguration, CommandContext commandContext) {
+    if (!commandContext.getProcessEngineConfiguration().isBatchJobBulkExecutionEnabled()
+        || batchConfiguration.getRetries() <= 0
+        || commandContext.getAuthentication() != null) {
+      return false;
+    }
+
+    Set<String> jobIds = new HashSet<String>(batchConfiguration.getIds());
+    return commandContext.getJobManager().findJobCountForRetriesBulkUpdate(jobIds) == jobIds.size();
+  }
 }
@@ -17,6 +17,7 @@ package org.camunda.bpm.engine.impl.batch.update;
 
 import java.util.ArrayList;
 import java.util.List;
+import org.camunda.bpm.engine.impl.batch.ProcessInstanceQueryCursorJsonConverter;
 import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
 import org.camunda.bpm.engine.impl.util.JsonUtil;
 import org.camunda.bpm.engine.impl.util.json.JSONObject;
@@ -26,12 +27,14 @@ public class UpdateProcessInstancesSuspendStateBatchConfigurationJsonConverter e
   public static final UpdateProcessInstancesSuspendStateBatchConfigurationJsonConverter INSTANCE = new UpdateProcessInstancesSuspendStateBatchConfigurationJsonConverter();
 
   public static final String PROCESS_INSTANCE_IDS = "processInstanceIds";
+  public static final String PROCESS_INSTANCE_QUERY_CURSOR = "processInstanceQueryCursor";
   public static final String SUSPENDING = "suspended";
 
   public JSONObject toJsonObject(UpdateProcessInstancesSuspendStateBatchConfiguration configuration) {
     JSONObject json = new JSONObject();
 
     JsonUtil.addListField(json, PROCESS_INSTANCE_IDS, configuration.getIds());
+    JsonUtil.addField(json, PROCESS_INSTANCE_QUERY_CURSOR, ProcessInstanceQueryCursorJsonConverter.INSTANCE, configuration.getProcessInstanceQueryCursor());
     JsonUtil.addField(json, SUSPENDING, configuration.getSuspended());
     return json;
   }
@@ -40,6 +43,11 @@ public class UpdateProcessInstancesSuspendStateBatchConfigurationJsonConverter e
     UpdateProcessInstancesSuspendStateBatchConfiguration configuration =
       new UpdateProcessInstancesSuspendStateBatchConfiguration(readProcessInstanceIds(json), json.getBoolean(SUSPENDING));
 
+    if (json.has(PROCESS_INSTANCE_QUERY_CURSOR)) {
+      configuration.setProcessInstanceQueryCursor(
+          JsonUtil.jsonObject(json.getJSONObject(PROCESS_INSTANCE_QUERY_CURSOR), ProcessInstanceQueryCursorJsonConverter.INSTANCE));
+    }
+
     return configuration;
   }
 
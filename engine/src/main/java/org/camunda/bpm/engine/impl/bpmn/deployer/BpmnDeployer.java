@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.bpmn.helper.BpmnProperties;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseLogger;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseSnapshotCache;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
 import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.camunda.bpm.engine.impl.cmd.DeleteJobsCmd;
@@ -54,6 +55,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.pvm.runtime.LegacyBehavior;
+import org.camunda.bpm.engine.impl.util.xml.Element;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.task.IdentityLinkType;
@@ -78,6 +80,7 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
 
   protected ExpressionManager expressionManager;
   protected BpmnParser bpmnParser;
+  protected BpmnParseSnapshotCache parseSnapshotCache;
 
   /** <!> DON'T KEEP DEPLOYMENT-SPECIFIC STATE <!> **/
 
@@ -101,16 +104,38 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
       bpmnParse.setSchemaResource(null);
     }
 
+    String snapshotKey = null;
+    Element rootElement = null;
+    if (parseSnapshotCache != null) {
+      snapshotKey = parseSnapshotCache.createKey(bytes, deployment.isValidatingSchema(), bpmnParse.isEnableXxeProcessing());
+      rootElement = parseSnapshotCache.get(snapshotKey);
+      if (rootElement != null) {
+        bpmnParse.sourceRootElement(rootElement);
+      }
+    }
+
     bpmnParse.execute();
 
-    if (!properties.contains(JOB_DECLARATIONS_PROPERTY)) {
-      properties.set(JOB_DECLARATIONS_PROPERTY, new HashMap<String, List<JobDeclaration<?, ?>>>());
+    if (snapshotKey != null && rootElement == null && !bpmnParse.hasWarnings()) {
+      parseSnapshotCache.put(snapshotKey, bpmnParse.getRootElement());
+    }
+
+    // the resources of a deployment may be parsed in parallel
+    synchronized (properties) {
+      if (!properties.contains(JOB_DECLARATIONS_PROPERTY)) {
+        properties.set(JOB_DECLARATIONS_PROPERTY, new HashMap<String, List<JobDeclaration<?, ?>>>());
+      }
+      properties.get(JOB_DECLARATIONS_PROPERTY).putAll(bpmnParse.getJobDeclarations());
     }
-    properties.get(JOB_DECLARATIONS_PROPERTY).putAll(bpmnParse.getJobDeclarations());
 
     return bpmnParse.getProcessDefinitions();
   }
 
+  @Override
+  protected boolean isParallelTransformationSupported() {
+    return true;
+  }
+
   @Override
   protected ProcessDefinitionEntity findDefinitionByDeploymentAndKey(String deploymentId, String definitionKey) {
     return getProcessDefinitionManager().findProcessDefinitionByDeploymentAndKey(deploymentId, definitionKey);
@@ -462,4 +487,12 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
     this.bpmnParser = bpmnParser;
   }
 
+  public BpmnParseSnapshotCache getParseSnapshotCache() {
+    return parseSnapshotCache;
+  }
+
+  public void setParseSnapshotCache(BpmnParseSnapshotCache parseSnapshotCache) {
+    this.parseSnapshotCache = parseSnapshotCache;
+  }
+
 }
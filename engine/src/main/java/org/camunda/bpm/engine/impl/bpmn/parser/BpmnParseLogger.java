@@ -43,6 +43,14 @@ public class BpmnParseLogger extends ProcessEngineLogger {
     logError("004", "Unexpected Exception with message: {} ", cause.getMessage());
   }
 
+  public void unableToReadParseSnapshot(String snapshotFile, Exception cause) {
+    logWarn("012", "Unable to read parse snapshot '{}', the resource is parsed again: {}", snapshotFile, cause.getMessage());
+  }
+
+  public void unableToWriteParseSnapshot(String snapshotFile, Exception cause) {
+    logWarn("013", "Unable to write parse snapshot '{}': {}", snapshotFile, cause.getMessage());
+  }
+
   // EXCEPTIONS
 
   public ProcessEngineException parsingProcessException(Exception cause) {
@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.bpmn.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.util.xml.Attribute;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.commons.utils.cache.Cache;
+import org.camunda.commons.utils.cache.ConcurrentLruCache;
+
+/**
+ * <p>Keeps snapshots of parsed BPMN 2.0 XML documents, such that a resource which was parsed
+ * before is not parsed and validated against the schema again when it is redeployed or when
+ * its process definitions are reloaded into the deployment cache.</p>
+ *
+ * <p>A snapshot is the parsed element tree of a document. It is identified by the SHA-256 hash
+ * of the resource content and by the options which affect parsing: whether the schema was
+ * validated and whether external entities were processed. The snapshots are kept in
+ * memory and, if a snapshot directory is configured, are written to that directory to be used
+ * after a restart. The files are placed in a subdirectory per engine version.</p>
+ *
+ * <p>Only documents which were parsed without problems are cached. When a snapshot file is read,
+ * only the classes of the element tree are deserialized; a file containing other classes is
+ * discarded.</p>
+ */
+public class BpmnParseSnapshotCache {
+
+  protected static final BpmnParseLogger LOG = ProcessEngineLogger.BPMN_PARSE_LOGGER;
+
+  protected static final String SNAPSHOT_FILE_SUFFIX = ".snapshot";
+
+  /** the classes which make up a serialized element tree */
+  protected static final Set<String> SNAPSHOT_CLASSES = new HashSet<String>(Arrays.asList(
+      Element.class.getName(),
+      Attribute.class.getName(),
+      ArrayList.class.getName(),
+      HashMap.class.getName(),
+      StringBuilder.class.getName(),
+      char[].class.getName()));
+
+  protected final Cache<String, Element> snapshots;
+  protected final File snapshotDirectory;
+
+  protected final AtomicLong hits = new AtomicLong();
+  protected final AtomicLong misses = new AtomicLong();
+
+  /**
+   * @param capacity the maximum number of snapshots kept in memory
+   * @param snapshotDirectory the directory to write the snapshots to or <code>null</code>
+   *   if the snapshots should only be kept in memory
+   */
+  public BpmnParseSnapshotCache(int capacity, File snapshotDirectory) {
+    this.snapshots = new ConcurrentLruCache<String, Element>(capacity);
+
+    if (snapshotDirectory != null) {
+      this.snapshotDirectory = new File(snapshotDirectory, getEngineVersion());
+    }
+    else {
+      this.snapshotDirectory = null;
+    }
+  }
+
+  public String createKey(byte[] resource, boolean validatingSchema, boolean enableXxeProcessing) {
+    StringBuilder key = new StringBuilder();
+    for (byte b : digest(resource)) {
+      key.append(Character.forDigit((b >> 4) & 0xF, 16));
+      key.append(Character.forDigit(b & 0xF, 16));
+    }
+    key.append(validatingSchema ? "-validated" : "-unvalidated");
+    // a document parsed with XXE processing contains the expanded external entities
+    key.append(enableXxeProcessing ? "-xxe" : "-noxxe");
+    return key.toString();
+  }
+
+  /**
+   * @return the root element of the parsed document or <code>null</code> if there is no snapshot
+   */
+  public Element get(String key) {
+    Element rootElement = snapshots.get(key);
+
+    if (rootElement == null && snapshotDirectory != null) {
+      rootElement = readSnapshot(key);
+      if (rootElement != null) {
+        snapshots.put(key, rootElement);
+      }
+    }
+
+    if (rootElement != null) {
+      hits.incrementAndGet();
+    }
+    else {
+      misses.incrementAndGet();
+    }
+
+    return rootElement;
+  }
+
+  public void put(String key, Element rootElement) {
+    snapshots.put(key, rootElement);
+
+    if (snapshotDirectory != null) {
+      writeSnapshot(key, rootElement);
+    }
+  }
+
+  protected Element readSnapshot(String key) {
+    File snapshotFile = getSnapshotFile(key);
+    if (!snapshotFile.isFile()) {
+      return null;
+    }
+
+    ObjectInputStream inputStream = null;
+    try {
+      inputStream = new SnapshotInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+      return (Element) inputStream.readObject();
+    }
+    catch (Exception e) {
+      LOG.unableToReadParseSnapshot(snapshotFile.getPath(), e);
+      IoUtil.closeSilently(inputStream);
+      // the snapshot is replaced after the resource was parsed again
+      snapshotFile.delete();
+      return null;
+    }
+    finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  protected void writeSnapshot(String key, Element rootElement) {
+    File snapshotFile = getSnapshotFile(key);
+    if (snapshotFile.isFile()) {
+      return;
+    }
+
+    // write to a temporary file first, such that other engines never read a partial snapshot
+    File temporaryFile = null;
+    ObjectOutputStream outputStream = null;
+    try {
+      snapshotDirectory.mkdirs();
+      temporaryFile = File.createTempFile(key, ".tmp", snapshotDirectory);
+
+      outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+      outputStream.writeObject(rootElement);
+      outputStream.close();
+      outputStream = null;
+
+      if (!temporaryFile.renameTo(snapshotFile)) {
+        temporaryFile.delete();
+      }
+    }
+    catch (Exception e) {
+      LOG.unableToWriteParseSnapshot(snapshotFile.getPath(), e);
+      IoUtil.closeSilently(outputStream);
+      if (temporaryFile != null) {
+        temporaryFile.delete();
+      }
+    }
+    finally {
+      IoUtil.closeSilently(outputStream);
+    }
+  }
+
+  protected File getSnapshotFile(String key) {
+    return new File(snapshotDirectory, key + SNAPSHOT_FILE_SUFFIX);
+  }
+
+  protected byte[] digest(byte[] resource) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(resource);
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Unable to create parse snapshot key", e);
+    }
+  }
+
+  protected String getEngineVersion() {
+    String version = ProcessEngine.class.getPackage().getImplementationVersion();
+    return version != null ? version : "unknown";
+  }
+
+  public void clear() {
+    snapshots.clear();
+  }
+
+  public int size() {
+    return snapshots.size();
+  }
+
+  public File getSnapshotDirectory() {
+    return snapshotDirectory;
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Deserializes element trees only, such that a manipulated snapshot file cannot
+   * instantiate arbitrary classes.
+   */
+  protected static class SnapshotInputStream extends ObjectInputStream {
+
+    public SnapshotInputStream(InputStream inputStream) throws IOException {
+      super(inputStream);
+    }
+
+    protected Class<?> resolveClass(ObjectStreamClass classDescriptor) throws IOException, ClassNotFoundException {
+      if (!SNAPSHOT_CLASSES.contains(classDescriptor.getName())) {
+        throw new InvalidClassException(classDescriptor.getName(), "Class is not allowed in a parse snapshot");
+      }
+      return super.resolveClass(classDescriptor);
+    }
+  }
+
+}
@@ -19,6 +19,7 @@ package org.camunda.bpm.engine.impl.cfg;
 import static org.camunda.bpm.engine.impl.cmd.HistoryCleanupCmd.MAX_THREADS_NUMBER;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -28,6 +29,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
@@ -39,6 +41,12 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.naming.InitialContext;
 import javax.sql.DataSource;
@@ -105,6 +113,7 @@ import org.camunda.bpm.engine.impl.batch.update.UpdateProcessInstancesSuspendSta
 import org.camunda.bpm.engine.impl.bpmn.behavior.ExternalTaskActivityBehavior;
 import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseSnapshotCache;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
 import org.camunda.bpm.engine.impl.bpmn.parser.DefaultFailedJobParseListener;
 import org.camunda.bpm.engine.impl.calendar.BusinessCalendarManager;
@@ -134,6 +143,8 @@ import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.db.sql.ReadReplicaRouter;
+import org.camunda.bpm.engine.impl.db.sql.StatementProfilingPlugin;
 import org.camunda.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
 import org.camunda.bpm.engine.impl.digest.Default16ByteSaltGenerator;
 import org.camunda.bpm.engine.impl.digest.PasswordEncryptor;
@@ -146,6 +157,7 @@ import org.camunda.bpm.engine.impl.dmn.deployer.DecisionDefinitionDeployer;
 import org.camunda.bpm.engine.impl.dmn.deployer.DecisionRequirementsDefinitionDeployer;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionManager;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionRequirementsDefinitionManager;
+import org.camunda.bpm.engine.impl.dmn.invocation.DecisionEvaluationCache;
 import org.camunda.bpm.engine.impl.el.CommandContextFunctionMapper;
 import org.camunda.bpm.engine.impl.el.DateTimeFunctionMapper;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
@@ -187,6 +199,7 @@ import org.camunda.bpm.engine.impl.history.producer.DefaultDmnHistoryEventProduc
 import org.camunda.bpm.engine.impl.history.producer.DmnHistoryEventProducer;
 import org.camunda.bpm.engine.impl.history.producer.HistoryEventProducer;
 import org.camunda.bpm.engine.impl.history.transformer.CmmnHistoryTransformListener;
+import org.camunda.bpm.engine.impl.identity.PasswordCheckCache;
 import org.camunda.bpm.engine.impl.identity.ReadOnlyIdentityProvider;
 import org.camunda.bpm.engine.impl.identity.WritableIdentityProvider;
 import org.camunda.bpm.engine.impl.identity.db.DbIdentityServiceProvider;
@@ -196,6 +209,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContextFactory;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutorImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+import org.camunda.bpm.engine.impl.interceptor.CommandProfilingInterceptor;
 import org.camunda.bpm.engine.impl.interceptor.DelegateInterceptor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
@@ -205,6 +219,7 @@ import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobPriorityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobCommandFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobFailureCircuitBreaker;
 import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.NotifyAcquisitionRejectedJobsHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.ProcessEventJobHandler;
@@ -223,12 +238,16 @@ import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupBatc
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHelper;
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupTableGroup;
+import org.camunda.bpm.engine.impl.metrics.CommandProfiler;
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.metrics.MetricsReporterIdProvider;
 import org.camunda.bpm.engine.impl.metrics.SimpleIpBasedProvider;
+import org.camunda.bpm.engine.impl.metrics.TaggedMeter;
 import org.camunda.bpm.engine.impl.metrics.parser.MetricsBpmnParseListener;
 import org.camunda.bpm.engine.impl.metrics.parser.MetricsCmmnTransformListener;
 import org.camunda.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.metrics.reporter.MetricsRollupTask;
 import org.camunda.bpm.engine.impl.migration.DefaultMigrationActivityMatcher;
 import org.camunda.bpm.engine.impl.migration.DefaultMigrationInstructionGenerator;
 import org.camunda.bpm.engine.impl.migration.MigrationActivityMatcher;
@@ -289,6 +308,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceMan
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricTaskInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceManager;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryPartitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityInfoManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IncidentManager;
@@ -318,6 +338,7 @@ import org.camunda.bpm.engine.impl.scripting.engine.ScriptingEngines;
 import org.camunda.bpm.engine.impl.scripting.engine.VariableScopeResolverFactory;
 import org.camunda.bpm.engine.impl.scripting.env.ScriptEnvResolver;
 import org.camunda.bpm.engine.impl.scripting.env.ScriptingEnvironment;
+import org.camunda.bpm.engine.impl.statistics.StatisticsCounters;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.util.ParseUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
@@ -434,6 +455,25 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<Deployer> deployers;
   protected DeploymentCache deploymentCache;
 
+  /**
+   * Number of threads which parse and transform the resources of a deployment.
+   * With a value of 1, the resources are parsed by the deploying thread.
+   * Custom parse listeners must be thread-safe if more threads are used.
+   */
+  protected int deploymentParseThreads = 1;
+  protected ExecutorService deploymentParseExecutor;
+  protected boolean deploymentParseExecutorCreated = false;
+
+  /**
+   * If enabled, parsed BPMN 2.0 XML documents are cached by their content, such that unchanged resources
+   * are not parsed again on redeployment or when their definitions are reloaded into the deployment cache.
+   * If a snapshot directory is set, the parsed documents are written to it and survive restarts.
+   */
+  protected boolean bpmnParseSnapshotCacheEnabled = false;
+  protected int bpmnParseSnapshotCacheCapacity = 1000;
+  protected String bpmnParseSnapshotDirectory;
+  protected BpmnParseSnapshotCache bpmnParseSnapshotCache;
+
   // CACHE ////////////////////////////////////////////////////////////////////
 
   protected CacheFactory cacheFactory;
@@ -488,6 +528,17 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    * default priority for batch jobs
    */
   protected long batchJobPriority = DefaultJobPriorityProvider.DEFAULT_PRIORITY;
+  /**
+   * If true, batches which operate on the result of a process instance query
+   * store the query instead of all process instance ids. The seed job fetches
+   * the ids page by page when it creates the batch jobs.
+   */
+  protected boolean isLazyBatchJobCreationEnabled = false;
+  /**
+   * If true, batch jobs execute all their invocations with set-based statements
+   * where this has the same effect as executing them one by one.
+   */
+  protected boolean isBatchJobBulkExecutionEnabled = true;
 
   // OTHER ////////////////////////////////////////////////////////////////////
   protected List<FormEngine> customFormEngines;
@@ -540,6 +591,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected DefaultDmnEngineConfiguration dmnEngineConfiguration;
   protected DmnEngine dmnEngine;
 
+  /**
+   * If true, the results of decision evaluations are cached by decision definition
+   * and input variables. Should only be enabled if the deployed decisions are pure.
+   */
+  protected boolean decisionEvaluationCacheEnabled = false;
+  protected int decisionEvaluationCacheCapacity = 1000;
+  protected DecisionEvaluationCache decisionEvaluationCache;
+
+  /**
+   * If true, the input entries of deployed decision tables are compiled such that
+   * simple tests (string and number literals, comparisons and intervals) are
+   * evaluated without the FEEL engine.
+   */
+  protected boolean dmnInputEntryCompilationEnabled = false;
+
   protected HistoryLevel historyLevel;
 
   /**
@@ -661,6 +727,84 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected boolean isMetricsEnabled = true;
   protected boolean isDbMetricsReporterActivate = true;
 
+  /**
+   * If true, the durations of commands, job executions, job acquisition cycles and
+   * flushes are recorded in histograms and reported as percentiles per reporting interval.
+   */
+  protected boolean isTimerMetricsEnabled = false;
+
+  /**
+   * The maximum number of tags (process definition keys or job types) which are
+   * counted per tagged meter. Occurrences of further tags are counted as
+   * {@link TaggedMeter#OTHER_TAG}. If 0 (the default), no meter is tagged.
+   */
+  protected int metricsMaxTagsPerMeter = 0;
+
+  /**
+   * If true, the duration and the sql statements of the commands are aggregated per
+   * command type, see {@link ManagementService#getCommandStatistics()}.
+   */
+  protected boolean isCommandProfilingEnabled = false;
+
+  /**
+   * Only every n-th command is profiled; can be changed at runtime on the {@link CommandProfiler}.
+   */
+  protected int commandProfilingSampleInterval = 1;
+
+  protected CommandProfiler commandProfiler;
+
+  /**
+   * If set, queries and other read-only commands which are not executed within another
+   * command are executed on this read replica of the database. Not used if the transactions
+   * are managed externally.
+   */
+  protected DataSource readReplicaDataSource;
+
+  /**
+   * The time in milliseconds the read replica may lag behind the primary database. After a
+   * thread has flushed changes, its read-only commands use the primary database for this time.
+   * Writes are tracked per thread only: a following request of the same client which is
+   * handled by another thread or another engine of a cluster may not see the changes yet.
+   */
+  protected long readReplicaStalenessTolerance = 5000;
+
+  protected ReadReplicaRouter readReplicaRouter;
+
+  /**
+   * If true, the running instances, failed jobs and incidents are counted per process definition
+   * and activity when the entities are flushed. Process definition and activity statistics queries
+   * which check neither authorizations nor tenants read these counters instead of grouping the
+   * runtime tables.
+   *
+   * <p><strong>Do not enable this in a cluster if exact numbers are required.</strong> The counters
+   * are kept in the memory of each process engine and only contain the changes flushed by this
+   * engine. The changes of the other engines of a cluster are missing until the next refresh, see
+   * {@link #statisticsCountersRefreshInterval}, so the statistics are wrong until then.</p>
+   */
+  protected boolean statisticsCountersEnabled = false;
+
+  /**
+   * The time in milliseconds after which the statistics counters are reloaded from the runtime
+   * tables. This makes the changes of other process engines of a cluster and of bulk statements
+   * visible. If not positive, the counters are only loaded once.
+   */
+  protected long statisticsCountersRefreshInterval = 600000;
+
+  protected StatisticsCounters statisticsCounters;
+
+  /**
+   * If true, the meter logs are rolled up into hourly and daily sums which are
+   * used by metrics interval queries with a matching interval.
+   */
+  protected boolean isMetricsRollupEnabled = false;
+
+  /**
+   * The number of hours after which meter logs are deleted. If rollups are
+   * enabled, meter logs are only deleted once they are rolled up. If null,
+   * meter logs are kept.
+   */
+  protected Integer meterLogTimeToLiveInHours;
+
   protected MetricsReporterIdProvider metricsReporterIdProvider;
 
   /**
@@ -712,6 +856,16 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<MigratingTransitionInstanceValidator> migratingTransitionInstanceValidators;
   protected List<MigratingCompensationInstanceValidator> migratingCompensationInstanceValidators;
 
+  /**
+   * If true, process instances which wait in the same activity without further dependent
+   * entities (child executions, jobs, event subscriptions, ...) are migrated group-wise: the
+   * first instance of a group is migrated and validated as usual, the remaining ones with bulk
+   * updates. The history of the remaining instances is updated in the database directly
+   * instead of producing migration history events. Therefore, all instances are migrated one by
+   * one if a custom history event handler or a custom history level is configured.
+   */
+  protected boolean isSetBasedMigrationEnabled = false;
+
   // Default user permission for task
   protected Permission defaultUserPermissionForTask;
 
@@ -768,16 +922,111 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   private boolean historyCleanupMetricsEnabled = true;
 
+  /**
+   * If true, the history tables are range partitioned by removal time (PostgreSQL only) and the
+   * removal time based history cleanup drops whole expired partitions. On other databases
+   * this has no effect unless {@link #isHistoryCleanupPartitionEmulationEnabled} is set: the
+   * expired rows are removed by the batched removal time based cleanup.
+   */
+  protected boolean isHistoryCleanupPartitioningEnabled = false;
+
+  /**
+   * If true, history partitions are emulated on databases without partitioned history tables:
+   * dropping the partition of a day deletes all rows with a removal time on that day with a
+   * single statement, regardless of the batch size. Intended for testing only.
+   */
+  protected boolean isHistoryCleanupPartitionEmulationEnabled = false;
+
+  /**
+   * Number of days in advance the daily history partitions are created for. Rows with a later
+   * removal time are stored in the default partitions and are removed row by row.
+   */
+  protected int historyCleanupPartitionDaysInAdvance = 180;
+
+  /**
+   * If true, the removal time based history cleanup uses separate jobs for each
+   * {@link HistoryCleanupTableGroup}, which adapt their batch sizes independently.
+   */
+  protected boolean isHistoryCleanupTableGroupsEnabled = false;
+
+  /**
+   * Initial batch sizes of the table group cleanup jobs by {@link HistoryCleanupTableGroup} name.
+   * Table groups without an entry start with the {@link #historyCleanupBatchSize}.
+   */
+  protected Map<String, Integer> historyCleanupTableGroupBatchSizes;
+  protected Map<HistoryCleanupTableGroup, Integer> parsedHistoryCleanupTableGroupBatchSizes;
+
+  /**
+   * Duration in milliseconds a run of a table group cleanup job should take. Shorter runs
+   * increase the batch size of the job, longer runs decrease it.
+   */
+  protected int historyCleanupTableGroupTargetDuration = 1000;
+
   private int failedJobListenerMaxRetries = DEFAULT_FAILED_JOB_LISTENER_MAX_RETRIES;
 
   protected String failedJobRetryTimeCycle;
 
+  /**
+   * Number of failures of the jobs of a job definition within the {@link #jobFailureCircuitBreakerWindow}
+   * which suspends the acquisition of the jobs for the {@link #jobFailureCircuitBreakerBackoff}.
+   * <code>0</code> disables the circuit breaker.
+   */
+  protected int jobFailureCircuitBreakerThreshold = 0;
+
+  /**
+   * Time window in milliseconds the failures of the jobs of a job definition are counted in.
+   */
+  protected long jobFailureCircuitBreakerWindow = 60 * 1000;
+
+  /**
+   * Time in milliseconds the jobs of a job definition are not acquired once its circuit breaker is open.
+   */
+  protected long jobFailureCircuitBreakerBackoff = 60 * 1000;
+
+  protected JobFailureCircuitBreaker jobFailureCircuitBreaker;
+
+  /**
+   * If true, the job acquisition claims the jobs with <code>SELECT ... FOR UPDATE SKIP LOCKED</code>,
+   * so that concurrent acquisitions lock disjoint jobs. Requires PostgreSQL 9.5, MySQL 8 or MariaDB 10.6;
+   * other databases acquire the jobs optimistically.
+   */
+  protected boolean jobExecutorAcquireWithSkipLocked = false;
+
+  /**
+   * If true, a job executor thread which executed an exclusive job also locks the other exclusive jobs
+   * of the process instance which are due and executes them next, instead of leaving them to the
+   * following acquisitions. Other job executors acquire these jobs only after their lock expired.
+   */
+  protected boolean jobExecutorExclusiveJobAffinity = false;
+
+  /**
+   * If true, the jobs which are due when a transaction creates them are locked on insert and passed
+   * to the job executor after commit, so that they are executed without waiting for the job acquisition.
+   * Jobs which the job executor does not accept are unlocked and acquired as usual.
+   */
+  protected boolean jobExecutorHandOffNewJobs = false;
+
   // login attempts ///////////////////////////////////////////////////////
   protected int loginMaxAttempts = 10;
   protected int loginDelayFactor = 2;
   protected int loginDelayMaxTime = 60;
   protected int loginDelayBase = 3;
 
+  /**
+   * Time in milliseconds a successful password check of the built-in identity provider is remembered,
+   * so that clients which authenticate every request do not cause a user select and a hash computation
+   * each time. A changed password is detected by the cache of another cluster node only after this time.
+   * Disabled by default.
+   */
+  protected long passwordCheckCacheTimeToLive = 0;
+
+  /**
+   * Maximum number of remembered password checks.
+   */
+  protected int passwordCheckCacheCapacity = 1000;
+
+  protected PasswordCheckCache passwordCheckCache;
+
   // buildProcessEngine ///////////////////////////////////////////////////////
 
   @Override
@@ -805,15 +1054,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initFormTypes();
     initFormFieldValidators();
     initScripting();
+    initDecisionEvaluationCache();
     initDmnEngine();
     initBusinessCalendarManager();
     initCommandContextFactory();
     initTransactionContextFactory();
+    initCommandProfiler();
     initCommandExecutors();
     initServices();
     initIdGenerator();
     initFailedJobCommandFactory();
+    initBpmnParseSnapshotCache();
     initDeployers();
+    initDeploymentParseExecutor();
     initJobProvider();
     initExternalTaskPriorityProvider();
     initBatchHandlers();
@@ -836,6 +1089,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initDeploymentRegistration();
     initResourceAuthorizationProvider();
     initMetrics();
+    initStatisticsCounters();
     initMigration();
     initCommandCheckers();
     initDefaultUserPermissionForTask();
@@ -899,9 +1153,46 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
           "History cleanup batch threshold cannot be negative.");
     }
 
+    if (historyCleanupPartitionDaysInAdvance < 0) {
+      throw LOG.invalidPropertyValue("historyCleanupPartitionDaysInAdvance", String.valueOf(historyCleanupPartitionDaysInAdvance),
+          "History cleanup partition days in advance cannot be negative.");
+    }
+
+    if (historyCleanupTableGroupTargetDuration <= 0) {
+      throw LOG.invalidPropertyValue("historyCleanupTableGroupTargetDuration", String.valueOf(historyCleanupTableGroupTargetDuration),
+          "History cleanup table group target duration must be positive.");
+    }
+
+    initHistoryCleanupTableGroupBatchSizes();
+
     initBatchOperationsHistoryTimeToLive();
   }
 
+  protected void initHistoryCleanupTableGroupBatchSizes() {
+    parsedHistoryCleanupTableGroupBatchSizes = new HashMap<HistoryCleanupTableGroup, Integer>();
+
+    if (historyCleanupTableGroupBatchSizes != null) {
+      for (Map.Entry<String, Integer> batchSize : historyCleanupTableGroupBatchSizes.entrySet()) {
+        HistoryCleanupTableGroup tableGroup;
+        try {
+          tableGroup = HistoryCleanupTableGroup.valueOf(batchSize.getKey());
+        }
+        catch (IllegalArgumentException e) {
+          throw LOG.invalidPropertyValue("historyCleanupTableGroupBatchSizes", batchSize.getKey(),
+              String.format("table group must be one of %s", Arrays.toString(HistoryCleanupTableGroup.values())));
+        }
+
+        Integer value = batchSize.getValue();
+        if (value == null || value > HistoryCleanupHandler.MAX_BATCH_SIZE || value <= 0) {
+          throw LOG.invalidPropertyValue("historyCleanupTableGroupBatchSizes", String.valueOf(value),
+              String.format("value for batch size should be between 1 and %s", HistoryCleanupHandler.MAX_BATCH_SIZE));
+        }
+
+        parsedHistoryCleanupTableGroupBatchSizes.put(tableGroup, value);
+      }
+    }
+  }
+
   protected void initHistoryCleanupStrategy() {
     if (historyCleanupStrategy == null) {
       historyCleanupStrategy = HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED;
@@ -1116,16 +1407,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initCommandExecutorDbSchemaOperations();
   }
 
+  protected void initCommandProfiler() {
+    if (commandProfiler == null && isCommandProfilingEnabled) {
+      commandProfiler = new CommandProfiler(commandProfilingSampleInterval);
+    }
+  }
+
   protected void initActualCommandExecutor() {
     actualCommandExecutor = new CommandExecutorImpl();
   }
 
   protected void initCommandInterceptorsTxRequired() {
     if (commandInterceptorsTxRequired == null) {
+      commandInterceptorsTxRequired = new ArrayList<CommandInterceptor>();
+      if (commandProfiler != null) {
+        commandInterceptorsTxRequired.add(new CommandProfilingInterceptor(commandProfiler));
+      }
       if (customPreCommandInterceptorsTxRequired != null) {
-        commandInterceptorsTxRequired = new ArrayList<CommandInterceptor>(customPreCommandInterceptorsTxRequired);
-      } else {
-        commandInterceptorsTxRequired = new ArrayList<CommandInterceptor>();
+        commandInterceptorsTxRequired.addAll(customPreCommandInterceptorsTxRequired);
       }
       commandInterceptorsTxRequired.addAll(getDefaultCommandInterceptorsTxRequired());
       if (customPostCommandInterceptorsTxRequired != null) {
@@ -1137,10 +1436,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initCommandInterceptorsTxRequiresNew() {
     if (commandInterceptorsTxRequiresNew == null) {
+      commandInterceptorsTxRequiresNew = new ArrayList<CommandInterceptor>();
+      if (commandProfiler != null) {
+        commandInterceptorsTxRequiresNew.add(new CommandProfilingInterceptor(commandProfiler));
+      }
       if (customPreCommandInterceptorsTxRequiresNew != null) {
-        commandInterceptorsTxRequiresNew = new ArrayList<CommandInterceptor>(customPreCommandInterceptorsTxRequiresNew);
-      } else {
-        commandInterceptorsTxRequiresNew = new ArrayList<CommandInterceptor>();
+        commandInterceptorsTxRequiresNew.addAll(customPreCommandInterceptorsTxRequiresNew);
       }
       commandInterceptorsTxRequiresNew.addAll(getDefaultCommandInterceptorsTxRequiresNew());
       if (customPostCommandInterceptorsTxRequiresNew != null) {
@@ -1402,6 +1703,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
             configuration.setDefaultExecutorType(ExecutorType.BATCH);
           }
 
+          if (commandProfiler != null) {
+            configuration.addInterceptor(new StatementProfilingPlugin());
+          }
+
           sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
 
           if (isUseSharedSqlSessionFactory) {
@@ -1497,6 +1802,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(HistoricIdentityLinkLogManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricJobLogManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricExternalTaskLogManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryPartitionManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityInfoManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityLinkManager.class));
       addSessionFactory(new GenericManagerFactory(JobManager.class));
@@ -1564,10 +1870,25 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       databaseSchema = databaseTablePrefix.split("\\.")[0];
     }
     dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
+    initReadReplicaRouter();
+    dbSqlSessionFactory.setReadReplicaRouter(readReplicaRouter);
     addSessionFactory(dbSqlSessionFactory);
     addSessionFactory(new DbSqlPersistenceProviderFactory());
   }
 
+  protected void initReadReplicaRouter() {
+    // with externally managed transactions, a query can be part of a transaction which has already written
+    if (readReplicaRouter == null && readReplicaDataSource != null && !transactionsExternallyManaged) {
+      readReplicaRouter = new ReadReplicaRouter(readReplicaDataSource, readReplicaStalenessTolerance);
+    }
+  }
+
+  protected void initStatisticsCounters() {
+    if (statisticsCountersEnabled && statisticsCounters == null) {
+      statisticsCounters = new StatisticsCounters(statisticsCountersRefreshInterval);
+    }
+  }
+
   protected void initMigration() {
     initMigrationInstructionValidators();
     initMigrationActivityMatcher();
@@ -1689,6 +2010,34 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initBpmnParseSnapshotCache() {
+    if (bpmnParseSnapshotCache == null && bpmnParseSnapshotCacheEnabled) {
+      File snapshotDirectory = bpmnParseSnapshotDirectory != null ? new File(bpmnParseSnapshotDirectory) : null;
+      bpmnParseSnapshotCache = new BpmnParseSnapshotCache(bpmnParseSnapshotCacheCapacity, snapshotDirectory);
+    }
+  }
+
+  protected void initDeploymentParseExecutor() {
+    if (deploymentParseExecutor == null && deploymentParseThreads > 1) {
+      final AtomicInteger threadNumber = new AtomicInteger();
+      final String threadNamePrefix = "camunda-deployment-parse-" + processEngineName + "-";
+
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(deploymentParseThreads, deploymentParseThreads,
+          60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+      // the pool is only busy while a deployment is parsed
+      executor.allowCoreThreadTimeOut(true);
+
+      deploymentParseExecutor = executor;
+      deploymentParseExecutorCreated = true;
+    }
+  }
+
   protected Collection<? extends Deployer> getDefaultDeployers() {
     List<Deployer> defaultDeployers = new ArrayList<Deployer>();
 
@@ -1731,6 +2080,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
 
     bpmnDeployer.setBpmnParser(bpmnParser);
+    bpmnDeployer.setParseSnapshotCache(bpmnParseSnapshotCache);
 
     return bpmnDeployer;
   }
@@ -1875,6 +2225,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
     jobExecutor.setAutoActivate(jobExecutorActivate);
 
+    if (jobFailureCircuitBreaker == null && jobFailureCircuitBreakerThreshold > 0) {
+      jobFailureCircuitBreaker = new JobFailureCircuitBreaker(jobFailureCircuitBreakerThreshold,
+          jobFailureCircuitBreakerWindow, jobFailureCircuitBreakerBackoff);
+    }
+
     if (jobExecutor.getRejectedJobsHandler() == null) {
       if (customRejectedJobsHandler != null) {
         jobExecutor.setRejectedJobsHandler(customRejectedJobsHandler);
@@ -2009,22 +2364,44 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       if (dbMetricsReporter == null) {
         dbMetricsReporter = new DbMetricsReporter(metricsRegistry, commandExecutorTxRequired);
       }
+
+      if (dbMetricsReporter.getMetricsRollupTask() == null
+          && (isMetricsRollupEnabled || meterLogTimeToLiveInHours != null)) {
+        dbMetricsReporter.setMetricsRollupTask(new MetricsRollupTask(commandExecutorTxRequired,
+            isMetricsRollupEnabled, meterLogTimeToLiveInHours));
+      }
     }
   }
 
   protected void initDefaultMetrics(MetricsRegistry metricsRegistry) {
-    metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_START);
-    metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_END);
+    createTaggedMeter(metricsRegistry, Metrics.ACTIVTY_INSTANCE_START);
+    createTaggedMeter(metricsRegistry, Metrics.ACTIVTY_INSTANCE_END);
 
     metricsRegistry.createMeter(Metrics.JOB_ACQUISITION_ATTEMPT);
     metricsRegistry.createMeter(Metrics.JOB_ACQUIRED_SUCCESS);
     metricsRegistry.createMeter(Metrics.JOB_ACQUIRED_FAILURE);
-    metricsRegistry.createMeter(Metrics.JOB_SUCCESSFUL);
-    metricsRegistry.createMeter(Metrics.JOB_FAILED);
+    createTaggedMeter(metricsRegistry, Metrics.JOB_SUCCESSFUL);
+    createTaggedMeter(metricsRegistry, Metrics.JOB_FAILED);
     metricsRegistry.createMeter(Metrics.JOB_LOCKED_EXCLUSIVE);
     metricsRegistry.createMeter(Metrics.JOB_EXECUTION_REJECTED);
 
     metricsRegistry.createMeter(Metrics.EXECUTED_DECISION_ELEMENTS);
+
+    if (isTimerMetricsEnabled) {
+      metricsRegistry.createHistogram(Metrics.COMMAND_EXECUTION_TIME);
+      metricsRegistry.createHistogram(Metrics.JOB_EXECUTION_TIME);
+      metricsRegistry.createHistogram(Metrics.JOB_ACQUISITION_CYCLE_TIME);
+      metricsRegistry.createHistogram(Metrics.FLUSH_TIME);
+    }
+  }
+
+  protected void createTaggedMeter(MetricsRegistry metricsRegistry, String name) {
+    if (metricsMaxTagsPerMeter > 0) {
+      metricsRegistry.createTaggedMeter(name, metricsMaxTagsPerMeter);
+    }
+    else {
+      metricsRegistry.createMeter(name);
+    }
   }
 
   protected void initSerialization() {
@@ -2144,6 +2521,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
           .dmnHistoryEventProducer(dmnHistoryEventProducer)
           .scriptEngineResolver(scriptingEngines)
           .expressionManager(expressionManager)
+          .decisionEvaluationCache(decisionEvaluationCache)
+          .inputEntryCompilationEnabled(dmnInputEntryCompilationEnabled)
           .build();
 
       dmnEngine = dmnEngineConfiguration.buildEngine();
@@ -2153,6 +2532,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initDecisionEvaluationCache() {
+    if (decisionEvaluationCacheEnabled && decisionEvaluationCache == null) {
+      decisionEvaluationCache = new DecisionEvaluationCache(decisionEvaluationCacheCapacity);
+    }
+  }
+
   protected void initExpressionManager() {
     if (expressionManager == null) {
       expressionManager = new ExpressionManager(beans);
@@ -2311,6 +2696,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if(passwordManager == null) {
       passwordManager = new PasswordManager(passwordEncryptor, customPasswordChecker);
     }
+    if (passwordCheckCache == null && passwordCheckCacheTimeToLive > 0) {
+      passwordCheckCache = new PasswordCheckCache(passwordCheckCacheTimeToLive, passwordCheckCacheCapacity);
+    }
 
   }
 
@@ -3668,6 +4056,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       // ACT-233: connection pool of Ibatis is not properely initialized if this is not called!
       ((PooledDataSource) dataSource).forceCloseAll();
     }
+
+    if (deploymentParseExecutorCreated) {
+      deploymentParseExecutor.shutdown();
+    }
   }
 
   public MetricsRegistry getMetricsRegistry() {
@@ -4259,4 +4651,390 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.adminUsers = adminUsers;
   }
 
+  public boolean isDecisionEvaluationCacheEnabled() {
+    return decisionEvaluationCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDecisionEvaluationCacheEnabled(boolean decisionEvaluationCacheEnabled) {
+    this.decisionEvaluationCacheEnabled = decisionEvaluationCacheEnabled;
+    return this;
+  }
+
+  public int getDecisionEvaluationCacheCapacity() {
+    return decisionEvaluationCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setDecisionEvaluationCacheCapacity(int decisionEvaluationCacheCapacity) {
+    this.decisionEvaluationCacheCapacity = decisionEvaluationCacheCapacity;
+    return this;
+  }
+
+  public boolean isDmnInputEntryCompilationEnabled() {
+    return dmnInputEntryCompilationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDmnInputEntryCompilationEnabled(boolean dmnInputEntryCompilationEnabled) {
+    this.dmnInputEntryCompilationEnabled = dmnInputEntryCompilationEnabled;
+    return this;
+  }
+
+  public DecisionEvaluationCache getDecisionEvaluationCache() {
+    return decisionEvaluationCache;
+  }
+
+  public ProcessEngineConfigurationImpl setDecisionEvaluationCache(DecisionEvaluationCache decisionEvaluationCache) {
+    this.decisionEvaluationCache = decisionEvaluationCache;
+    return this;
+  }
+
+  public int getDeploymentParseThreads() {
+    return deploymentParseThreads;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParseThreads(int deploymentParseThreads) {
+    this.deploymentParseThreads = deploymentParseThreads;
+    return this;
+  }
+
+  public ExecutorService getDeploymentParseExecutor() {
+    return deploymentParseExecutor;
+  }
+
+  /**
+   * Sets the executor which parses the resources of a deployment in parallel, e.g. a managed
+   * executor of the runtime container. An executor set here is not shut down by the engine.
+   */
+  public ProcessEngineConfigurationImpl setDeploymentParseExecutor(ExecutorService deploymentParseExecutor) {
+    this.deploymentParseExecutor = deploymentParseExecutor;
+    return this;
+  }
+
+  public boolean isBpmnParseSnapshotCacheEnabled() {
+    return bpmnParseSnapshotCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setBpmnParseSnapshotCacheEnabled(boolean bpmnParseSnapshotCacheEnabled) {
+    this.bpmnParseSnapshotCacheEnabled = bpmnParseSnapshotCacheEnabled;
+    return this;
+  }
+
+  public int getBpmnParseSnapshotCacheCapacity() {
+    return bpmnParseSnapshotCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setBpmnParseSnapshotCacheCapacity(int bpmnParseSnapshotCacheCapacity) {
+    this.bpmnParseSnapshotCacheCapacity = bpmnParseSnapshotCacheCapacity;
+    return this;
+  }
+
+  public String getBpmnParseSnapshotDirectory() {
+    return bpmnParseSnapshotDirectory;
+  }
+
+  public ProcessEngineConfigurationImpl setBpmnParseSnapshotDirectory(String bpmnParseSnapshotDirectory) {
+    this.bpmnParseSnapshotDirectory = bpmnParseSnapshotDirectory;
+    return this;
+  }
+
+  public BpmnParseSnapshotCache getBpmnParseSnapshotCache() {
+    return bpmnParseSnapshotCache;
+  }
+
+  public ProcessEngineConfigurationImpl setBpmnParseSnapshotCache(BpmnParseSnapshotCache bpmnParseSnapshotCache) {
+    this.bpmnParseSnapshotCache = bpmnParseSnapshotCache;
+    return this;
+  }
+
+  public boolean isTimerMetricsEnabled() {
+    return isTimerMetricsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setTimerMetricsEnabled(boolean isTimerMetricsEnabled) {
+    this.isTimerMetricsEnabled = isTimerMetricsEnabled;
+    return this;
+  }
+
+  public int getMetricsMaxTagsPerMeter() {
+    return metricsMaxTagsPerMeter;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsMaxTagsPerMeter(int metricsMaxTagsPerMeter) {
+    this.metricsMaxTagsPerMeter = metricsMaxTagsPerMeter;
+    return this;
+  }
+
+  public boolean isMetricsRollupEnabled() {
+    return isMetricsRollupEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsRollupEnabled(boolean isMetricsRollupEnabled) {
+    this.isMetricsRollupEnabled = isMetricsRollupEnabled;
+    return this;
+  }
+
+  public Integer getMeterLogTimeToLiveInHours() {
+    return meterLogTimeToLiveInHours;
+  }
+
+  public ProcessEngineConfigurationImpl setMeterLogTimeToLiveInHours(Integer meterLogTimeToLiveInHours) {
+    this.meterLogTimeToLiveInHours = meterLogTimeToLiveInHours;
+    return this;
+  }
+
+  public boolean isLazyBatchJobCreationEnabled() {
+    return isLazyBatchJobCreationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setLazyBatchJobCreationEnabled(boolean isLazyBatchJobCreationEnabled) {
+    this.isLazyBatchJobCreationEnabled = isLazyBatchJobCreationEnabled;
+    return this;
+  }
+
+  public boolean isBatchJobBulkExecutionEnabled() {
+    return isBatchJobBulkExecutionEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setBatchJobBulkExecutionEnabled(boolean isBatchJobBulkExecutionEnabled) {
+    this.isBatchJobBulkExecutionEnabled = isBatchJobBulkExecutionEnabled;
+    return this;
+  }
+
+  public boolean isHistoryCleanupPartitioningEnabled() {
+    return isHistoryCleanupPartitioningEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupPartitioningEnabled(boolean isHistoryCleanupPartitioningEnabled) {
+    this.isHistoryCleanupPartitioningEnabled = isHistoryCleanupPartitioningEnabled;
+    return this;
+  }
+
+  public boolean isHistoryCleanupPartitionEmulationEnabled() {
+    return isHistoryCleanupPartitionEmulationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupPartitionEmulationEnabled(boolean isHistoryCleanupPartitionEmulationEnabled) {
+    this.isHistoryCleanupPartitionEmulationEnabled = isHistoryCleanupPartitionEmulationEnabled;
+    return this;
+  }
+
+  public int getHistoryCleanupPartitionDaysInAdvance() {
+    return historyCleanupPartitionDaysInAdvance;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupPartitionDaysInAdvance(int historyCleanupPartitionDaysInAdvance) {
+    this.historyCleanupPartitionDaysInAdvance = historyCleanupPartitionDaysInAdvance;
+    return this;
+  }
+
+  public boolean isHistoryCleanupTableGroupsEnabled() {
+    return isHistoryCleanupTableGroupsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupTableGroupsEnabled(boolean isHistoryCleanupTableGroupsEnabled) {
+    this.isHistoryCleanupTableGroupsEnabled = isHistoryCleanupTableGroupsEnabled;
+    return this;
+  }
+
+  public Map<String, Integer> getHistoryCleanupTableGroupBatchSizes() {
+    return historyCleanupTableGroupBatchSizes;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupTableGroupBatchSizes(Map<String, Integer> historyCleanupTableGroupBatchSizes) {
+    this.historyCleanupTableGroupBatchSizes = historyCleanupTableGroupBatchSizes;
+    return this;
+  }
+
+  public Map<HistoryCleanupTableGroup, Integer> getParsedHistoryCleanupTableGroupBatchSizes() {
+    return parsedHistoryCleanupTableGroupBatchSizes;
+  }
+
+  public int getHistoryCleanupTableGroupTargetDuration() {
+    return historyCleanupTableGroupTargetDuration;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupTableGroupTargetDuration(int historyCleanupTableGroupTargetDuration) {
+    this.historyCleanupTableGroupTargetDuration = historyCleanupTableGroupTargetDuration;
+    return this;
+  }
+
+  public boolean isSetBasedMigrationEnabled() {
+    return isSetBasedMigrationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setSetBasedMigrationEnabled(boolean isSetBasedMigrationEnabled) {
+    this.isSetBasedMigrationEnabled = isSetBasedMigrationEnabled;
+    return this;
+  }
+
+  public int getJobFailureCircuitBreakerThreshold() {
+    return jobFailureCircuitBreakerThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setJobFailureCircuitBreakerThreshold(int jobFailureCircuitBreakerThreshold) {
+    this.jobFailureCircuitBreakerThreshold = jobFailureCircuitBreakerThreshold;
+    return this;
+  }
+
+  public long getJobFailureCircuitBreakerWindow() {
+    return jobFailureCircuitBreakerWindow;
+  }
+
+  public ProcessEngineConfigurationImpl setJobFailureCircuitBreakerWindow(long jobFailureCircuitBreakerWindow) {
+    this.jobFailureCircuitBreakerWindow = jobFailureCircuitBreakerWindow;
+    return this;
+  }
+
+  public long getJobFailureCircuitBreakerBackoff() {
+    return jobFailureCircuitBreakerBackoff;
+  }
+
+  public ProcessEngineConfigurationImpl setJobFailureCircuitBreakerBackoff(long jobFailureCircuitBreakerBackoff) {
+    this.jobFailureCircuitBreakerBackoff = jobFailureCircuitBreakerBackoff;
+    return this;
+  }
+
+  public JobFailureCircuitBreaker getJobFailureCircuitBreaker() {
+    return jobFailureCircuitBreaker;
+  }
+
+  public ProcessEngineConfigurationImpl setJobFailureCircuitBreaker(JobFailureCircuitBreaker jobFailureCircuitBreaker) {
+    this.jobFailureCircuitBreaker = jobFailureCircuitBreaker;
+    return this;
+  }
+
+  public boolean isJobExecutorAcquireWithSkipLocked() {
+    return jobExecutorAcquireWithSkipLocked;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorAcquireWithSkipLocked(boolean jobExecutorAcquireWithSkipLocked) {
+    this.jobExecutorAcquireWithSkipLocked = jobExecutorAcquireWithSkipLocked;
+    return this;
+  }
+
+  public boolean isJobExecutorExclusiveJobAffinity() {
+    return jobExecutorExclusiveJobAffinity;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorExclusiveJobAffinity(boolean jobExecutorExclusiveJobAffinity) {
+    this.jobExecutorExclusiveJobAffinity = jobExecutorExclusiveJobAffinity;
+    return this;
+  }
+
+  public boolean isJobExecutorHandOffNewJobs() {
+    return jobExecutorHandOffNewJobs;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorHandOffNewJobs(boolean jobExecutorHandOffNewJobs) {
+    this.jobExecutorHandOffNewJobs = jobExecutorHandOffNewJobs;
+    return this;
+  }
+
+  public long getPasswordCheckCacheTimeToLive() {
+    return passwordCheckCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setPasswordCheckCacheTimeToLive(long passwordCheckCacheTimeToLive) {
+    this.passwordCheckCacheTimeToLive = passwordCheckCacheTimeToLive;
+    return this;
+  }
+
+  public int getPasswordCheckCacheCapacity() {
+    return passwordCheckCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setPasswordCheckCacheCapacity(int passwordCheckCacheCapacity) {
+    this.passwordCheckCacheCapacity = passwordCheckCacheCapacity;
+    return this;
+  }
+
+  public PasswordCheckCache getPasswordCheckCache() {
+    return passwordCheckCache;
+  }
+
+  public ProcessEngineConfigurationImpl setPasswordCheckCache(PasswordCheckCache passwordCheckCache) {
+    this.passwordCheckCache = passwordCheckCache;
+    return this;
+  }
+
+  public boolean isCommandProfilingEnabled() {
+    return isCommandProfilingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setCommandProfilingEnabled(boolean isCommandProfilingEnabled) {
+    this.isCommandProfilingEnabled = isCommandProfilingEnabled;
+    return this;
+  }
+
+  public int getCommandProfilingSampleInterval() {
+    return commandProfilingSampleInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setCommandProfilingSampleInterval(int commandProfilingSampleInterval) {
+    this.commandProfilingSampleInterval = commandProfilingSampleInterval;
+    return this;
+  }
+
+  public CommandProfiler getCommandProfiler() {
+    return commandProfiler;
+  }
+
+  public ProcessEngineConfigurationImpl setCommandProfiler(CommandProfiler commandProfiler) {
+    this.commandProfiler = commandProfiler;
+    return this;
+  }
+
+  public DataSource getReadReplicaDataSource() {
+    return readReplicaDataSource;
+  }
+
+  public ProcessEngineConfigurationImpl setReadReplicaDataSource(DataSource readReplicaDataSource) {
+    this.readReplicaDataSource = readReplicaDataSource;
+    return this;
+  }
+
+  public long getReadReplicaStalenessTolerance() {
+    return readReplicaStalenessTolerance;
+  }
+
+  public ProcessEngineConfigurationImpl setReadReplicaStalenessTolerance(long readReplicaStalenessTolerance) {
+    this.readReplicaStalenessTolerance = readReplicaStalenessTolerance;
+    return this;
+  }
+
+  public ReadReplicaRouter getReadReplicaRouter() {
+    return readReplicaRouter;
+  }
+
+  public ProcessEngineConfigurationImpl setReadReplicaRouter(ReadReplicaRouter readReplicaRouter) {
+    this.readReplicaRouter = readReplicaRouter;
+    return this;
+  }
+
+  public boolean isStatisticsCountersEnabled() {
+    return statisticsCountersEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setStatisticsCountersEnabled(boolean statisticsCountersEnabled) {
+    this.statisticsCountersEnabled = statisticsCountersEnabled;
+    return this;
+  }
+
+  public long getStatisticsCountersRefreshInterval() {
+    return statisticsCountersRefreshInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setStatisticsCountersRefreshInterval(long statisticsCountersRefreshInterval) {
+    this.statisticsCountersRefreshInterval = statisticsCountersRefreshInterval;
+    return this;
+  }
+
+  public StatisticsCounters getStatisticsCounters() {
+    return statisticsCounters;
+  }
+
+  public ProcessEngineConfigurationImpl setStatisticsCounters(StatisticsCounters statisticsCounters) {
+    this.statisticsCounters = statisticsCounters;
+    return this;
+  }
+
 }
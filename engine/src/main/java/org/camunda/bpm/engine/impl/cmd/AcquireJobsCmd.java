@@ -81,6 +81,11 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
       acquiredJobs.addJobIdBatch(jobIds);
     }
 
+    // acquisition is going to be idle: look ahead for jobs which become due meanwhile
+    if (jobs.size() < numJobsToAcquire && jobExecutor.getDueDateLookAhead() > 0) {
+      lookAheadForNextDueJob(commandContext);
+    }
+
     // register an OptimisticLockingListener which is notified about jobs which cannot be acquired.
     // the listener removes them from the list of acquired jobs.
     commandContext
@@ -91,6 +96,19 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
     return acquiredJobs;
   }
 
+  protected void lookAheadForNextDueJob(CommandContext commandContext) {
+    Date now = ClockUtil.getCurrentTime();
+    Date lookAheadEnd = new Date(now.getTime() + jobExecutor.getDueDateLookAhead());
+
+    Date nextDueDate = commandContext
+      .getJobManager()
+      .findNextJobDueDate(now, lookAheadEnd);
+
+    if (nextDueDate != null) {
+      acquiredJobs.setTimeUntilNextDueJob(Math.max(0, nextDueDate.getTime() - now.getTime()));
+    }
+  }
+
   protected void lockJob(JobEntity job) {
     String lockOwner = jobExecutor.getLockOwner();
     job.setLockOwner(lockOwner);
@@ -101,6 +101,13 @@ public class ExecuteJobsCmd implements Command<Void>, Serializable {
 
       job.execute(commandContext);
 
+      if (jobExecutorContext != null
+          && job.isExclusive()
+          && processEngineConfiguration.isJobExecutorExclusiveJobAffinity()) {
+        // keep executing the exclusive jobs of the process instance in this thread
+        commandContext.getJobManager().lockExclusiveJobsOfProcessInstance(job);
+      }
+
     }
     finally {
       if (jobExecutorContext != null) {
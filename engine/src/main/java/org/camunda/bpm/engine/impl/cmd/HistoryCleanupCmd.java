@@ -15,9 +15,12 @@
  */
 package org.camunda.bpm.engine.impl.cmd;
 
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED;
+
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
 
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
@@ -29,6 +32,8 @@ import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupCont
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHelper;
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobDeclaration;
 import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupTableGroup;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
@@ -70,13 +75,14 @@ public class HistoryCleanupCmd implements Command<Job> {
 
     int degreeOfParallelism = processEngineConfiguration.getHistoryCleanupDegreeOfParallelism();
     int[][] minuteChunks = HistoryCleanupHelper.listMinuteChunks(degreeOfParallelism);
+    List<HistoryCleanupContext> cleanupContexts = createCleanupContexts(minuteChunks);
 
     if (shouldCreateJobs(historyCleanupJobs)) {
-      historyCleanupJobs = createJobs(degreeOfParallelism, minuteChunks);
+      historyCleanupJobs = createJobs(cleanupContexts);
 
     }
     else if (shouldReconfigureJobs(historyCleanupJobs)) {
-      historyCleanupJobs = reconfigureJobs(historyCleanupJobs, degreeOfParallelism, minuteChunks);
+      historyCleanupJobs = reconfigureJobs(historyCleanupJobs, cleanupContexts);
 
     }
     else if (shouldSuspendJobs(historyCleanupJobs)) {
@@ -109,7 +115,7 @@ public class HistoryCleanupCmd implements Command<Job> {
     return immediatelyDue || HistoryCleanupHelper.isBatchWindowConfigured(commandContext);
   }
 
-  protected List<Job> createJobs(int degreeOfParallelism, int[][] minuteChunks) {
+  protected List<Job> createJobs(List<HistoryCleanupContext> cleanupContexts) {
     CommandContext commandContext = Context.getCommandContext();
 
     PropertyManager propertyManager = commandContext.getPropertyManager();
@@ -122,8 +128,8 @@ public class HistoryCleanupCmd implements Command<Job> {
     List<Job> historyCleanupJobs = getHistoryCleanupJobs();
 
     if (historyCleanupJobs.isEmpty()) {
-      for (int[] minuteChunk : minuteChunks) {
-        JobEntity job = createJob(minuteChunk);
+      for (HistoryCleanupContext cleanupContext : cleanupContexts) {
+        JobEntity job = createJob(cleanupContext);
         jobManager.insertAndHintJobExecutor(job);
         historyCleanupJobs.add(job);
       }
@@ -132,47 +138,74 @@ public class HistoryCleanupCmd implements Command<Job> {
     return historyCleanupJobs;
   }
 
-  @SuppressWarnings("unchecked")
-  protected List<Job> reconfigureJobs(List<Job> historyCleanupJobs, int degreeOfParallelism, int[][] minuteChunks) {
+  /**
+   * Reconfigures the jobs which clean up the same table group and minutes first, so that
+   * they keep their adapted batch size, then reuses, creates or deletes the remaining jobs.
+   */
+  protected List<Job> reconfigureJobs(List<Job> historyCleanupJobs, List<HistoryCleanupContext> cleanupContexts) {
     CommandContext commandContext = Context.getCommandContext();
     JobManager jobManager = commandContext.getJobManager();
 
-    int size = Math.min(degreeOfParallelism, historyCleanupJobs.size());
+    List<Job> reconfiguredJobs = new ArrayList<Job>();
+    List<Job> remainingJobs = new ArrayList<Job>(historyCleanupJobs);
+    List<HistoryCleanupContext> remainingContexts = new ArrayList<HistoryCleanupContext>();
 
-    for (int i = 0; i < size; i++) {
-      JobEntity historyCleanupJob = (JobEntity) historyCleanupJobs.get(i);
+    for (HistoryCleanupContext cleanupContext : cleanupContexts) {
+      JobEntity historyCleanupJob = removeJobOfContext(remainingJobs, cleanupContext);
+      if (historyCleanupJob != null) {
+        reconfigureJob(historyCleanupJob, cleanupContext);
+        reconfiguredJobs.add(historyCleanupJob);
+      }
+      else {
+        remainingContexts.add(cleanupContext);
+      }
+    }
 
-      //apply new configuration
-      HistoryCleanupContext historyCleanupContext = createCleanupContext(minuteChunks[i]);
+    for (HistoryCleanupContext cleanupContext : remainingContexts) {
+      if (!remainingJobs.isEmpty()) {
+        JobEntity historyCleanupJob = (JobEntity) remainingJobs.remove(0);
+        reconfigureJob(historyCleanupJob, cleanupContext);
+        reconfiguredJobs.add(historyCleanupJob);
+      }
+      else {
+        //create new job, as there are not enough of them
+        JobEntity job = createJob(cleanupContext);
+        jobManager.insertAndHintJobExecutor(job);
+        reconfiguredJobs.add(job);
+      }
+    }
 
-      HISTORY_CLEANUP_JOB_DECLARATION.reconfigure(historyCleanupContext, historyCleanupJob);
+    //remove jobs, if there are too much of them
+    for (Job job : remainingJobs) {
+      jobManager.deleteJob((JobEntity) job);
+    }
 
-      Date newDueDate = HISTORY_CLEANUP_JOB_DECLARATION.resolveDueDate(historyCleanupContext);
+    return reconfiguredJobs;
+  }
 
-      jobManager.reschedule(historyCleanupJob, newDueDate);
-    }
+  @SuppressWarnings("unchecked")
+  protected void reconfigureJob(JobEntity historyCleanupJob, HistoryCleanupContext historyCleanupContext) {
+    //apply new configuration
+    HISTORY_CLEANUP_JOB_DECLARATION.reconfigure(historyCleanupContext, historyCleanupJob);
 
-    int delta = degreeOfParallelism - historyCleanupJobs.size();
+    Date newDueDate = HISTORY_CLEANUP_JOB_DECLARATION.resolveDueDate(historyCleanupContext);
 
-    if (delta > 0) {
-      //create new job, as there are not enough of them
-      for (int i = size; i < degreeOfParallelism; i++) {
-        JobEntity job = createJob(minuteChunks[i]);
-        jobManager.insertAndHintJobExecutor(job);
-        historyCleanupJobs.add(job);
-      }
-    }
-    else if (delta < 0) {
-      //remove jobs, if there are too much of them
-      ListIterator<Job> iterator = historyCleanupJobs.listIterator(size);
-      while (iterator.hasNext()) {
-        JobEntity job = (JobEntity) iterator.next();
-        jobManager.deleteJob(job);
+    Context.getCommandContext().getJobManager().reschedule(historyCleanupJob, newDueDate);
+  }
+
+  protected JobEntity removeJobOfContext(List<Job> jobs, HistoryCleanupContext cleanupContext) {
+    Iterator<Job> iterator = jobs.iterator();
+    while (iterator.hasNext()) {
+      JobEntity job = (JobEntity) iterator.next();
+      HistoryCleanupJobHandlerConfiguration configuration = (HistoryCleanupJobHandlerConfiguration) job.getJobHandlerConfiguration();
+      if (configuration.getTableGroup() == cleanupContext.getTableGroup()
+          && configuration.getMinuteFrom() == cleanupContext.getMinuteFrom()
+          && configuration.getMinuteTo() == cleanupContext.getMinuteTo()) {
         iterator.remove();
+        return job;
       }
     }
-
-    return historyCleanupJobs;
+    return null;
   }
 
   protected void suspendJobs(List<Job> jobs) {
@@ -184,14 +217,42 @@ public class HistoryCleanupCmd implements Command<Job> {
   }
 
   @SuppressWarnings("unchecked")
-  protected JobEntity createJob(int[] minuteChunk) {
-    HistoryCleanupContext historyCleanupContext = createCleanupContext(minuteChunk);
+  protected JobEntity createJob(HistoryCleanupContext historyCleanupContext) {
     return HISTORY_CLEANUP_JOB_DECLARATION.createJobInstance(historyCleanupContext);
   }
 
-  protected HistoryCleanupContext createCleanupContext(int[] minuteChunk) {
+  /**
+   * One context per minute chunk; if the table groups are cleaned up independently,
+   * one context per minute chunk and table group.
+   */
+  protected List<HistoryCleanupContext> createCleanupContexts(int[][] minuteChunks) {
+    List<HistoryCleanupContext> cleanupContexts = new ArrayList<HistoryCleanupContext>();
+
+    if (isTableGroupCleanup()) {
+      for (HistoryCleanupTableGroup tableGroup : HistoryCleanupTableGroup.values()) {
+        for (int[] minuteChunk : minuteChunks) {
+          cleanupContexts.add(createCleanupContext(minuteChunk, tableGroup));
+        }
+      }
+    }
+    else {
+      for (int[] minuteChunk : minuteChunks) {
+        cleanupContexts.add(createCleanupContext(minuteChunk, null));
+      }
+    }
+
+    return cleanupContexts;
+  }
+
+  protected HistoryCleanupContext createCleanupContext(int[] minuteChunk, HistoryCleanupTableGroup tableGroup) {
     int minuteFrom = minuteChunk[0];
     int minuteTo = minuteChunk[1];
-    return new HistoryCleanupContext(immediatelyDue, minuteFrom, minuteTo);
+    return new HistoryCleanupContext(immediatelyDue, minuteFrom, minuteTo, tableGroup);
+  }
+
+  protected boolean isTableGroupCleanup() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration.isHistoryCleanupTableGroupsEnabled()
+        && HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED.equals(processEngineConfiguration.getHistoryCleanupStrategy());
   }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogRollupEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MetricIntervalEntity;
+
+/**
+ * <p>Rolls up the meter logs (or the rollups of a finer interval) from the end of
+ * the existing rollups of the given interval up to the given end. The end of the
+ * rollups is kept in a property, so concurrent rollups of several engines fail
+ * with an optimistic locking exception instead of rolling up twice.</p>
+ *
+ * <p>At most {@link #MAX_INTERVALS_PER_COMMAND} intervals are rolled up per command.
+ * The command returns <code>true</code> if there are more intervals to roll up.</p>
+ */
+public class RollupMetricsCmd implements Command<Boolean> {
+
+  public static final int MAX_INTERVALS_PER_COMMAND = 48;
+
+  protected int interval;
+  protected Integer sourceInterval;
+  protected long endMilliseconds;
+
+  /**
+   * @param interval the interval of the rollups in seconds
+   * @param sourceInterval the interval of the rollups which are rolled up or <code>null</code>
+   *   to roll up the meter logs
+   * @param endMilliseconds the timestamp up to which the rollups should be created; must be
+   *   a multiple of the interval
+   */
+  public RollupMetricsCmd(int interval, Integer sourceInterval, long endMilliseconds) {
+    this.interval = interval;
+    this.sourceInterval = sourceInterval;
+    this.endMilliseconds = endMilliseconds;
+  }
+
+  public Boolean execute(CommandContext commandContext) {
+    MeterLogManager meterLogManager = commandContext.getMeterLogManager();
+    long intervalInMillis = interval * 1000L;
+
+    long end = endMilliseconds;
+    if (sourceInterval != null) {
+      // rollups of rollups must not overtake their source
+      Long sourceEnd = meterLogManager.findRollupEnd(sourceInterval);
+      if (sourceEnd == null) {
+        return false;
+      }
+      end = Math.min(end, sourceEnd - sourceEnd % intervalInMillis);
+    }
+
+    Long start = meterLogManager.findRollupEnd(interval);
+    if (start == null) {
+      Long oldest = meterLogManager.selectMinMillisecondsForRollup(sourceInterval);
+      start = oldest != null ? oldest - oldest % intervalInMillis : end;
+    }
+
+    if (start >= end) {
+      if (meterLogManager.findRollupEnd(interval) == null) {
+        // nothing to roll up yet but newer meter logs must not be rolled up before this end
+        meterLogManager.updateRollupEnd(interval, end);
+      }
+      return false;
+    }
+
+    long commandEnd = Math.min(end, start + MAX_INTERVALS_PER_COMMAND * intervalInMillis);
+
+    List<MetricIntervalEntity> sums = meterLogManager.selectAggregatedForRollup(sourceInterval, interval, start, commandEnd);
+    for (MetricIntervalEntity sum : sums) {
+      meterLogManager.insertRollup(new MeterLogRollupEntity(sum.getName(),
+          sum.getReporter(),
+          interval,
+          sum.getValue(),
+          sum.getTimestamp().getTime()));
+    }
+
+    meterLogManager.updateRollupEnd(interval, commandEnd);
+
+    return commandEnd < end;
+  }
+
+}
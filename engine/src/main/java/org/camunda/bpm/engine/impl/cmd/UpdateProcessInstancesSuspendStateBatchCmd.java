@@ -23,14 +23,17 @@ import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.authorization.Permissions;
 import org.camunda.bpm.engine.authorization.Resources;
 import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.UpdateProcessInstancesSuspensionStateBuilderImpl;
 import org.camunda.bpm.engine.impl.batch.BatchConfiguration;
 import org.camunda.bpm.engine.impl.batch.BatchEntity;
 import org.camunda.bpm.engine.impl.batch.BatchJobHandler;
+import org.camunda.bpm.engine.impl.batch.ProcessInstanceQueryCursor;
 import org.camunda.bpm.engine.impl.batch.update.UpdateProcessInstancesSuspendStateBatchConfiguration;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.json.JsonProcessInstanceQueryConverter;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 
 public class UpdateProcessInstancesSuspendStateBatchCmd extends AbstractUpdateProcessInstancesSuspendStateCmd<Batch> {
@@ -40,13 +43,20 @@ public class UpdateProcessInstancesSuspendStateBatchCmd extends AbstractUpdatePr
   }
 
   public Batch execute(CommandContext commandContext) {
-    Collection<String> processInstanceIds = collectProcessInstanceIds();
+    BatchEntity batch;
 
-    EnsureUtil.ensureNotEmpty(BadUserRequestException.class, "No process instance ids given", "process Instance Ids", processInstanceIds);
-    EnsureUtil.ensureNotContainsNull(BadUserRequestException.class, "Cannot be null.", "Process Instance ids", processInstanceIds);
-    checkAuthorizations(commandContext);
-    writeUserOperationLog(commandContext, processInstanceIds.size(), true);
-    BatchEntity batch = createBatch(commandContext, processInstanceIds);
+    if (isLazyJobCreation(commandContext)) {
+      batch = createLazyBatch(commandContext);
+    }
+    else {
+      Collection<String> processInstanceIds = collectProcessInstanceIds();
+
+      EnsureUtil.ensureNotEmpty(BadUserRequestException.class, "No process instance ids given", "process Instance Ids", processInstanceIds);
+      EnsureUtil.ensureNotContainsNull(BadUserRequestException.class, "Cannot be null.", "Process Instance ids", processInstanceIds);
+      checkAuthorizations(commandContext);
+      writeUserOperationLog(commandContext, processInstanceIds.size(), true);
+      batch = createBatch(commandContext, processInstanceIds);
+    }
 
     batch.createSeedJobDefinition();
     batch.createMonitorJobDefinition();
@@ -58,17 +68,52 @@ public class UpdateProcessInstancesSuspendStateBatchCmd extends AbstractUpdatePr
     return batch;
   }
 
+  /**
+   * The jobs are created lazily if the process instances are only given by a query
+   * which can be stored in the batch configuration.
+   */
+  protected boolean isLazyJobCreation(CommandContext commandContext) {
+    List<String> processInstanceIds = builder.getProcessInstanceIds();
+
+    return commandContext.getProcessEngineConfiguration().isLazyBatchJobCreationEnabled()
+        && (processInstanceIds == null || processInstanceIds.isEmpty())
+        && builder.getHistoricProcessInstanceQuery() == null
+        && builder.getProcessInstanceQuery() != null
+        && JsonProcessInstanceQueryConverter.INSTANCE.isSupported((ProcessInstanceQueryImpl) builder.getProcessInstanceQuery());
+  }
+
+  protected BatchEntity createLazyBatch(CommandContext commandContext) {
+    ProcessInstanceQueryImpl processInstanceQuery = (ProcessInstanceQueryImpl) builder.getProcessInstanceQuery();
+    long processInstanceCount = processInstanceQuery.count();
+
+    EnsureUtil.ensurePositive(BadUserRequestException.class, "No process instance ids given", "process Instance Ids", processInstanceCount);
+    checkAuthorizations(commandContext);
+    writeUserOperationLog(commandContext, (int) processInstanceCount, true);
+
+    BatchConfiguration configuration = getAbstractIdsBatchConfiguration(new ArrayList<String>());
+    configuration.setProcessInstanceQueryCursor(new ProcessInstanceQueryCursor(processInstanceQuery, commandContext.getAuthentication()));
+
+    int invocationsPerBatchJob = commandContext.getProcessEngineConfiguration().getInvocationsPerBatchJob();
+    int totalJobs = (int) Math.ceil((double) processInstanceCount / invocationsPerBatchJob);
+
+    return createBatch(commandContext, configuration, totalJobs);
+  }
+
   protected BatchEntity createBatch(CommandContext commandContext, Collection<String> processInstanceIds) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    BatchConfiguration configuration = getAbstractIdsBatchConfiguration(new ArrayList<String>(processInstanceIds));
 
+    return createBatch(commandContext, configuration, calculateSize(processEngineConfiguration, (UpdateProcessInstancesSuspendStateBatchConfiguration) configuration));
+  }
+
+  protected BatchEntity createBatch(CommandContext commandContext, BatchConfiguration configuration, int totalJobs) {
     ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
     BatchJobHandler batchJobHandler = getBatchJobHandler(processEngineConfiguration);
 
-    BatchConfiguration configuration = getAbstractIdsBatchConfiguration(new ArrayList<String>(processInstanceIds));
-
     BatchEntity batch = new BatchEntity();
 
     batch.setType(batchJobHandler.getType());
-    batch.setTotalJobs(calculateSize(processEngineConfiguration, (UpdateProcessInstancesSuspendStateBatchConfiguration) configuration));
+    batch.setTotalJobs(totalJobs);
     batch.setBatchJobsPerSeed(processEngineConfiguration.getBatchJobsPerSeed());
     batch.setInvocationsPerBatchJob(processEngineConfiguration.getInvocationsPerBatchJob());
     batch.setConfigurationBytes(batchJobHandler.writeConfiguration(configuration));
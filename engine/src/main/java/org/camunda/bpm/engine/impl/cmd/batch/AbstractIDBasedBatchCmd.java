@@ -33,13 +33,18 @@ public abstract class AbstractIDBasedBatchCmd<T> extends AbstractBatchCmd<T> {
 
   protected BatchEntity createBatch(CommandContext commandContext, List<String> ids) {
     ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
-    BatchJobHandler batchJobHandler = getBatchJobHandler(processEngineConfiguration);
-
     BatchConfiguration configuration = getAbstractIdsBatchConfiguration(ids);
 
+    return createBatch(commandContext, configuration, calculateSize(processEngineConfiguration, configuration));
+  }
+
+  protected BatchEntity createBatch(CommandContext commandContext, BatchConfiguration configuration, int totalJobs) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    BatchJobHandler batchJobHandler = getBatchJobHandler(processEngineConfiguration);
+
     BatchEntity batch = new BatchEntity();
     batch.setType(batchJobHandler.getType());
-    batch.setTotalJobs(calculateSize(processEngineConfiguration, configuration));
+    batch.setTotalJobs(totalJobs);
     batch.setBatchJobsPerSeed(processEngineConfiguration.getBatchJobsPerSeed());
     batch.setInvocationsPerBatchJob(processEngineConfiguration.getInvocationsPerBatchJob());
     batch.setConfigurationBytes(batchJobHandler.writeConfiguration(configuration));
@@ -22,9 +22,11 @@ import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.batch.BatchConfiguration;
 import org.camunda.bpm.engine.impl.batch.BatchEntity;
 import org.camunda.bpm.engine.impl.batch.BatchJobHandler;
+import org.camunda.bpm.engine.impl.batch.ProcessInstanceQueryCursor;
 import org.camunda.bpm.engine.impl.batch.deletion.DeleteProcessInstanceBatchConfiguration;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.json.JsonProcessInstanceQueryConverter;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyChange;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
 
@@ -34,6 +36,7 @@ import java.util.List;
 import java.util.Set;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensurePositive;
 
 /**
  * @author Askar Akhmerov
@@ -77,16 +80,23 @@ public class DeleteProcessInstanceBatchCmd extends AbstractIDBasedBatchCmd<Batch
 
   @Override
   public Batch execute(CommandContext commandContext) {
-    List<String> processInstanceIds = collectProcessInstanceIds();
+    BatchEntity batch;
 
-    ensureNotEmpty(BadUserRequestException.class, "processInstanceIds", processInstanceIds);
-    checkAuthorizations(commandContext);
-    writeUserOperationLog(commandContext,
-        deleteReason,
-        processInstanceIds.size(),
-        true);
+    if (isLazyJobCreation(commandContext)) {
+      batch = createLazyBatch(commandContext);
+    }
+    else {
+      List<String> processInstanceIds = collectProcessInstanceIds();
 
-    BatchEntity batch = createBatch(commandContext, processInstanceIds);
+      ensureNotEmpty(BadUserRequestException.class, "processInstanceIds", processInstanceIds);
+      checkAuthorizations(commandContext);
+      writeUserOperationLog(commandContext,
+          deleteReason,
+          processInstanceIds.size(),
+          true);
+
+      batch = createBatch(commandContext, processInstanceIds);
+    }
 
     batch.createSeedJobDefinition();
     batch.createMonitorJobDefinition();
@@ -99,6 +109,37 @@ public class DeleteProcessInstanceBatchCmd extends AbstractIDBasedBatchCmd<Batch
     return batch;
   }
 
+  /**
+   * The jobs are created lazily if the process instances are only given by a query
+   * which can be stored in the batch configuration.
+   */
+  protected boolean isLazyJobCreation(CommandContext commandContext) {
+    return commandContext.getProcessEngineConfiguration().isLazyBatchJobCreationEnabled()
+        && (processInstanceIds == null || processInstanceIds.isEmpty())
+        && processInstanceQuery != null
+        && JsonProcessInstanceQueryConverter.INSTANCE.isSupported((ProcessInstanceQueryImpl) processInstanceQuery);
+  }
+
+  protected BatchEntity createLazyBatch(CommandContext commandContext) {
+    ProcessInstanceQueryImpl processInstanceQuery = (ProcessInstanceQueryImpl) this.processInstanceQuery;
+    long processInstanceCount = processInstanceQuery.count();
+
+    ensurePositive(BadUserRequestException.class, "processInstanceIds", processInstanceCount);
+    checkAuthorizations(commandContext);
+    writeUserOperationLog(commandContext,
+        deleteReason,
+        (int) processInstanceCount,
+        true);
+
+    BatchConfiguration configuration = getAbstractIdsBatchConfiguration(new ArrayList<String>());
+    configuration.setProcessInstanceQueryCursor(new ProcessInstanceQueryCursor(processInstanceQuery, commandContext.getAuthentication()));
+
+    int invocationsPerBatchJob = commandContext.getProcessEngineConfiguration().getInvocationsPerBatchJob();
+    int totalJobs = (int) Math.ceil((double) processInstanceCount / invocationsPerBatchJob);
+
+    return createBatch(commandContext, configuration, totalJobs);
+  }
+
   protected BatchConfiguration getAbstractIdsBatchConfiguration(List<String> processInstanceIds) {
     return new DeleteProcessInstanceBatchConfiguration(processInstanceIds, deleteReason, skipCustomListeners, skipSubprocesses);
   }
@@ -21,8 +21,9 @@ import java.util.List;
 import org.camunda.bpm.engine.history.HistoricActivityInstance;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
 
-public class OptimizeCompletedHistoricActivityInstanceQueryCmd implements Command<List<HistoricActivityInstance>> {
+public class OptimizeCompletedHistoricActivityInstanceQueryCmd implements Command<List<HistoricActivityInstance>>, ReadOnlyCommand {
 
   protected Date finishedAfter;
   protected Date finishedAt;
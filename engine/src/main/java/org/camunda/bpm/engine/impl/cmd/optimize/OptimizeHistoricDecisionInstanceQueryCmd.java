@@ -18,11 +18,12 @@ package org.camunda.bpm.engine.impl.cmd.optimize;
 import org.camunda.bpm.engine.history.HistoricDecisionInstance;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
 
 import java.util.Date;
 import java.util.List;
 
-public class OptimizeHistoricDecisionInstanceQueryCmd implements Command<List<HistoricDecisionInstance>> {
+public class OptimizeHistoricDecisionInstanceQueryCmd implements Command<List<HistoricDecisionInstance>>, ReadOnlyCommand {
 
   protected Date evaluatedAfter;
   protected Date evaluatedAt;
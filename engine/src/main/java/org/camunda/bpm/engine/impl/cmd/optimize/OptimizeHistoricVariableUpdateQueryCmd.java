@@ -20,13 +20,14 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cmd.CommandLogger;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricDetailVariableInstanceUpdateEntity;
 import org.camunda.bpm.engine.impl.variable.serializer.AbstractTypedValueSerializer;
 
 import java.util.Date;
 import java.util.List;
 
-public class OptimizeHistoricVariableUpdateQueryCmd implements Command<List<HistoricVariableUpdate>> {
+public class OptimizeHistoricVariableUpdateQueryCmd implements Command<List<HistoricVariableUpdate>>, ReadOnlyCommand {
 
   private final static CommandLogger LOG = ProcessEngineLogger.CMD_LOGGER;
 
@@ -18,11 +18,12 @@ package org.camunda.bpm.engine.impl.cmd.optimize;
 import org.camunda.bpm.engine.history.HistoricActivityInstance;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
 
 import java.util.Date;
 import java.util.List;
 
-public class OptimizeRunningHistoricActivityInstanceQueryCmd implements Command<List<HistoricActivityInstance>> {
+public class OptimizeRunningHistoricActivityInstanceQueryCmd implements Command<List<HistoricActivityInstance>>, ReadOnlyCommand {
 
   protected Date startedAfter;
   protected Date startedAt;
@@ -18,11 +18,12 @@ package org.camunda.bpm.engine.impl.cmd.optimize;
 import org.camunda.bpm.engine.history.HistoricTaskInstance;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
 
 import java.util.Date;
 import java.util.List;
 
-public class OptimizeRunningHistoricTaskInstanceQueryCmd implements Command<List<HistoricTaskInstance>> {
+public class OptimizeRunningHistoricTaskInstanceQueryCmd implements Command<List<HistoricTaskInstance>>, ReadOnlyCommand {
 
   protected Date startedAfter;
   protected Date startedAt;
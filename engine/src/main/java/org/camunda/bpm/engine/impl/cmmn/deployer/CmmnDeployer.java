@@ -53,6 +53,11 @@ public class CmmnDeployer extends AbstractDefinitionDeployer<CaseDefinitionEntit
     return transformer.createTransform().deployment(deployment).resource(resource).transform();
   }
 
+  @Override
+  protected boolean isParallelTransformationSupported() {
+    return true;
+  }
+
   @Override
   protected CaseDefinitionEntity findDefinitionByDeploymentAndKey(String deploymentId, String definitionKey) {
     return getCaseDefinitionManager().findCaseDefinitionByDeploymentAndKey(deploymentId, definitionKey);
@@ -708,4 +708,11 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
         ));
   }
 
+  public void cannotOpenReadReplicaConnection(Throwable cause) {
+    logWarn(
+        "086",
+        "Could not open a connection to the read replica, the query is executed on the primary database. Reason: {}",
+        cause.getMessage(), cause);
+  }
+
 }
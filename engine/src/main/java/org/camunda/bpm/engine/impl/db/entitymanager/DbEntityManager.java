@@ -32,6 +32,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ibatis.executor.BatchExecutorException;
 import org.apache.ibatis.executor.BatchResult;
@@ -53,6 +54,7 @@ import org.camunda.bpm.engine.impl.UserQueryImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
@@ -74,12 +76,17 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.identity.db.DbGroupQueryImpl;
 import org.camunda.bpm.engine.impl.identity.db.DbUserQueryImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.metrics.CommandProfiler;
+import org.camunda.bpm.engine.impl.metrics.CommandProfilingSession;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.statistics.StatisticsCounterChanges;
 import org.camunda.bpm.engine.impl.util.CollectionUtil;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 import org.camunda.bpm.engine.impl.util.ExceptionUtil;
+import org.camunda.bpm.engine.management.Metrics;
 import org.camunda.bpm.engine.repository.ResourceTypes;
 
 /**
@@ -105,6 +112,8 @@ public class DbEntityManager implements Session, EntityLoadListener {
   protected PersistenceSession persistenceSession;
   protected boolean isIgnoreForeignKeysForNextFlush;
 
+  protected StatisticsCounterChanges statisticsCounterChanges;
+
   public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
     this.idGenerator = idGenerator;
     this.persistenceSession = persistenceSession;
@@ -288,12 +297,36 @@ public class DbEntityManager implements Session, EntityLoadListener {
   }
 
   public void flush() {
+    long startNanos = System.nanoTime();
 
     // flush the entity cache which inserts operations to the db operation manager
     flushEntityCache();
 
     // flush the db operation manager
     flushDbOperationManager();
+
+    logFlushTime(startNanos);
+  }
+
+  protected void notifyReadReplicaRouter() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null && processEngineConfiguration.getReadReplicaRouter() != null) {
+      processEngineConfiguration.getReadReplicaRouter().writeFlushed();
+    }
+  }
+
+  protected void logFlushTime(long startNanos) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null && processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration
+        .getMetricsRegistry()
+        .recordDuration(Metrics.FLUSH_TIME, startNanos);
+    }
+
+    CommandProfilingSession profilingSession = CommandProfiler.getCurrentSession();
+    if (profilingSession != null) {
+      profilingSession.flushed(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
   }
 
   public void setIgnoreForeignKeysForNextFlush(boolean ignoreForeignKeysForNextFlush) {
@@ -309,6 +342,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
     }
 
     LOG.databaseFlushSummary(operationsToFlush);
+    notifyReadReplicaRouter();
 
     // If we want to delete all table data as bulk operation, on tables which have self references,
     // We need to turn the foreign key check off on MySQL and MariaDB.
@@ -523,6 +557,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
   }
 
   protected void flushCachedEntity(CachedDbEntity cachedDbEntity) {
+    recordStatisticsCounterChanges(cachedDbEntity);
 
     if(cachedDbEntity.getEntityState() == TRANSIENT) {
       // latest state of references in cache is relevant when determining insertion order
@@ -564,6 +599,42 @@ public class DbEntityManager implements Session, EntityLoadListener {
     }
   }
 
+  protected void recordStatisticsCounterChanges(CachedDbEntity cachedDbEntity) {
+    if (StatisticsCounterChanges.isCounted(cachedDbEntity.getEntityType())) {
+      StatisticsCounterChanges changes = getStatisticsCounterChanges();
+      if (changes != null) {
+        changes.entityFlushed(cachedDbEntity);
+      }
+    }
+  }
+
+  protected void recordStatisticsCounterChanges(Class<? extends DbEntity> entityType, String statement) {
+    if (StatisticsCounterChanges.isCounted(entityType)) {
+      StatisticsCounterChanges changes = getStatisticsCounterChanges();
+      if (changes != null) {
+        changes.bulkOperationPerformed(statement);
+      }
+    }
+  }
+
+  /**
+   * @return the changes of the statistics counters or <code>null</code> if they are not enabled
+   */
+  protected StatisticsCounterChanges getStatisticsCounterChanges() {
+    if (statisticsCounterChanges == null) {
+      ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+      CommandContext commandContext = Context.getCommandContext();
+      if (processEngineConfiguration == null || processEngineConfiguration.getStatisticsCounters() == null || commandContext == null) {
+        return null;
+      }
+
+      // the counters are changed once the transaction is committed
+      statisticsCounterChanges = new StatisticsCounterChanges(processEngineConfiguration.getStatisticsCounters());
+      commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, statisticsCounterChanges);
+    }
+    return statisticsCounterChanges;
+  }
+
   public void insert(DbEntity dbEntity) {
     // generate Id if not present
     ensureHasId(dbEntity);
@@ -615,9 +686,10 @@ public class DbEntityManager implements Session, EntityLoadListener {
    * @param entityType
    * @param statement
    * @param parameter
+   * @return update operation
    */
-  public void updatePreserveOrder(Class<? extends DbEntity> entityType, String statement, Object parameter) {
-    performBulkOperationPreserveOrder(entityType, statement, parameter, UPDATE_BULK);
+  public DbBulkOperation updatePreserveOrder(Class<? extends DbEntity> entityType, String statement, Object parameter) {
+    return performBulkOperationPreserveOrder(entityType, statement, parameter, UPDATE_BULK);
   }
 
   public void delete(Class<? extends DbEntity> entityType, String statement, Object parameter) {
@@ -640,6 +712,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
   protected DbBulkOperation performBulkOperation(Class<? extends DbEntity> entityType, String statement, Object parameter, DbOperationType operationType) {
     // create operation
     DbBulkOperation bulkOperation = createDbBulkOperation(entityType, statement, parameter, operationType);
+    recordStatisticsCounterChanges(entityType, statement);
 
     // schedule operation
     dbOperationManager.addOperation(bulkOperation);
@@ -648,6 +721,7 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   protected DbBulkOperation performBulkOperationPreserveOrder(Class<? extends DbEntity> entityType, String statement, Object parameter, DbOperationType operationType) {
     DbBulkOperation bulkOperation = createDbBulkOperation(entityType, statement, parameter, operationType);
+    recordStatisticsCounterChanges(entityType, statement);
 
     // schedule operation
     dbOperationManager.addOperationPreserveOrder(bulkOperation);
@@ -34,6 +34,8 @@ public class CachedDbEntity implements Recyclable {
 
   protected Object copy;
 
+  protected boolean isForcedDirty;
+
   protected DbEntityState entityState;
 
   /**
@@ -45,6 +47,7 @@ public class CachedDbEntity implements Recyclable {
     // clean out state
     dbEntity = null;
     copy = null;
+    isForcedDirty = false;
     entityState = null;
   }
 
@@ -53,16 +56,24 @@ public class CachedDbEntity implements Recyclable {
    * @return true if the entity is dirty (state has changed since it was put into the cache)
    */
   public boolean isDirty() {
-    return !dbEntity.getPersistentState().equals(copy);
+    return isForcedDirty || !dbEntity.getPersistentState().equals(copy);
   }
 
   public void forceSetDirty() {
-    // set the value of the copy to some value which will always be different from the new entity state.
-    this.copy = -1;
+    // keep the copy, it still describes the state of the entity in the database
+    this.isForcedDirty = true;
   }
 
   public void makeCopy() {
     copy = dbEntity.getPersistentState();
+    isForcedDirty = false;
+  }
+
+  /**
+   * @return the persistent state of the entity when it was put into the cache or last flushed
+   */
+  public Object getCopy() {
+    return copy;
   }
 
   public String toString() {
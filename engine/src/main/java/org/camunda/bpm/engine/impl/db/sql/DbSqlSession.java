@@ -282,7 +282,8 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
     LOG.executeDatabaseBulkOperation("UPDATE", statement, parameter);
 
-    executeUpdate(statement, parameter);
+    int rowsAffected = executeUpdate(statement, parameter);
+    operation.setRowsAffected(rowsAffected);
   }
 
   // flush ////////////////////////////////////////////////////////////////////
@@ -359,7 +360,17 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
   @Override
   protected void dbSchemaCreateHistory() {
-    executeMandatorySchemaResource("create", "history");
+    if (isHistoryPartitioningUsed()) {
+      executeMandatorySchemaResource("create", "history.partitioned");
+    }
+    else {
+      executeMandatorySchemaResource("create", "history");
+    }
+  }
+
+  protected boolean isHistoryPartitioningUsed() {
+    return Context.getProcessEngineConfiguration().isHistoryCleanupPartitioningEnabled()
+        && DbSqlSessionFactory.POSTGRES.equals(dbSqlSessionFactory.getDatabaseType());
   }
 
   @Override
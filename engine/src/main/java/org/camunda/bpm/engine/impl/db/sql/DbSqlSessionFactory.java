@@ -15,6 +15,7 @@
  */
 package org.camunda.bpm.engine.impl.db.sql;
 
+import java.sql.Connection;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +23,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
@@ -164,6 +166,7 @@ public class DbSqlSessionFactory implements SessionFactory {
       databaseSpecificDaysComparator.put(mysqlLikeDatabase, "DATEDIFF(#{currentTimestamp}, ${date}) >= ${days}");
 
       addDatabaseSpecificStatement(mysqlLikeDatabase, "toggleForeignKey", "toggleForeignKey_mysql");
+      addDatabaseSpecificStatement(mysqlLikeDatabase, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_postgres_or_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "selectProcessDefinitionsByQueryCriteria", "selectProcessDefinitionsByQueryCriteria_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "selectProcessDefinitionCountByQueryCriteria", "selectProcessDefinitionCountByQueryCriteria_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "selectDeploymentsByQueryCriteria", "selectDeploymentsByQueryCriteria_mysql");
@@ -189,6 +192,7 @@ public class DbSqlSessionFactory implements SessionFactory {
       // related to CAM-9505
       addDatabaseSpecificStatement(mysqlLikeDatabase, "updateIncident", "updateIncident_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "updateTaskSuspensionStateByParameters", "updateTaskSuspensionStateByParameters_mysql");
+      addDatabaseSpecificStatement(mysqlLikeDatabase, "updateTasksForSetBasedMigration", "updateTasksForSetBasedMigration_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "updateJobLogByBatchId", "updateJobLogByBatchId_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "updateJobLogByRootProcessInstanceId", "updateJobLogByRootProcessInstanceId_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "updateUserOperationLogByRootProcessInstanceId", "updateUserOperationLogByRootProcessInstanceId_mysql");
@@ -279,6 +283,11 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(POSTGRES, "deleteUserOperationLogByRemovalTime", "deleteUserOperationLogByRemovalTime_postgres_or_db2");
     addDatabaseSpecificStatement(POSTGRES, "deleteByteArraysByRemovalTime", "deleteByteArraysByRemovalTime_postgres_or_db2");
     addDatabaseSpecificStatement(POSTGRES, "deleteHistoricBatchesByRemovalTime", "deleteHistoricBatchesByRemovalTime_postgres_or_db2");
+    addDatabaseSpecificStatement(POSTGRES, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_postgres_or_mysql");
+    addDatabaseSpecificStatement(POSTGRES, "selectOldestHistoryPartitionStart", "selectOldestHistoryPartitionStart_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectHistoryPartitionRowCount", "selectHistoryPartitionRowCount_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "createHistoryPartitions", "createHistoryPartitions_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "dropHistoryPartition", "dropHistoryPartition_postgres");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "'event'");
@@ -512,6 +521,7 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected boolean isDbIdentityUsed = true;
   protected boolean isDbHistoryUsed = true;
   protected boolean cmmnEnabled = true;
+  protected ReadReplicaRouter readReplicaRouter;
   protected boolean dmnEnabled = true;
 
   public Class< ? > getSessionType() {
@@ -519,6 +529,12 @@ public class DbSqlSessionFactory implements SessionFactory {
   }
 
   public Session openSession() {
+    if (readReplicaRouter != null && readReplicaRouter.isRoutedToReadReplica(Context.getCommandContext())) {
+      Connection connection = readReplicaRouter.openConnection();
+      if (connection != null) {
+        return new DbSqlSession(this, connection, null, null);
+      }
+    }
     return new DbSqlSession(this);
   }
 
@@ -698,5 +714,13 @@ public class DbSqlSessionFactory implements SessionFactory {
     this.databaseSchema = databaseSchema;
   }
 
+  public ReadReplicaRouter getReadReplicaRouter() {
+    return readReplicaRouter;
+  }
+
+  public void setReadReplicaRouter(ReadReplicaRouter readReplicaRouter) {
+    this.readReplicaRouter = readReplicaRouter;
+  }
+
 
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.ReadOnlyCommand;
+
+/**
+ * <p>Routes the queries of {@link ReadOnlyCommand}s to a read replica of the database.</p>
+ *
+ * <p>A replica may lag behind the primary database by up to the staleness tolerance.
+ * After a thread has flushed changes, its read-only commands use the primary database
+ * until the staleness tolerance has passed.</p>
+ *
+ * <p>The last write is only tracked per thread of this engine. A client whose requests
+ * are served by different threads, e.g. the worker pool of a web server, or by another
+ * engine of a cluster may therefore not see its own writes on the replica.</p>
+ */
+public class ReadReplicaRouter {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected final ThreadLocal<Long> lastWriteTime = new ThreadLocal<Long>();
+
+  protected DataSource dataSource;
+  protected volatile long stalenessTolerance;
+
+  /**
+   * @param dataSource the data source of the read replica
+   * @param stalenessTolerance the time in milliseconds the replica may lag behind the primary database
+   */
+  public ReadReplicaRouter(DataSource dataSource, long stalenessTolerance) {
+    this.dataSource = dataSource;
+    this.stalenessTolerance = stalenessTolerance;
+  }
+
+  public boolean isRoutedToReadReplica(CommandContext commandContext) {
+    if (commandContext == null || !commandContext.isReadOnly()) {
+      return false;
+    }
+
+    Long lastWrite = lastWriteTime.get();
+    if (lastWrite != null) {
+      if (System.currentTimeMillis() - lastWrite < stalenessTolerance) {
+        return false;
+      }
+      lastWriteTime.remove();
+    }
+    return true;
+  }
+
+  /**
+   * @return a connection to the read replica or <code>null</code> if no connection can be opened
+   */
+  public Connection openConnection() {
+    try {
+      return dataSource.getConnection();
+    }
+    catch (SQLException e) {
+      LOG.cannotOpenReadReplicaConnection(e);
+      return null;
+    }
+  }
+
+  /**
+   * Notifies the router that the current thread has flushed changes to the primary database.
+   */
+  public void writeFlushed() {
+    if (stalenessTolerance > 0) {
+      lastWriteTime.set(System.currentTimeMillis());
+    }
+  }
+
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  public long getStalenessTolerance() {
+    return stalenessTolerance;
+  }
+
+  public void setStalenessTolerance(long stalenessTolerance) {
+    this.stalenessTolerance = stalenessTolerance;
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.sql;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.camunda.bpm.engine.impl.metrics.CommandProfiler;
+import org.camunda.bpm.engine.impl.metrics.CommandProfilingSession;
+
+/**
+ * MyBatis plugin which reports the executed statements and the number of read and
+ * written rows to the {@link CommandProfilingSession} of the current thread. The rows
+ * of batched statements are reported when the batch is flushed.
+ */
+@Intercepts({
+  @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+  @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+  @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class StatementProfilingPlugin implements Interceptor {
+
+  public Object intercept(Invocation invocation) throws Throwable {
+    Object result = invocation.proceed();
+
+    CommandProfilingSession session = CommandProfiler.getCurrentSession();
+    if (session != null) {
+      String method = invocation.getMethod().getName();
+      if ("query".equals(method)) {
+        session.selected(result != null ? ((List<?>) result).size() : 0);
+      }
+      else if ("update".equals(method)) {
+        session.updated((Integer) result);
+      }
+      else {
+        for (Object batchResult : (List<?>) result) {
+          for (int updateCount : ((BatchResult) batchResult).getUpdateCounts()) {
+            session.batchUpdated(updateCount);
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  public Object plugin(Object target) {
+    return Plugin.wrap(target, this);
+  }
+
+  public void setProperties(Properties properties) {
+    // nothing to configure
+  }
+
+}
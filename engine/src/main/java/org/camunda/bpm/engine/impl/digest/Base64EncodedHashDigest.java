@@ -28,6 +28,13 @@ import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
  */
 public abstract class Base64EncodedHashDigest {
 
+  /** digest instances are not thread safe but expensive to look up, so every thread keeps its own */
+  protected final ThreadLocal<MessageDigest> digestInstance = new ThreadLocal<MessageDigest>() {
+    protected MessageDigest initialValue() {
+      return createDigestInstance();
+    }
+  };
+
   public String encrypt(String password) {
 
     // create hash as byte array
@@ -43,7 +50,8 @@ public abstract class Base64EncodedHashDigest {
   }
 
   protected byte[] createByteHash(String password) {
-    MessageDigest digest = createDigestInstance();
+    MessageDigest digest = digestInstance.get();
+    digest.reset();
     try {
       digest.update(password.getBytes("UTF-8"));
       return digest.digest();
@@ -23,7 +23,11 @@ import org.camunda.bpm.dmn.engine.delegate.DmnDecisionEvaluationListener;
 import org.camunda.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
 import org.camunda.bpm.dmn.engine.impl.spi.el.DmnScriptEngineResolver;
 import org.camunda.bpm.dmn.engine.impl.spi.transform.DmnTransformer;
+import org.camunda.bpm.dmn.feel.impl.FeelEngineFactory;
+import org.camunda.bpm.dmn.feel.impl.juel.FeelEngineFactoryImpl;
 import org.camunda.bpm.engine.impl.dmn.el.ProcessEngineElProvider;
+import org.camunda.bpm.engine.impl.dmn.feel.CompilingFeelEngineFactory;
+import org.camunda.bpm.engine.impl.dmn.invocation.DecisionEvaluationCache;
 import org.camunda.bpm.engine.impl.dmn.transformer.DecisionDefinitionHandler;
 import org.camunda.bpm.engine.impl.dmn.transformer.DecisionRequirementsDefinitionTransformHandler;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
@@ -49,6 +53,8 @@ public class DmnEngineConfigurationBuilder {
   protected DmnHistoryEventProducer dmnHistoryEventProducer;
   protected DmnScriptEngineResolver scriptEngineResolver;
   protected ExpressionManager expressionManager;
+  protected DecisionEvaluationCache decisionEvaluationCache;
+  protected boolean inputEntryCompilationEnabled;
 
   /**
    * Creates a new builder to modify the given DMN engine configuration.
@@ -83,6 +89,18 @@ public class DmnEngineConfigurationBuilder {
     return this;
   }
 
+  public DmnEngineConfigurationBuilder decisionEvaluationCache(DecisionEvaluationCache decisionEvaluationCache) {
+    this.decisionEvaluationCache = decisionEvaluationCache;
+
+    return this;
+  }
+
+  public DmnEngineConfigurationBuilder inputEntryCompilationEnabled(boolean inputEntryCompilationEnabled) {
+    this.inputEntryCompilationEnabled = inputEntryCompilationEnabled;
+
+    return this;
+  }
+
   /**
    * Modify the given DMN engine configuration and return it.
    */
@@ -111,6 +129,16 @@ public class DmnEngineConfigurationBuilder {
       dmnEngineConfiguration.setElProvider(elProvider);
     }
 
+    // do not override the feel engine if set
+    if (inputEntryCompilationEnabled && dmnEngineConfiguration.getFeelEngine() == null) {
+      FeelEngineFactory feelEngineFactory = dmnEngineConfiguration.getFeelEngineFactory();
+      if (feelEngineFactory == null) {
+        feelEngineFactory = new FeelEngineFactoryImpl();
+      }
+
+      dmnEngineConfiguration.setFeelEngineFactory(new CompilingFeelEngineFactory(feelEngineFactory));
+    }
+
     return dmnEngineConfiguration;
   }
 
@@ -125,6 +153,11 @@ public class DmnEngineConfigurationBuilder {
     customPostDecisionEvaluationListeners.add(new MetricsDecisionEvaluationListener());
     customPostDecisionEvaluationListeners.add(historyDecisionEvaluationListener);
 
+    if (decisionEvaluationCache != null) {
+      // captures the evaluation events of cached evaluations
+      customPostDecisionEvaluationListeners.add(decisionEvaluationCache);
+    }
+
     return customPostDecisionEvaluationListeners;
   }
 
@@ -20,11 +20,18 @@ import java.util.Collection;
 import java.util.List;
 
 import org.camunda.bpm.dmn.engine.DmnDecision;
+import org.camunda.bpm.dmn.engine.DmnDecisionLogic;
+import org.camunda.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionTableImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionTableRuleImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnExpressionImpl;
 import org.camunda.bpm.dmn.engine.impl.spi.transform.DmnTransformer;
 import org.camunda.bpm.engine.impl.AbstractDefinitionDeployer;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.core.model.Properties;
 import org.camunda.bpm.engine.impl.dmn.DecisionLogger;
+import org.camunda.bpm.engine.impl.dmn.feel.CompilingFeelEngine;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionEntity;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionManager;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionRequirementsDefinitionEntity;
@@ -72,6 +79,8 @@ public class DecisionDefinitionDeployer extends AbstractDefinitionDeployer<Decis
         decisionEntity.setDecisionRequirementsDefinitionKey(deployedDrd.getKey());
       }
 
+      compileInputEntries(decisionEntity);
+
       decisions.add(decisionEntity);
     }
 
@@ -82,6 +91,31 @@ public class DecisionDefinitionDeployer extends AbstractDefinitionDeployer<Decis
     return decisions;
   }
 
+  /**
+   * Compiles the input entries of a decision table if the DMN engine uses a {@link CompilingFeelEngine},
+   * such that they are not compiled on their first evaluation.
+   */
+  protected void compileInputEntries(DecisionDefinitionEntity decisionDefinition) {
+    DefaultDmnEngineConfiguration dmnEngineConfiguration = Context.getProcessEngineConfiguration().getDmnEngineConfiguration();
+    DmnDecisionLogic decisionLogic = decisionDefinition.getDecisionLogic();
+
+    if (dmnEngineConfiguration != null
+        && dmnEngineConfiguration.getFeelEngine() instanceof CompilingFeelEngine
+        && decisionLogic instanceof DmnDecisionTableImpl) {
+
+      CompilingFeelEngine feelEngine = (CompilingFeelEngine) dmnEngineConfiguration.getFeelEngine();
+
+      for (DmnDecisionTableRuleImpl rule : ((DmnDecisionTableImpl) decisionLogic).getRules()) {
+        for (DmnExpressionImpl condition : rule.getConditions()) {
+          String expression = condition.getExpression();
+          if (expression != null && !expression.trim().isEmpty()) {
+            feelEngine.compileUnaryTests(expression);
+          }
+        }
+      }
+    }
+  }
+
   protected DecisionRequirementsDefinitionEntity findDeployedDrdForResource(DeploymentEntity deployment, String resourceName) {
     List<DecisionRequirementsDefinitionEntity> deployedDrds = deployment.getDeployedArtifacts(DecisionRequirementsDefinitionEntity.class);
     if (deployedDrds != null) {
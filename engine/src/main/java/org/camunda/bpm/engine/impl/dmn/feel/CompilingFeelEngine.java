@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.dmn.feel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.camunda.bpm.dmn.feel.impl.FeelEngine;
+import org.camunda.bpm.engine.variable.context.VariableContext;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+/**
+ * <p>{@link FeelEngine} which tests the input entries of decision tables with their
+ * {@link SimpleUnaryTests compiled form} if possible and delegates to the actual
+ * FEEL engine otherwise.</p>
+ *
+ * <p>The input entries of deployed decision tables are compiled on deployment, see
+ * {@link #compileUnaryTests(String)}. Other expressions are compiled on their first
+ * evaluation. In both cases, expressions are only compiled as long as the number of
+ * compiled expressions is below the limit.</p>
+ */
+public class CompilingFeelEngine implements FeelEngine {
+
+  public static final int DEFAULT_MAX_COMPILED_EXPRESSIONS = 100000;
+
+  protected final FeelEngine delegate;
+  protected final int maxCompiledExpressions;
+
+  protected final ConcurrentMap<String, SimpleUnaryTests> compiledUnaryTests = new ConcurrentHashMap<String, SimpleUnaryTests>();
+
+  public CompilingFeelEngine(FeelEngine delegate) {
+    this(delegate, DEFAULT_MAX_COMPILED_EXPRESSIONS);
+  }
+
+  public CompilingFeelEngine(FeelEngine delegate, int maxCompiledExpressions) {
+    this.delegate = delegate;
+    this.maxCompiledExpressions = maxCompiledExpressions;
+  }
+
+  public <T> T evaluateSimpleExpression(String simpleExpression, VariableContext variableContext) {
+    return delegate.evaluateSimpleExpression(simpleExpression, variableContext);
+  }
+
+  public boolean evaluateSimpleUnaryTests(String simpleUnaryTests, String inputVariable, VariableContext variableContext) {
+    SimpleUnaryTests compiledTests = compileUnaryTests(simpleUnaryTests);
+
+    if (compiledTests != null && compiledTests.isSupported()) {
+      TypedValue inputValue = variableContext.resolve(inputVariable);
+      Boolean result = compiledTests.test(inputValue != null ? inputValue.getValue() : null);
+      if (result != null) {
+        return result;
+      }
+    }
+
+    return delegate.evaluateSimpleUnaryTests(simpleUnaryTests, inputVariable, variableContext);
+  }
+
+  /**
+   * Compiles the given simple unary tests expression and keeps the result for later evaluations.
+   *
+   * @return the compiled tests or <code>null</code> if the expression is not compiled yet
+   *   and the limit of compiled expressions is reached
+   */
+  public SimpleUnaryTests compileUnaryTests(String simpleUnaryTests) {
+    SimpleUnaryTests compiledTests = compiledUnaryTests.get(simpleUnaryTests);
+    if (compiledTests == null && compiledUnaryTests.size() < maxCompiledExpressions) {
+      compiledTests = SimpleUnaryTests.compile(simpleUnaryTests);
+      compiledUnaryTests.putIfAbsent(simpleUnaryTests, compiledTests);
+    }
+    return compiledTests;
+  }
+
+  public int getCompiledExpressionsCount() {
+    return compiledUnaryTests.size();
+  }
+
+  public FeelEngine getDelegate() {
+    return delegate;
+  }
+
+}
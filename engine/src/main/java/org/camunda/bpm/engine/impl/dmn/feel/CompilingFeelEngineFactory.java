@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.dmn.feel;
+
+import org.camunda.bpm.dmn.feel.impl.FeelEngine;
+import org.camunda.bpm.dmn.feel.impl.FeelEngineFactory;
+
+/**
+ * Creates {@link CompilingFeelEngine}s which wrap the FEEL engines of the given factory.
+ */
+public class CompilingFeelEngineFactory implements FeelEngineFactory {
+
+  protected final FeelEngineFactory delegate;
+
+  public CompilingFeelEngineFactory(FeelEngineFactory delegate) {
+    this.delegate = delegate;
+  }
+
+  public FeelEngine createInstance() {
+    return new CompilingFeelEngine(delegate.createInstance());
+  }
+
+  public FeelEngineFactory getDelegate() {
+    return delegate;
+  }
+
+}
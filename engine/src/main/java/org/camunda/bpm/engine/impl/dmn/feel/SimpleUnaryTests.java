@@ -0,0 +1,295 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.dmn.feel;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Compiled form of a FEEL simple unary tests expression as it is used for
+ * the input entries of decision tables. Only the most common kinds of tests
+ * are supported:</p>
+ *
+ * <ul>
+ *   <li>string literals and lists of string literals, e.g. <code>"a","b"</code></li>
+ *   <li>number literals and lists of number literals, e.g. <code>1,2,3</code></li>
+ *   <li>comparisons with a number, e.g. <code>&lt; 1000</code></li>
+ *   <li>intervals of numbers, e.g. <code>[1..10[</code></li>
+ * </ul>
+ *
+ * <p>String literals are kept in a hash set and number tests are compared
+ * without the expression language, so the test of an input entry takes constant
+ * time. {@link #test(Object)} returns <code>null</code> if the expression or the
+ * input value is not supported; the expression must be evaluated by the FEEL
+ * engine then.</p>
+ */
+public class SimpleUnaryTests {
+
+  /**
+   * Marks an expression which cannot be compiled.
+   */
+  public static final SimpleUnaryTests UNSUPPORTED = new SimpleUnaryTests(null, null);
+
+  protected static final Pattern NUMBER_PATTERN = Pattern.compile("-?\\d+(\\.\\d+)?");
+
+  protected final Set<String> stringLiterals;
+  protected final List<NumberTest> numberTests;
+
+  protected SimpleUnaryTests(Set<String> stringLiterals, List<NumberTest> numberTests) {
+    this.stringLiterals = stringLiterals;
+    this.numberTests = numberTests;
+  }
+
+  /**
+   * @return the compiled tests or {@link #UNSUPPORTED}
+   */
+  public static SimpleUnaryTests compile(String expression) {
+    if (expression == null) {
+      return UNSUPPORTED;
+    }
+
+    List<String> tests = splitTests(expression);
+    if (tests == null || tests.isEmpty()) {
+      return UNSUPPORTED;
+    }
+
+    Set<String> stringLiterals = new HashSet<String>();
+    List<NumberTest> numberTests = new ArrayList<NumberTest>();
+
+    for (String test : tests) {
+      if (isStringLiteral(test)) {
+        stringLiterals.add(test.substring(1, test.length() - 1));
+      }
+      else {
+        NumberTest numberTest = compileNumberTest(test);
+        if (numberTest == null) {
+          return UNSUPPORTED;
+        }
+        numberTests.add(numberTest);
+      }
+    }
+
+    // a mix of string and number tests would depend on type coercion
+    if (!stringLiterals.isEmpty() && !numberTests.isEmpty()) {
+      return UNSUPPORTED;
+    }
+
+    return new SimpleUnaryTests(stringLiterals, numberTests);
+  }
+
+  public boolean isSupported() {
+    return this != UNSUPPORTED;
+  }
+
+  /**
+   * @return <code>true</code> if the value satisfies one of the tests, <code>false</code>
+   *   if it satisfies none of them or <code>null</code> if the value cannot be tested
+   */
+  public Boolean test(Object value) {
+    if (!isSupported() || value == null) {
+      return null;
+    }
+
+    if (!stringLiterals.isEmpty()) {
+      if (value instanceof String) {
+        return stringLiterals.contains(value);
+      }
+      else {
+        return null;
+      }
+    }
+
+    BigDecimal number = toBigDecimal(value);
+    if (number == null) {
+      return null;
+    }
+
+    for (NumberTest numberTest : numberTests) {
+      if (numberTest.test(number)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // parsing ////////////////////////////////////////////////////////
+
+  /**
+   * Splits the expression at the commas which separate the single tests.
+   *
+   * @return the tests or <code>null</code> if the expression contains escaped or unbalanced quotes
+   */
+  protected static List<String> splitTests(String expression) {
+    List<String> tests = new ArrayList<String>();
+
+    boolean inString = false;
+    int start = 0;
+    for (int i = 0; i < expression.length(); i++) {
+      char c = expression.charAt(i);
+      if (c == '\\') {
+        return null;
+      }
+      else if (c == '"') {
+        inString = !inString;
+      }
+      else if (c == ',' && !inString) {
+        tests.add(expression.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+
+    if (inString) {
+      return null;
+    }
+
+    tests.add(expression.substring(start).trim());
+    return tests;
+  }
+
+  protected static boolean isStringLiteral(String test) {
+    return test.length() >= 2
+        && test.charAt(0) == '"'
+        && test.charAt(test.length() - 1) == '"'
+        && test.indexOf('"', 1) == test.length() - 1;
+  }
+
+  protected static NumberTest compileNumberTest(String test) {
+    if (isNumber(test)) {
+      BigDecimal number = new BigDecimal(test);
+      return new NumberTest(number, true, number, true);
+    }
+    else if (test.startsWith("<=")) {
+      BigDecimal number = parseNumber(test.substring(2));
+      return number != null ? new NumberTest(null, false, number, true) : null;
+    }
+    else if (test.startsWith(">=")) {
+      BigDecimal number = parseNumber(test.substring(2));
+      return number != null ? new NumberTest(number, true, null, false) : null;
+    }
+    else if (test.startsWith("<")) {
+      BigDecimal number = parseNumber(test.substring(1));
+      return number != null ? new NumberTest(null, false, number, false) : null;
+    }
+    else if (test.startsWith(">")) {
+      BigDecimal number = parseNumber(test.substring(1));
+      return number != null ? new NumberTest(number, false, null, false) : null;
+    }
+    else {
+      return compileInterval(test);
+    }
+  }
+
+  /**
+   * Compiles intervals like <code>[1..5]</code>, <code>]1..5[</code> or <code>(1..5)</code>.
+   */
+  protected static NumberTest compileInterval(String test) {
+    if (test.length() < 6) {
+      return null;
+    }
+
+    char startChar = test.charAt(0);
+    char endChar = test.charAt(test.length() - 1);
+    int separator = test.indexOf("..");
+
+    if (separator < 0 || "[](".indexOf(startChar) < 0 || "[])".indexOf(endChar) < 0) {
+      return null;
+    }
+
+    BigDecimal lower = parseNumber(test.substring(1, separator));
+    BigDecimal upper = parseNumber(test.substring(separator + 2, test.length() - 1));
+    if (lower == null || upper == null) {
+      return null;
+    }
+
+    return new NumberTest(lower, startChar == '[', upper, endChar == ']');
+  }
+
+  protected static boolean isNumber(String value) {
+    return NUMBER_PATTERN.matcher(value).matches();
+  }
+
+  protected static BigDecimal parseNumber(String value) {
+    String trimmed = value.trim();
+    if (isNumber(trimmed)) {
+      return new BigDecimal(trimmed);
+    }
+    else {
+      return null;
+    }
+  }
+
+  protected static BigDecimal toBigDecimal(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    }
+    else if (value instanceof Double || value instanceof Float) {
+      double doubleValue = ((Number) value).doubleValue();
+      if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+        return null;
+      }
+      return BigDecimal.valueOf(doubleValue);
+    }
+    else if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    }
+    else if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Tests if a number lies in a range; a bound of <code>null</code> is unbounded.
+   */
+  protected static class NumberTest {
+
+    protected final BigDecimal lower;
+    protected final boolean lowerInclusive;
+    protected final BigDecimal upper;
+    protected final boolean upperInclusive;
+
+    public NumberTest(BigDecimal lower, boolean lowerInclusive, BigDecimal upper, boolean upperInclusive) {
+      this.lower = lower;
+      this.lowerInclusive = lowerInclusive;
+      this.upper = upper;
+      this.upperInclusive = upperInclusive;
+    }
+
+    public boolean test(BigDecimal number) {
+      if (lower != null) {
+        int comparison = number.compareTo(lower);
+        if (comparison < 0 || (comparison == 0 && !lowerInclusive)) {
+          return false;
+        }
+      }
+      if (upper != null) {
+        int comparison = number.compareTo(upper);
+        if (comparison > 0 || (comparison == 0 && !upperInclusive)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+}
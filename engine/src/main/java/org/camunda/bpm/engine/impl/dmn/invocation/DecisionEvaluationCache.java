@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.dmn.invocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.dmn.engine.DmnDecision;
+import org.camunda.bpm.dmn.engine.DmnDecisionResult;
+import org.camunda.bpm.dmn.engine.DmnDecisionResultEntries;
+import org.camunda.bpm.dmn.engine.DmnEngine;
+import org.camunda.bpm.dmn.engine.delegate.DmnDecisionEvaluationEvent;
+import org.camunda.bpm.dmn.engine.delegate.DmnDecisionEvaluationListener;
+import org.camunda.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionResultEntriesImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionResultImpl;
+import org.camunda.bpm.engine.repository.DecisionDefinition;
+import org.camunda.bpm.engine.variable.context.VariableContext;
+import org.camunda.commons.utils.cache.Cache;
+import org.camunda.commons.utils.cache.ConcurrentLruCache;
+
+/**
+ * <p>Memoizes the results of decision evaluations by decision definition id and
+ * input variables. Must only be enabled if all deployed decisions are pure, i.e.
+ * their result depends on the input variables only.</p>
+ *
+ * <p>The cache registers itself as decision evaluation listener to capture the
+ * evaluation event of an evaluation. If the result of an evaluation is taken from
+ * the cache, the captured event is passed to the decision evaluation listeners of
+ * the DMN engine again, such that history and metrics are produced as for an
+ * actual evaluation.</p>
+ *
+ * <p>Only the variables which may be read by a decision are part of the key, see
+ * {@link DecisionVariableReferences}. Each caller gets its own copy of a cached
+ * result, such that changing a result does not affect other callers.</p>
+ *
+ * <p>A cached evaluation is only used for the decision definition instance it was
+ * created for. Once the definition is redeployed or reloaded into the deployment
+ * cache, its cached evaluations are stale and get replaced. Evaluations of deleted
+ * decision definitions are removed.</p>
+ */
+public class DecisionEvaluationCache implements DmnDecisionEvaluationListener {
+
+  protected final Cache<DecisionEvaluationCacheKey, CachedDecisionEvaluation> cache;
+
+  protected final ConcurrentMap<String, DecisionVariableReferences> variableReferences = new ConcurrentHashMap<String, DecisionVariableReferences>();
+
+  protected final ThreadLocal<EvaluationCapture> currentCapture = new ThreadLocal<EvaluationCapture>();
+
+  protected final AtomicLong hits = new AtomicLong();
+  protected final AtomicLong misses = new AtomicLong();
+
+  public DecisionEvaluationCache(int capacity) {
+    this.cache = new ConcurrentLruCache<DecisionEvaluationCacheKey, CachedDecisionEvaluation>(capacity);
+  }
+
+  public DmnDecisionResult evaluateDecision(DmnEngine dmnEngine, DecisionDefinition decisionDefinition, VariableContext variableContext) {
+    DmnDecision decision = (DmnDecision) decisionDefinition;
+
+    DecisionEvaluationCacheKey key = null;
+    if (decisionDefinition.getId() != null && dmnEngine.getConfiguration() instanceof DefaultDmnEngineConfiguration) {
+      DecisionVariableReferences references = getVariableReferences(dmnEngine, decision, decisionDefinition.getId());
+      key = DecisionEvaluationCacheKey.create(decisionDefinition.getId(), variableContext, references);
+    }
+
+    if (key == null) {
+      // the evaluation cannot be cached
+      return dmnEngine.evaluateDecision(decision, variableContext);
+    }
+
+    CachedDecisionEvaluation cachedEvaluation = cache.get(key);
+    if (cachedEvaluation != null && cachedEvaluation.getDecision() == decision) {
+      hits.incrementAndGet();
+      notifyDecisionEvaluationListeners(dmnEngine, cachedEvaluation.getEvaluationEvent());
+      return copyDecisionResult(cachedEvaluation.getDecisionResult());
+    }
+
+    misses.incrementAndGet();
+
+    EvaluationCapture outerCapture = currentCapture.get();
+    EvaluationCapture capture = new EvaluationCapture(decision);
+    currentCapture.set(capture);
+
+    DmnDecisionResult decisionResult;
+    try {
+      decisionResult = dmnEngine.evaluateDecision(decision, variableContext);
+    }
+    finally {
+      if (outerCapture != null) {
+        currentCapture.set(outerCapture);
+      }
+      else {
+        currentCapture.remove();
+      }
+    }
+
+    if (capture.getEvaluationEvent() != null) {
+      cache.put(key, new CachedDecisionEvaluation(decision, copyDecisionResult(decisionResult), capture.getEvaluationEvent()));
+    }
+
+    return decisionResult;
+  }
+
+  protected DecisionVariableReferences getVariableReferences(DmnEngine dmnEngine, DmnDecision decision, String decisionDefinitionId) {
+    DecisionVariableReferences references = variableReferences.get(decisionDefinitionId);
+    if (references == null || references.getDecision() != decision) {
+      references = DecisionVariableReferences.create(decision, (DefaultDmnEngineConfiguration) dmnEngine.getConfiguration());
+      variableReferences.put(decisionDefinitionId, references);
+    }
+    return references;
+  }
+
+  protected DmnDecisionResult copyDecisionResult(DmnDecisionResult decisionResult) {
+    List<DmnDecisionResultEntries> entriesCopy = new ArrayList<DmnDecisionResultEntries>(decisionResult.size());
+    for (DmnDecisionResultEntries entries : decisionResult) {
+      DmnDecisionResultEntriesImpl entryCopy = new DmnDecisionResultEntriesImpl();
+      entryCopy.putAllValues(entries.getEntryMapTyped());
+      entriesCopy.add(entryCopy);
+    }
+    return new DmnDecisionResultImpl(entriesCopy);
+  }
+
+  public void notify(DmnDecisionEvaluationEvent evaluationEvent) {
+    EvaluationCapture capture = currentCapture.get();
+    if (capture != null) {
+      capture.capture(evaluationEvent);
+    }
+  }
+
+  protected void notifyDecisionEvaluationListeners(DmnEngine dmnEngine, DmnDecisionEvaluationEvent evaluationEvent) {
+    DefaultDmnEngineConfiguration configuration = (DefaultDmnEngineConfiguration) dmnEngine.getConfiguration();
+    for (DmnDecisionEvaluationListener listener : configuration.getDecisionEvaluationListeners()) {
+      listener.notify(evaluationEvent);
+    }
+  }
+
+  /**
+   * Removes all cached evaluations of the given decision definition.
+   */
+  public void invalidate(String decisionDefinitionId) {
+    variableReferences.remove(decisionDefinitionId);
+
+    List<DecisionEvaluationCacheKey> keys = new ArrayList<DecisionEvaluationCacheKey>(cache.keySet());
+    for (DecisionEvaluationCacheKey key : keys) {
+      if (key.getDecisionDefinitionId().equals(decisionDefinitionId)) {
+        cache.remove(key);
+      }
+    }
+  }
+
+  public void clear() {
+    cache.clear();
+    variableReferences.clear();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Captures the evaluation event of the decision which is currently evaluated.
+   * Events of other decisions which are evaluated in the meantime are ignored.
+   */
+  protected static class EvaluationCapture {
+
+    protected final DmnDecision decision;
+    protected DmnDecisionEvaluationEvent evaluationEvent;
+
+    public EvaluationCapture(DmnDecision decision) {
+      this.decision = decision;
+    }
+
+    public void capture(DmnDecisionEvaluationEvent evaluationEvent) {
+      if (this.evaluationEvent == null && evaluationEvent.getDecisionResult().getDecision() == decision) {
+        this.evaluationEvent = evaluationEvent;
+      }
+    }
+
+    public DmnDecisionEvaluationEvent getEvaluationEvent() {
+      return evaluationEvent;
+    }
+  }
+
+  protected static class CachedDecisionEvaluation {
+
+    protected final DmnDecision decision;
+    protected final DmnDecisionResult decisionResult;
+    protected final DmnDecisionEvaluationEvent evaluationEvent;
+
+    public CachedDecisionEvaluation(DmnDecision decision, DmnDecisionResult decisionResult, DmnDecisionEvaluationEvent evaluationEvent) {
+      this.decision = decision;
+      this.decisionResult = decisionResult;
+      this.evaluationEvent = evaluationEvent;
+    }
+
+    public DmnDecision getDecision() {
+      return decision;
+    }
+
+    public DmnDecisionResult getDecisionResult() {
+      return decisionResult;
+    }
+
+    public DmnDecisionEvaluationEvent getEvaluationEvent() {
+      return evaluationEvent;
+    }
+  }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.dmn.invocation;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.camunda.bpm.engine.variable.context.VariableContext;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.bpm.engine.variable.value.SerializableValue;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+/**
+ * Identifies an evaluation of a decision definition with a given set of input
+ * variables. Only the variables which may be read by the decision are part of
+ * the key, sorted by name. Primitive values must be immutable; object values are
+ * compared by their serialized representation and are never deserialized.
+ *
+ * @see DecisionEvaluationCache
+ */
+public class DecisionEvaluationCacheKey {
+
+  protected final String decisionDefinitionId;
+
+  /**
+   * name, type name and value of each variable, sorted by variable name
+   */
+  protected final Object[] variables;
+
+  protected final int hashCode;
+
+  protected DecisionEvaluationCacheKey(String decisionDefinitionId, Object[] variables) {
+    this.decisionDefinitionId = decisionDefinitionId;
+    this.variables = variables;
+    this.hashCode = 31 * decisionDefinitionId.hashCode() + Arrays.hashCode(variables);
+  }
+
+  /**
+   * @return the key for the evaluation or <code>null</code> if a variable which may
+   *   be read by the decision cannot be part of a key (e.g. a deserialized object value)
+   */
+  public static DecisionEvaluationCacheKey create(String decisionDefinitionId, VariableContext variableContext,
+      DecisionVariableReferences variableReferences) {
+
+    Set<String> variableNames = new TreeSet<String>();
+    for (String variableName : variableContext.keySet()) {
+      if (variableReferences.mayReference(variableName)) {
+        variableNames.add(variableName);
+      }
+    }
+
+    Object[] variables = new Object[variableNames.size() * 3];
+    int index = 0;
+
+    for (String variableName : variableNames) {
+      TypedValue typedValue = resolveSerialized(variableContext, variableName);
+
+      Object value = null;
+      String typeName = null;
+
+      if (typedValue != null) {
+        ValueType type = typedValue.getType();
+        if (type != null) {
+          typeName = type.getName();
+        }
+
+        if (type != null && !type.isPrimitiveValueType()) {
+          value = normalizeSerializedValue(typedValue);
+          if (value == null) {
+            return null;
+          }
+        }
+        else {
+          value = normalizeValue(typedValue.getValue());
+          if (value == null && typedValue.getValue() != null) {
+            return null;
+          }
+        }
+      }
+
+      variables[index++] = variableName;
+      variables[index++] = typeName;
+      variables[index++] = value;
+    }
+
+    return new DecisionEvaluationCacheKey(decisionDefinitionId, variables);
+  }
+
+  /**
+   * Resolves the variable without deserializing object values, such that
+   * a key can be created without accessing the object.
+   */
+  protected static TypedValue resolveSerialized(VariableContext variableContext, String variableName) {
+    if (variableContext instanceof VariableScopeContext) {
+      return ((VariableScopeContext) variableContext).resolve(variableName, false);
+    }
+    else {
+      return variableContext.resolve(variableName);
+    }
+  }
+
+  /**
+   * @return the serialized representation of the value or <code>null</code>
+   *   if the value is deserialized; a deserialized object may have been changed
+   *   since it was serialized
+   */
+  protected static Object normalizeSerializedValue(TypedValue typedValue) {
+    if (typedValue instanceof SerializableValue) {
+      SerializableValue serializableValue = (SerializableValue) typedValue;
+      if (!serializableValue.isDeserialized() && serializableValue.getValueSerialized() != null) {
+        String objectTypeName = null;
+        if (serializableValue instanceof ObjectValue) {
+          objectTypeName = ((ObjectValue) serializableValue).getObjectTypeName();
+        }
+        return Arrays.asList(serializableValue.getSerializationDataFormat(), objectTypeName,
+            serializableValue.getValueSerialized());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return an immutable representation of the value or <code>null</code>
+   *   if the value is not supported
+   */
+  protected static Object normalizeValue(Object value) {
+    if (value instanceof String
+        || value instanceof Number
+        || value instanceof Boolean
+        || value instanceof Character) {
+      return value;
+    }
+    else if (value instanceof Date) {
+      // dates are mutable, keep a copy
+      return new Date(((Date) value).getTime());
+    }
+    else {
+      return null;
+    }
+  }
+
+  public String getDecisionDefinitionId() {
+    return decisionDefinitionId;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    DecisionEvaluationCacheKey other = (DecisionEvaluationCacheKey) obj;
+    return hashCode == other.hashCode
+        && decisionDefinitionId.equals(other.decisionDefinitionId)
+        && Arrays.equals(variables, other.variables);
+  }
+
+  @Override
+  public String toString() {
+    return "DecisionEvaluationCacheKey[decisionDefinitionId=" + decisionDefinitionId
+        + ", variables=" + Arrays.toString(variables) + "]";
+  }
+
+}
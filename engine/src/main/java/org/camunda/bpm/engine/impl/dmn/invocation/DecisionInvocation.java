@@ -18,6 +18,7 @@ package org.camunda.bpm.engine.impl.dmn.invocation;
 import org.camunda.bpm.dmn.engine.DmnDecision;
 import org.camunda.bpm.dmn.engine.DmnDecisionResult;
 import org.camunda.bpm.dmn.engine.DmnEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.delegate.DelegateInvocation;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionEntity;
@@ -50,10 +51,16 @@ public class DecisionInvocation extends DelegateInvocation {
 
   @Override
   protected void invoke() throws Exception {
-    final DmnEngine dmnEngine = Context.getProcessEngineConfiguration()
-      .getDmnEngine();
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    final DmnEngine dmnEngine = processEngineConfiguration.getDmnEngine();
 
-    invocationResult = dmnEngine.evaluateDecision((DmnDecision) decisionDefinition, variableContext);
+    DecisionEvaluationCache decisionEvaluationCache = processEngineConfiguration.getDecisionEvaluationCache();
+    if (decisionEvaluationCache != null) {
+      invocationResult = decisionEvaluationCache.evaluateDecision(dmnEngine, decisionDefinition, variableContext);
+    }
+    else {
+      invocationResult = dmnEngine.evaluateDecision((DmnDecision) decisionDefinition, variableContext);
+    }
   }
 
   @Override
@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.dmn.invocation;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.dmn.engine.DmnDecision;
+import org.camunda.bpm.dmn.engine.DmnDecisionLogic;
+import org.camunda.bpm.dmn.engine.impl.DefaultDmnEngineConfiguration;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionLiteralExpressionImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionTableImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionTableInputImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnDecisionTableRuleImpl;
+import org.camunda.bpm.dmn.engine.impl.DmnExpressionImpl;
+
+/**
+ * <p>Determines the variables a decision may read. Expressions in JUEL or FEEL
+ * can only read a variable by its name, so a variable whose name occurs in none
+ * of the expressions of the decision and its required decisions is not read.</p>
+ *
+ * <p>If an expression is written in another language, e.g. a script language, any
+ * variable may be read.</p>
+ */
+public class DecisionVariableReferences {
+
+  protected final DmnDecision decision;
+
+  /**
+   * the texts of all expressions or <code>null</code> if any variable may be read
+   */
+  protected final List<String> expressions;
+
+  protected DecisionVariableReferences(DmnDecision decision, List<String> expressions) {
+    this.decision = decision;
+    this.expressions = expressions;
+  }
+
+  public static DecisionVariableReferences create(DmnDecision decision, DefaultDmnEngineConfiguration configuration) {
+    List<String> expressions = new ArrayList<String>();
+    boolean collected = collectExpressions(decision, configuration, expressions, new IdentityHashMap<DmnDecision, Boolean>());
+    return new DecisionVariableReferences(decision, collected ? expressions : null);
+  }
+
+  /**
+   * @return <code>false</code> if an expression may read variables which are not referenced by name
+   */
+  protected static boolean collectExpressions(DmnDecision decision, DefaultDmnEngineConfiguration configuration,
+      List<String> expressions, Map<DmnDecision, Boolean> visitedDecisions) {
+
+    if (visitedDecisions.put(decision, Boolean.TRUE) != null) {
+      return true;
+    }
+
+    DmnDecisionLogic decisionLogic = decision.getDecisionLogic();
+    if (decisionLogic instanceof DmnDecisionTableImpl) {
+      DmnDecisionTableImpl decisionTable = (DmnDecisionTableImpl) decisionLogic;
+
+      for (DmnDecisionTableInputImpl input : decisionTable.getInputs()) {
+        if (!collectExpression(input.getExpression(), configuration.getDefaultInputExpressionExpressionLanguage(), expressions)) {
+          return false;
+        }
+      }
+
+      for (DmnDecisionTableRuleImpl rule : decisionTable.getRules()) {
+        for (DmnExpressionImpl condition : rule.getConditions()) {
+          if (!collectExpression(condition, configuration.getDefaultInputEntryExpressionLanguage(), expressions)) {
+            return false;
+          }
+        }
+        for (DmnExpressionImpl conclusion : rule.getConclusions()) {
+          if (!collectExpression(conclusion, configuration.getDefaultOutputEntryExpressionLanguage(), expressions)) {
+            return false;
+          }
+        }
+      }
+    }
+    else if (decisionLogic instanceof DmnDecisionLiteralExpressionImpl) {
+      DmnExpressionImpl expression = ((DmnDecisionLiteralExpressionImpl) decisionLogic).getExpression();
+      if (!collectExpression(expression, configuration.getDefaultLiteralExpressionLanguage(), expressions)) {
+        return false;
+      }
+    }
+    else if (decisionLogic != null) {
+      return false;
+    }
+
+    for (DmnDecision requiredDecision : decision.getRequiredDecisions()) {
+      if (!collectExpressions(requiredDecision, configuration, expressions, visitedDecisions)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  protected static boolean collectExpression(DmnExpressionImpl expression, String defaultExpressionLanguage, List<String> expressions) {
+    if (expression == null || expression.getExpression() == null) {
+      return true;
+    }
+
+    String expressionLanguage = expression.getExpressionLanguage();
+    if (expressionLanguage == null) {
+      expressionLanguage = defaultExpressionLanguage;
+    }
+
+    if (!isElExpressionLanguage(expressionLanguage)) {
+      return false;
+    }
+
+    expressions.add(expression.getExpression());
+    return true;
+  }
+
+  protected static boolean isElExpressionLanguage(String expressionLanguage) {
+    return DefaultDmnEngineConfiguration.JUEL_EXPRESSION_LANGUAGE.equalsIgnoreCase(expressionLanguage)
+        || DefaultDmnEngineConfiguration.FEEL_EXPRESSION_LANGUAGE_ALTERNATIVE.equalsIgnoreCase(expressionLanguage)
+        || DefaultDmnEngineConfiguration.FEEL_EXPRESSION_LANGUAGE.equals(expressionLanguage);
+  }
+
+  /**
+   * @return <code>true</code> if the decision may read the variable with the given name
+   */
+  public boolean mayReference(String variableName) {
+    if (expressions == null) {
+      return true;
+    }
+
+    for (String expression : expressions) {
+      if (expression.contains(variableName)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  public DmnDecision getDecision() {
+    return decision;
+  }
+
+}
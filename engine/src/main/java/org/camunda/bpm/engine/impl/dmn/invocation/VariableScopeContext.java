@@ -40,6 +40,10 @@ public class VariableScopeContext implements VariableContext {
     return variableScope.getVariableTyped(variableName);
   }
 
+  public TypedValue resolve(String variableName, boolean deserializeObjectValue) {
+    return variableScope.getVariableTyped(variableName, deserializeObjectValue);
+  }
+
   public boolean containsVariable(String variableName) {
     return variableScope.hasVariable(variableName);
   }
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.identity;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Remembers successful password checks for a short time, so that clients which
+ * send their credentials with every request (e.g. basic authentication on the REST API)
+ * do not cause a user select and a password hash computation on every request.</p>
+ *
+ * <p>The password itself is not kept; an entry holds a hash of the password which is
+ * salted with a random secret of this cache. Entries must be invalidated whenever the
+ * password check of the user could give another result, e.g. the password has changed,
+ * the user was deleted or a check failed.</p>
+ *
+ * <p>A check which loaded the user before an invalidation must not remember its result
+ * afterwards. Each invalidation therefore increments a generation counter of the user,
+ * and a result is only remembered if the generation has not changed since the check
+ * started (see {@link #getGeneration(String)}).</p>
+ */
+public class PasswordCheckCache {
+
+  protected static final String HASH_ALGORITHM = "SHA-256";
+
+  /** users share a generation counter if their ids fall into the same stripe */
+  protected static final int GENERATION_STRIPES = 1024;
+
+  protected final long timeToLive;
+  protected final int capacity;
+  protected final byte[] secret;
+
+  protected final ConcurrentMap<String, CachedPasswordCheck> cache = new ConcurrentHashMap<String, CachedPasswordCheck>();
+
+  protected final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  protected final ThreadLocal<MessageDigest> digest = new ThreadLocal<MessageDigest>() {
+    protected MessageDigest initialValue() {
+      try {
+        return MessageDigest.getInstance(HASH_ALGORITHM);
+      } catch (NoSuchAlgorithmException e) {
+        throw new ProcessEngineException("Cannot lookup " + HASH_ALGORITHM + " algorithm");
+      }
+    }
+  };
+
+  /**
+   * @param timeToLive the time in milliseconds a successful password check is remembered
+   * @param capacity the maximum number of remembered password checks
+   */
+  public PasswordCheckCache(long timeToLive, int capacity) {
+    this.timeToLive = timeToLive;
+    this.capacity = capacity;
+    this.secret = new byte[16];
+    new SecureRandom().nextBytes(secret);
+  }
+
+  /**
+   * @return true if the password of the user was checked successfully and the result is not expired
+   */
+  public boolean isPasswordChecked(String userId, String password) {
+    CachedPasswordCheck passwordCheck = cache.get(userId);
+    if (passwordCheck == null) {
+      return false;
+    }
+
+    if (passwordCheck.isExpired(ClockUtil.getCurrentTime().getTime())) {
+      cache.remove(userId, passwordCheck);
+      return false;
+    }
+
+    return MessageDigest.isEqual(passwordCheck.passwordHash, hash(password));
+  }
+
+  /**
+   * @return the generation of the user which must be obtained before the user is loaded
+   *   for a password check and passed to {@link #passwordChecked(String, String, long)}
+   */
+  public long getGeneration(String userId) {
+    return generations.get(stripe(userId));
+  }
+
+  /**
+   * Remembers a successful password check unless the user was invalidated since the
+   * given generation was obtained.
+   */
+  public void passwordChecked(String userId, String password, long generation) {
+    if (getGeneration(userId) != generation) {
+      return;
+    }
+
+    long now = ClockUtil.getCurrentTime().getTime();
+
+    if (cache.size() >= capacity && !cache.containsKey(userId)) {
+      removeExpiredEntries(now);
+      if (cache.size() >= capacity) {
+        return;
+      }
+    }
+
+    CachedPasswordCheck passwordCheck = new CachedPasswordCheck(hash(password), now + timeToLive);
+    cache.put(userId, passwordCheck);
+
+    // an invalidation between the generation check and the put must not be lost
+    if (getGeneration(userId) != generation) {
+      cache.remove(userId, passwordCheck);
+    }
+  }
+
+  public void invalidate(String userId) {
+    generations.incrementAndGet(stripe(userId));
+    cache.remove(userId);
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  protected void removeExpiredEntries(long now) {
+    Iterator<CachedPasswordCheck> iterator = cache.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isExpired(now)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  protected int stripe(String userId) {
+    return (userId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  protected byte[] hash(String password) {
+    MessageDigest messageDigest = digest.get();
+    messageDigest.reset();
+    messageDigest.update(secret);
+    try {
+      return messageDigest.digest(password.getBytes("UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      throw new ProcessEngineException("UnsupportedEncodingException while calculating password digest");
+    }
+  }
+
+  protected static class CachedPasswordCheck {
+
+    protected final byte[] passwordHash;
+    protected final long expirationTime;
+
+    public CachedPasswordCheck(byte[] passwordHash, long expirationTime) {
+      this.passwordHash = passwordHash;
+      this.expirationTime = expirationTime;
+    }
+
+    public boolean isExpired(long now) {
+      return now >= expirationTime;
+    }
+  }
+
+}
@@ -30,8 +30,12 @@ import org.camunda.bpm.engine.identity.Group;
 import org.camunda.bpm.engine.identity.Tenant;
 import org.camunda.bpm.engine.identity.User;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.identity.PasswordCheckCache;
 import org.camunda.bpm.engine.impl.identity.WritableIdentityProvider;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.entity.GroupEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.MembershipEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TenantEntity;
@@ -68,6 +72,7 @@ public class DbIdentityServiceProvider extends DbReadOnlyIdentityServiceProvider
     } else {
       checkAuthorization(Permissions.UPDATE, Resources.USER, user.getId());
       getDbEntityManager().merge(userEntity);
+      invalidatePasswordCheck(userEntity.getId());
     }
 
     return userEntity;
@@ -96,10 +101,25 @@ public class DbIdentityServiceProvider extends DbReadOnlyIdentityServiceProvider
       });
 
       getDbEntityManager().delete(user);
+      invalidatePasswordCheck(userId);
     }
   }
 
   public boolean checkPassword(String userId, String password) {
+    PasswordCheckCache passwordCheckCache = getPasswordCheckCache();
+    if (passwordCheckCache != null && userId != null && password != null
+        && passwordCheckCache.isPasswordChecked(userId, password)) {
+      // the user is not loaded but reading it must still be authorized
+      checkAuthorization(Permissions.READ, Resources.USER, userId);
+      return true;
+    }
+
+    // obtained before the user is loaded, so that a concurrent invalidation is not lost
+    long generation = 0;
+    if (passwordCheckCache != null && userId != null) {
+      generation = passwordCheckCache.getGeneration(userId);
+    }
+
     UserEntity user = findUserById(userId);
     if (user == null || password == null) {
       return false;
@@ -111,6 +131,9 @@ public class DbIdentityServiceProvider extends DbReadOnlyIdentityServiceProvider
 
     if (matchPassword(password, user)) {
       unlockUser(user);
+      if (passwordCheckCache != null) {
+        passwordCheckCache.passwordChecked(userId, password, generation);
+      }
       return true;
     }
     else {
@@ -150,12 +173,14 @@ public class DbIdentityServiceProvider extends DbReadOnlyIdentityServiceProvider
     Date lockExpirationTime = new Date(currentTime + delay);
 
     getIdentityInfoManager().updateUserLock(user, attempts, lockExpirationTime);
+    invalidatePasswordCheck(user.getId());
   }
 
   public void unlockUser(String userId) {
     UserEntity user = findUserById(userId);
     if(user != null) {
       unlockUser(user);
+      invalidatePasswordCheck(userId);
     }
   }
 
@@ -165,6 +190,26 @@ public class DbIdentityServiceProvider extends DbReadOnlyIdentityServiceProvider
     }
   }
 
+  protected PasswordCheckCache getPasswordCheckCache() {
+    return Context.getProcessEngineConfiguration().getPasswordCheckCache();
+  }
+
+  protected void invalidatePasswordCheck(final String userId) {
+    final PasswordCheckCache passwordCheckCache = getPasswordCheckCache();
+    if (passwordCheckCache != null) {
+      passwordCheckCache.invalidate(userId);
+
+      // a concurrent check may still see the old state of the user until the transaction is committed
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            passwordCheckCache.invalidate(userId);
+          }
+        });
+    }
+  }
+
   // groups ////////////////////////////////////////////////////////
 
   public GroupEntity createNewGroup(String groupId) {
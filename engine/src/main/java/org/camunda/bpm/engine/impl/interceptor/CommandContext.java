@@ -59,6 +59,7 @@ public class CommandContext {
   protected boolean userOperationLogEnabled = true;
   protected boolean tenantCheckEnabled = true;
   protected boolean restrictUserOperationLogToAuthenticatedUsers;
+  protected boolean readOnly;
 
   protected TransactionContext transactionContext;
   protected Map<Class< ? >, SessionFactory> sessionFactories;
@@ -384,6 +385,10 @@ public class CommandContext {
     return getSession(HistoricExternalTaskLogManager.class);
   }
 
+  public HistoryPartitionManager getHistoryPartitionManager() {
+    return getSession(HistoryPartitionManager.class);
+  }
+
   public ReportManager getHistoricReportManager() {
     return getSession(ReportManager.class);
   }
@@ -562,6 +567,17 @@ public class CommandContext {
     this.currentJob = currentJob;
   }
 
+  /**
+   * @return true if the context was opened for a {@link ReadOnlyCommand}
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  public void setReadOnly(boolean readOnly) {
+    this.readOnly = readOnly;
+  }
+
   public boolean isRestrictUserOperationLogToAuthenticatedUsers() {
     return restrictUserOperationLogToAuthenticatedUsers;
   }
@@ -20,6 +20,7 @@ import org.camunda.bpm.engine.delegate.ProcessEngineServicesAware;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cmd.CommandLogger;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  * <p>Interceptor used for opening the {@link CommandContext} and {@link CommandInvocationContext}.</p>
@@ -85,6 +86,7 @@ public class CommandContextInterceptor extends CommandInterceptor {
     }
 
     boolean openNew = (context == null);
+    long startNanos = openNew ? System.nanoTime() : 0;
 
     CommandInvocationContext commandInvocationContext = new CommandInvocationContext(command);
     Context.setCommandInvocationContext(commandInvocationContext);
@@ -93,6 +95,7 @@ public class CommandContextInterceptor extends CommandInterceptor {
       if(openNew) {
         LOG.debugOpeningNewCommandContext();
         context = commandContextFactory.createCommandContext();
+        context.setReadOnly(command instanceof ReadOnlyCommand);
 
       } else {
         LOG.debugReusingExistingCommandContext();
@@ -120,12 +123,24 @@ public class CommandContextInterceptor extends CommandInterceptor {
         Context.removeCommandInvocationContext();
         Context.removeCommandContext();
         Context.removeProcessEngineConfiguration();
+
+        if (openNew) {
+          logCommandExecutionTime(startNanos);
+        }
       }
     }
 
     return null;
   }
 
+  protected void logCommandExecutionTime(long startNanos) {
+    if (processEngineConfiguration != null && processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration
+        .getMetricsRegistry()
+        .recordDuration(Metrics.COMMAND_EXECUTION_TIME, startNanos);
+    }
+  }
+
   protected boolean isFromSameEngine(CommandContext existingCommandContext) {
     return processEngineConfiguration == existingCommandContext.getProcessEngineConfiguration();
   }
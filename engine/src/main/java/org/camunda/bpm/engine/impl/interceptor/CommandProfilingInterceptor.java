@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.interceptor;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.metrics.CommandProfiler;
+import org.camunda.bpm.engine.impl.metrics.CommandProfilingSession;
+
+/**
+ * Profiles the sampled commands with the {@link CommandProfiler}. Must be placed
+ * before the {@link CommandContextInterceptor}, so that the duration includes
+ * the flush and the commit of the command context. Commands which are executed
+ * within the context of another command are profiled as part of that command.
+ */
+public class CommandProfilingInterceptor extends CommandInterceptor {
+
+  protected CommandProfiler commandProfiler;
+
+  public CommandProfilingInterceptor(CommandProfiler commandProfiler) {
+    this.commandProfiler = commandProfiler;
+  }
+
+  public <T> T execute(Command<T> command) {
+    if (Context.getCommandContext() != null || CommandProfiler.getCurrentSession() != null) {
+      return next.execute(command);
+    }
+
+    CommandProfilingSession session = commandProfiler.startSession();
+    if (session == null) {
+      return next.execute(command);
+    }
+
+    long startNanos = System.nanoTime();
+    try {
+      return next.execute(command);
+    }
+    finally {
+      commandProfiler.endSession(command, session, startNanos);
+    }
+  }
+
+}
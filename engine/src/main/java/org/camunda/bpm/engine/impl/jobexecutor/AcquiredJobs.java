@@ -35,6 +35,8 @@ public class AcquiredJobs {
 
   protected int numberOfJobsFailedToLock = 0;
 
+  protected long timeUntilNextDueJob = -1;
+
   public AcquiredJobs(int numberOfJobsAttemptedToAcquire) {
     this.numberOfJobsAttemptedToAcquire = numberOfJobsAttemptedToAcquire;
   }
@@ -91,4 +93,16 @@ public class AcquiredJobs {
     return numberOfJobsAttemptedToAcquire;
   }
 
+  /**
+   * @return the time in milliseconds until the next job becomes due or <code>-1</code>
+   *   if no job becomes due within the look-ahead of the job executor
+   */
+  public long getTimeUntilNextDueJob() {
+    return timeUntilNextDueJob;
+  }
+
+  public void setTimeUntilNextDueJob(long timeUntilNextDueJob) {
+    this.timeUntilNextDueJob = timeUntilNextDueJob;
+  }
+
 }
@@ -90,6 +90,12 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
   protected boolean executionSaturated = false;
   protected long executionSaturationWaitTime = DEFAULT_EXECUTION_SATURATION_WAIT_TIME;
 
+  /*
+   * The time until the next job becomes due (-1 if unknown);
+   * bounds the idle time so that the job is acquired on time
+   */
+  protected long timeUntilNextDueJob = -1;
+
   public BackoffJobAcquisitionStrategy(
       long baseIdleWaitTime,
       float idleIncreaseFactor,
@@ -164,6 +170,7 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
     reconfigureBackoffLevel(context);
     reconfigureNumberOfJobsToAcquire(context);
     executionSaturated = allSubmittedJobsRejected(context);
+    timeUntilNextDueJob = context.getTimeUntilNextDueJob();
   }
 
   /**
@@ -252,7 +259,11 @@ public class BackoffJobAcquisitionStrategy implements JobAcquisitionStrategy {
   @Override
   public long getWaitTime() {
     if (idleLevel > 0) {
-      return calculateIdleTime();
+      long idleTime = calculateIdleTime();
+      if (timeUntilNextDueJob >= 0) {
+        idleTime = Math.min(idleTime, timeUntilNextDueJob);
+      }
+      return idleTime;
     }
     else if (backoffLevel > 0) {
       return calculateBackoffTime();
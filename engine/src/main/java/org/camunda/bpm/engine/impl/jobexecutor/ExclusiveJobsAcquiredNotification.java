@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.management.Metrics;
+
+/**
+ * Adds the exclusive jobs which were locked for the current job executor thread
+ * to its queue once the transaction is committed. A job which could not be locked
+ * because another job executor acquired it concurrently is skipped. This only applies
+ * as long as the lock is the only change of the job in this transaction; any other
+ * concurrent update of a job fails the transaction as usual.
+ */
+public class ExclusiveJobsAcquiredNotification implements TransactionListener, OptimisticLockingListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+  private final static EnginePersistenceLogger PERSISTENCE_LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected final JobExecutorContext jobExecutorContext;
+  /** the persistent states of the jobs right after they were locked, by job id */
+  protected final Map<String, Object> lockedJobs = new LinkedHashMap<String, Object>();
+
+  public ExclusiveJobsAcquiredNotification(JobExecutorContext jobExecutorContext) {
+    this.jobExecutorContext = jobExecutorContext;
+  }
+
+  public void addJob(JobEntity job) {
+    lockedJobs.put(job.getId(), job.getPersistentState());
+  }
+
+  public boolean isEmpty() {
+    return lockedJobs.isEmpty();
+  }
+
+  public void execute(CommandContext commandContext) {
+    for (String jobId : lockedJobs.keySet()) {
+      LOG.debugAddingNewExclusiveJobToJobExecutorCOntext(jobId);
+      jobExecutorContext.getCurrentProcessorJobQueue().add(jobId);
+    }
+    logExclusiveJobsAcquired(commandContext);
+  }
+
+  protected void logExclusiveJobsAcquired(CommandContext commandContext) {
+    if (commandContext.getProcessEngineConfiguration().isMetricsEnabled()) {
+      commandContext.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .markOccurrence(Metrics.JOB_LOCKED_EXCLUSIVE, lockedJobs.size());
+    }
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return JobEntity.class;
+  }
+
+  public void failedOperation(DbOperation operation) {
+    if (operation instanceof DbEntityOperation && isLockOnlyUpdate((DbEntityOperation) operation)) {
+      // the job was acquired by another job executor
+      lockedJobs.remove(((DbEntityOperation) operation).getEntity().getId());
+      return;
+    }
+
+    throw PERSISTENCE_LOG.concurrentUpdateDbEntityException(operation);
+  }
+
+  /**
+   * @return true if the operation only writes the lock of a job which was locked by this notification
+   */
+  protected boolean isLockOnlyUpdate(DbEntityOperation operation) {
+    DbEntity entity = operation.getEntity();
+    Object lockedState = lockedJobs.get(entity.getId());
+    return operation.getOperationType() == DbOperationType.UPDATE
+        && lockedState != null
+        && lockedState.equals(entity.getPersistentState());
+  }
+
+}
@@ -20,6 +20,7 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cmd.ExecuteJobsCmd;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 
 public class ExecuteJobHelper {
 
@@ -70,7 +71,7 @@ public class ExecuteJobHelper {
       if (jobFailureCollector.getFailure() != null) {
         // the failed job listener is responsible for decrementing the retries and logging the exception to the DB.
 
-        FailedJobListener failedJobListener = createFailedJobListener(commandExecutor, jobFailureCollector.getFailure(), jobFailureCollector.getJobId());
+        FailedJobListener failedJobListener = createFailedJobListener(commandExecutor, jobFailureCollector.getFailure(), jobFailureCollector.getJobId(), getJobHandlerType(jobFailureCollector));
 
         OptimisticLockingException exception = callFailedJobListenerWithRetries(commandExecutor, failedJobListener);
         if (exception != null) {
@@ -78,7 +79,7 @@ public class ExecuteJobHelper {
         }
 
       } else {
-        SuccessfulJobListener successListener = createSuccessfulJobListener(commandExecutor);
+        SuccessfulJobListener successListener = createSuccessfulJobListener(commandExecutor, getJobHandlerType(jobFailureCollector));
         commandExecutor.execute(successListener);
       }
     }
@@ -108,12 +109,17 @@ public class ExecuteJobHelper {
   }
 
 
-  protected static FailedJobListener createFailedJobListener(CommandExecutor commandExecutor, Throwable exception, String jobId) {
-    return new FailedJobListener(commandExecutor, jobId, exception);
+  protected static FailedJobListener createFailedJobListener(CommandExecutor commandExecutor, Throwable exception, String jobId, String jobHandlerType) {
+    return new FailedJobListener(commandExecutor, jobId, exception, jobHandlerType);
   }
 
-  protected static SuccessfulJobListener createSuccessfulJobListener(CommandExecutor commandExecutor) {
-    return new SuccessfulJobListener();
+  protected static SuccessfulJobListener createSuccessfulJobListener(CommandExecutor commandExecutor, String jobHandlerType) {
+    return new SuccessfulJobListener(jobHandlerType);
+  }
+
+  protected static String getJobHandlerType(JobFailureCollector jobFailureCollector) {
+    JobEntity job = jobFailureCollector.getJob();
+    return job != null ? job.getJobHandlerType() : null;
   }
 
   public interface ExceptionLoggingHandler {
@@ -56,12 +56,16 @@ public class ExecuteJobsRunnable implements Runnable {
 
         String nextJobId = currentProcessorJobQueue.remove(0);
         if(jobExecutor.isActive()) {
+          long startNanos = System.nanoTime();
           try {
              executeJob(nextJobId, commandExecutor);
           }
           catch(Throwable t) {
             LOG.exceptionWhileExecutingJob(nextJobId, t);
           }
+          finally {
+            jobExecutor.logJobExecutionTime(processEngine, startNanos);
+          }
         } else {
             try {
               unlockJob(nextJobId, commandExecutor);
@@ -15,8 +15,11 @@
  */
 package org.camunda.bpm.engine.impl.jobexecutor;
 
+import org.camunda.bpm.engine.OptimisticLockingException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -37,12 +40,19 @@ public class FailedJobListener implements Command<Void> {
   private int countRetries = 0;
   private int totalRetries = ProcessEngineConfigurationImpl.DEFAULT_FAILED_JOB_LISTENER_MAX_RETRIES;
 
+  protected String jobHandlerType;
+
   public FailedJobListener(CommandExecutor commandExecutor, String jobId, Throwable exception) {
     this.commandExecutor = commandExecutor;
     this.jobId = jobId;
     this.exception = exception;
   }
 
+  public FailedJobListener(CommandExecutor commandExecutor, String jobId, Throwable exception, String jobHandlerType) {
+    this(commandExecutor, jobId, exception);
+    this.jobHandlerType = jobHandlerType;
+  }
+
   public Void execute(CommandContext commandContext) {
     initTotalRetries(commandContext);
 
@@ -61,6 +71,7 @@ public class FailedJobListener implements Command<Void> {
         if (job != null) {
           fireHistoricJobFailedEvt(job);
           cmd.execute(commandContext);
+          notifyCircuitBreaker(commandContext, job);
         } else {
           LOG.debugFailedJobNotFound(jobId);
         }
@@ -88,11 +99,28 @@ public class FailedJobListener implements Command<Void> {
             .fireJobFailedEvent(job, exception);
   }
 
+  /**
+   * The failure is counted once the failure handling is committed, so that it is
+   * neither counted on a rollback nor again if the failure handling is retried.
+   */
+  protected void notifyCircuitBreaker(CommandContext commandContext, JobEntity job) {
+    final JobFailureCircuitBreaker circuitBreaker = commandContext.getProcessEngineConfiguration().getJobFailureCircuitBreaker();
+    // concurrent executions of exclusive jobs are no failures of the job itself
+    if (circuitBreaker != null && !(exception instanceof OptimisticLockingException)) {
+      final String jobDefinitionId = job.getJobDefinitionId();
+      commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+        public void execute(CommandContext commandContext) {
+          circuitBreaker.jobFailed(jobDefinitionId);
+        }
+      });
+    }
+  }
+
   protected void logJobFailure(CommandContext commandContext) {
     if (commandContext.getProcessEngineConfiguration().isMetricsEnabled()) {
       commandContext.getProcessEngineConfiguration()
               .getMetricsRegistry()
-              .markOccurrence(Metrics.JOB_FAILED);
+              .markOccurrence(Metrics.JOB_FAILED, jobHandlerType);
     }
   }
 
@@ -94,6 +94,23 @@ public class JobAcquisitionContext {
     return false;
   }
 
+  /**
+   * @return the time in milliseconds until the next job becomes due, regardless of engine,
+   *   or <code>-1</code> if no engine knows of such a job
+   */
+  public long getTimeUntilNextDueJob() {
+    long timeUntilNextDueJob = -1;
+    for (AcquiredJobs acquiredJobs : acquiredJobsByEngine.values()) {
+      long engineTimeUntilNextDueJob = acquiredJobs.getTimeUntilNextDueJob();
+      if (engineTimeUntilNextDueJob >= 0
+          && (timeUntilNextDueJob < 0 || engineTimeUntilNextDueJob < timeUntilNextDueJob)) {
+        timeUntilNextDueJob = engineTimeUntilNextDueJob;
+      }
+    }
+
+    return timeUntilNextDueJob;
+  }
+
   // getters and setters
 
   public void setAcquisitionTime(long acquisitionTime) {
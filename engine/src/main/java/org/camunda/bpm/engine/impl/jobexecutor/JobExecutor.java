@@ -70,6 +70,13 @@ public abstract class JobExecutor {
    */
   protected int backoffDecreaseThreshold = 100;
 
+  /**
+   * The time in milliseconds an idle job acquisition looks ahead for jobs
+   * which become due. If there is such a job, acquisition waits until its
+   * due date instead of the full idle time. <code>0</code> disables the look-ahead.
+   */
+  protected long dueDateLookAhead = 0;
+
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
 
@@ -132,6 +139,25 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs();
   public abstract void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine);
 
+  /**
+   * @return <code>true</code> if this job executor implements {@link #handOffJobs(List, ProcessEngineImpl)};
+   *   otherwise new jobs are not locked for a hand-off but left to the job acquisition
+   */
+  public boolean supportsHandOff() {
+    return false;
+  }
+
+  /**
+   * Executes jobs which were locked by the transaction that created them, bypassing the
+   * job acquisition. Unlike {@link #executeJobs(List, ProcessEngineImpl)}, jobs which cannot
+   * be executed now are not passed to the {@link RejectedJobsHandler}.
+   *
+   * @return <code>false</code> if the jobs were not accepted for execution
+   */
+  public boolean handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    return false;
+  }
+
   /**
    * Deprecated: use {@link #executeJobs(List, ProcessEngineImpl)} instead
    * @param jobIds
@@ -175,6 +201,22 @@ public abstract class JobExecutor {
     }
   }
 
+  public void logAcquisitionCycleTime(ProcessEngineImpl engine, long startNanos) {
+    if (engine != null && engine.getProcessEngineConfiguration().isMetricsEnabled()) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .recordDuration(Metrics.JOB_ACQUISITION_CYCLE_TIME, startNanos);
+    }
+  }
+
+  public void logJobExecutionTime(ProcessEngineImpl engine, long startNanos) {
+    if (engine != null && engine.getProcessEngineConfiguration().isMetricsEnabled()) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .recordDuration(Metrics.JOB_EXECUTION_TIME, startNanos);
+    }
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public List<ProcessEngineImpl> getProcessEngines() {
@@ -301,6 +343,14 @@ public abstract class JobExecutor {
     this.backoffDecreaseThreshold = backoffDecreaseThreshold;
   }
 
+  public long getDueDateLookAhead() {
+    return dueDateLookAhead;
+  }
+
+  public void setDueDateLookAhead(long dueDateLookAhead) {
+    this.dueDateLookAhead = dueDateLookAhead;
+  }
+
   public String getName() {
     return name;
   }
@@ -16,6 +16,7 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
@@ -183,4 +184,17 @@ public class JobExecutorLogger extends ProcessEngineLogger {
       "Batch window for history cleanup was not calculated. History cleanup job(s) will be suspended.");
   }
 
+  public void jobFailureCircuitBreakerOpened(String jobDefinitionId, int failures, long failureWindow, long backoff) {
+    logWarn(
+      "029",
+      "Jobs of job definition '{}' failed {} times within {} ms. They are not acquired for the next {} ms.",
+      jobDefinitionId, failures, failureWindow, backoff);
+  }
+
+  public void debugJobHandOffRejected(List<String> jobIds) {
+    logDebug(
+      "030",
+      "Job executor rejected the hand-off of the jobs {}. They are unlocked and left to the job acquisition.", jobIds);
+  }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Protects the engine from storms of failing jobs, e.g. when a system which is
+ * called by the jobs of a job definition is down.</p>
+ *
+ * <p>If the jobs of a job definition fail a certain number of times within a time window,
+ * the circuit breaker of the job definition opens and its jobs are not acquired until the
+ * backoff time has elapsed. Afterwards, the jobs are acquired again and the circuit breaker
+ * opens again if they keep failing.</p>
+ *
+ * <p>The circuit breaker is local to the process engine; other nodes of a cluster
+ * keep acquiring the jobs until their own circuit breaker opens.</p>
+ */
+public class JobFailureCircuitBreaker {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected int failureThreshold;
+  protected long failureWindow;
+  protected long backoff;
+
+  protected ConcurrentMap<String, JobDefinitionFailures> failuresByJobDefinitionId = new ConcurrentHashMap<String, JobDefinitionFailures>();
+
+  /**
+   * @param failureThreshold the number of failures within the failure window which opens the circuit breaker
+   * @param failureWindow the time window in milliseconds failures are counted in
+   * @param backoff the time in milliseconds the jobs of a job definition are not acquired once its circuit breaker is open
+   */
+  public JobFailureCircuitBreaker(int failureThreshold, long failureWindow, long backoff) {
+    this.failureThreshold = failureThreshold;
+    this.failureWindow = failureWindow;
+    this.backoff = backoff;
+  }
+
+  public void jobFailed(String jobDefinitionId) {
+    if (jobDefinitionId == null) {
+      return;
+    }
+
+    JobDefinitionFailures failures = failuresByJobDefinitionId.get(jobDefinitionId);
+    if (failures == null) {
+      failuresByJobDefinitionId.putIfAbsent(jobDefinitionId, new JobDefinitionFailures());
+      failures = failuresByJobDefinitionId.get(jobDefinitionId);
+    }
+
+    boolean opened = failures.jobFailed(ClockUtil.getCurrentTime().getTime());
+    if (opened) {
+      LOG.jobFailureCircuitBreakerOpened(jobDefinitionId, failureThreshold, failureWindow, backoff);
+    }
+  }
+
+  public boolean isOpen(String jobDefinitionId) {
+    JobDefinitionFailures failures = failuresByJobDefinitionId.get(jobDefinitionId);
+    return failures != null && failures.isOpen(ClockUtil.getCurrentTime().getTime());
+  }
+
+  /**
+   * @return the ids of the job definitions whose jobs must not be acquired
+   */
+  public Set<String> getOpenJobDefinitionIds() {
+    long now = ClockUtil.getCurrentTime().getTime();
+    Set<String> openJobDefinitionIds = new HashSet<String>();
+
+    Iterator<Map.Entry<String, JobDefinitionFailures>> iterator = failuresByJobDefinitionId.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, JobDefinitionFailures> entry = iterator.next();
+      JobDefinitionFailures failures = entry.getValue();
+
+      if (failures.isOpen(now)) {
+        openJobDefinitionIds.add(entry.getKey());
+      }
+      else if (failures.isExpired(now)) {
+        // no recent failures: forget the job definition
+        iterator.remove();
+      }
+    }
+
+    return openJobDefinitionIds;
+  }
+
+  public void reset() {
+    failuresByJobDefinitionId.clear();
+  }
+
+  public int getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  public long getFailureWindow() {
+    return failureWindow;
+  }
+
+  public long getBackoff() {
+    return backoff;
+  }
+
+  protected class JobDefinitionFailures {
+
+    protected long windowStart;
+    protected int failures;
+    protected long openUntil;
+
+    /**
+     * @return true if the failure opened the circuit breaker
+     */
+    public synchronized boolean jobFailed(long now) {
+      if (now < openUntil) {
+        // failures of jobs which were acquired before the circuit breaker opened
+        return false;
+      }
+
+      if (now - windowStart > failureWindow) {
+        windowStart = now;
+        failures = 0;
+      }
+
+      failures++;
+
+      if (failures >= failureThreshold) {
+        openUntil = now + backoff;
+        windowStart = openUntil;
+        failures = 0;
+        return true;
+      }
+      else {
+        return false;
+      }
+    }
+
+    public synchronized boolean isOpen(long now) {
+      return now < openUntil;
+    }
+
+    public synchronized boolean isExpired(long now) {
+      return now >= openUntil && now - windowStart > failureWindow;
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cmd.UnlockJobCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
+
+/**
+ * Passes the jobs which were created and locked by a transaction to the job executor
+ * once the transaction is committed, so that they are executed without waiting for
+ * the job acquisition. The exclusive jobs of a process instance are executed
+ * sequentially in one batch. Jobs which the job executor does not accept are
+ * unlocked and left to the job acquisition.
+ */
+public class JobHandOffNotification implements TransactionListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected final JobExecutor jobExecutor;
+
+  protected final List<List<String>> jobIdBatches = new ArrayList<List<String>>();
+  protected final Map<String, List<String>> exclusiveJobIdsByProcessInstance = new LinkedHashMap<String, List<String>>();
+
+  public JobHandOffNotification(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+
+  public void addJob(JobEntity job) {
+    if (job.isExclusive() && job.getProcessInstanceId() != null) {
+      CollectionUtil.addToMapOfLists(exclusiveJobIdsByProcessInstance, job.getProcessInstanceId(), job.getId());
+    }
+    else {
+      jobIdBatches.add(Collections.singletonList(job.getId()));
+    }
+  }
+
+  public void execute(CommandContext commandContext) {
+    ProcessEngineImpl processEngine = commandContext.getProcessEngineConfiguration().getProcessEngine();
+    CommandExecutor commandExecutor = commandContext.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
+
+    List<List<String>> batches = new ArrayList<List<String>>(jobIdBatches);
+    batches.addAll(exclusiveJobIdsByProcessInstance.values());
+
+    for (List<String> jobIds : batches) {
+      if (!jobExecutor.handOffJobs(jobIds, processEngine)) {
+        LOG.debugJobHandOffRejected(jobIds);
+        unlockJobs(jobIds, commandExecutor);
+        jobExecutor.jobWasAdded();
+      }
+    }
+  }
+
+  protected void unlockJobs(List<String> jobIds, CommandExecutor commandExecutor) {
+    for (String jobId : jobIds) {
+      try {
+        commandExecutor.execute(new UnlockJobCmd(jobId));
+      }
+      catch (Throwable t) {
+        LOG.exceptionWhileUnlockingJob(jobId, t);
+      }
+    }
+  }
+
+}
@@ -61,6 +61,16 @@ public class RuntimeContainerJobExecutor extends JobExecutor {
     }
   }
 
+  public boolean supportsHandOff() {
+    return true;
+  }
+
+  public boolean handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    final ExecutorService executorService = getRuntimeContainerDelegate().getExecutorService();
+
+    return executorService.schedule(getExecuteJobsRunnable(jobIds, processEngine), false);
+  }
+
   protected RuntimeContainerDelegate getRuntimeContainerDelegate() {
     return RuntimeContainerDelegate.INSTANCE.get();
   }
@@ -72,8 +72,10 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
             continue;
           }
 
+          long startNanos = System.nanoTime();
           AcquiredJobs acquiredJobs = acquireJobs(acquisitionContext, acquisitionStrategy, currentProcessEngine);
           executeJobs(acquisitionContext, currentProcessEngine, acquiredJobs);
+          jobExecutor.logAcquisitionCycleTime(currentProcessEngine, startNanos);
         }
       } catch (Exception e) {
         LOG.exceptionDuringJobAcquisition(e);
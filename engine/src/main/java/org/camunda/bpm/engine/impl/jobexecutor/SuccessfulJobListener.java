@@ -25,6 +25,15 @@ import org.camunda.bpm.engine.management.Metrics;
  */
 public class SuccessfulJobListener implements Command<Void> {
 
+  protected String jobHandlerType;
+
+  public SuccessfulJobListener() {
+  }
+
+  public SuccessfulJobListener(String jobHandlerType) {
+    this.jobHandlerType = jobHandlerType;
+  }
+
   public Void execute(CommandContext commandContext) {
     logJobSuccess(commandContext);
 
@@ -35,7 +44,7 @@ public class SuccessfulJobListener implements Command<Void> {
     if (commandContext.getProcessEngineConfiguration().isMetricsEnabled()) {
       commandContext.getProcessEngineConfiguration()
         .getMetricsRegistry()
-        .markOccurrence(Metrics.JOB_SUCCESSFUL);
+        .markOccurrence(Metrics.JOB_SUCCESSFUL, jobHandlerType);
     }
   }
 
@@ -49,6 +49,20 @@ public class ThreadPoolJobExecutor extends JobExecutor {
     }
   }
 
+  public boolean supportsHandOff() {
+    return true;
+  }
+
+  public boolean handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    try {
+      threadPoolExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
+      return true;
+
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
   // getters / setters
 
   public ThreadPoolExecutor getThreadPoolExecutor() {
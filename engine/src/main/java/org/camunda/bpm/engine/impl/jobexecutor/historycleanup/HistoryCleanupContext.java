@@ -23,6 +23,7 @@ public class HistoryCleanupContext {
   private boolean immediatelyDue;
   private int minuteFrom;
   private int minuteTo;
+  private HistoryCleanupTableGroup tableGroup;
 
   public HistoryCleanupContext(boolean immediatelyDue, int minuteFrom, int minuteTo) {
     this.immediatelyDue = immediatelyDue;
@@ -30,6 +31,11 @@ public class HistoryCleanupContext {
     this.minuteTo = minuteTo;
   }
 
+  public HistoryCleanupContext(boolean immediatelyDue, int minuteFrom, int minuteTo, HistoryCleanupTableGroup tableGroup) {
+    this(immediatelyDue, minuteFrom, minuteTo);
+    this.tableGroup = tableGroup;
+  }
+
   public HistoryCleanupContext(int minuteFrom, int minuteTo) {
     this.minuteFrom = minuteFrom;
     this.minuteTo = minuteTo;
@@ -58,4 +64,12 @@ public class HistoryCleanupContext {
   public void setMinuteTo(int minuteTo) {
     this.minuteTo = minuteTo;
   }
+
+  public HistoryCleanupTableGroup getTableGroup() {
+    return tableGroup;
+  }
+
+  public void setTableGroup(HistoryCleanupTableGroup tableGroup) {
+    this.tableGroup = tableGroup;
+  }
 }
@@ -52,9 +52,20 @@ public class HistoryCleanupJobDeclaration extends JobDeclaration<HistoryCleanupC
   }
 
 
+  /**
+   * Keeps the adapted batch size of the job if it still cleans up the same table group and minutes.
+   */
   @Override
   public EverLivingJobEntity reconfigure(HistoryCleanupContext context, EverLivingJobEntity job) {
     HistoryCleanupJobHandlerConfiguration configuration = resolveJobHandlerConfiguration(context);
+
+    HistoryCleanupJobHandlerConfiguration currentConfiguration = (HistoryCleanupJobHandlerConfiguration) job.getJobHandlerConfiguration();
+    if (currentConfiguration.getTableGroup() == configuration.getTableGroup()
+        && currentConfiguration.getMinuteFrom() == configuration.getMinuteFrom()
+        && currentConfiguration.getMinuteTo() == configuration.getMinuteTo()) {
+      configuration.setBatchSize(currentConfiguration.getBatchSize());
+    }
+
     job.setJobHandlerConfiguration(configuration);
     return job;
   }
@@ -65,6 +76,7 @@ public class HistoryCleanupJobDeclaration extends JobDeclaration<HistoryCleanupC
     config.setImmediatelyDue(context.isImmediatelyDue());
     config.setMinuteFrom(context.getMinuteFrom());
     config.setMinuteTo(context.getMinuteTo());
+    config.setTableGroup(context.getTableGroup());
     return config;
   }
 
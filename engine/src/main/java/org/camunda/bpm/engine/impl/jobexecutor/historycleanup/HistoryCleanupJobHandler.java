@@ -51,7 +51,11 @@ public class HistoryCleanupJobHandler implements JobHandler<HistoryCleanupJobHan
     HistoryCleanupHandler cleanupHandler = null;
 
     if (isHistoryCleanupStrategyRemovalTimeBased(commandContext)) {
-      cleanupHandler = new HistoryCleanupRemovalTime();
+      if (configuration.getTableGroup() != null) {
+        cleanupHandler = new HistoryCleanupRemovalTimeTableGroup();
+      } else {
+        cleanupHandler = new HistoryCleanupRemovalTime();
+      }
     } else {
       cleanupHandler = new HistoryCleanupBatch();
     }
@@ -32,6 +32,8 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
   public static final String JOB_CONFIG_EXECUTE_AT_ONCE = "immediatelyDue";
   public static final String JOB_CONFIG_MINUTE_FROM = "minuteFrom";
   public static final String JOB_CONFIG_MINUTE_TO = "minuteTo";
+  public static final String JOB_CONFIG_TABLE_GROUP = "tableGroup";
+  public static final String JOB_CONFIG_BATCH_SIZE = "batchSize";
 
   /**
    * Counts runs without data. Is used within batch window to calculate the delay between two job runs in case no data for cleanup was found.
@@ -50,6 +52,16 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
 
   private int minuteTo = 59;
 
+  /**
+   * The history tables cleaned up by this job or <code>null</code> if the job cleans up all history tables.
+   */
+  private HistoryCleanupTableGroup tableGroup;
+
+  /**
+   * Batch size adapted to the duration of the previous runs; <code>0</code> if the configured batch size is used.
+   */
+  private int batchSize = 0;
+
   public HistoryCleanupJobHandlerConfiguration() {
   }
 
@@ -60,6 +72,12 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
     json.put(JOB_CONFIG_EXECUTE_AT_ONCE, immediatelyDue);
     json.put(JOB_CONFIG_MINUTE_FROM, minuteFrom);
     json.put(JOB_CONFIG_MINUTE_TO, minuteTo);
+    if (tableGroup != null) {
+      json.put(JOB_CONFIG_TABLE_GROUP, tableGroup.name());
+    }
+    if (batchSize > 0) {
+      json.put(JOB_CONFIG_BATCH_SIZE, batchSize);
+    }
     return json.toString();
   }
 
@@ -73,6 +91,12 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
     }
     config.setMinuteFrom(jsonObject.getInt(JOB_CONFIG_MINUTE_FROM));
     config.setMinuteTo(jsonObject.getInt(JOB_CONFIG_MINUTE_TO));
+    if (jsonObject.has(JOB_CONFIG_TABLE_GROUP)) {
+      config.setTableGroup(HistoryCleanupTableGroup.valueOf(jsonObject.getString(JOB_CONFIG_TABLE_GROUP)));
+    }
+    if (jsonObject.has(JOB_CONFIG_BATCH_SIZE)) {
+      config.setBatchSize(jsonObject.getInt(JOB_CONFIG_BATCH_SIZE));
+    }
     return config;
   }
 
@@ -124,5 +148,20 @@ public class HistoryCleanupJobHandlerConfiguration implements JobHandlerConfigur
   public void setMinuteTo(int minuteTo) {
     this.minuteTo = minuteTo;
   }
-}
 
+  public HistoryCleanupTableGroup getTableGroup() {
+    return tableGroup;
+  }
+
+  public void setTableGroup(HistoryCleanupTableGroup tableGroup) {
+    this.tableGroup = tableGroup;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+}
@@ -15,7 +15,9 @@
  */
 package org.camunda.bpm.engine.impl.jobexecutor.historycleanup;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.engine.impl.batch.history.HistoricBatchEntity;
@@ -24,6 +26,8 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryPartition;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryPartitionManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.management.Metrics;
 
@@ -33,8 +37,15 @@ import org.camunda.bpm.engine.management.Metrics;
 public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
 
   protected Map<Class<? extends DbEntity>, DbOperation> deleteOperations = new HashMap<>();
+  protected List<DbOperation> dropPartitionOperations = new ArrayList<>();
+  protected Map<Class<? extends DbEntity>, Long> droppedPartitionRows = new HashMap<>();
 
   public void performCleanup() {
+    if (isPartitioningEnabled() && configuration.getMinuteFrom() == 0) {
+      // the partitions are maintained by the first of the parallel cleanup jobs only
+      dropPartitionOperations.addAll(performPartitionCleanup());
+    }
+
     deleteOperations.putAll(performProcessCleanup());
 
     if (isDmnEnabled()) {
@@ -62,6 +73,38 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
             configuration.getMinuteFrom(), configuration.getMinuteTo(), getBatchSize());
   }
 
+  protected List<DbOperation> performPartitionCleanup() {
+    HistoryPartitionManager historyPartitionManager = Context
+        .getCommandContext()
+        .getHistoryPartitionManager();
+
+    historyPartitionManager.createPartitions(ClockUtil.getCurrentTime(), getPartitionDaysInAdvance());
+
+    List<DbOperation> operations = new ArrayList<>();
+    for (HistoryPartition partition : historyPartitionManager.findExpiredPartitions(ClockUtil.getCurrentTime(), getBatchSize())) {
+      if (isReportedEntityType(partition.getEntityType())) {
+        addDroppedPartitionRows(partition.getEntityType(), historyPartitionManager.countRows(partition));
+      }
+      operations.add(historyPartitionManager.dropPartition(partition));
+    }
+
+    return operations;
+  }
+
+  /**
+   * Only the removed rows of these entities are reported as metrics.
+   */
+  protected boolean isReportedEntityType(Class<? extends DbEntity> entityType) {
+    return HistoricProcessInstanceEntity.class.equals(entityType)
+        || HistoricDecisionInstanceEntity.class.equals(entityType)
+        || HistoricBatchEntity.class.equals(entityType);
+  }
+
+  protected void addDroppedPartitionRows(Class<? extends DbEntity> entityType, long rows) {
+    Long droppedRows = droppedPartitionRows.get(entityType);
+    droppedPartitionRows.put(entityType, droppedRows == null ? rows : droppedRows + rows);
+  }
+
   protected DbOperation performBatchCleanup() {
     return Context
         .getCommandContext()
@@ -73,22 +116,27 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
   protected Map<String, Long> reportMetrics() {
     Map<String, Long> reports = new HashMap<>();
 
-    DbOperation deleteOperationProcessInstance = deleteOperations.get(HistoricProcessInstanceEntity.class);
-    if (deleteOperationProcessInstance != null) {
-      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES, (long) deleteOperationProcessInstance.getRowsAffected());
-    }
+    reportRemovedRows(reports, Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES, HistoricProcessInstanceEntity.class);
+    reportRemovedRows(reports, Metrics.HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES, HistoricDecisionInstanceEntity.class);
+    reportRemovedRows(reports, Metrics.HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS, HistoricBatchEntity.class);
 
-    DbOperation deleteOperationDecisionInstance = deleteOperations.get(HistoricDecisionInstanceEntity.class);
-    if (deleteOperationDecisionInstance != null) {
-      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES, (long) deleteOperationDecisionInstance.getRowsAffected());
-    }
+    return reports;
+  }
 
-    DbOperation deleteOperationBatch = deleteOperations.get(HistoricBatchEntity.class);
-    if (deleteOperationBatch != null) {
-      reports.put(Metrics.HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS, (long) deleteOperationBatch.getRowsAffected());
+  /**
+   * Reports the rows removed by the delete operation and by dropped partitions of the entity.
+   */
+  protected void reportRemovedRows(Map<String, Long> reports, String metricName, Class<? extends DbEntity> entityType) {
+    DbOperation deleteOperation = deleteOperations.get(entityType);
+    Long droppedRows = droppedPartitionRows.get(entityType);
+
+    if (deleteOperation != null || droppedRows != null) {
+      long removedRows = deleteOperation != null ? deleteOperation.getRowsAffected() : 0;
+      if (droppedRows != null) {
+        removedRows += droppedRows;
+      }
+      reports.put(metricName, removedRows);
     }
-
-    return reports;
   }
 
   protected boolean isDmnEnabled() {
@@ -97,6 +145,20 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
         .isDmnEnabled();
   }
 
+  /**
+   * Only partitioned history tables (or emulated partitions) can be dropped; otherwise
+   * the expired rows are removed by the batched deletes which respect the batch size.
+   */
+  protected boolean isPartitioningEnabled() {
+    return Context
+        .getProcessEngineConfiguration()
+        .isHistoryCleanupPartitioningEnabled()
+      && Context
+        .getCommandContext()
+        .getHistoryPartitionManager()
+        .isPartitioningSupported();
+  }
+
   protected boolean shouldRescheduleNow() {
     int batchSize = getBatchSize();
 
@@ -106,6 +168,17 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
       }
     }
 
+    // at most one batch of partitions is dropped per table
+    Map<Class<? extends DbEntity>, Integer> droppedPartitions = new HashMap<>();
+    for (DbOperation dropPartitionOperation : dropPartitionOperations) {
+      Integer count = droppedPartitions.get(dropPartitionOperation.getEntityType());
+      int newCount = count == null ? 1 : count + 1;
+      if (newCount == batchSize) {
+        return true;
+      }
+      droppedPartitions.put(dropPartitionOperation.getEntityType(), newCount);
+    }
+
     return false;
   }
 
@@ -115,4 +188,10 @@ public class HistoryCleanupRemovalTime extends HistoryCleanupHandler {
         .getHistoryCleanupBatchSize();
   }
 
+  public int getPartitionDaysInAdvance() {
+    return Context
+        .getProcessEngineConfiguration()
+        .getHistoryCleanupPartitionDaysInAdvance();
+  }
+
 }
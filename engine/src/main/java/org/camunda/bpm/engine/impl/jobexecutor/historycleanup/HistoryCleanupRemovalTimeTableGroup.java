@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor.historycleanup;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Removal time based cleanup of a single {@link HistoryCleanupTableGroup}.
+ *
+ * <p>The batch size is adapted to the time a run takes until its transaction is committed:
+ * it is halved if the run reaches the configured target duration and doubled (up to
+ * {@link #MAX_BATCH_SIZE}) if a full batch took less than half of it. The adapted batch
+ * size is stored in the job configuration, so every table group finds its own pace.</p>
+ */
+public class HistoryCleanupRemovalTimeTableGroup extends HistoryCleanupRemovalTime {
+
+  protected int batchSize;
+  protected long cleanupStartTime;
+
+  public void performCleanup() {
+    batchSize = resolveBatchSize();
+    cleanupStartTime = System.currentTimeMillis();
+
+    HistoryCleanupTableGroup tableGroup = configuration.getTableGroup();
+
+    if (isPartitioningEnabled() && tableGroup == HistoryCleanupTableGroup.PROCESS_INSTANCE && configuration.getMinuteFrom() == 0) {
+      dropPartitionOperations.addAll(performPartitionCleanup());
+    }
+
+    deleteOperations.putAll(tableGroup.deleteByRemovalTime(Context.getCommandContext(), ClockUtil.getCurrentTime(),
+        configuration.getMinuteFrom(), configuration.getMinuteTo(), batchSize));
+  }
+
+  public void execute(CommandContext commandContext) {
+    if (cleanupStartTime > 0) {
+      configuration.setBatchSize(adaptBatchSize(System.currentTimeMillis() - cleanupStartTime));
+    }
+
+    super.execute(commandContext);
+  }
+
+  protected int adaptBatchSize(long duration) {
+    int targetDuration = Context
+        .getProcessEngineConfiguration()
+        .getHistoryCleanupTableGroupTargetDuration();
+
+    if (duration >= targetDuration) {
+      return Math.max(batchSize / 2, 1);
+    }
+    else if (duration < targetDuration / 2 && shouldRescheduleNow()) {
+      return Math.min(batchSize * 2, MAX_BATCH_SIZE);
+    }
+    else {
+      return batchSize;
+    }
+  }
+
+  protected int resolveBatchSize() {
+    if (configuration.getBatchSize() > 0) {
+      return configuration.getBatchSize();
+    }
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    Integer tableGroupBatchSize = processEngineConfiguration.getParsedHistoryCleanupTableGroupBatchSizes()
+        .get(configuration.getTableGroup());
+
+    if (tableGroupBatchSize != null) {
+      return tableGroupBatchSize;
+    }
+    else {
+      return processEngineConfiguration.getHistoryCleanupBatchSize();
+    }
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor.historycleanup;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * The history tables which are cleaned up by their own history cleanup jobs if
+ * {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#isHistoryCleanupTableGroupsEnabled()}
+ * is set. Each group is removed by removal time independently of the other groups.
+ */
+public enum HistoryCleanupTableGroup {
+
+  PROCESS_INSTANCE {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricProcessInstanceManager()
+        .deleteHistoricProcessInstanceEntitiesByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  ACTIVITY_INSTANCE {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricActivityInstanceManager()
+        .deleteHistoricActivityInstancesByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  TASK_INSTANCE {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricTaskInstanceManager()
+        .deleteHistoricTaskInstancesByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  VARIABLE_INSTANCE {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricVariableInstanceManager()
+        .deleteHistoricVariableInstancesByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  DETAIL {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricDetailManager()
+        .deleteHistoricDetailsByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  BYTE_ARRAY {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getByteArrayManager()
+        .deleteByteArraysByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  /**
+   * The small log tables: incidents, job logs, external task logs, user operation logs,
+   * identity link logs, comments and attachments.
+   */
+  LOG {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricIncidentManager()
+        .deleteHistoricIncidentsByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      add(deleteOperations, commandContext.getHistoricJobLogManager()
+        .deleteJobLogByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      add(deleteOperations, commandContext.getHistoricExternalTaskLogManager()
+        .deleteExternalTaskLogByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      add(deleteOperations, commandContext.getOperationLogManager()
+        .deleteOperationLogByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      add(deleteOperations, commandContext.getHistoricIdentityLinkManager()
+        .deleteHistoricIdentityLinkLogByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      add(deleteOperations, commandContext.getCommentManager()
+        .deleteCommentsByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      add(deleteOperations, commandContext.getAttachmentManager()
+        .deleteAttachmentsByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  },
+
+  DECISION {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      if (commandContext.getProcessEngineConfiguration().isDmnEnabled()) {
+        deleteOperations.putAll(commandContext.getHistoricDecisionInstanceManager()
+          .deleteHistoricDecisionsByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+      }
+    }
+  },
+
+  BATCH {
+    protected void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                          Map<Class<? extends DbEntity>, DbOperation> deleteOperations) {
+      add(deleteOperations, commandContext.getHistoricBatchManager()
+        .deleteHistoricBatchesByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize));
+    }
+  };
+
+  /**
+   * Schedules the deletion of at most <code>batchSize</code> rows per table of this group.
+   *
+   * @return the scheduled delete operations by entity type
+   */
+  public Map<Class<? extends DbEntity>, DbOperation> deleteByRemovalTime(CommandContext commandContext, Date removalTime,
+                                                                          int minuteFrom, int minuteTo, int batchSize) {
+    Map<Class<? extends DbEntity>, DbOperation> deleteOperations = new HashMap<>();
+    delete(commandContext, removalTime, minuteFrom, minuteTo, batchSize, deleteOperations);
+    return deleteOperations;
+  }
+
+  protected abstract void delete(CommandContext commandContext, Date removalTime, int minuteFrom, int minuteTo, int batchSize,
+                                 Map<Class<? extends DbEntity>, DbOperation> deleteOperations);
+
+  protected static void add(Map<Class<? extends DbEntity>, DbOperation> deleteOperations, DbOperation deleteOperation) {
+    deleteOperations.put(deleteOperation.getEntityType(), deleteOperation);
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.management.CommandStatistics;
+
+/**
+ * The profiled executions of a command type.
+ */
+public class CommandProfile implements CommandStatistics {
+
+  protected final String commandName;
+
+  protected final Histogram durations;
+  protected final AtomicLong statementCount = new AtomicLong();
+  protected final AtomicLong rowsRead = new AtomicLong();
+  protected final AtomicLong rowsWritten = new AtomicLong();
+  protected final AtomicLong flushTime = new AtomicLong();
+
+  public CommandProfile(String commandName) {
+    this.commandName = commandName;
+    this.durations = new Histogram(commandName);
+  }
+
+  public void record(long durationMicros, CommandProfilingSession session) {
+    durations.recordValue(durationMicros);
+    statementCount.addAndGet(session.getStatementCount());
+    rowsRead.addAndGet(session.getRowsRead());
+    rowsWritten.addAndGet(session.getRowsWritten());
+    flushTime.addAndGet(session.getFlushTime());
+  }
+
+  public String getCommandName() {
+    return commandName;
+  }
+
+  public long getInvocationCount() {
+    return durations.getSnapshot().getCount();
+  }
+
+  public long getDurationPercentile(double percentile) {
+    return durations.getSnapshot().getValueAtPercentile(percentile);
+  }
+
+  public long getMeanDuration() {
+    return durations.getSnapshot().getMean();
+  }
+
+  public long getMaxDuration() {
+    return durations.getSnapshot().getMax();
+  }
+
+  public long getStatementCount() {
+    return statementCount.get();
+  }
+
+  public long getRowsRead() {
+    return rowsRead.get();
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten.get();
+  }
+
+  public long getFlushTime() {
+    return flushTime.get();
+  }
+
+  public String toString() {
+    return "CommandProfile[commandName=" + commandName
+        + ", invocationCount=" + getInvocationCount()
+        + ", statementCount=" + statementCount
+        + ", rowsRead=" + rowsRead
+        + ", rowsWritten=" + rowsWritten
+        + ", flushTime=" + flushTime
+        + "]";
+  }
+
+}
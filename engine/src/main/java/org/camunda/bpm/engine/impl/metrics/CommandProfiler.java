@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.management.CommandStatistics;
+
+/**
+ * <p>Aggregates the execution duration and the sql statements of the commands
+ * per command type.</p>
+ *
+ * <p>Only every n-th command is profiled as given by the sample interval, which
+ * can be changed at runtime; an interval of zero or less stops the profiling.
+ * The sql statements are reported by the thread's current {@link CommandProfilingSession},
+ * so that recording a statement is a thread local lookup and some additions.</p>
+ */
+public class CommandProfiler {
+
+  protected static final ThreadLocal<CommandProfilingSession> currentSession = new ThreadLocal<CommandProfilingSession>();
+
+  protected final ConcurrentMap<String, CommandProfile> profiles = new ConcurrentHashMap<String, CommandProfile>();
+  protected final AtomicLong commandCount = new AtomicLong();
+
+  protected volatile int sampleInterval;
+
+  public CommandProfiler(int sampleInterval) {
+    this.sampleInterval = sampleInterval;
+  }
+
+  /**
+   * @return the session of the profiled command which the current thread executes
+   *   or <code>null</code> if the command is not profiled
+   */
+  public static CommandProfilingSession getCurrentSession() {
+    return currentSession.get();
+  }
+
+  /**
+   * @return a new session bound to the current thread if the next command is sampled,
+   *   <code>null</code> otherwise
+   */
+  public CommandProfilingSession startSession() {
+    int interval = sampleInterval;
+    if (interval <= 0 || (interval > 1 && commandCount.incrementAndGet() % interval != 0)) {
+      return null;
+    }
+
+    CommandProfilingSession session = new CommandProfilingSession();
+    currentSession.set(session);
+    return session;
+  }
+
+  public void endSession(Command<?> command, CommandProfilingSession session, long startNanos) {
+    currentSession.remove();
+
+    long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    getProfile(command.getClass().getName()).record(durationMicros, session);
+  }
+
+  protected CommandProfile getProfile(String commandName) {
+    CommandProfile profile = profiles.get(commandName);
+    if (profile == null) {
+      CommandProfile newProfile = new CommandProfile(commandName);
+      profile = profiles.putIfAbsent(commandName, newProfile);
+      if (profile == null) {
+        profile = newProfile;
+      }
+    }
+    return profile;
+  }
+
+  public CommandStatistics getStatistics(String commandName) {
+    return profiles.get(commandName);
+  }
+
+  public List<CommandStatistics> getStatistics() {
+    return new ArrayList<CommandStatistics>(profiles.values());
+  }
+
+  public void reset() {
+    profiles.clear();
+  }
+
+  public int getSampleInterval() {
+    return sampleInterval;
+  }
+
+  public void setSampleInterval(int sampleInterval) {
+    this.sampleInterval = sampleInterval;
+  }
+
+}
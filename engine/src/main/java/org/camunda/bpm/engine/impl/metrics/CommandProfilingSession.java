@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+/**
+ * Collects the sql statements of a profiled command execution. A session is
+ * bound to the thread which executes the command, so it is not thread safe.
+ */
+public class CommandProfilingSession {
+
+  protected long statementCount;
+  protected long rowsRead;
+  protected long rowsWritten;
+  protected long flushTime;
+
+  public void selected(int rows) {
+    statementCount++;
+    rowsRead += rows;
+  }
+
+  public void updated(int rows) {
+    statementCount++;
+    if (rows > 0) {
+      rowsWritten += rows;
+    }
+  }
+
+  /**
+   * Counts the rows of batched statements which are only known once the batch is executed.
+   */
+  public void batchUpdated(int rows) {
+    if (rows > 0) {
+      rowsWritten += rows;
+    }
+  }
+
+  public void flushed(long durationMicros) {
+    flushTime += durationMicros;
+  }
+
+  public long getStatementCount() {
+    return statementCount;
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  public long getFlushTime() {
+    return flushTime;
+  }
+
+}
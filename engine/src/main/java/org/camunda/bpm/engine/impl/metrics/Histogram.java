@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A histogram of non-negative long values, e.g. durations in microseconds.
+ * Values are counted in buckets with a relative width of at most 1/32, i.e.
+ * the reported percentiles have a precision of about three percent. Values
+ * larger than {@link #MAX_TRACKABLE_VALUE} are counted as that value.</p>
+ *
+ * <p>Recording a value does not allocate and does not block, so a histogram
+ * can be updated from any number of threads.</p>
+ */
+public class Histogram {
+
+  protected static final int SUB_BUCKET_BITS = 5;
+  protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  protected static final int MAX_EXPONENT = 40;
+
+  /** about 12.7 days in microseconds */
+  public static final long MAX_TRACKABLE_VALUE = (1L << MAX_EXPONENT) - 1;
+
+  protected static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+
+  protected String name;
+
+  protected final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  protected final AtomicLong sum = new AtomicLong();
+  protected final AtomicLong max = new AtomicLong();
+
+  public Histogram(String name) {
+    this.name = name;
+  }
+
+  public void recordValue(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    else if (value > MAX_TRACKABLE_VALUE) {
+      value = MAX_TRACKABLE_VALUE;
+    }
+
+    counts.incrementAndGet(bucketIndex(value));
+    sum.addAndGet(value);
+
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  /**
+   * @return the values recorded since the last reset
+   */
+  public HistogramSnapshot getSnapshot() {
+    long[] bucketCounts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      bucketCounts[i] = counts.get(i);
+    }
+    return new HistogramSnapshot(bucketCounts, sum.get(), max.get());
+  }
+
+  /**
+   * @return the values recorded since the last reset and resets the histogram.
+   *   Values which are recorded concurrently are either part of this or of the next snapshot.
+   */
+  public HistogramSnapshot getSnapshotAndReset() {
+    long[] bucketCounts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      bucketCounts[i] = counts.getAndSet(i, 0);
+    }
+    return new HistogramSnapshot(bucketCounts, sum.getAndSet(0), max.getAndSet(0));
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  // buckets ////////////////////////////////////////////////////////
+
+  /**
+   * Values below {@link #SUB_BUCKET_COUNT} have a bucket each. Larger values
+   * are split by their highest bit into ranges [2^n, 2^(n+1)[ which are
+   * divided into {@link #SUB_BUCKET_COUNT} buckets of equal width.
+   */
+  protected static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+  }
+
+  /**
+   * @return the largest value which is counted in the bucket
+   */
+  protected static long highestValueInBucket(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+}
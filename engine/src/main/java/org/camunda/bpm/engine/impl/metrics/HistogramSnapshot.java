@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+/**
+ * The values of a {@link Histogram} at a point in time.
+ */
+public class HistogramSnapshot {
+
+  protected final long[] bucketCounts;
+  protected final long count;
+  protected final long sum;
+  protected final long max;
+
+  public HistogramSnapshot(long[] bucketCounts, long sum, long max) {
+    this.bucketCounts = bucketCounts;
+    this.sum = sum;
+    this.max = max;
+
+    long count = 0;
+    for (long bucketCount : bucketCounts) {
+      count += bucketCount;
+    }
+    this.count = count;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getMean() {
+    return count > 0 ? sum / count : 0;
+  }
+
+  /**
+   * @param percentile a value between 0 and 100
+   * @return the value below or equal to which the given percentage of the
+   *   recorded values lie, or 0 if no value was recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+
+    double boundedPercentile = Math.min(Math.max(percentile, 0), 100);
+    long rank = Math.max(1, (long) Math.ceil(boundedPercentile / 100 * count));
+
+    long seen = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      seen += bucketCounts[i];
+      if (seen >= rank) {
+        return Math.min(Histogram.highestValueInBucket(i), max);
+      }
+    }
+    return max;
+  }
+
+}
@@ -15,17 +15,16 @@
  */
 package org.camunda.bpm.engine.impl.metrics;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
- * A Meter implementation based on AtomicLong
+ * A Meter implementation based on a {@link StripedCounter}, such that
+ * concurrent marks do not contend.
  *
  * @author Daniel Meyer
  *
  */
 public class Meter {
 
-  protected AtomicLong counter = new AtomicLong(0);
+  protected StripedCounter counter = new StripedCounter();
 
   protected String name;
 
@@ -34,11 +33,19 @@ public class Meter {
   }
 
   public void mark() {
-    counter.incrementAndGet();
+    counter.add(1);
   }
 
   public void markTimes(long times) {
-    counter.addAndGet(times);
+    counter.add(times);
+  }
+
+  /**
+   * Marks an occurrence which is attributed to the given tag, e.g. a
+   * process definition key. This meter ignores the tag.
+   */
+  public void markTimes(String tag, long times) {
+    markTimes(times);
   }
 
   public String getName() {
@@ -50,11 +57,11 @@ public class Meter {
   }
 
   public long getAndClear() {
-    return counter.getAndSet(0);
+    return counter.sumAndReset();
   }
 
   public long get() {
-    return counter.get();
+    return counter.sum();
   }
 
 }
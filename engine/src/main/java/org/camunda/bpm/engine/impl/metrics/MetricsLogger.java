@@ -15,7 +15,9 @@
  */
 package org.camunda.bpm.engine.impl.metrics;
 
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  * @author Daniel Meyer
@@ -36,4 +38,19 @@ public class MetricsLogger extends ProcessEngineLogger {
         "002", "Could not collect and log metrics", e);
   }
 
+  public void couldNotRollupMetrics(Exception e) {
+    logWarn(
+        "003", "Could not roll up metrics", e);
+  }
+
+  public void concurrentMetricsRollup(Exception e) {
+    logDebug(
+        "004", "Metrics are rolled up by another process engine: {}", e.getMessage());
+  }
+
+  public ProcessEngineException reservedMeterName(String name) {
+    return new ProcessEngineException(exceptionMessage(
+        "005", "Meter name '{}' starts with the prefix '{}' which is reserved for the values of the timer metrics", name, Metrics.TIMER_VALUE_PREFIX));
+  }
+
 }
@@ -23,6 +23,7 @@ import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.management.Metrics;
 import org.camunda.bpm.engine.management.MetricsQuery;
 import org.camunda.bpm.engine.management.MetricIntervalValue;
 
@@ -46,6 +47,12 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
   protected Long interval;
   protected Boolean aggregateByReporter;
 
+  /**
+   * If set, the rows before these timestamps are taken from the daily and hourly rollups.
+   */
+  protected Long rollupDayEndMilliseconds;
+  protected Long rollupHourEndMilliseconds;
+
   protected transient CommandExecutor commandExecutor;
 
   public MetricsQueryImpl(CommandExecutor commandExecutor) {
@@ -104,6 +111,10 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
   }
 
   public long sum() {
+    if (isTimerValue(name)) {
+      throw new ProcessEngineException("Metric '" + name + "' is reported per interval and can not be summed up. Use interval() to query it.");
+    }
+
     callback = new Command() {
       @Override
       public Object execute(CommandContext commandContext) {
@@ -115,6 +126,13 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
     return (Long) commandExecutor.execute(this);
   }
 
+  /**
+   * @return true if the given name is the name of a percentile or maximum of a timer metric
+   */
+  public static boolean isTimerValue(String name) {
+    return name != null && name.startsWith(Metrics.TIMER_VALUE_PREFIX);
+  }
+
   @Override
   public Object execute(CommandContext commandContext) {
     if (callback != null) {
@@ -180,6 +198,22 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
     return interval;
   }
 
+  public Long getRollupDayEndMilliseconds() {
+    return rollupDayEndMilliseconds;
+  }
+
+  public void setRollupDayEndMilliseconds(Long rollupDayEndMilliseconds) {
+    this.rollupDayEndMilliseconds = rollupDayEndMilliseconds;
+  }
+
+  public Long getRollupHourEndMilliseconds() {
+    return rollupHourEndMilliseconds;
+  }
+
+  public void setRollupHourEndMilliseconds(Long rollupHourEndMilliseconds) {
+    this.rollupHourEndMilliseconds = rollupHourEndMilliseconds;
+  }
+
   @Override
   public int getMaxResults() {
     if (maxResults > DEFAULT_LIMIT_SELECT_INTERVAL) {
@@ -15,8 +15,11 @@
  */
 package org.camunda.bpm.engine.impl.metrics;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 
 /**
  * @author Daniel Meyer
@@ -24,7 +27,11 @@ import java.util.Map;
  */
 public class MetricsRegistry {
 
-  protected Map<String, Meter> meters = new HashMap<String, Meter>();
+  private final static MetricsLogger LOG = ProcessEngineLogger.METRICS_LOGGER;
+
+  protected Map<String, Meter> meters = new ConcurrentHashMap<String, Meter>();
+
+  protected Map<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
 
   public Meter getMeterByName(String name) {
     return meters.get(name);
@@ -46,10 +53,89 @@ public class MetricsRegistry {
     }
   }
 
+  /**
+   * Marks an occurrence which is attributed to the given tag. The tag is only
+   * counted if the meter was created as a {@link TaggedMeter}.
+   */
+  public void markOccurrence(String name, String tag) {
+    Meter meter = meters.get(name);
+
+    if (meter != null) {
+      meter.markTimes(tag, 1);
+    }
+  }
+
   public Meter createMeter(String name) {
+    ensureNotReserved(name);
     Meter meter = new Meter(name);
     meters.put(name, meter);
     return meter;
   }
 
+  public TaggedMeter createTaggedMeter(String name, int maxTags) {
+    ensureNotReserved(name);
+    TaggedMeter meter = new TaggedMeter(name, maxTags);
+    meters.put(name, meter);
+    return meter;
+  }
+
+  /**
+   * @return the number of occurrences per tag of the given meter since the engine
+   *   has started, or an empty map if the meter is not tagged
+   */
+  public Map<String, Long> getTagValues(String name) {
+    Meter meter = meters.get(name);
+
+    if (meter instanceof TaggedMeter) {
+      return ((TaggedMeter) meter).getTagValues();
+    }
+    else {
+      return Collections.emptyMap();
+    }
+  }
+
+  public Histogram getHistogramByName(String name) {
+    return histograms.get(name);
+  }
+
+  public Map<String, Histogram> getHistograms() {
+    return histograms;
+  }
+
+  public void recordValue(String name, long value) {
+    Histogram histogram = histograms.get(name);
+
+    if (histogram != null) {
+      histogram.recordValue(value);
+    }
+  }
+
+  /**
+   * Records the time elapsed since the given start time of {@link System#nanoTime()} in microseconds.
+   */
+  public void recordDuration(String name, long startNanos) {
+    Histogram histogram = histograms.get(name);
+
+    if (histogram != null) {
+      histogram.recordValue((System.nanoTime() - startNanos) / 1000);
+    }
+  }
+
+  public Histogram createHistogram(String name) {
+    ensureNotReserved(name);
+    Histogram histogram = new Histogram(name);
+    histograms.put(name, histogram);
+    return histogram;
+  }
+
+  /**
+   * The values of the timer metrics are told apart from the values of the meters by
+   * their prefix, so a meter must not use it.
+   */
+  public static void ensureNotReserved(String name) {
+    if (MetricsQueryImpl.isTimerValue(name)) {
+      throw LOG.reservedMeterName(name);
+    }
+  }
+
 }
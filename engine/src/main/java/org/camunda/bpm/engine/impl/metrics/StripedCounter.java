@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A counter which is split into several cells, such that threads which
+ * increment the counter concurrently mostly update different cells. Each cell
+ * is placed on its own cache line, so incrementing does not contend even if all
+ * engine threads count the same event.</p>
+ *
+ * <p>Reading the counter sums up all cells and is therefore more expensive than
+ * incrementing it. This is fine for metrics which are read in reporting intervals only.</p>
+ */
+public class StripedCounter {
+
+  /** number of longs between two cells, i.e. one cell per 64 byte cache line */
+  protected static final int CELL_PADDING = 8;
+
+  protected static final int MAX_STRIPES = 32;
+
+  protected static final int DEFAULT_STRIPES = stripesFor(Runtime.getRuntime().availableProcessors());
+
+  protected final int stripeMask;
+  protected final AtomicLongArray cells;
+
+  public StripedCounter() {
+    this(DEFAULT_STRIPES);
+  }
+
+  /**
+   * @param stripes the number of cells, rounded up to a power of two
+   */
+  public StripedCounter(int stripes) {
+    int stripeCount = stripesFor(stripes);
+    this.stripeMask = stripeCount - 1;
+    this.cells = new AtomicLongArray(stripeCount * CELL_PADDING);
+  }
+
+  public void add(long value) {
+    cells.addAndGet(cellIndex(), value);
+  }
+
+  public long sum() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += CELL_PADDING) {
+      sum += cells.get(i);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the current value and resets the counter. Increments which happen
+   * concurrently are either part of the returned value or remain in the counter.
+   */
+  public long sumAndReset() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += CELL_PADDING) {
+      sum += cells.getAndSet(i, 0);
+    }
+    return sum;
+  }
+
+  protected int cellIndex() {
+    long threadId = Thread.currentThread().getId();
+    // spread the sequential thread ids over the cells
+    int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+    return ((hash >>> 16) & stripeMask) * CELL_PADDING;
+  }
+
+  protected static int stripesFor(int threads) {
+    int stripes = 1;
+    while (stripes < threads && stripes < MAX_STRIPES) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A meter which additionally counts its occurrences per tag, e.g. per
+ * process definition key or job type. The total is reported like the value
+ * of any other meter; the counts per tag are kept in memory since the engine
+ * has started.</p>
+ *
+ * <p>The number of tags is bounded: once {@link #getMaxTags()} different tags
+ * have been seen, the occurrences of further tags are counted for
+ * {@link #OTHER_TAG}. Concurrently added tags may exceed the bound by the number
+ * of marking threads.</p>
+ */
+public class TaggedMeter extends Meter {
+
+  /**
+   * The tag under which the occurrences of further tags are counted. It is
+   * enclosed in parentheses so that it cannot clash with a process definition
+   * key or a job type.
+   */
+  public static final String OTHER_TAG = "(other)";
+
+  protected final int maxTags;
+  protected final ConcurrentMap<String, StripedCounter> tagCounters = new ConcurrentHashMap<String, StripedCounter>();
+  protected final AtomicInteger tagCount = new AtomicInteger();
+  protected final StripedCounter otherCounter = new StripedCounter(1);
+
+  public TaggedMeter(String name, int maxTags) {
+    super(name);
+    this.maxTags = maxTags;
+  }
+
+  public void markTimes(String tag, long times) {
+    markTimes(times);
+
+    if (tag != null) {
+      getTagCounter(tag).add(times);
+    }
+  }
+
+  protected StripedCounter getTagCounter(String tag) {
+    StripedCounter tagCounter = tagCounters.get(tag);
+    if (tagCounter != null) {
+      return tagCounter;
+    }
+
+    if (tagCount.get() >= maxTags) {
+      return otherCounter;
+    }
+
+    // tags are counted less often than the total, so fewer stripes suffice
+    StripedCounter newCounter = new StripedCounter(4);
+    tagCounter = tagCounters.putIfAbsent(tag, newCounter);
+    if (tagCounter == null) {
+      tagCount.incrementAndGet();
+      tagCounter = newCounter;
+    }
+    return tagCounter;
+  }
+
+  /**
+   * @return the number of occurrences per tag since the engine has started
+   */
+  public Map<String, Long> getTagValues() {
+    Map<String, Long> tagValues = new HashMap<String, Long>();
+    for (Map.Entry<String, StripedCounter> tagCounter : tagCounters.entrySet()) {
+      tagValues.put(tagCounter.getKey(), tagCounter.getValue().sum());
+    }
+
+    long other = otherCounter.sum();
+    if (other > 0) {
+      tagValues.put(OTHER_TAG, other);
+    }
+    return tagValues;
+  }
+
+  public int getMaxTags() {
+    return maxTags;
+  }
+
+}
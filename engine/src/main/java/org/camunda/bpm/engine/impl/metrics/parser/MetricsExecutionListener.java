@@ -18,6 +18,10 @@ package org.camunda.bpm.engine.impl.metrics.parser;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.TaggedMeter;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 
 /**
  * @author Daniel Meyer
@@ -32,9 +36,27 @@ public class MetricsExecutionListener implements ExecutionListener {
   }
 
   public void notify(DelegateExecution execution) throws Exception {
-    Context.getProcessEngineConfiguration()
+    Meter meter = Context.getProcessEngineConfiguration()
       .getMetricsRegistry()
-      .markOccurrence(metricsName);
+      .getMeterByName(metricsName);
+
+    if (meter instanceof TaggedMeter) {
+      // only resolve the process definition if the occurrences are counted per key
+      meter.markTimes(getProcessDefinitionKey(execution), 1);
+    }
+    else if (meter != null) {
+      meter.mark();
+    }
+  }
+
+  protected String getProcessDefinitionKey(DelegateExecution execution) {
+    if (execution instanceof ExecutionEntity) {
+      ProcessDefinitionEntity processDefinition = ((ExecutionEntity) execution).getProcessDefinition();
+      return processDefinition != null ? processDefinition.getKey() : null;
+    }
+    else {
+      return null;
+    }
   }
 
 }
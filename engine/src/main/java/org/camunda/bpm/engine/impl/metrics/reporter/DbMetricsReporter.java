@@ -39,6 +39,7 @@ public class DbMetricsReporter {
   protected long reportingIntervalInSeconds = 60 * 15;
 
   protected MetricsCollectionTask metricsCollectionTask;
+  protected MetricsRollupTask metricsRollupTask;
   private Timer timer;
 
   public DbMetricsReporter(MetricsRegistry metricsRegistry, CommandExecutor commandExecutor) {
@@ -58,6 +59,12 @@ public class DbMetricsReporter {
     timer.scheduleAtFixedRate(metricsCollectionTask,
         reportingIntervalInMillis,
         reportingIntervalInMillis);
+
+    if (metricsRollupTask != null) {
+      timer.scheduleAtFixedRate(metricsRollupTask,
+          reportingIntervalInMillis,
+          reportingIntervalInMillis);
+    }
   }
 
   public void stop() {
@@ -76,7 +83,14 @@ public class DbMetricsReporter {
     }
   }
 
+  public void rollupNow() {
+    if(metricsRollupTask != null) {
+      metricsRollupTask.run();
+    }
+  }
+
   public void reportValueAtOnce(final String name, final long value) {
+    MetricsRegistry.ensureNotReserved(name);
     commandExecutor.execute(new Command<Void>() {
       @Override
       public Void execute(CommandContext commandContext) {
@@ -110,6 +124,14 @@ public class DbMetricsReporter {
     this.metricsCollectionTask = metricsCollectionTask;
   }
 
+  public MetricsRollupTask getMetricsRollupTask() {
+    return metricsRollupTask;
+  }
+
+  public void setMetricsRollupTask(MetricsRollupTask metricsRollupTask) {
+    this.metricsRollupTask = metricsRollupTask;
+  }
+
   public void setReporterId(String reporterId) {
     this.reporterId = reporterId;
     if (metricsCollectionTask != null) {
@@ -16,6 +16,7 @@
 package org.camunda.bpm.engine.impl.metrics.reporter;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.TimerTask;
 
@@ -23,11 +24,14 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
 import org.camunda.bpm.engine.impl.metrics.Meter;
 import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  *
@@ -72,6 +76,10 @@ public class MetricsCollectionTask extends TimerTask {
 
     }
 
+    for (Histogram histogram : metricsRegistry.getHistograms().values()) {
+      collectTimer(histogram, logs);
+    }
+
     commandExecutor.execute(new Command<Void>() {
 
       public Void execute(CommandContext commandContext) {
@@ -83,6 +91,23 @@ public class MetricsCollectionTask extends TimerTask {
     });
   }
 
+  /**
+   * A timer is reported as the number of recorded values and their percentiles
+   * in the reporting interval.
+   */
+  protected void collectTimer(Histogram histogram, List<MeterLogEntity> logs) {
+    HistogramSnapshot snapshot = histogram.getSnapshotAndReset();
+    String name = histogram.getName();
+    String timerValueName = Metrics.TIMER_VALUE_PREFIX + name;
+    Date timestamp = ClockUtil.getCurrentTime();
+
+    logs.add(new MeterLogEntity(name + Metrics.TIMER_COUNT_SUFFIX, reporterId, snapshot.getCount(), timestamp));
+    logs.add(new MeterLogEntity(timerValueName + Metrics.TIMER_P50_SUFFIX, reporterId, snapshot.getValueAtPercentile(50), timestamp));
+    logs.add(new MeterLogEntity(timerValueName + Metrics.TIMER_P95_SUFFIX, reporterId, snapshot.getValueAtPercentile(95), timestamp));
+    logs.add(new MeterLogEntity(timerValueName + Metrics.TIMER_P99_SUFFIX, reporterId, snapshot.getValueAtPercentile(99), timestamp));
+    logs.add(new MeterLogEntity(timerValueName + Metrics.TIMER_MAX_SUFFIX, reporterId, snapshot.getMax(), timestamp));
+  }
+
   public String getReporter() {
     return reporterId;
   }
@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics.reporter;
+
+import java.util.TimerTask;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.RollupMetricsCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogRollupEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Rolls up the meter logs into hourly and daily rollups and deletes the meter logs
+ * which are older than their time to live. Meter logs are only deleted once they
+ * are rolled up if rollups are enabled.
+ */
+public class MetricsRollupTask extends TimerTask {
+
+  private final static MetricsLogger LOG = ProcessEngineLogger.METRICS_LOGGER;
+
+  protected CommandExecutor commandExecutor;
+  protected boolean rollupEnabled;
+  protected Integer meterLogTimeToLiveInHours;
+
+  /**
+   * Meter logs which are younger than the delay are not rolled up, so that
+   * late reports of other engines are not missed.
+   */
+  protected long delayInSeconds = 60 * 15;
+
+  public MetricsRollupTask(CommandExecutor commandExecutor, boolean rollupEnabled, Integer meterLogTimeToLiveInHours) {
+    this.commandExecutor = commandExecutor;
+    this.rollupEnabled = rollupEnabled;
+    this.meterLogTimeToLiveInHours = meterLogTimeToLiveInHours;
+  }
+
+  public void run() {
+    try {
+      if (rollupEnabled) {
+        rollup(MeterLogRollupEntity.HOUR, null);
+        rollup(MeterLogRollupEntity.DAY, MeterLogRollupEntity.HOUR);
+      }
+      if (meterLogTimeToLiveInHours != null) {
+        deleteExpiredMeterLogs();
+      }
+    }
+    catch (OptimisticLockingException e) {
+      // another engine rolls up concurrently
+      LOG.concurrentMetricsRollup(e);
+    }
+    catch (Exception e) {
+      try {
+        LOG.couldNotRollupMetrics(e);
+      }
+      catch (Exception ex) {
+        // ignore if log can't be written
+      }
+    }
+  }
+
+  protected void rollup(int interval, Integer sourceInterval) {
+    long intervalInMillis = interval * 1000L;
+    long end = ClockUtil.getCurrentTime().getTime() - delayInSeconds * 1000;
+    end -= end % intervalInMillis;
+
+    boolean hasMoreIntervals = true;
+    while (hasMoreIntervals) {
+      hasMoreIntervals = commandExecutor.execute(new RollupMetricsCmd(interval, sourceInterval, end));
+    }
+  }
+
+  protected void deleteExpiredMeterLogs() {
+    final long expiration = ClockUtil.getCurrentTime().getTime() - meterLogTimeToLiveInHours * 60L * 60 * 1000;
+
+    commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        MeterLogManager meterLogManager = commandContext.getMeterLogManager();
+
+        long deleteBefore = expiration;
+        if (rollupEnabled) {
+          Long rollupEnd = meterLogManager.findRollupEnd(MeterLogRollupEntity.HOUR);
+          if (rollupEnd == null) {
+            return null;
+          }
+          deleteBefore = Math.min(deleteBefore, rollupEnd);
+        }
+
+        meterLogManager.deleteMeterLogsBefore(deleteBefore);
+        return null;
+      }
+    });
+  }
+
+  public boolean isRollupEnabled() {
+    return rollupEnabled;
+  }
+
+  public Integer getMeterLogTimeToLiveInHours() {
+    return meterLogTimeToLiveInHours;
+  }
+
+  public long getDelayInSeconds() {
+    return delayInSeconds;
+  }
+
+  public void setDelayInSeconds(long delayInSeconds) {
+    this.delayInSeconds = delayInSeconds;
+  }
+
+}
@@ -20,6 +20,7 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotContainsNull;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,10 +32,21 @@ import java.util.concurrent.Callable;
 import org.camunda.bpm.application.ProcessApplicationReference;
 import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.camunda.bpm.engine.impl.cfg.CommandChecker;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.context.ProcessApplicationContextUtil;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.TimerDeclarationImpl;
 import org.camunda.bpm.engine.impl.migration.instance.DeleteUnmappedInstanceVisitor;
 import org.camunda.bpm.engine.impl.migration.instance.MigratingActivityInstance;
 import org.camunda.bpm.engine.impl.migration.instance.MigratingActivityInstanceVisitor;
@@ -55,7 +67,12 @@ import org.camunda.bpm.engine.impl.migration.validation.instance.MigratingTransi
 import org.camunda.bpm.engine.impl.migration.validation.instance.MigratingTransitionInstanceValidator;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
 import org.camunda.bpm.engine.impl.tree.ReferenceWalker;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
+import org.camunda.bpm.engine.migration.MigrationInstruction;
 import org.camunda.bpm.engine.migration.MigrationPlan;
 
 /**
@@ -75,6 +92,9 @@ import org.camunda.bpm.engine.migration.MigrationPlan;
 public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
 
   protected static final MigrationLogger LOGGER = ProcessEngineLogger.MIGRATION_LOGGER;
+  protected static final EnginePersistenceLogger PERSISTENCE_LOGGER = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected static final int SET_BASED_MIGRATION_CHUNK_SIZE = 500;
 
   protected boolean writeOperationLog;
 
@@ -91,7 +111,7 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
     ensureNotEmpty(BadUserRequestException.class, "Process instance ids cannot empty", "process instance ids", processInstanceIds);
     ensureNotContainsNull(BadUserRequestException.class, "Process instance ids cannot be null", "process instance ids", processInstanceIds);
 
-    ProcessDefinitionEntity sourceDefinition = resolveSourceProcessDefinition(commandContext);
+    final ProcessDefinitionEntity sourceDefinition = resolveSourceProcessDefinition(commandContext);
     final ProcessDefinitionEntity targetDefinition = resolveTargetProcessDefinition(commandContext);
 
     checkAuthorizations(commandContext,
@@ -110,7 +130,13 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
 
       @Override
       public Void call() throws Exception {
-        for (String processInstanceId : processInstanceIds) {
+        Collection<String> remainingProcessInstanceIds = processInstanceIds;
+        ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+        if (processEngineConfiguration.isSetBasedMigrationEnabled() && isSetBasedHistoryUpdateSupported(processEngineConfiguration)) {
+          remainingProcessInstanceIds = migrateProcessInstanceGroups(commandContext, processInstanceIds, migrationPlan, sourceDefinition, targetDefinition);
+        }
+
+        for (String processInstanceId : remainingProcessInstanceIds) {
           migrateProcessInstance(commandContext, processInstanceId, migrationPlan, targetDefinition);
         }
         return null;
@@ -163,6 +189,193 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
     return null;
   }
 
+  /**
+   * Process instances which consist of a single execution waiting in the same activity
+   * have the same activity instance tree. The first instance of such a group is migrated
+   * and validated as usual, the other ones are migrated with bulk updates.
+   *
+   * @return the ids of the process instances which must be migrated one by one
+   */
+  protected Collection<String> migrateProcessInstanceGroups(CommandContext commandContext,
+      Collection<String> processInstanceIds,
+      MigrationPlan migrationPlan,
+      ProcessDefinitionEntity sourceDefinition,
+      ProcessDefinitionEntity targetDefinition) {
+
+    List<ExecutionEntity> processInstances = commandContext.getExecutionManager()
+      .findProcessInstancesInSimpleWaitState(sourceDefinition.getId(), new ArrayList<String>(processInstanceIds));
+
+    Map<String, List<ExecutionEntity>> processInstancesByActivity = new HashMap<String, List<ExecutionEntity>>();
+    for (ExecutionEntity processInstance : processInstances) {
+      List<ExecutionEntity> group = processInstancesByActivity.get(processInstance.getActivityId());
+      if (group == null) {
+        group = new ArrayList<ExecutionEntity>();
+        processInstancesByActivity.put(processInstance.getActivityId(), group);
+      }
+      group.add(processInstance);
+    }
+
+    Set<String> migratedProcessInstanceIds = new HashSet<String>();
+
+    for (List<ExecutionEntity> group : processInstancesByActivity.values()) {
+      String sourceActivityId = group.get(0).getActivityId();
+      MigrationInstruction instruction = findSingleMigrationInstruction(migrationPlan, sourceActivityId);
+
+      if (group.size() > 1 && instruction != null && isSetBasedMigrationSupported(instruction, sourceDefinition, targetDefinition)) {
+        // validates the migration of the whole group
+        ExecutionEntity firstProcessInstance = group.get(0);
+        migrateProcessInstance(commandContext, firstProcessInstance.getId(), migrationPlan, targetDefinition);
+        migratedProcessInstanceIds.add(firstProcessInstance.getId());
+
+        List<ExecutionEntity> otherProcessInstances = group.subList(1, group.size());
+        for (ExecutionEntity processInstance : otherProcessInstances) {
+          ensureOperationAllowed(commandContext, processInstance, targetDefinition);
+          migratedProcessInstanceIds.add(processInstance.getId());
+        }
+
+        ActivityImpl targetActivity = targetDefinition.findActivity(instruction.getTargetActivityId());
+        for (List<ExecutionEntity> chunk : CollectionUtil.partition(otherProcessInstances, SET_BASED_MIGRATION_CHUNK_SIZE)) {
+          migrateProcessInstancesInBulk(commandContext, chunk, sourceActivityId, targetDefinition, targetActivity);
+        }
+      }
+    }
+
+    List<String> remainingProcessInstanceIds = new ArrayList<String>();
+    for (String processInstanceId : processInstanceIds) {
+      if (!migratedProcessInstanceIds.contains(processInstanceId)) {
+        remainingProcessInstanceIds.add(processInstanceId);
+      }
+    }
+
+    return remainingProcessInstanceIds;
+  }
+
+  /**
+   * The history of process instances migrated with bulk updates is updated in the database
+   * directly instead of producing migration history events. This is only equivalent if the
+   * events would be handled by the default {@link DbHistoryEventHandler} alone and if the
+   * history level is a built-in one, which does not inspect the migrated entities.
+   */
+  protected boolean isSetBasedHistoryUpdateSupported(ProcessEngineConfigurationImpl processEngineConfiguration) {
+    HistoryLevel historyLevel = processEngineConfiguration.getHistoryLevel();
+
+    if (HistoryLevel.HISTORY_LEVEL_NONE.equals(historyLevel)) {
+      return true;
+    }
+
+    boolean isBuiltInHistoryLevel = HistoryLevel.HISTORY_LEVEL_ACTIVITY.equals(historyLevel)
+        || HistoryLevel.HISTORY_LEVEL_AUDIT.equals(historyLevel)
+        || HistoryLevel.HISTORY_LEVEL_FULL.equals(historyLevel);
+
+    HistoryEventHandler historyEventHandler = processEngineConfiguration.getHistoryEventHandler();
+
+    return isBuiltInHistoryLevel
+        && historyEventHandler != null
+        && historyEventHandler.getClass() == DbHistoryEventHandler.class;
+  }
+
+  protected MigrationInstruction findSingleMigrationInstruction(MigrationPlan migrationPlan, String sourceActivityId) {
+    MigrationInstruction result = null;
+
+    for (MigrationInstruction instruction : migrationPlan.getInstructions()) {
+      if (sourceActivityId.equals(instruction.getSourceActivityId())) {
+        if (result != null) {
+          return null;
+        }
+        result = instruction;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * The migration of a process instance waiting in a non-scope activity only changes the
+   * references to the process definition and the activity if neither the source nor the
+   * target activity is a scope or is nested in a scope and no event subscriptions or timers
+   * emerge in the target.
+   */
+  protected boolean isSetBasedMigrationSupported(MigrationInstruction instruction,
+      ProcessDefinitionEntity sourceDefinition,
+      ProcessDefinitionEntity targetDefinition) {
+
+    ActivityImpl sourceActivity = sourceDefinition.findActivity(instruction.getSourceActivityId());
+    ActivityImpl targetActivity = targetDefinition.findActivity(instruction.getTargetActivityId());
+
+    return sourceActivity != null && targetActivity != null
+        && !sourceActivity.isScope() && !targetActivity.isScope()
+        && sourceActivity.getFlowScope() == sourceDefinition
+        && targetActivity.getFlowScope() == targetDefinition
+        && !hasEmergingEventDeclarations(targetDefinition)
+        && !hasEmergingEventDeclarations(targetActivity);
+  }
+
+  protected boolean hasEmergingEventDeclarations(ScopeImpl scope) {
+    if (!TimerDeclarationImpl.getDeclarationsForScope(scope).isEmpty()) {
+      return true;
+    }
+
+    for (EventSubscriptionDeclaration declaration : EventSubscriptionDeclaration.getDeclarationsForScope(scope).values()) {
+      if (!declaration.isStartEvent()) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  protected void migrateProcessInstancesInBulk(CommandContext commandContext,
+      List<ExecutionEntity> processInstances,
+      String sourceActivityId,
+      ProcessDefinitionEntity targetDefinition,
+      ActivityImpl targetActivity) {
+
+    List<String> processInstanceIds = new ArrayList<String>();
+    for (ExecutionEntity processInstance : processInstances) {
+      processInstanceIds.add(processInstance.getId());
+    }
+
+    final DbBulkOperation processInstanceUpdate = commandContext.getExecutionManager()
+      .updateProcessInstancesForSetBasedMigration(processInstances, targetDefinition.getId(), targetActivity.getId());
+
+    final List<TaskEntity> tasks = commandContext.getTaskManager().findTasksByProcessInstanceIds(processInstanceIds);
+    final DbBulkOperation taskUpdate = tasks.isEmpty() ? null : commandContext.getTaskManager()
+      .updateTasksForSetBasedMigration(tasks, targetDefinition.getId(), targetActivity.getId());
+
+    HistoryLevel historyLevel = commandContext.getProcessEngineConfiguration().getHistoryLevel();
+
+    if (historyLevel.isHistoryEventProduced(HistoryEventTypes.PROCESS_INSTANCE_MIGRATE, null)) {
+      commandContext.getHistoricProcessInstanceManager()
+        .updateHistoricProcessInstancesForSetBasedMigration(processInstanceIds, targetDefinition);
+    }
+    if (historyLevel.isHistoryEventProduced(HistoryEventTypes.ACTIVITY_INSTANCE_MIGRATE, null)) {
+      commandContext.getHistoricActivityInstanceManager()
+        .updateHistoricActivityInstancesForSetBasedMigration(processInstanceIds, sourceActivityId, targetDefinition, targetActivity);
+    }
+    if (historyLevel.isHistoryEventProduced(HistoryEventTypes.TASK_INSTANCE_MIGRATE, null)) {
+      commandContext.getHistoricTaskInstanceManager()
+        .updateHistoricTaskInstancesForSetBasedMigration(processInstanceIds, targetDefinition, targetActivity.getId());
+    }
+    if (historyLevel.isHistoryEventProduced(HistoryEventTypes.VARIABLE_INSTANCE_MIGRATE, null)) {
+      commandContext.getHistoricVariableInstanceManager()
+        .updateHistoricVariableInstancesForSetBasedMigration(processInstanceIds, targetDefinition);
+    }
+
+    // the updates are guarded by the revisions of the process instances and tasks
+    final int expectedRowsAffected = processInstances.size();
+    commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTING, new TransactionListener() {
+      @Override
+      public void execute(CommandContext commandContext) {
+        if (processInstanceUpdate.getRowsAffected() != expectedRowsAffected) {
+          throw PERSISTENCE_LOGGER.concurrentUpdateDbEntityException(processInstanceUpdate);
+        }
+        if (taskUpdate != null && taskUpdate.getRowsAffected() != tasks.size()) {
+          throw PERSISTENCE_LOGGER.concurrentUpdateDbEntityException(taskUpdate);
+        }
+      }
+    });
+  }
+
   protected <T> void executeInContext(final Runnable runnable, ProcessDefinitionEntity contextDefinition) {
     ProcessApplicationContextUtil.doContextSwitch(runnable, contextDefinition);
   }
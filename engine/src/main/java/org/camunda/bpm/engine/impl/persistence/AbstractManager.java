@@ -59,6 +59,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskReportManager;
@@ -237,6 +238,10 @@ public abstract class AbstractManager implements Session {
     return getSession(TenantManager.class);
   }
 
+  protected PropertyManager getPropertyManager() {
+    return getSession(PropertyManager.class);
+  }
+
   public void close() {
   }
 
@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.impl.cmd.DeleteProcessDefinitionsByIdsCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionManager;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionRequirementsDefinitionManager;
+import org.camunda.bpm.engine.impl.dmn.invocation.DecisionEvaluationCache;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
@@ -185,6 +186,7 @@ public class DeploymentManager extends AbstractManager {
         .deleteDecisionDefinitionsByDeploymentId(deploymentId);
 
       DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+      DecisionEvaluationCache decisionEvaluationCache = processEngineConfiguration.getDecisionEvaluationCache();
 
       for (DecisionDefinition decisionDefinition : decisionDefinitions) {
         String decisionDefinitionId = decisionDefinition.getId();
@@ -192,6 +194,10 @@ public class DeploymentManager extends AbstractManager {
         // remove decision definitions from cache:
         deploymentCache
           .removeDecisionDefinition(decisionDefinitionId);
+
+        if (decisionEvaluationCache != null) {
+          decisionEvaluationCache.invalidate(decisionDefinitionId);
+        }
       }
     }
   }
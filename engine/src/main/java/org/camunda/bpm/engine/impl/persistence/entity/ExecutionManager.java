@@ -29,6 +29,7 @@ import org.camunda.bpm.engine.impl.ProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.cfg.auth.ResourceAuthorizationProvider;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.runtime.Execution;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
@@ -143,6 +144,12 @@ public class ExecutionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectProcessInstanceIdsByQueryCriteria", processInstanceQuery);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<String> findProcessInstanceIdsPageByQueryCriteria(ProcessInstanceQueryImpl processInstanceQuery, Page page) {
+    configureQuery(processInstanceQuery);
+    return getDbEntityManager().selectList("selectProcessInstanceIdsPageByQueryCriteria", processInstanceQuery, page);
+  }
+
   @SuppressWarnings("unchecked")
   public List<ExecutionEntity> findEventScopeExecutionsByActivityId(String activityRef, String parentExecutionId) {
     Map<String, String> parameters = new HashMap<String, String>();
@@ -196,6 +203,31 @@ public class ExecutionManager extends AbstractManager {
     getDbEntityManager().update(ExecutionEntity.class, "updateExecutionSuspensionStateByParameters", configureParameterizedQuery(parameters));
   }
 
+  /**
+   * @return the process instances of the given ids which consist of a single execution waiting
+   *   in an activity and have no jobs, event subscriptions, external tasks, incidents or called instances
+   */
+  @SuppressWarnings("unchecked")
+  public List<ExecutionEntity> findProcessInstancesInSimpleWaitState(String processDefinitionId, List<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processDefinitionId", processDefinitionId);
+    parameters.put("processInstanceIds", processInstanceIds);
+    return getDbEntityManager().selectList("selectProcessInstancesInSimpleWaitState", parameters);
+  }
+
+  /**
+   * Moves the given process instances to the target activity with one bulk update. The update
+   * is guarded by the revisions of the process instances, so the returned operation affects less
+   * rows than given process instances if one of them was changed concurrently.
+   */
+  public DbBulkOperation updateProcessInstancesForSetBasedMigration(List<ExecutionEntity> processInstances, String processDefinitionId, String activityId) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstances", processInstances);
+    parameters.put("processDefinitionId", processDefinitionId);
+    parameters.put("activityId", activityId);
+    return getDbEntityManager().updatePreserveOrder(ExecutionEntity.class, "updateProcessInstancesForSetBasedMigration", parameters);
+  }
+
   // helper ///////////////////////////////////////////////////////////
 
   protected void createDefaultAuthorizations(ExecutionEntity execution) {
@@ -26,6 +26,7 @@ import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
 
 
@@ -84,6 +85,20 @@ public class HistoricActivityInstanceManager extends AbstractHistoricManager {
       .updatePreserveOrder(HistoricActivityInstanceEventEntity.class, "updateHistoricActivityInstancesByRootProcessInstanceId", parameters);
   }
 
+  public void updateHistoricActivityInstancesForSetBasedMigration(List<String> processInstanceIds, String sourceActivityId, ProcessDefinitionEntity processDefinition, ActivityImpl activity) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("sourceActivityId", sourceActivityId);
+    parameters.put("processDefinitionId", processDefinition.getId());
+    parameters.put("processDefinitionKey", processDefinition.getKey());
+    parameters.put("activityId", activity.getId());
+    parameters.put("activityName", activity.getProperty("name"));
+    parameters.put("activityType", activity.getProperty("type"));
+
+    getDbEntityManager()
+      .updatePreserveOrder(HistoricActivityInstanceEventEntity.class, "updateHistoricActivityInstancesForSetBasedMigration", parameters);
+  }
+
   public DbOperation deleteHistoricActivityInstancesByRemovalTime(Date removalTime, int minuteFrom, int minuteTo, int batchSize) {
     Map<String, Object> parameters = new HashMap<String, Object>();
     parameters.put("removalTime", removalTime);
@@ -198,6 +198,16 @@ public class HistoricProcessInstanceManager extends AbstractHistoricManager {
       .updatePreserveOrder(HistoricProcessInstanceEventEntity.class, "updateHistoricProcessInstanceEventsByRootProcessInstanceId", parameters);
   }
 
+  public void updateHistoricProcessInstancesForSetBasedMigration(List<String> processInstanceIds, ProcessDefinitionEntity processDefinition) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("processDefinitionId", processDefinition.getId());
+    parameters.put("processDefinitionKey", processDefinition.getKey());
+
+    getDbEntityManager()
+      .updatePreserveOrder(HistoricProcessInstanceEventEntity.class, "updateHistoricProcessInstancesForSetBasedMigration", parameters);
+  }
+
   public Map<Class<? extends DbEntity>, DbOperation> deleteHistoricProcessInstancesByRemovalTime(Date removalTime, int minuteFrom, int minuteTo, int batchSize) {
     CommandContext commandContext = Context.getCommandContext();
 
@@ -263,6 +273,18 @@ public class HistoricProcessInstanceManager extends AbstractHistoricManager {
 
     deleteOperations.put(deleteByteArrays.getEntityType(), deleteByteArrays);
 
+    DbOperation deleteProcessInstances = deleteHistoricProcessInstanceEntitiesByRemovalTime(removalTime, minuteFrom, minuteTo, batchSize);
+
+    deleteOperations.put(deleteProcessInstances.getEntityType(), deleteProcessInstances);
+
+    return deleteOperations;
+  }
+
+  /**
+   * Deletes the rows of the historic process instance table only; the related
+   * history of the process instances is not touched.
+   */
+  public DbOperation deleteHistoricProcessInstanceEntitiesByRemovalTime(Date removalTime, int minuteFrom, int minuteTo, int batchSize) {
     Map<String, Object> parameters = new HashMap<>();
     parameters.put("removalTime", removalTime);
     if (minuteTo - minuteFrom + 1 < 60) {
@@ -271,13 +293,9 @@ public class HistoricProcessInstanceManager extends AbstractHistoricManager {
     }
     parameters.put("batchSize", batchSize);
 
-    DbOperation deleteProcessInstances = getDbEntityManager()
+    return getDbEntityManager()
       .deletePreserveOrder(HistoricProcessInstanceEntity.class, "deleteHistoricProcessInstancesByRemovalTime",
         new ListQueryParameterObject(parameters, 0, batchSize));
-
-    deleteOperations.put(deleteProcessInstances.getEntityType(), deleteProcessInstances);
-
-    return deleteOperations;
   }
 
 }
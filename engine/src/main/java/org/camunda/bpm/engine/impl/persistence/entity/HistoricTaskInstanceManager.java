@@ -189,6 +189,17 @@ public class HistoricTaskInstanceManager extends AbstractHistoricManager {
       .updatePreserveOrder(HistoricTaskInstanceEventEntity.class, "updateHistoricTaskInstancesByRootProcessInstanceId", parameters);
   }
 
+  public void updateHistoricTaskInstancesForSetBasedMigration(List<String> processInstanceIds, ProcessDefinitionEntity processDefinition, String activityId) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("processDefinitionId", processDefinition.getId());
+    parameters.put("processDefinitionKey", processDefinition.getKey());
+    parameters.put("activityId", activityId);
+
+    getDbEntityManager()
+      .updatePreserveOrder(HistoricTaskInstanceEventEntity.class, "updateHistoricTaskInstancesForSetBasedMigration", parameters);
+  }
+
   public void markTaskInstanceEnded(String taskId, final String deleteReason) {
     ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
 
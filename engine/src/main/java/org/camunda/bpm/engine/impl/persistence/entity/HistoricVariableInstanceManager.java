@@ -136,6 +136,16 @@ public class HistoricVariableInstanceManager extends AbstractHistoricManager {
       .updatePreserveOrder(HistoricVariableInstanceEntity.class, "updateHistoricVariableInstancesByRootProcessInstanceId", parameters);
   }
 
+  public void updateHistoricVariableInstancesForSetBasedMigration(List<String> processInstanceIds, ProcessDefinitionEntity processDefinition) {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("processDefinitionId", processDefinition.getId());
+    parameters.put("processDefinitionKey", processDefinition.getKey());
+
+    getDbEntityManager()
+      .updatePreserveOrder(HistoricVariableInstanceEntity.class, "updateHistoricVariableInstancesForSetBasedMigration", parameters);
+  }
+
   @SuppressWarnings("unchecked")
   public List<HistoricVariableInstance> findHistoricVariableInstancesByNativeQuery(Map<String, Object> parameterMap, int firstResult, int
           maxResults) {
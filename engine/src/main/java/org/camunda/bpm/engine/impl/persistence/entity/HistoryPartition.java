@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * The daily partition of a history table which contains the rows
+ * with a removal time on the given day.
+ *
+ * @see HistoryPartitionManager
+ */
+public class HistoryPartition {
+
+  protected final Class<? extends DbEntity> entityType;
+  protected final String tableName;
+  protected final Date partitionStart;
+  protected final Date partitionEnd;
+
+  public HistoryPartition(Class<? extends DbEntity> entityType, String tableName, Date partitionStart, Date partitionEnd) {
+    this.entityType = entityType;
+    this.tableName = tableName;
+    this.partitionStart = partitionStart;
+    this.partitionEnd = partitionEnd;
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return entityType;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public String getPartitionName() {
+    return HistoryPartitionManager.getPartitionName(tableName, partitionStart);
+  }
+
+  public Date getPartitionStart() {
+    return partitionStart;
+  }
+
+  public Date getPartitionEnd() {
+    return partitionEnd;
+  }
+
+  @Override
+  public String toString() {
+    return "HistoryPartition[" + getPartitionName() + "]";
+  }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.batch.history.HistoricBatchEntity;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.history.event.HistoricDetailEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoricExternalTaskLogEntity;
+import org.camunda.bpm.engine.impl.history.event.UserOperationLogEntryEventEntity;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+
+/**
+ * Maintains the daily partitions of the history tables which are range partitioned
+ * by removal time (see <code>activiti.postgres.create.history.partitioned.sql</code>).
+ * A partition covers the removal times of one day and is named after the table and
+ * the day, e.g. <code>ACT_HI_DETAIL_P20181019</code>.
+ *
+ * <p>Partitioned history tables are only supported on PostgreSQL. On other databases,
+ * partitions can be emulated for testing (see
+ * {@link ProcessEngineConfigurationImpl#isHistoryCleanupPartitionEmulationEnabled()}):
+ * a partition then consists of the rows with a removal time on its day, and dropping
+ * it deletes these rows with a single statement. Otherwise, nothing is created or dropped.</p>
+ */
+public class HistoryPartitionManager extends AbstractManager {
+
+  /**
+   * The history tables which are partitioned by removal time and the entities stored in them.
+   */
+  public static final Map<Class<? extends DbEntity>, String> PARTITIONED_TABLES;
+
+  static {
+    Map<Class<? extends DbEntity>, String> tables = new LinkedHashMap<Class<? extends DbEntity>, String>();
+    tables.put(HistoricProcessInstanceEntity.class, "ACT_HI_PROCINST");
+    tables.put(HistoricActivityInstanceEntity.class, "ACT_HI_ACTINST");
+    tables.put(HistoricTaskInstanceEntity.class, "ACT_HI_TASKINST");
+    tables.put(HistoricVariableInstanceEntity.class, "ACT_HI_VARINST");
+    tables.put(HistoricDetailEventEntity.class, "ACT_HI_DETAIL");
+    tables.put(HistoricIdentityLinkLogEntity.class, "ACT_HI_IDENTITYLINK");
+    tables.put(CommentEntity.class, "ACT_HI_COMMENT");
+    tables.put(AttachmentEntity.class, "ACT_HI_ATTACHMENT");
+    tables.put(UserOperationLogEntryEventEntity.class, "ACT_HI_OP_LOG");
+    tables.put(HistoricIncidentEntity.class, "ACT_HI_INCIDENT");
+    tables.put(HistoricJobLogEventEntity.class, "ACT_HI_JOB_LOG");
+    tables.put(HistoricBatchEntity.class, "ACT_HI_BATCH");
+    tables.put(HistoricExternalTaskLogEntity.class, "ACT_HI_EXT_TASK_LOG");
+    PARTITIONED_TABLES = Collections.unmodifiableMap(tables);
+  }
+
+  /**
+   * Drops the partitions whose removal times all lie before the day of the given removal time.
+   * Does nothing if the database does not support partitioned history tables.
+   *
+   * @param maxPartitions the maximum number of partitions dropped per table
+   * @return the scheduled drop operations
+   */
+  public List<DbOperation> dropExpiredPartitions(Date removalTime, int maxPartitions) {
+    List<DbOperation> operations = new ArrayList<DbOperation>();
+
+    for (HistoryPartition partition : findExpiredPartitions(removalTime, maxPartitions)) {
+      operations.add(dropPartition(partition));
+    }
+
+    return operations;
+  }
+
+  /**
+   * @param maxPartitions the maximum number of partitions returned per table
+   * @return the partitions whose removal times all lie before the day of the given removal time,
+   *   the oldest partitions first; empty if the database does not support partitioned history tables
+   */
+  public List<HistoryPartition> findExpiredPartitions(Date removalTime, int maxPartitions) {
+    List<HistoryPartition> partitions = new ArrayList<HistoryPartition>();
+    if (!isPartitioningSupported()) {
+      return partitions;
+    }
+
+    Date expirationDay = startOfDay(removalTime);
+
+    for (Map.Entry<Class<? extends DbEntity>, String> table : PARTITIONED_TABLES.entrySet()) {
+      Date oldestPartition = findOldestPartitionStart(table.getValue());
+      if (oldestPartition == null) {
+        continue;
+      }
+
+      Date partitionStart = startOfDay(oldestPartition);
+      for (int i = 0; i < maxPartitions && partitionStart.before(expirationDay); i++) {
+        Date partitionEnd = nextDay(partitionStart);
+        partitions.add(new HistoryPartition(table.getKey(), table.getValue(), partitionStart, partitionEnd));
+        partitionStart = partitionEnd;
+      }
+    }
+
+    return partitions;
+  }
+
+  /**
+   * Counts the rows of the partition. Dropping a partition does not report the number
+   * of removed rows, so they must be counted before.
+   */
+  public long countRows(HistoryPartition partition) {
+    Long count = (Long) getDbEntityManager().selectOne("selectHistoryPartitionRowCount", createParameters(partition));
+    return count != null ? count : 0;
+  }
+
+  /**
+   * Schedules dropping the partition.
+   */
+  public DbOperation dropPartition(HistoryPartition partition) {
+    return getDbEntityManager().deletePreserveOrder(partition.getEntityType(), "dropHistoryPartition", createParameters(partition));
+  }
+
+  /**
+   * Creates the missing partitions of all partitioned tables for the day of the given
+   * removal time and the following days. Does nothing if the database does not support
+   * partitioned history tables or if partitions are emulated.
+   */
+  public void createPartitions(Date removalTime, int daysInAdvance) {
+    if (!isPartitioningSupported() || isPartitioningEmulated()) {
+      return;
+    }
+
+    Date firstDay = startOfDay(removalTime);
+    Calendar lastDay = Calendar.getInstance();
+    lastDay.setTime(firstDay);
+    lastDay.add(Calendar.DATE, daysInAdvance);
+
+    for (Map.Entry<Class<? extends DbEntity>, String> table : PARTITIONED_TABLES.entrySet()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("tableName", table.getValue());
+      parameters.put("firstPartitionLiteral", formatDate("yyyy-MM-dd", firstDay));
+      parameters.put("lastPartitionLiteral", formatDate("yyyy-MM-dd", lastDay.getTime()));
+
+      getDbEntityManager().updatePreserveOrder(table.getKey(), "createHistoryPartitions", parameters);
+    }
+  }
+
+  /**
+   * @return <code>true</code> if the history tables are partitioned or if partitions are emulated
+   */
+  public boolean isPartitioningSupported() {
+    return isPartitionedDatabase() || isPartitioningEmulated();
+  }
+
+  public boolean isPartitioningEmulated() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return !isPartitionedDatabase() && processEngineConfiguration.isHistoryCleanupPartitionEmulationEnabled();
+  }
+
+  protected boolean isPartitionedDatabase() {
+    return DbSqlSessionFactory.POSTGRES.equals(getDbSqlSession().getDbSqlSessionFactory().getDatabaseType());
+  }
+
+  protected Date findOldestPartitionStart(String tableName) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("tableName", tableName);
+    return (Date) getDbEntityManager().selectOne("selectOldestHistoryPartitionStart", parameters);
+  }
+
+  protected Map<String, Object> createParameters(HistoryPartition partition) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("tableName", partition.getTableName());
+    parameters.put("partitionName", partition.getPartitionName());
+    parameters.put("partitionStart", partition.getPartitionStart());
+    parameters.put("partitionEnd", partition.getPartitionEnd());
+    return parameters;
+  }
+
+  public static String getPartitionName(String tableName, Date partitionStart) {
+    return tableName + "_P" + formatDate("yyyyMMdd", partitionStart);
+  }
+
+  protected static String formatDate(String pattern, Date date) {
+    return new SimpleDateFormat(pattern).format(date);
+  }
+
+  protected static Date startOfDay(Date date) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    calendar.set(Calendar.HOUR_OF_DAY, 0);
+    calendar.set(Calendar.MINUTE, 0);
+    calendar.set(Calendar.SECOND, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+    return calendar.getTime();
+  }
+
+  protected static Date nextDay(Date day) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(day);
+    calendar.add(Calendar.DATE, 1);
+    return calendar.getTime();
+  }
+
+}
@@ -39,6 +39,10 @@ public class IncidentStatisticsEntity implements IncidentStatistics {
     return incidentCount;
   }
 
+  public void setIncidentCount(int incidentCount) {
+    this.incidentCount = incidentCount;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
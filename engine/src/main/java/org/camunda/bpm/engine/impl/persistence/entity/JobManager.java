@@ -16,10 +16,12 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import org.camunda.bpm.engine.impl.*;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.jobexecutor.*;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -48,6 +50,12 @@ public class JobManager extends AbstractManager {
     JOB_DUEDATE_ORDERING_PROPERTY.setDirection(Direction.ASCENDING);
   }
 
+  /** passes the due jobs of this transaction to the job executor after commit */
+  protected JobHandOffNotification jobHandOffNotification;
+
+  /** whether an exclusive job of a process instance is locked by another transaction */
+  protected Map<String, Boolean> exclusiveJobLockedByProcessInstance = new HashMap<String, Boolean>();
+
   public void updateJob(JobEntity job) {
     getDbEntityManager().merge(job);
   }
@@ -129,13 +137,111 @@ public class JobManager extends AbstractManager {
       job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
       job.setLockOwner(jobExecutor.getLockOwner());
       transactionListener = new ExclusiveJobAddedNotification(job.getId(), jobExecutorContext);
+    } else if (Context.getProcessEngineConfiguration().isJobExecutorHandOffNewJobs()
+            && jobExecutor.supportsHandOff()
+            && isHandOffPossible(job)) {
+      // lock job & pass it to the job executor after commit
+      Date currentTime = ClockUtil.getCurrentTime();
+      job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
+      job.setLockOwner(jobExecutor.getLockOwner());
+      if (jobHandOffNotification == null) {
+        jobHandOffNotification = new JobHandOffNotification(jobExecutor);
+        transactionListener = jobHandOffNotification;
+      }
+      jobHandOffNotification.addJob(job);
     } else {
       // notify job executor:
       transactionListener = new MessageAddedNotification(jobExecutor);
     }
-    Context.getCommandContext()
-      .getTransactionContext()
-      .addTransactionListener(TransactionState.COMMITTED, transactionListener);
+    if (transactionListener != null) {
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, transactionListener);
+    }
+  }
+
+  /**
+   * @return <code>true</code> if the job executor would acquire the job now
+   */
+  protected boolean isHandOffPossible(JobEntity job) {
+    ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
+
+    if (job.isSuspended()) {
+      return false;
+    }
+
+    Date duedate = job.getDuedate();
+    if (duedate != null && duedate.after(ClockUtil.getCurrentTime())) {
+      return false;
+    }
+
+    if (configuration.isJobExecutorDeploymentAware()
+        && job.getDeploymentId() != null
+        && !configuration.getRegisteredDeployments().contains(job.getDeploymentId())) {
+      return false;
+    }
+
+    JobFailureCircuitBreaker circuitBreaker = configuration.getJobFailureCircuitBreaker();
+    if (circuitBreaker != null
+        && job.getJobDefinitionId() != null
+        && circuitBreaker.isOpen(job.getJobDefinitionId())) {
+      return false;
+    }
+
+    if (job.isExclusive() && job.getProcessInstanceId() != null) {
+      return !isExclusiveJobLocked(job.getProcessInstanceId());
+    }
+
+    return true;
+  }
+
+  protected boolean isExclusiveJobLocked(String processInstanceId) {
+    Boolean isLocked = exclusiveJobLockedByProcessInstance.get(processInstanceId);
+    if (isLocked == null) {
+      isLocked = findLockedExclusiveJobCountByProcessInstanceId(processInstanceId) > 0;
+      exclusiveJobLockedByProcessInstance.put(processInstanceId, isLocked);
+    }
+    return isLocked;
+  }
+
+  /**
+   * Locks the exclusive jobs of the process instance of the given job which can be
+   * executed now, so that the current job executor thread executes them after the
+   * given job instead of waiting for the next acquisition. Other job executors
+   * acquire these jobs only after their lock expired.
+   */
+  public void lockExclusiveJobsOfProcessInstance(JobEntity job) {
+    JobExecutor jobExecutor = Context.getProcessEngineConfiguration().getJobExecutor();
+    JobExecutorContext jobExecutorContext = Context.getJobExecutorContext();
+    if (!jobExecutor.isActive() || jobExecutorContext == null || job.getProcessInstanceId() == null) {
+      return;
+    }
+
+    List<JobEntity> exclusiveJobs = findExclusiveJobsToExecuteByProcessInstanceId(job.getProcessInstanceId(),
+        jobExecutor.getLockOwner(), new Page(0, jobExecutor.getMaxJobsPerAcquisition()));
+
+    ExclusiveJobsAcquiredNotification notification = new ExclusiveJobsAcquiredNotification(jobExecutorContext);
+    Date lockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + jobExecutor.getLockTimeInMillis());
+
+    for (JobEntity exclusiveJob : exclusiveJobs) {
+      // the query may return jobs which were executed, deleted or changed by this transaction;
+      // a changed job is not locked, since a concurrent update of it must fail the transaction
+      if (!exclusiveJob.getId().equals(job.getId())
+          && !exclusiveJob.isSuspended()
+          && !getDbEntityManager().isDeleted(exclusiveJob)
+          && !getDbEntityManager().isDirty(exclusiveJob)) {
+        exclusiveJob.setLockOwner(jobExecutor.getLockOwner());
+        exclusiveJob.setLockExpirationTime(lockExpirationTime);
+        notification.addJob(exclusiveJob);
+      }
+    }
+
+    if (!notification.isEmpty()) {
+      getDbEntityManager().registerOptimisticLockingListener(notification);
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, notification);
+    }
   }
 
   protected boolean areInSameProcessInstance(JobEntity job1, JobEntity job2) {
@@ -166,6 +272,41 @@ public class JobManager extends AbstractManager {
 
   @SuppressWarnings("unchecked")
   public List<JobEntity> findNextJobsToExecute(Page page) {
+    Map<String,Object> params = createJobAcquisitionParameters();
+
+    if (Context.getProcessEngineConfiguration().isJobExecutorAcquireWithSkipLocked()) {
+      return getDbEntityManager().selectList("selectNextJobsToExecuteSkipLocked", params, page);
+    }
+    else {
+      return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    }
+  }
+
+  /**
+   * @return the exclusive jobs of the process instance which can be acquired now,
+   *   unless an exclusive job of the process instance is locked by another lock owner
+   */
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findExclusiveJobsToExecuteByProcessInstanceId(String processInstanceId, String lockOwner, Page page) {
+    Map<String,Object> params = createJobAcquisitionParameters();
+    params.put("processInstanceId", processInstanceId);
+    params.put("lockOwner", lockOwner);
+
+    return getDbEntityManager().selectList("selectExclusiveJobsToExecuteByProcessInstanceId", params, page);
+  }
+
+  /**
+   * @return the number of exclusive jobs of the process instance with an unexpired lock
+   */
+  public long findLockedExclusiveJobCountByProcessInstanceId(String processInstanceId) {
+    Map<String,Object> params = new HashMap<String, Object>();
+    params.put("processInstanceId", processInstanceId);
+    params.put("now", ClockUtil.getCurrentTime());
+
+    return (Long) getDbEntityManager().selectOne("selectLockedExclusiveJobCountByProcessInstanceId", params);
+  }
+
+  protected Map<String, Object> createJobAcquisitionParameters() {
     Map<String,Object> params = new HashMap<String, Object>();
     Date now = ClockUtil.getCurrentTime();
     params.put("now", now);
@@ -188,11 +329,38 @@ public class JobManager extends AbstractManager {
       orderingProperties.add(JOB_DUEDATE_ORDERING_PROPERTY);
     }
 
+    JobFailureCircuitBreaker circuitBreaker = Context.getProcessEngineConfiguration().getJobFailureCircuitBreaker();
+    if (circuitBreaker != null) {
+      Set<String> openJobDefinitionIds = circuitBreaker.getOpenJobDefinitionIds();
+      if (!openJobDefinitionIds.isEmpty()) {
+        params.put("excludedJobDefinitionIds", openJobDefinitionIds);
+      }
+    }
+
     params.put("orderingProperties", orderingProperties);
     // don't apply default sorting
     params.put("applyOrdering", !orderingProperties.isEmpty());
 
-    return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    return params;
+  }
+
+  /**
+   * @return the earliest due date after <code>now</code> and before <code>lookAheadEnd</code>
+   *   of a job which can be acquired then or <code>null</code> if there is no such job
+   */
+  public Date findNextJobDueDate(Date now, Date lookAheadEnd) {
+    Map<String,Object> params = new HashMap<String, Object>();
+    params.put("now", now);
+    params.put("lookAheadEnd", lookAheadEnd);
+    params.put("deploymentAware", Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware());
+    if (Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware()) {
+      Set<String> registeredDeployments = Context.getProcessEngineConfiguration().getRegisteredDeployments();
+      if (!registeredDeployments.isEmpty()) {
+        params.put("deploymentIds", registeredDeployments);
+      }
+    }
+
+    return (Date) getDbEntityManager().selectOne("selectNextJobDueDate", params);
   }
 
   @SuppressWarnings("unchecked")
@@ -335,6 +503,29 @@ public class JobManager extends AbstractManager {
     getDbEntityManager().update(JobEntity.class, "updateFailedJobRetriesByParameters", parameters);
   }
 
+  /**
+   * Sets the retries of the given jobs with a single statement. Only use it if
+   * this neither resolves nor creates incidents and no lock has to be reset,
+   * see {@link #findJobCountForRetriesBulkUpdate(Collection)}. Jobs which have
+   * changed in the meantime are not updated, so the caller has to compare the
+   * affected rows of the returned operation with the number of jobs.
+   */
+  public DbBulkOperation updateJobRetriesByIds(Collection<String> jobIds, int retries) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("jobIds", jobIds);
+    parameters.put("retries", retries);
+    return getDbEntityManager().updatePreserveOrder(JobEntity.class, "updateJobRetriesByIds", configureParameterizedQuery(parameters));
+  }
+
+  /**
+   * @return the number of the given jobs which have retries left and a consistent lock
+   */
+  public long findJobCountForRetriesBulkUpdate(Collection<String> jobIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("jobIds", jobIds);
+    return (Long) getDbEntityManager().selectOne("selectJobCountForRetriesBulkUpdate", configureParameterizedQuery(parameters));
+  }
+
   public void updateJobPriorityByDefinitionId(String jobDefinitionId, long priority) {
     Map<String, Object> parameters = new HashMap<String, Object>();
     parameters.put("jobDefinitionId", jobDefinitionId);
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.metrics.Meter;
 import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
@@ -39,13 +40,29 @@ public class MeterLogManager extends AbstractManager {
   public static final String SELECT_METER_SUM = "selectMeterLogSum";
   public static final String DELETE_ALL_METER = "deleteAllMeterLogEntries";
   public static final String DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER = "deleteMeterLogEntriesByTimestampAndReporter";
+  public static final String SELECT_METER_AGGREGATED_FOR_ROLLUP = "selectMeterLogAggregatedForRollup";
+  public static final String SELECT_METER_MIN_MILLISECONDS_FOR_ROLLUP = "selectMeterLogMinMillisecondsForRollup";
+  public static final String DELETE_ALL_METER_ROLLUP = "deleteAllMeterLogRollups";
+  public static final String DELETE_METER_ROLLUP_BY_TIMESTAMP_AND_REPORTER = "deleteMeterLogRollupsByTimestampAndReporter";
+
+  /**
+   * Prefix of the properties which hold the end of the hourly and daily rollups.
+   */
+  public static final String ROLLUP_END_PROPERTY_PREFIX = "metrics.rollup.end.";
 
   public void insert(MeterLogEntity meterLogEntity) {
     getDbEntityManager()
      .insert(meterLogEntity);
   }
 
+  public void insertRollup(MeterLogRollupEntity meterLogRollupEntity) {
+    getDbEntityManager()
+     .insert(meterLogRollupEntity);
+  }
+
   public Long executeSelectSum(MetricsQueryImpl query) {
+    selectRollups(query, false);
+
     Long result = (Long) getDbEntityManager().selectOne(SELECT_METER_SUM, query);
     result = result != null ? result : 0;
 
@@ -63,6 +80,8 @@ public class MeterLogManager extends AbstractManager {
   }
 
   public List<MetricIntervalValue> executeSelectInterval(MetricsQueryImpl query) {
+    selectRollups(query, true);
+
     List<MetricIntervalValue> intervalResult = getDbEntityManager().selectList(SELECT_METER_INTERVAL, query);
     intervalResult = intervalResult != null ? intervalResult : new ArrayList<MetricIntervalValue>();
 
@@ -94,6 +113,93 @@ public class MeterLogManager extends AbstractManager {
     return intervalResult;
   }
 
+  /**
+   * Lets the query take the rows before the end of the rollups from the coarsest
+   * rollup which fits the start and end date and, if the values are aggregated by
+   * interval, the interval of the query.
+   */
+  protected void selectRollups(MetricsQueryImpl query, boolean aggregatedByInterval) {
+    query.setRollupHourEndMilliseconds(null);
+    query.setRollupDayEndMilliseconds(null);
+
+    if (!Context.getProcessEngineConfiguration().isMetricsRollupEnabled()) {
+      return;
+    }
+
+    Long hourEnd = findRollupEnd(MeterLogRollupEntity.HOUR);
+    if (hourEnd != null && isCoveredByRollup(query, MeterLogRollupEntity.HOUR, aggregatedByInterval)) {
+      query.setRollupHourEndMilliseconds(hourEnd);
+
+      Long dayEnd = findRollupEnd(MeterLogRollupEntity.DAY);
+      if (dayEnd != null && isCoveredByRollup(query, MeterLogRollupEntity.DAY, aggregatedByInterval)) {
+        query.setRollupDayEndMilliseconds(dayEnd);
+      }
+    }
+  }
+
+  protected boolean isCoveredByRollup(MetricsQueryImpl query, int rollupInterval, boolean aggregatedByInterval) {
+    long rollupIntervalInMillis = rollupInterval * 1000L;
+    return (!aggregatedByInterval || query.getInterval() % rollupInterval == 0)
+        && (query.getStartDate() == null || query.getStartDateMilliseconds() % rollupIntervalInMillis == 0)
+        && (query.getEndDate() == null || query.getEndDateMilliseconds() % rollupIntervalInMillis == 0);
+  }
+
+  /**
+   * @return the sums of the meter logs or, if a source interval is given, of the rollups
+   *   of this interval per name, reporter and interval
+   */
+  @SuppressWarnings("unchecked")
+  public List<MetricIntervalEntity> selectAggregatedForRollup(Integer sourceInterval, int interval, Long startMilliseconds, Long endMilliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("sourceInterval", sourceInterval);
+    parameters.put("interval", interval);
+    parameters.put("startMilliseconds", startMilliseconds);
+    parameters.put("endMilliseconds", endMilliseconds);
+    return getDbEntityManager().selectList(SELECT_METER_AGGREGATED_FOR_ROLLUP, parameters);
+  }
+
+  public Long selectMinMillisecondsForRollup(Integer sourceInterval) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("sourceInterval", sourceInterval);
+    return (Long) getDbEntityManager().selectOne(SELECT_METER_MIN_MILLISECONDS_FOR_ROLLUP, new ListQueryParameterObject(parameters, 0, 1));
+  }
+
+  public PropertyEntity findRollupEndProperty(int interval) {
+    return getPropertyManager().findPropertyById(ROLLUP_END_PROPERTY_PREFIX + interval);
+  }
+
+  /**
+   * @return the timestamp before which all meter logs are rolled up into rollups of the
+   *   given interval or <code>null</code> if no rollups exist
+   */
+  public Long findRollupEnd(int interval) {
+    PropertyEntity property = findRollupEndProperty(interval);
+    if (property != null) {
+      return Long.valueOf(property.getValue());
+    }
+    else {
+      return null;
+    }
+  }
+
+  public void updateRollupEnd(int interval, long endMilliseconds) {
+    PropertyEntity property = findRollupEndProperty(interval);
+    if (property != null) {
+      property.setValue(Long.toString(endMilliseconds));
+    }
+    else {
+      property = new PropertyEntity(ROLLUP_END_PROPERTY_PREFIX + interval, Long.toString(endMilliseconds));
+      getPropertyManager().insert(property);
+    }
+  }
+
+  protected void deleteRollupEnd(int interval) {
+    PropertyEntity property = findRollupEndProperty(interval);
+    if (property != null) {
+      getPropertyManager().delete(property);
+    }
+  }
+
   protected boolean isEndTimeAfterLastReportInterval(MetricsQueryImpl query) {
     long reportingIntervalInSeconds = Context.getProcessEngineConfiguration()
       .getDbMetricsReporter()
@@ -111,6 +217,9 @@ public class MeterLogManager extends AbstractManager {
 
   public void deleteAll() {
     getDbEntityManager().delete(MeterLogEntity.class, DELETE_ALL_METER, null);
+    getDbEntityManager().delete(MeterLogRollupEntity.class, DELETE_ALL_METER_ROLLUP, null);
+    deleteRollupEnd(MeterLogRollupEntity.HOUR);
+    deleteRollupEnd(MeterLogRollupEntity.DAY);
   }
 
   public void deleteByTimestampAndReporter(Date timestamp, String reporter) {
@@ -120,6 +229,17 @@ public class MeterLogManager extends AbstractManager {
     }
     parameters.put("reporter", reporter);
     getDbEntityManager().delete(MeterLogEntity.class, DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER, parameters);
+    // rollups which end after the timestamp are kept
+    getDbEntityManager().delete(MeterLogRollupEntity.class, DELETE_METER_ROLLUP_BY_TIMESTAMP_AND_REPORTER, parameters);
+  }
+
+  /**
+   * Deletes the meter logs before the given timestamp but keeps their rollups.
+   */
+  public void deleteMeterLogsBefore(long milliseconds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("milliseconds", milliseconds - 1);
+    getDbEntityManager().delete(MeterLogEntity.class, DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER, parameters);
   }
 
 }
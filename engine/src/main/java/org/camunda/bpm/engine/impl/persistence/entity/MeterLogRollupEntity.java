@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbReferences;
+
+/**
+ * The sum of the values of a meter reported by one reporter within an hour or
+ * a day. The timestamp of a rollup is the start of the hour or day.
+ */
+public class MeterLogRollupEntity implements DbEntity, HasDbReferences, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final int HOUR = 60 * 60;
+  public static final int DAY = 24 * HOUR;
+
+  protected String id;
+
+  protected String name;
+
+  protected String reporter;
+
+  /** the rolled up interval in seconds */
+  protected int interval;
+
+  protected long value;
+
+  protected Long milliseconds;
+
+  public MeterLogRollupEntity(String name, String reporter, int interval, long value, long milliseconds) {
+    this.name = name;
+    this.reporter = reporter;
+    this.interval = interval;
+    this.value = value;
+    this.milliseconds = milliseconds;
+  }
+
+  public MeterLogRollupEntity() {
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getReporter() {
+    return reporter;
+  }
+
+  public void setReporter(String reporter) {
+    this.reporter = reporter;
+  }
+
+  public int getInterval() {
+    return interval;
+  }
+
+  public void setInterval(int interval) {
+    this.interval = interval;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  public void setValue(long value) {
+    this.value = value;
+  }
+
+  public Long getMilliseconds() {
+    return milliseconds;
+  }
+
+  public void setMilliseconds(Long milliseconds) {
+    this.milliseconds = milliseconds;
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return MeterLogRollupEntity.class;
+  }
+
+  @Override
+  public Set<String> getReferencedEntityIds() {
+    Set<String> referencedEntityIds = new HashSet<String>();
+    return referencedEntityIds;
+  }
+
+  @Override
+  public Map<String, Class> getReferencedEntitiesIdAndClass() {
+    Map<String, Class> referenceIdAndClass = new HashMap<String, Class>();
+    return referenceIdAndClass;
+  }
+}
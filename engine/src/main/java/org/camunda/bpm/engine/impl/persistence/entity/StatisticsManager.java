@@ -20,17 +20,28 @@ import org.camunda.bpm.engine.impl.ActivityStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.HistoricDecisionInstanceStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.DeploymentStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.ProcessDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.ProcessDefinitionStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.batch.BatchStatisticsQueryImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.statistics.ProcessDefinitionCounters;
+import org.camunda.bpm.engine.impl.statistics.StatisticsCounters;
 import org.camunda.bpm.engine.management.ActivityStatistics;
 import org.camunda.bpm.engine.history.HistoricDecisionInstanceStatistics;
 import org.camunda.bpm.engine.management.DeploymentStatistics;
+import org.camunda.bpm.engine.management.IncidentStatistics;
 import org.camunda.bpm.engine.management.ProcessDefinitionStatistics;
 import org.camunda.bpm.engine.repository.DecisionRequirementsDefinition;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import static org.camunda.bpm.engine.authorization.Permissions.READ;
 import static org.camunda.bpm.engine.authorization.Resources.DECISION_REQUIREMENTS_DEFINITION;
@@ -42,22 +53,37 @@ public class StatisticsManager extends AbstractManager {
   @SuppressWarnings("unchecked")
   public List<ProcessDefinitionStatistics> getStatisticsGroupedByProcessDefinitionVersion(ProcessDefinitionStatisticsQueryImpl query, Page page) {
     configureQuery(query);
+    if (isStatisticsCountersApplicable(query)) {
+      return getStatisticsFromCounters(query);
+    }
     return getDbEntityManager().selectList("selectProcessDefinitionStatistics", query, page);
   }
 
   public long getStatisticsCountGroupedByProcessDefinitionVersion(ProcessDefinitionStatisticsQueryImpl query) {
     configureQuery(query);
+    if (isStatisticsCountersApplicable(query)) {
+      return getProcessDefinitionManager().findProcessDefinitionCountByQueryCriteria(new ProcessDefinitionQueryImpl());
+    }
     return (Long) getDbEntityManager().selectOne("selectProcessDefinitionStatisticsCount", query);
   }
 
   @SuppressWarnings("unchecked")
   public List<ActivityStatistics> getStatisticsGroupedByActivity(ActivityStatisticsQueryImpl query, Page page) {
     configureQuery(query);
+    if (isStatisticsCountersApplicable(query)) {
+      List<ActivityStatistics> statistics = getStatisticsFromCounters(query);
+      int firstResult = Math.min(query.getFirstResult(), statistics.size());
+      int lastResult = (int) Math.min((long) firstResult + query.getMaxResults(), statistics.size());
+      return statistics.subList(firstResult, lastResult);
+    }
     return getDbEntityManager().selectList("selectActivityStatistics", query, page);
   }
 
   public long getStatisticsCountGroupedByActivity(ActivityStatisticsQueryImpl query) {
     configureQuery(query);
+    if (isStatisticsCountersApplicable(query)) {
+      return getStatisticsFromCounters(query).size();
+    }
     return (Long) getDbEntityManager().selectOne("selectActivityStatisticsCount", query);
   }
 
@@ -83,6 +109,132 @@ public class StatisticsManager extends AbstractManager {
     return (Long) getDbEntityManager().selectOne("selectBatchStatisticsCount", query);
   }
 
+  // statistics counters ///////////////////////////////////////////
+
+  /**
+   * The statistics counters are not restricted by authorizations or tenants, so they are
+   * only used if neither of them has to be checked.
+   */
+  protected boolean isStatisticsCountersApplicable(ListQueryParameterObject query) {
+    return Context.getProcessEngineConfiguration().getStatisticsCounters() != null
+        && !query.getAuthCheck().isAuthorizationCheckEnabled()
+        && !query.getTenantCheck().isTenantCheckEnabled();
+  }
+
+  protected StatisticsCounters getStatisticsCounters() {
+    StatisticsCounters statisticsCounters = Context.getProcessEngineConfiguration().getStatisticsCounters();
+    statisticsCounters.ensureUpToDate(getCommandContext());
+    return statisticsCounters;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<ProcessDefinitionStatistics> getStatisticsFromCounters(ProcessDefinitionStatisticsQueryImpl query) {
+    StatisticsCounters statisticsCounters = getStatisticsCounters();
+
+    ProcessDefinitionQueryImpl processDefinitionQuery = new ProcessDefinitionQueryImpl();
+    processDefinitionQuery.setFirstResult(query.getFirstResult());
+    processDefinitionQuery.setMaxResults(query.getMaxResults());
+    List<ProcessDefinition> processDefinitions = getProcessDefinitionManager()
+        .findProcessDefinitionsByQueryCriteria(processDefinitionQuery, null);
+
+    List<ProcessDefinitionStatistics> result = new ArrayList<ProcessDefinitionStatistics>();
+    for (ProcessDefinition processDefinition : processDefinitions) {
+      ProcessDefinitionEntity definition = (ProcessDefinitionEntity) processDefinition;
+      ProcessDefinitionCounters counters = statisticsCounters.getCounters(definition.getId());
+
+      ProcessDefinitionStatisticsEntity statistics = new ProcessDefinitionStatisticsEntity();
+      statistics.setId(definition.getId());
+      statistics.setRevision(definition.getRevision());
+      statistics.setCategory(definition.getCategory());
+      statistics.setName(definition.getName());
+      statistics.setKey(definition.getKey());
+      statistics.setVersion(definition.getVersion());
+      statistics.setDeploymentId(definition.getDeploymentId());
+      statistics.setResourceName(definition.getResourceName());
+      statistics.setDiagramResourceName(definition.getDiagramResourceName());
+      statistics.setHasStartFormKey(definition.getHasStartFormKey());
+      statistics.setSuspensionState(definition.getSuspensionState());
+      statistics.setTenantId(definition.getTenantId());
+      statistics.setVersionTag(definition.getVersionTag());
+
+      statistics.setInstances((int) counters.getInstances());
+      if (query.isFailedJobsToInclude()) {
+        statistics.setFailedJobs((int) counters.getFailedJobs());
+      }
+      if (query.isIncidentsToInclude()) {
+        Map<String, Long> incidents = counters.getIncidents(query.getIncludeIncidentsForType(), query.isIncludeRootIncidents());
+        statistics.setIncidentStatistics(createIncidentStatistics(incidents));
+      }
+      else {
+        statistics.setIncidentStatistics(new ArrayList<IncidentStatistics>());
+      }
+
+      result.add(statistics);
+    }
+
+    return result;
+  }
+
+  /**
+   * @return the statistics of all activities, ordered by activity id
+   */
+  protected List<ActivityStatistics> getStatisticsFromCounters(ActivityStatisticsQueryImpl query) {
+    String processDefinitionId = query.getProcessDefinitionId();
+    ProcessDefinitionCounters counters = getStatisticsCounters().getCounters(processDefinitionId);
+
+    Map<String, ActivityStatisticsImpl> statistics = new TreeMap<String, ActivityStatisticsImpl>();
+    for (Entry<String, Long> activityInstances : counters.getActivityInstances().entrySet()) {
+      getActivityStatistics(statistics, activityInstances.getKey()).setInstances(activityInstances.getValue().intValue());
+    }
+
+    if (query.isFailedJobsToInclude()) {
+      Map<String, Long> failedJobs = counters.getFailedJobsByJobDefinition();
+      if (!failedJobs.isEmpty()) {
+        for (JobDefinitionEntity jobDefinition : getJobDefinitionManager().findByProcessDefinitionId(processDefinitionId)) {
+          Long jobDefinitionFailedJobs = failedJobs.get(jobDefinition.getId());
+          if (jobDefinitionFailedJobs != null && jobDefinition.getActivityId() != null) {
+            ActivityStatisticsImpl activityStatistics = getActivityStatistics(statistics, jobDefinition.getActivityId());
+            activityStatistics.setFailedJobs(activityStatistics.getFailedJobs() + jobDefinitionFailedJobs.intValue());
+          }
+        }
+      }
+    }
+
+    if (query.isIncidentsToInclude()) {
+      Map<String, Map<String, Long>> incidents = counters.getIncidentsByActivity(query.getIncludeIncidentsForType());
+      for (Entry<String, Map<String, Long>> activityIncidents : incidents.entrySet()) {
+        if (!activityIncidents.getValue().isEmpty()) {
+          getActivityStatistics(statistics, activityIncidents.getKey())
+            .setIncidentStatistics(createIncidentStatistics(activityIncidents.getValue()));
+        }
+      }
+    }
+
+    return new ArrayList<ActivityStatistics>(statistics.values());
+  }
+
+  protected ActivityStatisticsImpl getActivityStatistics(Map<String, ActivityStatisticsImpl> statistics, String activityId) {
+    ActivityStatisticsImpl activityStatistics = statistics.get(activityId);
+    if (activityStatistics == null) {
+      activityStatistics = new ActivityStatisticsImpl();
+      activityStatistics.setId(activityId);
+      activityStatistics.setIncidentStatistics(new ArrayList<IncidentStatistics>());
+      statistics.put(activityId, activityStatistics);
+    }
+    return activityStatistics;
+  }
+
+  protected List<IncidentStatistics> createIncidentStatistics(Map<String, Long> incidents) {
+    List<IncidentStatistics> result = new ArrayList<IncidentStatistics>();
+    for (Entry<String, Long> incident : incidents.entrySet()) {
+      IncidentStatisticsEntity incidentStatistics = new IncidentStatisticsEntity();
+      incidentStatistics.setIncidenType(incident.getKey());
+      incidentStatistics.setIncidentCount(incident.getValue().intValue());
+      result.add(incidentStatistics);
+    }
+    return result;
+  }
+
   protected void configureQuery(DeploymentStatisticsQueryImpl query) {
     getAuthorizationManager().configureDeploymentStatisticsQuery(query);
     getTenantManager().configureQuery(query);
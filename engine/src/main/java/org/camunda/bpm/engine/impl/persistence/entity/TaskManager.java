@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.impl.TaskQueryImpl;
 import org.camunda.bpm.engine.impl.cfg.auth.ResourceAuthorizationProvider;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.task.Task;
@@ -129,6 +130,11 @@ public class TaskManager extends AbstractManager {
     return getDbEntityManager().selectList("selectTasksByProcessInstanceId", processInstanceId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<TaskEntity> findTasksByProcessInstanceIds(List<String> processInstanceIds) {
+    return getDbEntityManager().selectList("selectTasksByProcessInstanceIds", processInstanceIds);
+  }
+
 
   @Deprecated
   public List<Task> findTasksByQueryCriteria(TaskQueryImpl taskQuery, Page page) {
@@ -193,6 +199,19 @@ public class TaskManager extends AbstractManager {
     getDbEntityManager().update(TaskEntity.class, "updateTaskSuspensionStateByParameters", configureParameterizedQuery(parameters));
   }
 
+  /**
+   * Moves the given tasks to the target activity with one bulk update. The update is guarded
+   * by the revisions of the tasks, so the returned operation affects less rows than given
+   * tasks if one of them was changed concurrently.
+   */
+  public DbBulkOperation updateTasksForSetBasedMigration(List<TaskEntity> tasks, String processDefinitionId, String activityId) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("tasks", tasks);
+    parameters.put("processDefinitionId", processDefinitionId);
+    parameters.put("activityId", activityId);
+    return getDbEntityManager().updatePreserveOrder(TaskEntity.class, "updateTasksForSetBasedMigration", parameters);
+  }
+
   public void updateTaskSuspensionStateByCaseExecutionId(String caseExecutionId, SuspensionState suspensionState) {
     Map<String, Object> parameters = new HashMap<String, Object>();
     parameters.put("caseExecutionId", caseExecutionId);
@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.statistics;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the running instances, the failed jobs and the incidents of a process definition.
+ * The counts are changed by deltas, so the same structure also holds the changes of a
+ * single transaction.
+ */
+public class ProcessDefinitionCounters {
+
+  /**
+   * Key of the failed jobs which have no job definition.
+   */
+  protected static final String NO_JOB_DEFINITION = "";
+
+  protected final AtomicLong instances = new AtomicLong();
+  protected final ConcurrentMap<String, AtomicLong> activityInstances = new ConcurrentHashMap<String, AtomicLong>();
+  protected final ConcurrentMap<String, AtomicLong> failedJobs = new ConcurrentHashMap<String, AtomicLong>();
+  protected final ConcurrentMap<IncidentCounterKey, AtomicLong> incidents = new ConcurrentHashMap<IncidentCounterKey, AtomicLong>();
+
+  public void addInstances(long delta) {
+    instances.addAndGet(delta);
+  }
+
+  public void addActivityInstances(String activityId, long delta) {
+    add(activityInstances, activityId, delta);
+  }
+
+  public void addFailedJobs(String jobDefinitionId, long delta) {
+    add(failedJobs, jobDefinitionId != null ? jobDefinitionId : NO_JOB_DEFINITION, delta);
+  }
+
+  public void addIncidents(String activityId, String incidentType, boolean rootCauseIncident, long delta) {
+    add(incidents, new IncidentCounterKey(activityId, incidentType, rootCauseIncident), delta);
+  }
+
+  public void add(ProcessDefinitionCounters delta) {
+    addInstances(delta);
+    addActivityInstances(delta);
+    addFailedJobs(delta);
+    addIncidents(delta, true);
+    addIncidents(delta, false);
+  }
+
+  public void addInstances(ProcessDefinitionCounters delta) {
+    addInstances(delta.instances.get());
+  }
+
+  public void addActivityInstances(ProcessDefinitionCounters delta) {
+    for (Entry<String, AtomicLong> activityInstance : delta.activityInstances.entrySet()) {
+      add(activityInstances, activityInstance.getKey(), activityInstance.getValue().get());
+    }
+  }
+
+  public void addFailedJobs(ProcessDefinitionCounters delta) {
+    for (Entry<String, AtomicLong> failedJob : delta.failedJobs.entrySet()) {
+      add(failedJobs, failedJob.getKey(), failedJob.getValue().get());
+    }
+  }
+
+  /**
+   * Adds either the root cause incidents or the incidents caused by other incidents of the delta.
+   */
+  public void addIncidents(ProcessDefinitionCounters delta, boolean rootCauseIncidents) {
+    for (Entry<IncidentCounterKey, AtomicLong> incident : delta.incidents.entrySet()) {
+      if (incident.getKey().rootCauseIncident == rootCauseIncidents) {
+        add(incidents, incident.getKey(), incident.getValue().get());
+      }
+    }
+  }
+
+  public long getInstances() {
+    return instances.get();
+  }
+
+  /**
+   * @return the number of active executions by activity id
+   */
+  public Map<String, Long> getActivityInstances() {
+    Map<String, Long> result = new HashMap<String, Long>();
+    for (Entry<String, AtomicLong> activityInstance : activityInstances.entrySet()) {
+      long count = activityInstance.getValue().get();
+      if (count > 0) {
+        result.put(activityInstance.getKey(), count);
+      }
+    }
+    return result;
+  }
+
+  public long getFailedJobs() {
+    long result = 0;
+    for (AtomicLong failedJob : failedJobs.values()) {
+      result += failedJob.get();
+    }
+    return result;
+  }
+
+  /**
+   * @return the number of failed jobs by job definition id; jobs without a job definition are not contained
+   */
+  public Map<String, Long> getFailedJobsByJobDefinition() {
+    Map<String, Long> result = new HashMap<String, Long>();
+    for (Entry<String, AtomicLong> failedJob : failedJobs.entrySet()) {
+      long count = failedJob.getValue().get();
+      if (count > 0 && !NO_JOB_DEFINITION.equals(failedJob.getKey())) {
+        result.put(failedJob.getKey(), count);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param incidentType if not null, only the incidents of this type are counted
+   * @param rootCauseIncidentsOnly if true, only the root cause incidents are counted
+   *
+   * @return the number of incidents by incident type
+   */
+  public Map<String, Long> getIncidents(String incidentType, boolean rootCauseIncidentsOnly) {
+    Map<String, Long> result = new HashMap<String, Long>();
+    for (Entry<IncidentCounterKey, AtomicLong> incident : incidents.entrySet()) {
+      IncidentCounterKey key = incident.getKey();
+      if ((incidentType == null || incidentType.equals(key.incidentType))
+          && (!rootCauseIncidentsOnly || key.rootCauseIncident)) {
+        add(result, key.incidentType, incident.getValue().get());
+      }
+    }
+    removeEmptyCounts(result);
+    return result;
+  }
+
+  /**
+   * @param incidentType if not null, only the incidents of this type are counted
+   *
+   * @return the number of incidents by incident type by activity id; incidents without
+   *   an activity are not contained
+   */
+  public Map<String, Map<String, Long>> getIncidentsByActivity(String incidentType) {
+    Map<String, Map<String, Long>> result = new HashMap<String, Map<String, Long>>();
+    for (Entry<IncidentCounterKey, AtomicLong> incident : incidents.entrySet()) {
+      IncidentCounterKey key = incident.getKey();
+      if (key.activityId != null && (incidentType == null || incidentType.equals(key.incidentType))) {
+        Map<String, Long> activityIncidents = result.get(key.activityId);
+        if (activityIncidents == null) {
+          activityIncidents = new HashMap<String, Long>();
+          result.put(key.activityId, activityIncidents);
+        }
+        add(activityIncidents, key.incidentType, incident.getValue().get());
+      }
+    }
+
+    for (Map<String, Long> activityIncidents : result.values()) {
+      removeEmptyCounts(activityIncidents);
+    }
+    return result;
+  }
+
+  protected static <K> void add(ConcurrentMap<K, AtomicLong> counters, K key, long delta) {
+    AtomicLong counter = counters.get(key);
+    if (counter == null) {
+      AtomicLong newCounter = new AtomicLong();
+      counter = counters.putIfAbsent(key, newCounter);
+      if (counter == null) {
+        counter = newCounter;
+      }
+    }
+    counter.addAndGet(delta);
+  }
+
+  protected static void add(Map<String, Long> counts, String key, long delta) {
+    Long count = counts.get(key);
+    counts.put(key, count != null ? count + delta : delta);
+  }
+
+  protected static void removeEmptyCounts(Map<String, Long> counts) {
+    for (Iterator<Long> iterator = counts.values().iterator(); iterator.hasNext();) {
+      if (iterator.next() <= 0) {
+        iterator.remove();
+      }
+    }
+  }
+
+  protected static class IncidentCounterKey {
+
+    protected final String activityId;
+    protected final String incidentType;
+    protected final boolean rootCauseIncident;
+
+    public IncidentCounterKey(String activityId, String incidentType, boolean rootCauseIncident) {
+      this.activityId = activityId;
+      this.incidentType = incidentType;
+      this.rootCauseIncident = rootCauseIncident;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = activityId != null ? activityId.hashCode() : 0;
+      result = 31 * result + (incidentType != null ? incidentType.hashCode() : 0);
+      result = 31 * result + (rootCauseIncident ? 1 : 0);
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof IncidentCounterKey)) {
+        return false;
+      }
+      IncidentCounterKey other = (IncidentCounterKey) obj;
+      return rootCauseIncident == other.rootCauseIncident
+          && (activityId != null ? activityId.equals(other.activityId) : other.activityId == null)
+          && (incidentType != null ? incidentType.equals(other.incidentType) : other.incidentType == null);
+    }
+  }
+
+}
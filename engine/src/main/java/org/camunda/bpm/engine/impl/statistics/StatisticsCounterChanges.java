@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.statistics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.IncidentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * Collects the changes of the {@link StatisticsCounters} while the entities of a
+ * transaction are flushed and applies them once the transaction is committed.
+ */
+public class StatisticsCounterChanges implements TransactionListener {
+
+  /**
+   * Bulk statements on executions and jobs which change none of the counted columns.
+   */
+  protected static final Set<String> UNCOUNTED_BULK_STATEMENTS = new HashSet<String>(Arrays.asList(
+      "updateExecutionSuspensionStateByParameters",
+      "updateJobSuspensionStateByParameters",
+      "updateJobPriorityByDefinitionId"));
+
+  protected final StatisticsCounters statisticsCounters;
+  protected final Map<String, ProcessDefinitionCounters> changes = new HashMap<String, ProcessDefinitionCounters>();
+  protected boolean countersInvalidated = false;
+
+  public StatisticsCounterChanges(StatisticsCounters statisticsCounters) {
+    this.statisticsCounters = statisticsCounters;
+  }
+
+  public static boolean isCounted(Class<? extends DbEntity> entityType) {
+    return ExecutionEntity.class.isAssignableFrom(entityType)
+        || JobEntity.class.isAssignableFrom(entityType)
+        || IncidentEntity.class.isAssignableFrom(entityType);
+  }
+
+  /**
+   * Records the changes of an entity which is about to be flushed. Must be called
+   * before the state of the cached entity is updated by the flush.
+   */
+  public void entityFlushed(CachedDbEntity cachedDbEntity) {
+    DbEntity entity = cachedDbEntity.getEntity();
+    DbEntityState entityState = cachedDbEntity.getEntityState();
+
+    if (entityState == DbEntityState.TRANSIENT) {
+      count(entity, entity.getPersistentState(), 1);
+
+    } else if (entityState == DbEntityState.PERSISTENT && cachedDbEntity.isDirty()) {
+      count(entity, cachedDbEntity.getCopy(), -1);
+      count(entity, entity.getPersistentState(), 1);
+
+    } else if (entityState == DbEntityState.DELETED_PERSISTENT) {
+      count(entity, cachedDbEntity.getCopy(), -1);
+    }
+
+    // merged entities are not counted since their previous state is unknown,
+    // the counters are corrected by the next refresh
+  }
+
+  /**
+   * The rows changed by a bulk statement are unknown, so the counters are reloaded
+   * after the transaction unless the statement changes none of the counted columns.
+   */
+  public void bulkOperationPerformed(String statement) {
+    if (!UNCOUNTED_BULK_STATEMENTS.contains(statement)) {
+      countersInvalidated = true;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void count(DbEntity entity, Object persistentState, long delta) {
+    if (!(persistentState instanceof Map)) {
+      return;
+    }
+
+    Map<String, Object> state = (Map<String, Object>) persistentState;
+    if (entity instanceof ExecutionEntity) {
+      countExecution(state, delta);
+    }
+    else if (entity instanceof JobEntity) {
+      countJob(state, delta);
+    }
+    else if (entity instanceof IncidentEntity) {
+      countIncident((IncidentEntity) entity, state, delta);
+    }
+  }
+
+  protected void countExecution(Map<String, Object> state, long delta) {
+    String processDefinitionId = (String) state.get("processDefinitionId");
+    if (processDefinitionId == null) {
+      return;
+    }
+
+    ProcessDefinitionCounters counters = getChanges(processDefinitionId);
+    if (state.get("parentId") == null) {
+      counters.addInstances(delta);
+    }
+
+    String activityId = (String) state.get("activityId");
+    if (activityId != null && Boolean.TRUE.equals(state.get("isActive"))) {
+      counters.addActivityInstances(activityId, delta);
+    }
+  }
+
+  protected void countJob(Map<String, Object> state, long delta) {
+    String processDefinitionId = (String) state.get("processDefinitionId");
+    Integer retries = (Integer) state.get("retries");
+
+    if (processDefinitionId != null && retries != null && retries == 0) {
+      getChanges(processDefinitionId).addFailedJobs((String) state.get("jobDefinitionId"), delta);
+    }
+  }
+
+  protected void countIncident(IncidentEntity incident, Map<String, Object> state, long delta) {
+    String processDefinitionId = (String) state.get("processDefinitionId");
+    if (processDefinitionId == null) {
+      return;
+    }
+
+    boolean rootCauseIncident = incident.getId().equals(incident.getRootCauseIncidentId());
+    getChanges(processDefinitionId)
+      .addIncidents((String) state.get("activityId"), incident.getIncidentType(), rootCauseIncident, delta);
+  }
+
+  protected ProcessDefinitionCounters getChanges(String processDefinitionId) {
+    ProcessDefinitionCounters counters = changes.get(processDefinitionId);
+    if (counters == null) {
+      counters = new ProcessDefinitionCounters();
+      changes.put(processDefinitionId, counters);
+    }
+    return counters;
+  }
+
+  public void execute(CommandContext commandContext) {
+    if (countersInvalidated) {
+      statisticsCounters.invalidate();
+    }
+    else {
+      statisticsCounters.apply(changes);
+    }
+  }
+
+}
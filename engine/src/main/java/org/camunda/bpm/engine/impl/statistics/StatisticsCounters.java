@@ -0,0 +1,260 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Counts the running instances, the active executions per activity, the failed jobs
+ * and the incidents of all process definitions. The counters are loaded from the runtime
+ * tables once and are then changed incrementally when executions, jobs and incidents are
+ * flushed, see {@link StatisticsCounterChanges}. The process definition and activity
+ * statistics queries read them instead of grouping the runtime tables.</p>
+ *
+ * <p>Changes which are not flushed by this process engine, like the changes of other
+ * process engines of a cluster or of bulk statements, are only visible after the counters
+ * are reloaded, which happens after the refresh interval.</p>
+ *
+ * <p>A reload builds new counters and replaces the current ones at once. Changes which are
+ * applied while the counters are loaded are recorded and added to the new counters if they
+ * were applied after the select of the respective counter had started. Their transactions
+ * were committed right before, so the select has most likely not seen them.</p>
+ */
+public class StatisticsCounters {
+
+  protected volatile ConcurrentMap<String, ProcessDefinitionCounters> counters = new ConcurrentHashMap<String, ProcessDefinitionCounters>();
+
+  /** guards the replacement of the counters and the recorded changes */
+  protected final Object changesLock = new Object();
+
+  /** the changes applied during a reload, <code>null</code> if no reload is running */
+  protected List<Map<String, ProcessDefinitionCounters>> changesDuringRefresh;
+
+  protected volatile long refreshInterval;
+  protected volatile long lastRefreshTime = -1;
+  protected final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * @param refreshInterval the time in milliseconds after which the counters are reloaded;
+   *   if not positive, they are only loaded once
+   */
+  public StatisticsCounters(long refreshInterval) {
+    this.refreshInterval = refreshInterval;
+  }
+
+  public ProcessDefinitionCounters getCounters(String processDefinitionId) {
+    ProcessDefinitionCounters result = counters.get(processDefinitionId);
+    return result != null ? result : new ProcessDefinitionCounters();
+  }
+
+  public void apply(Map<String, ProcessDefinitionCounters> changes) {
+    synchronized (changesLock) {
+      for (Entry<String, ProcessDefinitionCounters> change : changes.entrySet()) {
+        getOrCreateCounters(counters, change.getKey()).add(change.getValue());
+      }
+      if (changesDuringRefresh != null) {
+        changesDuringRefresh.add(changes);
+      }
+    }
+  }
+
+  /**
+   * Loads the counters from the runtime tables if they have not been loaded yet or
+   * the refresh interval has passed. The counters are loaded in a new transaction on
+   * the primary database, even if the statistics query itself runs on a read replica.
+   */
+  public void ensureUpToDate(CommandContext commandContext) {
+    if (isStale()) {
+      synchronized (this) {
+        if (isStale()) {
+          commandContext.getProcessEngineConfiguration()
+            .getCommandExecutorTxRequiresNew()
+            .execute(new Command<Void>() {
+              public Void execute(CommandContext commandContext) {
+                refresh(commandContext);
+                return null;
+              }
+            });
+        }
+      }
+    }
+  }
+
+  /**
+   * Causes the counters to be reloaded by the next statistics query.
+   */
+  public void invalidate() {
+    invalidations.incrementAndGet();
+    lastRefreshTime = -1;
+  }
+
+  protected boolean isStale() {
+    long lastRefresh = lastRefreshTime;
+    return lastRefresh < 0
+        || (refreshInterval > 0 && ClockUtil.getCurrentTime().getTime() - lastRefresh >= refreshInterval);
+  }
+
+  protected void refresh(CommandContext commandContext) {
+    long refreshTime = ClockUtil.getCurrentTime().getTime();
+    long invalidationsBeforeRefresh = invalidations.get();
+
+    synchronized (changesLock) {
+      changesDuringRefresh = new ArrayList<Map<String, ProcessDefinitionCounters>>();
+    }
+
+    try {
+      ConcurrentMap<String, ProcessDefinitionCounters> newCounters = new ConcurrentHashMap<String, ProcessDefinitionCounters>();
+      CounterType[] counterTypes = CounterType.values();
+      int[] firstChangesAfterSelect = new int[counterTypes.length];
+
+      for (CounterType counterType : counterTypes) {
+        firstChangesAfterSelect[counterType.ordinal()] = getChangesDuringRefreshCount();
+        counterType.load(commandContext.getDbEntityManager(), newCounters);
+      }
+
+      synchronized (changesLock) {
+        for (CounterType counterType : counterTypes) {
+          List<Map<String, ProcessDefinitionCounters>> changesAfterSelect =
+              changesDuringRefresh.subList(firstChangesAfterSelect[counterType.ordinal()], changesDuringRefresh.size());
+
+          for (Map<String, ProcessDefinitionCounters> changes : changesAfterSelect) {
+            for (Entry<String, ProcessDefinitionCounters> change : changes.entrySet()) {
+              counterType.add(getOrCreateCounters(newCounters, change.getKey()), change.getValue());
+            }
+          }
+        }
+        counters = newCounters;
+      }
+    }
+    finally {
+      synchronized (changesLock) {
+        changesDuringRefresh = null;
+      }
+    }
+
+    // an invalidation during the refresh may not be contained in the loaded counters
+    if (invalidations.get() == invalidationsBeforeRefresh) {
+      lastRefreshTime = refreshTime;
+    }
+  }
+
+  protected int getChangesDuringRefreshCount() {
+    synchronized (changesLock) {
+      return changesDuringRefresh.size();
+    }
+  }
+
+  protected static ProcessDefinitionCounters getOrCreateCounters(ConcurrentMap<String, ProcessDefinitionCounters> counters, String processDefinitionId) {
+    ProcessDefinitionCounters result = counters.get(processDefinitionId);
+    if (result == null) {
+      ProcessDefinitionCounters newCounters = new ProcessDefinitionCounters();
+      result = counters.putIfAbsent(processDefinitionId, newCounters);
+      if (result == null) {
+        result = newCounters;
+      }
+    }
+    return result;
+  }
+
+  public long getRefreshInterval() {
+    return refreshInterval;
+  }
+
+  public void setRefreshInterval(long refreshInterval) {
+    this.refreshInterval = refreshInterval;
+  }
+
+  /**
+   * The counters which are loaded by the same select, in the order in which they are loaded.
+   */
+  protected enum CounterType {
+
+    INSTANCES("selectProcessInstanceCounters") {
+      protected void add(ProcessDefinitionCounters counters, StatisticsCounterEntry entry) {
+        counters.addInstances(entry.getCount());
+      }
+      protected void add(ProcessDefinitionCounters counters, ProcessDefinitionCounters delta) {
+        counters.addInstances(delta);
+      }
+    },
+
+    ACTIVITY_INSTANCES("selectActivityInstanceCounters") {
+      protected void add(ProcessDefinitionCounters counters, StatisticsCounterEntry entry) {
+        counters.addActivityInstances(entry.getActivityId(), entry.getCount());
+      }
+      protected void add(ProcessDefinitionCounters counters, ProcessDefinitionCounters delta) {
+        counters.addActivityInstances(delta);
+      }
+    },
+
+    FAILED_JOBS("selectFailedJobCounters") {
+      protected void add(ProcessDefinitionCounters counters, StatisticsCounterEntry entry) {
+        counters.addFailedJobs(entry.getJobDefinitionId(), entry.getCount());
+      }
+      protected void add(ProcessDefinitionCounters counters, ProcessDefinitionCounters delta) {
+        counters.addFailedJobs(delta);
+      }
+    },
+
+    ROOT_CAUSE_INCIDENTS("selectRootCauseIncidentCounters") {
+      protected void add(ProcessDefinitionCounters counters, StatisticsCounterEntry entry) {
+        counters.addIncidents(entry.getActivityId(), entry.getIncidentType(), true, entry.getCount());
+      }
+      protected void add(ProcessDefinitionCounters counters, ProcessDefinitionCounters delta) {
+        counters.addIncidents(delta, true);
+      }
+    },
+
+    CAUSED_INCIDENTS("selectCausedIncidentCounters") {
+      protected void add(ProcessDefinitionCounters counters, StatisticsCounterEntry entry) {
+        counters.addIncidents(entry.getActivityId(), entry.getIncidentType(), false, entry.getCount());
+      }
+      protected void add(ProcessDefinitionCounters counters, ProcessDefinitionCounters delta) {
+        counters.addIncidents(delta, false);
+      }
+    };
+
+    protected final String statement;
+
+    CounterType(String statement) {
+      this.statement = statement;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void load(DbEntityManager dbEntityManager, ConcurrentMap<String, ProcessDefinitionCounters> counters) {
+      List<StatisticsCounterEntry> entries = dbEntityManager.selectList(statement);
+      for (StatisticsCounterEntry entry : entries) {
+        add(getOrCreateCounters(counters, entry.getProcessDefinitionId()), entry);
+      }
+    }
+
+    protected abstract void add(ProcessDefinitionCounters counters, StatisticsCounterEntry entry);
+
+    protected abstract void add(ProcessDefinitionCounters counters, ProcessDefinitionCounters delta);
+  }
+
+}
@@ -15,11 +15,14 @@
  */
 package org.camunda.bpm.engine.impl.util.xml;
 
+import java.io.Serializable;
 
 /**
  * @author Joram Barrez
  */
-public class Attribute {
+public class Attribute implements Serializable {
+
+  private static final long serialVersionUID = 1L;
   
   protected String name;
   
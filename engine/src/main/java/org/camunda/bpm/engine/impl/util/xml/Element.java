@@ -15,6 +15,7 @@
  */
 package org.camunda.bpm.engine.impl.util.xml;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -32,7 +33,9 @@ import org.xml.sax.Locator;
  * @author Tom Baeyens
  * @author Joram Barrez
  */
-public class Element {
+public class Element implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   protected String uri;
   protected String tagName;
@@ -127,18 +127,46 @@ public class Parse extends DefaultHandler {
     this.enableXxeProcessing = enableXxeProcessing;
   }
 
+  public boolean isEnableXxeProcessing() {
+    return enableXxeProcessing;
+  }
+
+  /**
+   * Uses an already parsed document instead of parsing the stream source.
+   * The element tree is only read and may be shared by several parses.
+   */
+  public Parse sourceRootElement(Element rootElement) {
+    this.rootElement = rootElement;
+    return this;
+  }
+
   public Parse execute() {
+    if (rootElement != null) {
+      // the document was parsed before
+      return this;
+    }
+
     try {
       InputStream inputStream = streamSource.getInputStream();
 
-      parser.getSaxParserFactory().setFeature(XXE_PROCESSING, enableXxeProcessing);
+      SAXParser saxParser;
+      SAXParserFactory saxParserFactory = parser.getSaxParserFactory();
 
-      if (schemaResource == null) { // must be done before parser is created
-        parser.getSaxParserFactory().setNamespaceAware(false);
-        parser.getSaxParserFactory().setValidating(false);
+      // the factory is shared by all parses of the parser which may run concurrently
+      synchronized (saxParserFactory) {
+        saxParserFactory.setFeature(XXE_PROCESSING, enableXxeProcessing);
+
+        if (schemaResource == null) { // must be done before parser is created
+          saxParserFactory.setNamespaceAware(false);
+          saxParserFactory.setValidating(false);
+        }
+        else {
+          configureSchemaValidation(saxParserFactory);
+        }
+
+        saxParser = parser.getSaxParser();
       }
 
-      SAXParser saxParser = parser.getSaxParser();
       if (schemaResource != null) {
         saxParser.setProperty(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
         saxParser.setProperty(JAXP_SCHEMA_SOURCE, schemaResource);
@@ -209,6 +237,13 @@ public class Parse extends DefaultHandler {
 
   public void setSchemaResource(String schemaResource) {
     SAXParserFactory saxParserFactory = parser.getSaxParserFactory();
+    synchronized (saxParserFactory) {
+      configureSchemaValidation(saxParserFactory);
+    }
+    this.schemaResource = schemaResource;
+  }
+
+  protected void configureSchemaValidation(SAXParserFactory saxParserFactory) {
     saxParserFactory.setNamespaceAware(true);
     saxParserFactory.setValidating(true);
     try {
@@ -217,6 +252,5 @@ public class Parse extends DefaultHandler {
     catch (Exception e) {
       LOG.unableToSetSchemaResource(e);
     }
-    this.schemaResource = schemaResource;
   }
 }
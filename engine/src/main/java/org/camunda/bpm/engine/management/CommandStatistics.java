@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * Aggregated statistics of the executions of a command type which were profiled
+ * since the engine has started or the statistics were reset. Commands which are
+ * executed by another command are part of the statistics of the outer command.
+ */
+public interface CommandStatistics {
+
+  /**
+   * @return the class name of the command
+   */
+  String getCommandName();
+
+  /**
+   * @return the number of profiled executions
+   */
+  long getInvocationCount();
+
+  /**
+   * @param percentile a value between 0 and 100
+   *
+   * @return the given percentile of the execution durations in microseconds
+   */
+  long getDurationPercentile(double percentile);
+
+  /**
+   * @return the mean execution duration in microseconds
+   */
+  long getMeanDuration();
+
+  /**
+   * @return the maximum execution duration in microseconds
+   */
+  long getMaxDuration();
+
+  /**
+   * @return the number of sql statements the executions issued
+   */
+  long getStatementCount();
+
+  /**
+   * @return the number of rows the select statements returned
+   */
+  long getRowsRead();
+
+  /**
+   * @return the number of rows the insert, update and delete statements changed
+   */
+  long getRowsWritten();
+
+  /**
+   * @return the total time in microseconds the executions spent flushing
+   *   their changes to the database
+   */
+  long getFlushTime();
+
+}
@@ -66,4 +66,46 @@ public class Metrics {
   public final static String HISTORY_CLEANUP_REMOVED_CASE_INSTANCES = "history-cleanup-removed-case-instances";
   public final static String HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES = "history-cleanup-removed-decision-instances";
   public final static String HISTORY_CLEANUP_REMOVED_BATCH_OPERATIONS = "history-cleanup-removed-batch-operations";
+
+  /**
+   * Duration of commands which open a new command context, in microseconds.
+   * Only recorded if timer metrics are enabled.
+   */
+  public final static String COMMAND_EXECUTION_TIME = "command-execution-time";
+
+  /**
+   * Duration of the execution of a single job by the job executor, in microseconds.
+   * Only recorded if timer metrics are enabled.
+   */
+  public final static String JOB_EXECUTION_TIME = "job-execution-time";
+
+  /**
+   * Duration of acquiring and submitting the jobs of an engine in a job acquisition
+   * cycle, in microseconds. Only recorded if timer metrics are enabled.
+   */
+  public final static String JOB_ACQUISITION_CYCLE_TIME = "job-acquisition-cycle-time";
+
+  /**
+   * Duration of flushing the entity changes of a command to the database, in microseconds.
+   * Only recorded if timer metrics are enabled.
+   */
+  public final static String FLUSH_TIME = "flush-time";
+
+  /**
+   * Suffixes of the values which are reported for each timer metric and reporting interval,
+   * e.g. <code>command-execution-time-count</code> and <code>timer:command-execution-time-p99</code>.
+   * The percentiles and the maximum are only meaningful per reporting interval: they are
+   * reported with the {@link #TIMER_VALUE_PREFIX} and are not summed up and not rolled up.
+   */
+  public final static String TIMER_COUNT_SUFFIX = "-count";
+  public final static String TIMER_P50_SUFFIX = "-p50";
+  public final static String TIMER_P95_SUFFIX = "-p95";
+  public final static String TIMER_P99_SUFFIX = "-p99";
+  public final static String TIMER_MAX_SUFFIX = "-max";
+
+  /**
+   * Prefix of the percentiles and the maximum of the timer metrics. It is reserved
+   * for these values: no meter can be registered or reported with a name starting with it.
+   */
+  public final static String TIMER_VALUE_PREFIX = "timer:";
 }
@@ -18,6 +18,8 @@ package org.camunda.bpm.engine.management;
 import java.util.Date;
 import java.util.List;
 
+import org.camunda.bpm.engine.ProcessEngineException;
+
 /**
  * @author Daniel Meyer
  * @since 7.3
@@ -77,6 +79,10 @@ public interface MetricsQuery {
    * the maximum can be decreased with the MetricsQuery#limit method. Paging
    * is enabled with the help of the offset.
    *
+   * The percentiles and maxima of the timer metrics (see {@link Metrics#TIMER_VALUE_PREFIX})
+   * are not summed up: they hold the highest value reported in the time interval and are
+   * exact if the time interval matches the reporting interval of a single reporter.
+   *
    * @return the aggregated metrics
    */
   List<MetricIntervalValue> interval();
@@ -90,6 +96,10 @@ public interface MetricsQuery {
    * the maximum can be decreased with the MetricsQuery#limit method. Paging
    * is enabled with the help of the offset.
    *
+   * If metric rollups are enabled and the interval is a multiple of an hour or
+   * a day and the start and end date are aligned to it, the metrics are read
+   * from the hourly or daily rollups.
+   *
    * @param interval The time interval on which the metrics should be aggregated.
    *                  The time unit is seconds.
    * @return the aggregated metrics
@@ -97,7 +107,17 @@ public interface MetricsQuery {
   List<MetricIntervalValue> interval(long interval);
 
   /**
+   * Note: if metrics rollups are enabled and the start and end date are whole hours,
+   * the sum is calculated from the rollups before the end of the rollups and from the
+   * meter logs after it, so it includes the meter logs which are deleted after they are
+   * rolled up. Otherwise, the sum is calculated from the meter logs only.
+   *
+   * The percentiles and maxima of the timer metrics can not be summed up
+   * and are not included in the sum.
+   *
    * @return the aggregated sum
+   * @throws ProcessEngineException if the name of the query is a percentile or maximum of a timer metric,
+   *   use {@link #interval()} to query them
    */
   long sum();
 
@@ -36,6 +36,9 @@ DROP INDEX ACT_IDX_METER_LOG_REPORT ON ACT_RU_METER_LOG;
 DROP INDEX ACT_IDX_METER_LOG_TIME ON ACT_RU_METER_LOG;
 DROP INDEX ACT_IDX_METER_LOG ON ACT_RU_METER_LOG;
 
+-- metric rollups
+DROP INDEX ACT_IDX_METER_ROLLUP ON ACT_RU_METER_ROLLUP;
+
 
 drop index ACT_IDX_EXT_TASK_TOPIC on ACT_RU_EXT_TASK;
 
@@ -175,5 +178,6 @@ drop table if exists ACT_RU_INCIDENT;
 drop table if exists ACT_RU_AUTHORIZATION;
 drop table if exists ACT_RU_FILTER;
 drop table if exists ACT_RU_METER_LOG;
+drop table if exists ACT_RU_METER_ROLLUP;
 drop table if exists ACT_RU_EXT_TASK;
 drop table if exists ACT_RU_BATCH;
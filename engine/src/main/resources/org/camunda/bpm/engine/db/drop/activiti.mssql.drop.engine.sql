@@ -40,6 +40,9 @@ DROP INDEX ACT_RU_METER_LOG.ACT_IDX_METER_LOG_REPORT;
 DROP INDEX ACT_RU_METER_LOG.ACT_IDX_METER_LOG_TIME;
 DROP INDEX ACT_RU_METER_LOG.ACT_IDX_METER_LOG;
 
+-- metric rollups
+DROP INDEX ACT_RU_METER_ROLLUP.ACT_IDX_METER_ROLLUP;
+
 
 -- indexes for concurrency problems - https://app.camunda.com/jira/browse/CAM-1646 --
 drop index ACT_RU_EXECUTION.ACT_IDX_EXECUTION_PROC;
@@ -191,5 +194,6 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_AUTHORIZATION') drop table ACT_RU_AUTHORIZATION;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_FILTER') drop table ACT_RU_FILTER;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_LOG') drop table ACT_RU_METER_LOG;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_ROLLUP') drop table ACT_RU_METER_ROLLUP;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_EXT_TASK') drop table ACT_RU_EXT_TASK;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_BATCH') drop table ACT_RU_BATCH;
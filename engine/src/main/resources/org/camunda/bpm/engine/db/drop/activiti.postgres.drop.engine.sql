@@ -50,6 +50,9 @@ DROP INDEX ACT_IDX_METER_LOG_REPORT;
 DROP INDEX ACT_IDX_METER_LOG_TIME;
 DROP INDEX ACT_IDX_METER_LOG;
 
+-- metric rollups
+DROP INDEX ACT_IDX_METER_ROLLUP;
+
 drop index ACT_IDX_EXT_TASK_TOPIC;
 
 drop index ACT_IDX_JOB_EXECUTION_ID;
@@ -198,6 +201,7 @@ drop table ACT_RU_INCIDENT;
 drop table ACT_RU_AUTHORIZATION;
 drop table ACT_RU_FILTER;
 drop table ACT_RU_METER_LOG;
+drop table ACT_RU_METER_ROLLUP;
 drop table ACT_RU_EXT_TASK;
 drop table ACT_RU_BATCH;
 
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.cfg;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.sql.ReadReplicaRouter;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.statistics.StatisticsCounters;
+import org.camunda.bpm.engine.impl.util.ReflectUtil;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ReadReplicaRoutingTest {
+
+  protected static CountingDataSource readReplicaDataSource;
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      // the replica is the same database, only the connections are counted
+      readReplicaDataSource = new CountingDataSource(configuration.getJdbcDriver(), configuration.getJdbcUrl(),
+          configuration.getJdbcUsername(), configuration.getJdbcPassword());
+      configuration.setReadReplicaDataSource(readReplicaDataSource);
+      configuration.setReadReplicaStalenessTolerance(0);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ReadReplicaRouter readReplicaRouter;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    readReplicaRouter = processEngineConfiguration.getReadReplicaRouter();
+  }
+
+  @After
+  public void resetStalenessTolerance() {
+    readReplicaRouter.setStalenessTolerance(0);
+  }
+
+  @AfterClass
+  public static void closeDataSource() {
+    readReplicaDataSource.forceCloseAll();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldRouteQueryToReadReplica() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    int connections = readReplicaDataSource.getConnectionCount();
+
+    long count = runtimeService.createProcessInstanceQuery().count();
+
+    assertThat(count, is(1L));
+    assertThat(readReplicaDataSource.getConnectionCount() - connections, is(1));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldNotRouteWritingCommand() {
+    int connections = readReplicaDataSource.getConnectionCount();
+
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    assertThat(readReplicaDataSource.getConnectionCount() - connections, is(0));
+  }
+
+  @Test
+  public void shouldNotRouteQueryWithinCommand() {
+    int connections = readReplicaDataSource.getConnectionCount();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Long>() {
+      public Long execute(CommandContext commandContext) {
+        return runtimeService.createProcessInstanceQuery().count();
+      }
+    });
+
+    assertThat(readReplicaDataSource.getConnectionCount() - connections, is(0));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldReadOwnWritesFromPrimary() {
+    readReplicaRouter.setStalenessTolerance(60 * 1000);
+
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    int connections = readReplicaDataSource.getConnectionCount();
+
+    long count = runtimeService.createProcessInstanceQuery().count();
+
+    assertThat(count, is(1L));
+    assertThat(readReplicaDataSource.getConnectionCount() - connections, is(0));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldRefreshStatisticsCountersOnPrimary() {
+    // given
+    final List<Boolean> refreshesRoutedToReadReplica = new ArrayList<Boolean>();
+    processEngineConfiguration.setStatisticsCounters(new StatisticsCounters(0) {
+      protected void refresh(CommandContext commandContext) {
+        refreshesRoutedToReadReplica.add(readReplicaRouter.isRoutedToReadReplica(commandContext));
+        super.refresh(commandContext);
+      }
+    });
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    try {
+      // when the statistics query is executed on the read replica
+      int instances = engineRule.getManagementService().createProcessDefinitionStatisticsQuery().singleResult().getInstances();
+
+      // then the counters are loaded from the primary database
+      assertThat(instances, is(1));
+      assertThat(refreshesRoutedToReadReplica, is(Arrays.asList(false)));
+    }
+    finally {
+      processEngineConfiguration.setStatisticsCounters(null);
+    }
+  }
+
+  public static class CountingDataSource extends PooledDataSource {
+
+    protected AtomicInteger connectionCount = new AtomicInteger();
+
+    public CountingDataSource(String driver, String url, String username, String password) {
+      super(ReflectUtil.getClassLoader(), driver, url, username, password);
+    }
+
+    public Connection getConnection() throws SQLException {
+      connectionCount.incrementAndGet();
+      return super.getConnection();
+    }
+
+    public int getConnectionCount() {
+      return connectionCount.get();
+    }
+  }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.dmn;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.camunda.bpm.dmn.engine.DmnDecisionResult;
+import org.camunda.bpm.dmn.engine.DmnDecisionTableResult;
+import org.camunda.bpm.engine.DecisionService;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.dmn.invocation.DecisionEvaluationCache;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DecisionEvaluationCacheTest {
+
+  protected static final String DMN_DECISION_TABLE = "org/camunda/bpm/engine/test/api/dmn/Example.dmn";
+  protected static final String DMN_DECISION_TABLE_V2 = "org/camunda/bpm/engine/test/api/dmn/Example_v2.dmn";
+
+  protected static final String DECISION_DEFINITION_KEY = "decision";
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setDecisionEvaluationCacheEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected DecisionService decisionService;
+  protected HistoryService historyService;
+  protected DecisionEvaluationCache decisionEvaluationCache;
+
+  @Before
+  public void init() {
+    decisionService = engineRule.getDecisionService();
+    historyService = engineRule.getHistoryService();
+    decisionEvaluationCache = engineRule.getProcessEngineConfiguration().getDecisionEvaluationCache();
+    decisionEvaluationCache.clear();
+  }
+
+  @After
+  public void tearDown() {
+    decisionEvaluationCache.clear();
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldReturnCachedResultForSameInput() {
+    long misses = decisionEvaluationCache.getMissCount();
+    long hits = decisionEvaluationCache.getHitCount();
+
+    DmnDecisionTableResult firstResult = decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+
+    DmnDecisionTableResult secondResult = decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("sum", 723).putValue("status", "silver"));
+
+    assertThat((String) firstResult.getSingleResult().getFirstEntry(), is("ok"));
+    assertThat((String) secondResult.getSingleResult().getFirstEntry(), is("ok"));
+
+    assertThat(decisionEvaluationCache.getMissCount() - misses, is(1L));
+    assertThat(decisionEvaluationCache.getHitCount() - hits, is(1L));
+    assertThat(decisionEvaluationCache.size(), is(1));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldNotReturnCachedResultForDifferentInput() {
+    long hits = decisionEvaluationCache.getHitCount();
+
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 724));
+
+    assertThat(decisionEvaluationCache.getHitCount() - hits, is(0L));
+    assertThat(decisionEvaluationCache.size(), is(2));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldIgnoreVariablesNotReadByDecision() {
+    long hits = decisionEvaluationCache.getHitCount();
+
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables()
+          .putValue("status", "silver")
+          .putValue("sum", 723)
+          .putValue("pojo", Variables.objectValue(new StringBuilder("foo")).create()));
+
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables()
+          .putValue("status", "silver")
+          .putValue("sum", 723)
+          .putValue("pojo", Variables.objectValue(new StringBuilder("bar")).create()));
+
+    assertThat(decisionEvaluationCache.getHitCount() - hits, is(1L));
+    assertThat(decisionEvaluationCache.size(), is(1));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldNotCacheDeserializedObjectValues() {
+    // the name occurs in the expressions of the decision, so the decision may read the variable
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables()
+          .putValue("status", "silver")
+          .putValue("sum", 723)
+          .putValue("stat", Variables.objectValue(new StringBuilder("foo")).create()));
+
+    assertThat(decisionEvaluationCache.size(), is(0));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldCacheSerializedObjectValues() {
+    long hits = decisionEvaluationCache.getHitCount();
+
+    for (int i = 0; i < 2; i++) {
+      decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+          Variables.createVariables()
+            .putValue("status", "silver")
+            .putValue("sum", 723)
+            .putValue("stat", Variables.serializedObjectValue("\"foo\"")
+                .serializationDataFormat(Variables.SerializationDataFormats.JSON)
+                .objectTypeName(String.class.getName())
+                .create()));
+    }
+
+    assertThat(decisionEvaluationCache.getHitCount() - hits, is(1L));
+    assertThat(decisionEvaluationCache.size(), is(1));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldNotShareCachedResultBetweenCallers() {
+    long hits = decisionEvaluationCache.getHitCount();
+
+    DmnDecisionResult firstResult = decisionService.evaluateDecisionByKey(DECISION_DEFINITION_KEY)
+        .variables(Variables.createVariables().putValue("status", "silver").putValue("sum", 723))
+        .evaluate();
+    firstResult.getFirstResult().getEntryMapTyped().put("result", Variables.stringValue("changed"));
+
+    DmnDecisionResult secondResult = decisionService.evaluateDecisionByKey(DECISION_DEFINITION_KEY)
+        .variables(Variables.createVariables().putValue("status", "silver").putValue("sum", 723))
+        .evaluate();
+    secondResult.getFirstResult().getEntryMapTyped().put("result", Variables.stringValue("changed"));
+
+    DmnDecisionResult thirdResult = decisionService.evaluateDecisionByKey(DECISION_DEFINITION_KEY)
+        .variables(Variables.createVariables().putValue("status", "silver").putValue("sum", 723))
+        .evaluate();
+
+    assertThat((String) thirdResult.getFirstResult().getEntry("result"), is("ok"));
+    assertThat(decisionEvaluationCache.getHitCount() - hits, is(2L));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldEvaluateNewVersionAfterRedeployment() {
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+
+    testRule.deploy(DMN_DECISION_TABLE_V2);
+
+    DmnDecisionTableResult result = decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+
+    assertThat((String) result.getSingleResult().getFirstEntry(), is("notok"));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void shouldProduceHistoryForCachedResult() {
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+    decisionService.evaluateDecisionTableByKey(DECISION_DEFINITION_KEY,
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+
+    assertThat(historyService.createHistoricDecisionInstanceQuery().count(), is(2L));
+  }
+
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.history.removaltime.cleanup;
+
+import static org.apache.commons.lang.time.DateUtils.addDays;
+import static org.apache.commons.lang.time.DateUtils.addHours;
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED;
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_FULL;
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_REMOVAL_TIME_STRATEGY_END;
+import static org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHandler.MAX_BATCH_SIZE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.history.DefaultHistoryRemovalTimeProvider;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryPartition;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryPartitionManager;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(HISTORY_FULL)
+public class HistoryCleanupPartitioningTest {
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+
+  protected static ProcessEngineConfigurationImpl engineConfiguration;
+
+  protected Set<String> jobIds = new HashSet<>();
+
+  protected final String PROCESS_KEY = "process";
+  protected final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess(PROCESS_KEY)
+    .camundaHistoryTimeToLive(5)
+    .startEvent()
+      .userTask("userTask")
+    .endEvent().done();
+
+  protected final Date END_DATE = new Date(1363608000000L);
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+    taskService = engineRule.getTaskService();
+    managementService = engineRule.getManagementService();
+
+    engineConfiguration = engineRule.getProcessEngineConfiguration();
+
+    engineConfiguration
+      .setHistoryRemovalTimeStrategy(HISTORY_REMOVAL_TIME_STRATEGY_END)
+      .setHistoryRemovalTimeProvider(new DefaultHistoryRemovalTimeProvider())
+      .initHistoryRemovalTime();
+
+    engineConfiguration.setHistoryCleanupStrategy(HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED);
+
+    engineConfiguration.setHistoryCleanupBatchSize(MAX_BATCH_SIZE);
+    engineConfiguration.setHistoryCleanupBatchWindowStartTime(null);
+    engineConfiguration.setHistoryCleanupDegreeOfParallelism(1);
+    engineConfiguration.setHistoryCleanupPartitioningEnabled(true);
+    engineConfiguration.setHistoryCleanupPartitionEmulationEnabled(false);
+    engineConfiguration.setHistoryCleanupPartitionDaysInAdvance(180);
+
+    engineConfiguration.initHistoryCleanup();
+  }
+
+  @After
+  public void tearDown() {
+    engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getMeterLogManager().deleteAll();
+
+        for (String jobId : jobIds) {
+          commandContext.getHistoricJobLogManager().deleteHistoricJobLogByJobId(jobId);
+          JobEntity job = commandContext.getJobManager().findJobById(jobId);
+          if (job != null) {
+            commandContext.getJobManager().delete(job);
+          }
+        }
+
+        return null;
+      }
+    });
+
+    ClockUtil.reset();
+  }
+
+  @AfterClass
+  public static void tearDownAfterAll() {
+    if (engineConfiguration != null) {
+      engineConfiguration
+        .setHistoryRemovalTimeProvider(null)
+        .setHistoryRemovalTimeStrategy(null)
+        .initHistoryRemovalTime();
+
+      engineConfiguration.setHistoryCleanupStrategy(HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED);
+      engineConfiguration.setHistoryCleanupPartitioningEnabled(false);
+      engineConfiguration.setHistoryCleanupPartitionEmulationEnabled(false);
+      engineConfiguration.setHistoryCleanupPartitionDaysInAdvance(180);
+
+      engineConfiguration.initHistoryCleanup();
+    }
+
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldDropExpiredPartition() {
+    // given
+    engineConfiguration.setHistoryCleanupPartitionEmulationEnabled(true);
+
+    testRule.deploy(PROCESS);
+
+    createPartitionsAt(END_DATE);
+    completeProcessInstanceAt(END_DATE);
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 6));
+
+    // when
+    dropExpiredPartitions(MAX_BATCH_SIZE);
+
+    // then
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricActivityInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricTaskInstanceQuery().count(), is(0L));
+  }
+
+  @Test
+  public void shouldNotDropPartitionOfCurrentDay() {
+    // given
+    engineConfiguration.setHistoryCleanupPartitionEmulationEnabled(true);
+
+    testRule.deploy(PROCESS);
+
+    createPartitionsAt(END_DATE);
+    completeProcessInstanceAt(END_DATE);
+
+    ClockUtil.setCurrentTime(addHours(addDays(END_DATE, 5), 1));
+
+    // when
+    dropExpiredPartitions(MAX_BATCH_SIZE);
+
+    // then
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(1L));
+    assertThat(historyService.createHistoricActivityInstanceQuery().count(), is(3L));
+  }
+
+  @Test
+  public void shouldCountRowsOfExpiredPartition() {
+    // given
+    engineConfiguration.setHistoryCleanupPartitionEmulationEnabled(true);
+
+    testRule.deploy(PROCESS);
+
+    createPartitionsAt(END_DATE);
+    completeProcessInstanceAt(END_DATE);
+    completeProcessInstanceAt(END_DATE);
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 6));
+
+    // when
+    long rows = engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Long>() {
+      public Long execute(CommandContext commandContext) {
+        HistoryPartitionManager historyPartitionManager = commandContext.getHistoryPartitionManager();
+
+        long rows = 0;
+        for (HistoryPartition partition : historyPartitionManager.findExpiredPartitions(ClockUtil.getCurrentTime(), MAX_BATCH_SIZE)) {
+          if (HistoricProcessInstanceEntity.class.equals(partition.getEntityType())) {
+            rows += historyPartitionManager.countRows(partition);
+          }
+        }
+        return rows;
+      }
+    });
+
+    // then
+    assertThat(rows, is(2L));
+  }
+
+  @Test
+  public void shouldNotDropRowsWithoutPartitionedTables() {
+    // given
+    Assume.assumeFalse(DbSqlSessionFactory.POSTGRES.equals(engineConfiguration.getDatabaseType()));
+
+    testRule.deploy(PROCESS);
+
+    completeProcessInstanceAt(END_DATE);
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 6));
+
+    // when
+    List<DbOperation> operations = dropExpiredPartitions(MAX_BATCH_SIZE);
+
+    // then the rows are left to the batched cleanup
+    assertThat(operations.size(), is(0));
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(1L));
+  }
+
+  @Test
+  public void shouldRespectBatchSizeWithoutPartitionedTables() {
+    // given
+    Assume.assumeFalse(DbSqlSessionFactory.POSTGRES.equals(engineConfiguration.getDatabaseType()));
+
+    engineConfiguration.setHistoryCleanupBatchSize(1);
+    engineConfiguration.initHistoryCleanup();
+
+    testRule.deploy(PROCESS);
+
+    completeProcessInstanceAt(END_DATE);
+    completeProcessInstanceAt(addDays(END_DATE, 1));
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 10));
+
+    // when
+    runHistoryCleanup();
+
+    // then one row per table is removed per run
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(1L));
+    assertThat(historyService.createHistoricActivityInstanceQuery().count(), is(5L));
+
+    // and the remaining rows are removed by the following runs
+    for (int i = 0; i < 5; i++) {
+      runHistoryCleanup();
+    }
+
+    assertThat(historyService.createHistoricActivityInstanceQuery().count(), is(0L));
+  }
+
+  @Test
+  public void shouldCleanupExpiredPartitionsAndCurrentDay() {
+    // given
+    engineConfiguration.setHistoryCleanupPartitionEmulationEnabled(true);
+
+    testRule.deploy(PROCESS);
+
+    createPartitionsAt(addDays(END_DATE, -3));
+    completeProcessInstanceAt(addDays(END_DATE, -3));
+    completeProcessInstanceAt(END_DATE);
+
+    // the second process instance expires on the current day
+    ClockUtil.setCurrentTime(addHours(addDays(END_DATE, 5), 1));
+
+    // when
+    runHistoryCleanup();
+
+    // then the first process instance is removed with its partition and the second one by the batched cleanup
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(0L));
+    assertThat(managementService.createMetricsQuery()
+      .name(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES)
+      .sum(), is(2L));
+  }
+
+  @Test
+  public void shouldRejectNegativeDaysInAdvance() {
+    // given
+    engineConfiguration.setHistoryCleanupPartitionDaysInAdvance(-1);
+
+    // then
+    thrown.expect(ProcessEngineException.class);
+    thrown.expectMessage("historyCleanupPartitionDaysInAdvance");
+
+    // when
+    engineConfiguration.initHistoryCleanup();
+  }
+
+  @Test
+  public void shouldNameDailyPartition() {
+    assertThat(HistoryPartitionManager.getPartitionName("ACT_HI_DETAIL", END_DATE),
+      is("ACT_HI_DETAIL_P" + new SimpleDateFormat("yyyyMMdd").format(END_DATE)));
+  }
+
+  // helper ////////////////////////////////////////////////////////////
+
+  protected void completeProcessInstanceAt(Date endTime) {
+    ClockUtil.setCurrentTime(endTime);
+
+    String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY).getId();
+    String taskId = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+    taskService.complete(taskId);
+  }
+
+  /**
+   * Creates the partitions in advance, such that the rows do not end up in the default partitions.
+   */
+  protected void createPartitionsAt(final Date removalTime) {
+    engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getHistoryPartitionManager()
+          .createPartitions(removalTime, engineConfiguration.getHistoryCleanupPartitionDaysInAdvance());
+        return null;
+      }
+    });
+  }
+
+  protected List<DbOperation> dropExpiredPartitions(final int maxPartitions) {
+    return engineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<DbOperation>>() {
+      public List<DbOperation> execute(CommandContext commandContext) {
+        List<DbOperation> operations = commandContext.getHistoryPartitionManager()
+          .dropExpiredPartitions(ClockUtil.getCurrentTime(), maxPartitions);
+
+        // execute the scheduled operations
+        commandContext.getDbSqlSession().flush();
+
+        return operations;
+      }
+    });
+  }
+
+  protected void runHistoryCleanup() {
+    historyService.cleanUpHistoryAsync(true);
+
+    List<Job> jobs = historyService.findHistoryCleanupJobs();
+    for (Job job : jobs) {
+      jobIds.add(job.getId());
+      managementService.executeJob(job.getId());
+    }
+  }
+
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.history.removaltime.cleanup;
+
+import static org.apache.commons.lang.time.DateUtils.addDays;
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED;
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_FULL;
+import static org.camunda.bpm.engine.ProcessEngineConfiguration.HISTORY_REMOVAL_TIME_STRATEGY_END;
+import static org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupHandler.MAX_BATCH_SIZE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.DefaultHistoryRemovalTimeProvider;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupJobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupRemovalTimeTableGroup;
+import org.camunda.bpm.engine.impl.jobexecutor.historycleanup.HistoryCleanupTableGroup;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+
+@RequiredHistoryLevel(HISTORY_FULL)
+public class HistoryCleanupTableGroupsTest {
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  protected RuntimeService runtimeService;
+  protected HistoryService historyService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+
+  protected static ProcessEngineConfigurationImpl engineConfiguration;
+
+  protected Set<String> jobIds = new HashSet<>();
+
+  protected final String PROCESS_KEY = "process";
+  protected final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess(PROCESS_KEY)
+    .camundaHistoryTimeToLive(5)
+    .startEvent()
+      .userTask("userTask")
+    .endEvent().done();
+
+  protected final Date END_DATE = new Date(1363608000000L);
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    historyService = engineRule.getHistoryService();
+    taskService = engineRule.getTaskService();
+    managementService = engineRule.getManagementService();
+
+    engineConfiguration = engineRule.getProcessEngineConfiguration();
+
+    engineConfiguration
+      .setHistoryRemovalTimeStrategy(HISTORY_REMOVAL_TIME_STRATEGY_END)
+      .setHistoryRemovalTimeProvider(new DefaultHistoryRemovalTimeProvider())
+      .initHistoryRemovalTime();
+
+    engineConfiguration.setHistoryCleanupStrategy(HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED);
+
+    engineConfiguration.setHistoryCleanupBatchSize(MAX_BATCH_SIZE);
+    engineConfiguration.setHistoryCleanupBatchWindowStartTime(null);
+    engineConfiguration.setHistoryCleanupDegreeOfParallelism(1);
+    engineConfiguration.setHistoryCleanupTableGroupsEnabled(true);
+    engineConfiguration.setHistoryCleanupTableGroupBatchSizes(null);
+    engineConfiguration.setHistoryCleanupTableGroupTargetDuration(1000);
+
+    engineConfiguration.initHistoryCleanup();
+  }
+
+  @After
+  public void tearDown() {
+    engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getMeterLogManager().deleteAll();
+
+        for (Job job : commandContext.getJobManager().findJobsByHandlerType("history-cleanup")) {
+          jobIds.add(job.getId());
+        }
+
+        for (String jobId : jobIds) {
+          commandContext.getHistoricJobLogManager().deleteHistoricJobLogByJobId(jobId);
+          JobEntity job = commandContext.getJobManager().findJobById(jobId);
+          if (job != null) {
+            commandContext.getJobManager().delete(job);
+          }
+        }
+
+        return null;
+      }
+    });
+
+    ClockUtil.reset();
+  }
+
+  @AfterClass
+  public static void tearDownAfterAll() {
+    if (engineConfiguration != null) {
+      engineConfiguration
+        .setHistoryRemovalTimeProvider(null)
+        .setHistoryRemovalTimeStrategy(null)
+        .initHistoryRemovalTime();
+
+      engineConfiguration.setHistoryCleanupStrategy(HISTORY_CLEANUP_STRATEGY_REMOVAL_TIME_BASED);
+      engineConfiguration.setHistoryCleanupTableGroupsEnabled(false);
+      engineConfiguration.setHistoryCleanupTableGroupBatchSizes(null);
+      engineConfiguration.setHistoryCleanupTableGroupTargetDuration(1000);
+
+      engineConfiguration.initHistoryCleanup();
+    }
+
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldCreateJobPerTableGroup() {
+    // when
+    historyService.cleanUpHistoryAsync(true);
+
+    // then
+    List<Job> jobs = historyService.findHistoryCleanupJobs();
+    assertThat(jobs.size(), is(HistoryCleanupTableGroup.values().length));
+
+    Set<HistoryCleanupTableGroup> tableGroups = new HashSet<>();
+    for (Job job : jobs) {
+      tableGroups.add(getConfiguration(job).getTableGroup());
+    }
+    assertThat(tableGroups.size(), is(HistoryCleanupTableGroup.values().length));
+  }
+
+  @Test
+  public void shouldCreateJobPerTableGroupAndMinuteChunk() {
+    // given
+    engineConfiguration.setHistoryCleanupDegreeOfParallelism(3);
+
+    // when
+    historyService.cleanUpHistoryAsync(true);
+
+    // then
+    assertThat(historyService.findHistoryCleanupJobs().size(), is(3 * HistoryCleanupTableGroup.values().length));
+  }
+
+  @Test
+  public void shouldReconfigureJobsWhenTableGroupsAreDisabled() {
+    // given
+    historyService.cleanUpHistoryAsync(true);
+
+    for (Job job : historyService.findHistoryCleanupJobs()) {
+      jobIds.add(job.getId());
+    }
+
+    engineConfiguration.setHistoryCleanupTableGroupsEnabled(false);
+
+    // when
+    historyService.cleanUpHistoryAsync(true);
+
+    // then
+    List<Job> jobs = historyService.findHistoryCleanupJobs();
+    assertThat(jobs.size(), is(1));
+    assertThat(getConfiguration(jobs.get(0)).getTableGroup(), is((HistoryCleanupTableGroup) null));
+  }
+
+  @Test
+  public void shouldCleanupAllTables() {
+    // given
+    testRule.deploy(PROCESS);
+
+    ClockUtil.setCurrentTime(END_DATE);
+
+    String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY,
+      Variables.createVariables().putValue("aVariableName", "aVariableValue")).getId();
+    String taskId = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+    taskService.complete(taskId, Variables.createVariables().putValue("aVariableName", "anotherVariableValue"));
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 5));
+
+    // when
+    runHistoryCleanup();
+
+    // then
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricActivityInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricTaskInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricVariableInstanceQuery().count(), is(0L));
+    assertThat(historyService.createHistoricDetailQuery().count(), is(0L));
+  }
+
+  @Test
+  public void shouldIncreaseBatchSizeOfFastFullBatch() {
+    // given
+    engineConfiguration.setHistoryCleanupTableGroupBatchSizes(Collections.singletonMap(HistoryCleanupTableGroup.PROCESS_INSTANCE.name(), 1));
+    engineConfiguration.setHistoryCleanupTableGroupTargetDuration(60 * 60 * 1000);
+    engineConfiguration.initHistoryCleanup();
+
+    testRule.deploy(PROCESS);
+
+    ClockUtil.setCurrentTime(END_DATE);
+
+    for (int i = 0; i < 2; i++) {
+      String processInstanceId = runtimeService.startProcessInstanceByKey(PROCESS_KEY).getId();
+      String taskId = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+      taskService.complete(taskId);
+    }
+
+    ClockUtil.setCurrentTime(addDays(END_DATE, 5));
+
+    // when
+    runHistoryCleanup();
+
+    // then
+    Job processInstanceJob = findJob(HistoryCleanupTableGroup.PROCESS_INSTANCE);
+    assertThat(getConfiguration(processInstanceJob).getBatchSize(), is(2));
+    assertThat(historyService.createHistoricProcessInstanceQuery().count(), is(1L));
+  }
+
+  @Test
+  public void shouldKeepAdaptedBatchSizeOnReconfiguration() {
+    // given
+    historyService.cleanUpHistoryAsync(true);
+    setBatchSize(findJob(HistoryCleanupTableGroup.PROCESS_INSTANCE), 42);
+
+    // when the jobs are reconfigured, e.g. on the next bootstrap
+    historyService.cleanUpHistoryAsync(true);
+
+    // then
+    assertThat(getConfiguration(findJob(HistoryCleanupTableGroup.PROCESS_INSTANCE)).getBatchSize(), is(42));
+  }
+
+  @Test
+  public void shouldResetAdaptedBatchSizeWhenMinutesChange() {
+    // given
+    historyService.cleanUpHistoryAsync(true);
+    setBatchSize(findJob(HistoryCleanupTableGroup.PROCESS_INSTANCE), 42);
+
+    engineConfiguration.setHistoryCleanupDegreeOfParallelism(2);
+
+    // when
+    historyService.cleanUpHistoryAsync(true);
+
+    // then
+    for (Job job : historyService.findHistoryCleanupJobs()) {
+      assertThat(getConfiguration(job).getBatchSize(), is(0));
+    }
+  }
+
+  @Test
+  public void shouldDecreaseBatchSizeOfSlowRun() {
+    // given
+    engineConfiguration.setHistoryCleanupTableGroupTargetDuration(100);
+
+    // when
+    int batchSize = engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        return new AdaptingTableGroupHandler().adaptBatchSize(40, 200);
+      }
+    });
+
+    // then
+    assertThat(batchSize, is(20));
+  }
+
+  @Test
+  public void shouldKeepBatchSizeOfFastRunWithoutFullBatch() {
+    // given
+    engineConfiguration.setHistoryCleanupTableGroupTargetDuration(100);
+
+    // when
+    int batchSize = engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        return new AdaptingTableGroupHandler().adaptBatchSize(40, 10);
+      }
+    });
+
+    // then
+    assertThat(batchSize, is(40));
+  }
+
+  @Test
+  public void shouldRejectUnknownTableGroup() {
+    // given
+    engineConfiguration.setHistoryCleanupTableGroupBatchSizes(Collections.singletonMap("UNKNOWN", 10));
+
+    // then
+    thrown.expect(ProcessEngineException.class);
+    thrown.expectMessage("historyCleanupTableGroupBatchSizes");
+
+    // when
+    engineConfiguration.initHistoryCleanup();
+  }
+
+  @Test
+  public void shouldRejectTooLargeTableGroupBatchSize() {
+    // given
+    engineConfiguration.setHistoryCleanupTableGroupBatchSizes(Collections.singletonMap(HistoryCleanupTableGroup.DETAIL.name(), MAX_BATCH_SIZE + 1));
+
+    // then
+    thrown.expect(ProcessEngineException.class);
+    thrown.expectMessage("historyCleanupTableGroupBatchSizes");
+
+    // when
+    engineConfiguration.initHistoryCleanup();
+  }
+
+  // helper ////////////////////////////////////////////////////////////
+
+  protected void runHistoryCleanup() {
+    historyService.cleanUpHistoryAsync(true);
+
+    List<Job> jobs = historyService.findHistoryCleanupJobs();
+    for (Job job : jobs) {
+      jobIds.add(job.getId());
+      managementService.executeJob(job.getId());
+    }
+  }
+
+  protected Job findJob(HistoryCleanupTableGroup tableGroup) {
+    for (Job job : historyService.findHistoryCleanupJobs()) {
+      if (getConfiguration(job).getTableGroup() == tableGroup) {
+        return job;
+      }
+    }
+    return null;
+  }
+
+  protected HistoryCleanupJobHandlerConfiguration getConfiguration(final Job job) {
+    return engineConfiguration.getCommandExecutorTxRequired().execute(new Command<HistoryCleanupJobHandlerConfiguration>() {
+      public HistoryCleanupJobHandlerConfiguration execute(CommandContext commandContext) {
+        JobEntity jobEntity = commandContext.getJobManager().findJobById(job.getId());
+        return (HistoryCleanupJobHandlerConfiguration) jobEntity.getJobHandlerConfiguration();
+      }
+    });
+  }
+
+  protected void setBatchSize(final Job job, final int batchSize) {
+    engineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        JobEntity jobEntity = commandContext.getJobManager().findJobById(job.getId());
+        HistoryCleanupJobHandlerConfiguration configuration = (HistoryCleanupJobHandlerConfiguration) jobEntity.getJobHandlerConfiguration();
+        configuration.setBatchSize(batchSize);
+        jobEntity.setJobHandlerConfiguration(configuration);
+        return null;
+      }
+    });
+  }
+
+  protected static class AdaptingTableGroupHandler extends HistoryCleanupRemovalTimeTableGroup {
+
+    public int adaptBatchSize(int batchSize, long duration) {
+      this.batchSize = batchSize;
+      return adaptBatchSize(duration);
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.identity;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.identity.PasswordCheckCache;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class PasswordCheckCacheTest {
+
+  protected static final String USER_ID = "johndoe";
+  protected static final String PASSWORD = "xxx";
+
+  protected static final long TIME_TO_LIVE = 10 * 1000;
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setPasswordCheckCacheTimeToLive(TIME_TO_LIVE);
+      return configuration;
+    }
+  };
+
+  @Rule
+  public ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  protected IdentityService identityService;
+  protected PasswordCheckCache passwordCheckCache;
+
+  @Before
+  public void init() {
+    identityService = engineRule.getIdentityService();
+    passwordCheckCache = engineRule.getProcessEngineConfiguration().getPasswordCheckCache();
+    passwordCheckCache.clear();
+
+    User user = identityService.newUser(USER_ID);
+    user.setPassword(PASSWORD);
+    identityService.saveUser(user);
+  }
+
+  @After
+  public void tearDown() {
+    ClockUtil.reset();
+    identityService.deleteUser(USER_ID);
+    passwordCheckCache.clear();
+  }
+
+  @Test
+  public void shouldRememberSuccessfulCheck() {
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(true));
+    assertThat(passwordCheckCache.size(), is(1));
+
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(true));
+    assertThat(identityService.checkPassword(USER_ID, "yyy"), is(false));
+  }
+
+  @Test
+  public void shouldInvalidateOnPasswordChange() {
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(true));
+
+    User user = identityService.createUserQuery().userId(USER_ID).singleResult();
+    user.setPassword("yyy");
+    identityService.saveUser(user);
+
+    assertThat(passwordCheckCache.size(), is(0));
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(false));
+  }
+
+  @Test
+  public void shouldInvalidateOnFailedCheck() {
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(true));
+
+    assertThat(identityService.checkPassword(USER_ID, "yyy"), is(false));
+
+    assertThat(passwordCheckCache.size(), is(0));
+  }
+
+  @Test
+  public void shouldInvalidateOnUnlock() {
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(true));
+
+    identityService.unlockUser(USER_ID);
+
+    assertThat(passwordCheckCache.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotRememberCheckStartedBeforeInvalidation() {
+    // given a check which loaded the user before its password was changed
+    long generation = passwordCheckCache.getGeneration(USER_ID);
+
+    User user = identityService.createUserQuery().userId(USER_ID).singleResult();
+    user.setPassword("yyy");
+    identityService.saveUser(user);
+
+    // when the check succeeds with the old password
+    passwordCheckCache.passwordChecked(USER_ID, PASSWORD, generation);
+
+    // then the result is not remembered
+    assertThat(passwordCheckCache.size(), is(0));
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(false));
+  }
+
+  @Test
+  public void shouldExpire() {
+    assertThat(identityService.checkPassword(USER_ID, PASSWORD), is(true));
+
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + TIME_TO_LIVE));
+
+    assertThat(passwordCheckCache.isPasswordChecked(USER_ID, PASSWORD), is(false));
+    assertThat(passwordCheckCache.size(), is(0));
+  }
+
+}
@@ -18,6 +18,9 @@ package org.camunda.bpm.engine.test.api.mgmt;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.batch.history.HistoricBatch;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.runtime.Job;
 import org.camunda.bpm.engine.runtime.JobQuery;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
@@ -329,4 +332,88 @@ public class ManagementServiceAsyncOperationsTest extends AbstractAsyncOperation
     thrown.expect(ProcessEngineException.class);
     managementService.setJobRetriesAsync(query, -1);
   }
+
+  @Test
+  public void testSetJobsRetryAsyncWithMultipleInvocationsPerBatchJob() throws Exception {
+    //given
+    engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(2);
+
+    try {
+      //when
+      Batch batch = managementService.setJobRetriesAsync(ids, RETRIES);
+      executeSeedJob(batch);
+      List<Exception> exceptions = executeBatchJobs(batch);
+
+      // then
+      assertThat(exceptions.size(), is(0));
+      assertThat(batch.getInvocationsPerBatchJob(), is(2));
+      assertRetries(ids, RETRIES);
+    }
+    finally {
+      engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(1);
+    }
+  }
+
+  @Test
+  public void testSetJobsRetryAsyncWithMultipleInvocationsPerBatchJobResolvesIncident() throws Exception {
+    //given
+    engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(2);
+    managementService.setJobRetries(ids.get(0), 0);
+    assertThat(runtimeService.createIncidentQuery().count(), is(1L));
+
+    try {
+      //when
+      Batch batch = managementService.setJobRetriesAsync(ids, RETRIES);
+      executeSeedJob(batch);
+      List<Exception> exceptions = executeBatchJobs(batch);
+
+      // then
+      assertThat(exceptions.size(), is(0));
+      assertRetries(ids, RETRIES);
+      assertThat(runtimeService.createIncidentQuery().count(), is(0L));
+    }
+    finally {
+      engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(1);
+    }
+  }
+
+  @Test
+  public void testSetJobsRetryAsyncWithMultipleInvocationsPerBatchJobCreatesIncidents() throws Exception {
+    //given
+    engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(2);
+
+    try {
+      //when
+      Batch batch = managementService.setJobRetriesAsync(ids, 0);
+      executeSeedJob(batch);
+      List<Exception> exceptions = executeBatchJobs(batch);
+
+      // then
+      assertThat(exceptions.size(), is(0));
+      assertRetries(ids, 0);
+      assertThat(runtimeService.createIncidentQuery().count(), is(2L));
+    }
+    finally {
+      engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(1);
+    }
+  }
+
+  @Test
+  public void testBulkRetriesUpdateSkipsJobsChangedConcurrently() {
+    // given a job which has failed after the batch job checked the jobs
+    managementService.setJobRetries(ids.get(0), 0);
+
+    // when
+    DbBulkOperation retriesUpdate = engineRule.getProcessEngineConfiguration()
+      .getCommandExecutorTxRequired()
+      .execute(new Command<DbBulkOperation>() {
+        public DbBulkOperation execute(CommandContext commandContext) {
+          return commandContext.getJobManager().updateJobRetriesByIds(ids, RETRIES);
+        }
+      });
+
+    // then the failed job is not updated
+    assertThat(retriesUpdate.getRowsAffected(), is(ids.size() - 1));
+    assertThat(managementService.createJobQuery().jobId(ids.get(0)).singleResult().getRetries(), is(0));
+  }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.statistics.ProcessDefinitionCounters;
+import org.camunda.bpm.engine.impl.statistics.StatisticsCounters;
+import org.camunda.bpm.engine.management.ActivityStatistics;
+import org.camunda.bpm.engine.management.IncidentStatistics;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.management.ProcessDefinitionStatistics;
+import org.camunda.bpm.engine.runtime.Incident;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class StatisticsCountersTest {
+
+  protected static final String FAILED_JOBS_PROCESS = "org/camunda/bpm/engine/test/api/mgmt/StatisticsTest.testStatisticsQueryWithFailedJobs.bpmn20.xml";
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setStatisticsCountersEnabled(true);
+      configuration.setStatisticsCountersRefreshInterval(0);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+  protected StatisticsCounters statisticsCounters;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    managementService = engineRule.getManagementService();
+    statisticsCounters = engineRule.getProcessEngineConfiguration().getStatisticsCounters();
+  }
+
+  @Deployment(resources = FAILED_JOBS_PROCESS)
+  @Test
+  public void shouldCountInstancesIncrementally() {
+    // given the counters are loaded
+    assertThat(managementService.createProcessDefinitionStatisticsQuery().singleResult().getInstances(), is(0));
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("ExampleProcess");
+    runtimeService.startProcessInstanceByKey("ExampleProcess");
+
+    // then
+    assertThat(statisticsCounters.getCounters(processInstance.getProcessDefinitionId()).getInstances(), is(2L));
+
+    ProcessDefinitionStatistics statistics = managementService.createProcessDefinitionStatisticsQuery().singleResult();
+    assertThat(statistics.getId(), is(processInstance.getProcessDefinitionId()));
+    assertThat(statistics.getKey(), is("ExampleProcess"));
+    assertThat(statistics.getInstances(), is(2));
+
+    // when
+    runtimeService.deleteProcessInstance(processInstance.getId(), null);
+
+    // then
+    assertThat(managementService.createProcessDefinitionStatisticsQuery().singleResult().getInstances(), is(1));
+  }
+
+  @Deployment(resources = FAILED_JOBS_PROCESS)
+  @Test
+  public void shouldCountActivityInstancesIncrementally() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("ExampleProcess");
+    runtimeService.startProcessInstanceByKey("ExampleProcess");
+    String processDefinitionId = processInstance.getProcessDefinitionId();
+
+    assertActivityStatistics(managementService.createActivityStatisticsQuery(processDefinitionId).list(),
+        "theServiceTask", 2);
+
+    // when
+    testRule.executeAvailableJobs();
+
+    // then
+    assertActivityStatistics(managementService.createActivityStatisticsQuery(processDefinitionId).list(),
+        "theUserTask", 2);
+
+    // when
+    taskService.complete(taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId());
+
+    // then
+    assertActivityStatistics(managementService.createActivityStatisticsQuery(processDefinitionId).list(),
+        "theUserTask", 1);
+    assertThat(managementService.createActivityStatisticsQuery(processDefinitionId).count(), is(1L));
+  }
+
+  @Deployment(resources = FAILED_JOBS_PROCESS)
+  @Test
+  public void shouldCountFailedJobsAndIncidents() {
+    // given
+    assertThat(managementService.createProcessDefinitionStatisticsQuery().includeFailedJobs().singleResult().getFailedJobs(), is(0));
+
+    // when
+    runtimeService.startProcessInstanceByKey("ExampleProcess");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("ExampleProcess",
+        Variables.createVariables().putValue("fail", true));
+    testRule.executeAvailableJobs();
+
+    // then
+    ProcessDefinitionStatistics statistics = managementService.createProcessDefinitionStatisticsQuery()
+        .includeFailedJobs()
+        .includeIncidents()
+        .singleResult();
+
+    assertThat(statistics.getInstances(), is(2));
+    assertThat(statistics.getFailedJobs(), is(1));
+    assertIncidentStatistics(statistics.getIncidentStatistics(), Incident.FAILED_JOB_HANDLER_TYPE, 1);
+
+    List<ActivityStatistics> activityStatistics = managementService
+        .createActivityStatisticsQuery(processInstance.getProcessDefinitionId())
+        .includeFailedJobs()
+        .includeIncidentsForType(Incident.FAILED_JOB_HANDLER_TYPE)
+        .list();
+
+    assertThat(activityStatistics.size(), is(2));
+    ActivityStatistics serviceTaskStatistics = activityStatistics.get(0);
+    assertThat(serviceTaskStatistics.getId(), is("theServiceTask"));
+    assertThat(serviceTaskStatistics.getInstances(), is(1));
+    assertThat(serviceTaskStatistics.getFailedJobs(), is(1));
+    assertIncidentStatistics(serviceTaskStatistics.getIncidentStatistics(), Incident.FAILED_JOB_HANDLER_TYPE, 1);
+  }
+
+  @Deployment(resources = FAILED_JOBS_PROCESS)
+  @Test
+  public void shouldReloadCountersAfterBulkUpdate() {
+    // given
+    runtimeService.startProcessInstanceByKey("ExampleProcess", Variables.createVariables().putValue("fail", true));
+    testRule.executeAvailableJobs();
+
+    assertThat(managementService.createProcessDefinitionStatisticsQuery().includeFailedJobs().singleResult().getFailedJobs(), is(1));
+
+    // when the retries of all failed jobs are set by a single statement
+    JobDefinition jobDefinition = managementService.createJobDefinitionQuery().singleResult();
+    managementService.setJobRetriesByJobDefinitionId(jobDefinition.getId(), 1);
+
+    // then
+    assertThat(managementService.createProcessDefinitionStatisticsQuery().includeFailedJobs().singleResult().getFailedJobs(), is(0));
+  }
+
+  @Deployment(resources = FAILED_JOBS_PROCESS)
+  @Test
+  public void shouldAddChangesAppliedDuringRefresh() {
+    // given
+    final String processDefinitionId = runtimeService.startProcessInstanceByKey("ExampleProcess").getProcessDefinitionId();
+
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setStatisticsCounters(new StatisticsCounters(0) {
+      int selects = 0;
+
+      protected int getChangesDuringRefreshCount() {
+        // an instance is started before each of the first two selects
+        if (selects++ < 2) {
+          ProcessDefinitionCounters changes = new ProcessDefinitionCounters();
+          changes.addInstances(1);
+          apply(Collections.singletonMap(processDefinitionId, changes));
+        }
+        return super.getChangesDuringRefreshCount();
+      }
+    });
+
+    try {
+      // when the counters are loaded
+      int instances = managementService.createProcessDefinitionStatisticsQuery().singleResult().getInstances();
+
+      // then only the instance started after the instances were selected is added
+      assertThat(instances, is(2));
+    }
+    finally {
+      configuration.setStatisticsCounters(statisticsCounters);
+    }
+  }
+
+  protected void assertActivityStatistics(List<ActivityStatistics> statistics, String activityId, int instances) {
+    assertThat(statistics.size(), is(1));
+    assertThat(statistics.get(0).getId(), is(activityId));
+    assertThat(statistics.get(0).getInstances(), is(instances));
+  }
+
+  protected void assertIncidentStatistics(List<IncidentStatistics> statistics, String incidentType, int incidentCount) {
+    assertThat(statistics.size(), is(1));
+    assertThat(statistics.get(0).getIncidentType(), is(incidentType));
+    assertThat(statistics.get(0).getIncidentCount(), is(incidentCount));
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.StartProcessInstanceCmd;
+import org.camunda.bpm.engine.impl.metrics.CommandProfiler;
+import org.camunda.bpm.engine.management.CommandStatistics;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class CommandProfilingTest {
+
+  protected static final String START_PROCESS_INSTANCE_CMD = StartProcessInstanceCmd.class.getName();
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setCommandProfilingEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected CommandProfiler commandProfiler;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    commandProfiler = engineRule.getProcessEngineConfiguration().getCommandProfiler();
+    managementService.resetCommandStatistics();
+  }
+
+  @After
+  public void tearDown() {
+    commandProfiler.setSampleInterval(1);
+    managementService.resetCommandStatistics();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldProfileCommand() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    CommandStatistics statistics = getStatistics(START_PROCESS_INSTANCE_CMD);
+
+    assertThat(statistics, is(notNullValue()));
+    assertThat(statistics.getInvocationCount(), is(2L));
+    assertThat(statistics.getMaxDuration(), is(greaterThanOrEqualTo(statistics.getDurationPercentile(50))));
+    assertThat(statistics.getStatementCount(), is(greaterThan(0L)));
+    // at least the process instance and the task are inserted per start
+    assertThat(statistics.getRowsWritten(), is(greaterThanOrEqualTo(4L)));
+    assertThat(statistics.getFlushTime(), is(greaterThanOrEqualTo(0L)));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldCountRowsRead() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    managementService.resetCommandStatistics();
+
+    assertThat(runtimeService.createProcessInstanceQuery().list().size(), is(2));
+
+    List<CommandStatistics> statistics = managementService.getCommandStatistics();
+    long rowsRead = 0;
+    for (CommandStatistics commandStatistics : statistics) {
+      rowsRead += commandStatistics.getRowsRead();
+    }
+    assertThat(rowsRead, is(greaterThanOrEqualTo(2L)));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldSampleCommands() {
+    commandProfiler.setSampleInterval(2);
+
+    for (int i = 0; i < 4; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+
+    assertThat(getStatistics(START_PROCESS_INSTANCE_CMD).getInvocationCount(), is(2L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldPauseProfiling() {
+    commandProfiler.setSampleInterval(0);
+
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    assertThat(getStatistics(START_PROCESS_INSTANCE_CMD), is(nullValue()));
+  }
+
+  protected CommandStatistics getStatistics(String commandName) {
+    for (CommandStatistics statistics : managementService.getCommandStatistics()) {
+      if (statistics.getCommandName().equals(commandName)) {
+        return statistics;
+      }
+    }
+    return null;
+  }
+
+}
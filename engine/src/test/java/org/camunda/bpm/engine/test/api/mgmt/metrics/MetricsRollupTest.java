@@ -0,0 +1,338 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.metrics.reporter.MetricsRollupTask;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogRollupEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.MetricIntervalValue;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.management.MetricsQuery;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class MetricsRollupTest {
+
+  protected static final String METRIC_NAME = "rollup-test";
+
+  protected static final long HOUR = 60 * 60 * 1000L;
+  protected static final long DAY = 24 * HOUR;
+
+  // mariadb can't set 0 as timestamp
+  protected static final long START = 10 * DAY;
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setMetricsRollupEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ManagementService managementService;
+  protected DbMetricsReporter dbMetricsReporter;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    managementService = engineRule.getManagementService();
+    dbMetricsReporter = processEngineConfiguration.getDbMetricsReporter();
+
+    for (Meter meter : processEngineConfiguration.getMetricsRegistry().getMeters().values()) {
+      meter.getAndClear();
+    }
+  }
+
+  @After
+  public void cleanUp() {
+    ClockUtil.reset();
+    managementService.deleteMetrics(null);
+  }
+
+  @Test
+  public void shouldQueryIntervalsFromRollups() {
+    // given three days of meter logs
+    reportMeterLogs(START, START + 3 * DAY);
+
+    List<String> hourlyIntervals = queryIntervals(START, START + 3 * DAY, 3600);
+    List<String> dailyIntervals = queryIntervals(START, START + 3 * DAY, 86400);
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 4 * DAY));
+    dbMetricsReporter.rollupNow();
+
+    // then the intervals are the same
+    assertThat(queryIntervals(START, START + 3 * DAY, 3600), is(hourlyIntervals));
+    assertThat(queryIntervals(START, START + 3 * DAY, 86400), is(dailyIntervals));
+
+    // and they are read from the rollups
+    deleteMeterLogsBefore(START + 3 * DAY);
+
+    assertThat(queryIntervals(START, START + 3 * DAY, 3600), is(hourlyIntervals));
+    assertThat(queryIntervals(START, START + 3 * DAY, 86400), is(dailyIntervals));
+    assertThat(queryIntervals(START, START + 3 * DAY, 900).isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldQueryNotRolledUpMeterLogs() {
+    // given
+    reportMeterLogs(START, START + DAY);
+
+    ClockUtil.setCurrentTime(new Date(START + DAY));
+    dbMetricsReporter.rollupNow();
+
+    reportMeterLogs(START + DAY, START + 2 * DAY);
+    List<String> hourlyIntervals = queryIntervalsWithoutRollups(START, START + 2 * DAY, 3600);
+
+    // then the hourly intervals consist of rollups and meter logs
+    assertThat(queryIntervals(START, START + 2 * DAY, 3600), is(hourlyIntervals));
+    assertThat(hourlyIntervals.size(), is(48));
+  }
+
+  @Test
+  public void shouldRollupIncrementally() {
+    // given
+    reportMeterLogs(START, START + 2 * DAY);
+
+    ClockUtil.setCurrentTime(new Date(START + DAY));
+    dbMetricsReporter.rollupNow();
+    long firstRollupEnd = findRollupEnd(MeterLogRollupEntity.HOUR);
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 3 * DAY));
+    dbMetricsReporter.rollupNow();
+
+    // then
+    assertThat(firstRollupEnd, is(START + DAY - HOUR));
+    assertThat(findRollupEnd(MeterLogRollupEntity.HOUR), is(START + 3 * DAY - HOUR));
+    assertThat(findRollupEnd(MeterLogRollupEntity.DAY), is(START + 2 * DAY));
+    assertThat(queryIntervals(START, START + 2 * DAY, 3600), is(queryIntervalsWithoutRollups(START, START + 2 * DAY, 3600)));
+  }
+
+  @Test
+  public void shouldDeleteRollups() {
+    // given
+    reportMeterLogs(START, START + DAY);
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY));
+    dbMetricsReporter.rollupNow();
+
+    // when
+    managementService.deleteMetrics(null);
+
+    // then
+    assertThat(managementService.getTableCount().get(processEngineConfiguration.getDatabaseTablePrefix() + "ACT_RU_METER_ROLLUP"), is(0L));
+    assertThat(findRollupEnd(MeterLogRollupEntity.HOUR), is(nullValue()));
+    assertThat(findRollupEnd(MeterLogRollupEntity.DAY), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeleteExpiredMeterLogsAfterRollup() {
+    // given
+    reportMeterLogs(START, START + 2 * DAY);
+    MetricsRollupTask rollupTask = new MetricsRollupTask(processEngineConfiguration.getCommandExecutorTxRequired(), true, 1);
+
+    // when the meter logs expire but are not rolled up yet
+    ClockUtil.setCurrentTime(new Date(START + DAY));
+    rollupTask.run();
+
+    // then only the rolled up meter logs are deleted
+    assertThat(sumMeterLogsWithoutRollups(START, START + DAY - HOUR), is(0L));
+    assertThat(sumMeterLogsWithoutRollups(START + DAY - HOUR, START + 2 * DAY), is(reportedSum(START + DAY - HOUR, START + 2 * DAY)));
+    assertThat(queryIntervals(START, START + DAY - HOUR, 3600).size(), is(23));
+  }
+
+  @Test
+  public void shouldSumRolledUpMeterLogsAfterDeletion() {
+    // given
+    reportMeterLogs(START, START + 2 * DAY);
+    MetricsRollupTask rollupTask = new MetricsRollupTask(processEngineConfiguration.getCommandExecutorTxRequired(), true, 1);
+
+    // when the rolled up meter logs are deleted
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY));
+    rollupTask.run();
+
+    // then the sum is taken from the rollups and the remaining meter logs
+    assertThat(sumMeterLogsWithoutRollups(START, START + DAY), is(0L));
+    assertThat(sumMeterLogs(START, START + 2 * DAY), is(reportedSum(START, START + 2 * DAY)));
+    assertThat(sumMeterLogs(START + DAY, START + 2 * DAY), is(reportedSum(START + DAY, START + 2 * DAY)));
+    assertThat(managementService.createMetricsQuery().name(METRIC_NAME).sum(), is(reportedSum(START, START + 2 * DAY)));
+  }
+
+  @Test
+  public void shouldDeleteExpiredMeterLogsWithoutRollups() {
+    // given
+    reportMeterLogs(START, START + 2 * DAY);
+    MetricsRollupTask rollupTask = new MetricsRollupTask(processEngineConfiguration.getCommandExecutorTxRequired(), false, 24);
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY));
+    rollupTask.run();
+
+    // then
+    assertThat(sumMeterLogs(START, START + DAY), is(0L));
+    assertThat(sumMeterLogs(START + DAY, START + 2 * DAY), is(reportedSum(START + DAY, START + 2 * DAY)));
+    assertThat(findRollupEnd(MeterLogRollupEntity.HOUR), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotRollupTimerValues() {
+    // given
+    String name = Metrics.TIMER_VALUE_PREFIX + METRIC_NAME + Metrics.TIMER_P99_SUFFIX;
+    for (long time = START; time < START + DAY; time += 15 * 60 * 1000) {
+      ClockUtil.setCurrentTime(new Date(time));
+      insertMeterLog(name, time / (15 * 60 * 1000));
+    }
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 2 * DAY));
+    dbMetricsReporter.rollupNow();
+
+    // then
+    assertThat(managementService.getTableCount().get(processEngineConfiguration.getDatabaseTablePrefix() + "ACT_RU_METER_ROLLUP"), is(0L));
+
+    // and the hourly intervals hold the highest value of the hour
+    List<MetricIntervalValue> intervals = managementService.createMetricsQuery()
+      .name(name)
+      .startDate(new Date(START))
+      .endDate(new Date(START + DAY))
+      .interval(3600);
+
+    assertThat(intervals.size(), is(24));
+    assertThat(intervals.get(0).getValue(), is((START + DAY) / (15 * 60 * 1000) - 1));
+  }
+
+  /**
+   * Reports a meter log every 15 minutes with the number of the quarter hour as value.
+   */
+  protected void reportMeterLogs(long start, long end) {
+    for (long time = start; time < end; time += 15 * 60 * 1000) {
+      ClockUtil.setCurrentTime(new Date(time));
+      dbMetricsReporter.reportValueAtOnce(METRIC_NAME, time / (15 * 60 * 1000));
+    }
+  }
+
+  protected long reportedSum(long start, long end) {
+    long sum = 0;
+    for (long time = start; time < end; time += 15 * 60 * 1000) {
+      sum += time / (15 * 60 * 1000);
+    }
+    return sum;
+  }
+
+  protected List<String> queryIntervals(long start, long end, long interval) {
+    List<MetricIntervalValue> intervals = createQuery(start, end).interval(interval);
+
+    List<String> result = new ArrayList<String>();
+    for (MetricIntervalValue intervalValue : intervals) {
+      result.add(intervalValue.getTimestamp().getTime() + ":" + intervalValue.getValue());
+    }
+    return result;
+  }
+
+  protected List<String> queryIntervalsWithoutRollups(long start, long end, long interval) {
+    processEngineConfiguration.setMetricsRollupEnabled(false);
+    try {
+      return queryIntervals(start, end, interval);
+    }
+    finally {
+      processEngineConfiguration.setMetricsRollupEnabled(true);
+    }
+  }
+
+  protected long sumMeterLogs(long start, long end) {
+    return createQuery(start, end).sum();
+  }
+
+  protected long sumMeterLogsWithoutRollups(long start, long end) {
+    processEngineConfiguration.setMetricsRollupEnabled(false);
+    try {
+      return sumMeterLogs(start, end);
+    }
+    finally {
+      processEngineConfiguration.setMetricsRollupEnabled(true);
+    }
+  }
+
+  protected MetricsQuery createQuery(long start, long end) {
+    return managementService.createMetricsQuery()
+      .name(METRIC_NAME)
+      .startDate(new Date(start))
+      .endDate(new Date(end))
+      .limit(200);
+  }
+
+  protected Long findRollupEnd(final int interval) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Long>() {
+      public Long execute(CommandContext commandContext) {
+        return commandContext.getMeterLogManager().findRollupEnd(interval);
+      }
+    });
+  }
+
+  /**
+   * Inserts a meter log directly since the names of the timer values can not be reported.
+   */
+  protected void insertMeterLog(final String name, final long value) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getMeterLogManager().insert(new MeterLogEntity(name, "test", value, ClockUtil.getCurrentTime()));
+        return null;
+      }
+    });
+  }
+
+  protected void deleteMeterLogsBefore(final long milliseconds) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        MeterLogManager meterLogManager = commandContext.getMeterLogManager();
+        meterLogManager.deleteMeterLogsBefore(milliseconds);
+        return null;
+      }
+    });
+  }
+
+}
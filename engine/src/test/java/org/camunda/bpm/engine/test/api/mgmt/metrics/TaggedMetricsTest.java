@@ -0,0 +1,197 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.StripedCounter;
+import org.camunda.bpm.engine.impl.metrics.TaggedMeter;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class TaggedMetricsTest {
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setMetricsMaxTagsPerMeter(100);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected MetricsRegistry metricsRegistry;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    metricsRegistry = engineRule.getProcessEngineConfiguration().getMetricsRegistry();
+    clearMetrics();
+  }
+
+  @After
+  public void clearMetrics() {
+    for (Meter meter : metricsRegistry.getMeters().values()) {
+      meter.getAndClear();
+    }
+    managementService.deleteMetrics(null);
+  }
+
+  @Test
+  public void shouldNotTagMetersByDefault() {
+    assertThat(new StandaloneInMemProcessEngineConfiguration().getMetricsMaxTagsPerMeter(), is(0));
+  }
+
+  @Test
+  public void shouldCountActivityInstancesPerProcessDefinitionKey() {
+    testRule.deploy(
+      Bpmn.createExecutableProcess("firstProcess").startEvent().manualTask().endEvent().done(),
+      Bpmn.createExecutableProcess("secondProcess").startEvent().endEvent().done());
+
+    long firstBefore = getTagValue(metricsRegistry.getTagValues(Metrics.ACTIVTY_INSTANCE_START), "firstProcess");
+    long secondBefore = getTagValue(metricsRegistry.getTagValues(Metrics.ACTIVTY_INSTANCE_START), "secondProcess");
+
+    runtimeService.startProcessInstanceByKey("firstProcess");
+    runtimeService.startProcessInstanceByKey("secondProcess");
+    runtimeService.startProcessInstanceByKey("secondProcess");
+
+    Map<String, Long> tagValues = metricsRegistry.getTagValues(Metrics.ACTIVTY_INSTANCE_START);
+    assertThat(getTagValue(tagValues, "firstProcess") - firstBefore, is(3L));
+    assertThat(getTagValue(tagValues, "secondProcess") - secondBefore, is(4L));
+
+    // the total is reported as before
+    assertThat(managementService.createMetricsQuery().name(Metrics.ACTIVTY_INSTANCE_START).sum(), is(7L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/metrics/asyncServiceTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldCountSuccessfulJobsPerJobType() {
+    long before = getTagValue(metricsRegistry.getTagValues(Metrics.JOB_SUCCESSFUL), AsyncContinuationJobHandler.TYPE);
+
+    runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+    runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+    testRule.waitForJobExecutorToProcessAllJobs(5000);
+
+    long after = getTagValue(metricsRegistry.getTagValues(Metrics.JOB_SUCCESSFUL), AsyncContinuationJobHandler.TYPE);
+    assertThat(after - before, is(2L));
+  }
+
+  @Test
+  public void shouldBoundNumberOfTags() {
+    TaggedMeter meter = new TaggedMeter("test", 2);
+
+    meter.markTimes("a", 1);
+    meter.markTimes("b", 2);
+    meter.markTimes("c", 3);
+    meter.markTimes("d", 4);
+    meter.markTimes("a", 5);
+
+    Map<String, Long> tagValues = meter.getTagValues();
+    assertThat(tagValues.size(), is(3));
+    assertThat(tagValues.get("a"), is(6L));
+    assertThat(tagValues.get("b"), is(2L));
+    assertThat(tagValues.get(TaggedMeter.OTHER_TAG), is(7L));
+    assertThat(meter.get(), is(15L));
+  }
+
+  @Test
+  public void shouldNotMergeTagNamedOtherWithFurtherTags() {
+    TaggedMeter meter = new TaggedMeter("test", 1);
+
+    meter.markTimes("other", 1);
+    meter.markTimes("b", 2);
+
+    Map<String, Long> tagValues = meter.getTagValues();
+    assertThat(tagValues.size(), is(2));
+    assertThat(tagValues.get("other"), is(1L));
+    assertThat(tagValues.get(TaggedMeter.OTHER_TAG), is(2L));
+  }
+
+  @Test
+  public void shouldCountProcessDefinitionKeyOther() {
+    testRule.deploy(Bpmn.createExecutableProcess("other").startEvent().endEvent().done());
+
+    runtimeService.startProcessInstanceByKey("other");
+
+    Map<String, Long> tagValues = metricsRegistry.getTagValues(Metrics.ACTIVTY_INSTANCE_START);
+    assertThat(tagValues.get("other"), is(2L));
+    assertThat(tagValues.get(TaggedMeter.OTHER_TAG), is(nullValue()));
+  }
+
+  @Test
+  public void shouldKeepStripedCounterConsistentUnderConcurrency() throws Exception {
+    final StripedCounter counter = new StripedCounter(8);
+    final int increments = 100000;
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread() {
+        public void run() {
+          for (int j = 0; j < increments; j++) {
+            counter.add(1);
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(counter.sumAndReset(), is(8L * increments));
+    assertThat(counter.sum(), is(0L));
+  }
+
+  protected long getTagValue(Map<String, Long> tagValues, String tag) {
+    Long value = tagValues.get(tag);
+    return value != null ? value : 0;
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.management.MetricIntervalValue;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class TimerMetricsTest {
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setTimerMetricsEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected MetricsRegistry metricsRegistry;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    clearMetrics();
+  }
+
+  @After
+  public void clearMetrics() {
+    for (Histogram histogram : metricsRegistry.getHistograms().values()) {
+      histogram.getSnapshotAndReset();
+    }
+    managementService.deleteMetrics(null);
+  }
+
+  @Test
+  public void shouldComputePercentiles() {
+    Histogram histogram = new Histogram("test");
+    for (int i = 1; i <= 1000; i++) {
+      histogram.recordValue(i * 1000);
+    }
+
+    HistogramSnapshot snapshot = histogram.getSnapshot();
+
+    assertThat(snapshot.getCount(), is(1000L));
+    assertThat(snapshot.getMax(), is(1000000L));
+    assertThat(snapshot.getMean(), is(500500L));
+    assertWithinPrecision(snapshot.getValueAtPercentile(50), 500000);
+    assertWithinPrecision(snapshot.getValueAtPercentile(99), 990000);
+    assertThat(snapshot.getValueAtPercentile(100), is(1000000L));
+  }
+
+  @Test
+  public void shouldResetHistogram() {
+    Histogram histogram = new Histogram("test");
+    histogram.recordValue(5);
+    histogram.recordValue(Long.MAX_VALUE);
+
+    HistogramSnapshot snapshot = histogram.getSnapshotAndReset();
+
+    assertThat(snapshot.getCount(), is(2L));
+    assertThat(snapshot.getValueAtPercentile(50), is(5L));
+    assertThat(snapshot.getMax(), is(Histogram.MAX_TRACKABLE_VALUE));
+    assertThat(histogram.getSnapshot().getCount(), is(0L));
+    assertThat(histogram.getSnapshot().getValueAtPercentile(99), is(0L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/metrics/asyncServiceTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldRecordCommandAndFlushTime() {
+    runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+
+    assertThat(metricsRegistry.getHistogramByName(Metrics.COMMAND_EXECUTION_TIME).getSnapshot().getCount(), greaterThan(0L));
+    assertThat(metricsRegistry.getHistogramByName(Metrics.FLUSH_TIME).getSnapshot().getCount(), greaterThan(0L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/metrics/asyncServiceTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldRecordJobExecutionAndAcquisitionTime() {
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+    }
+
+    testRule.waitForJobExecutorToProcessAllJobs(5000);
+
+    assertThat(metricsRegistry.getHistogramByName(Metrics.JOB_EXECUTION_TIME).getSnapshot().getCount(), is(3L));
+    assertThat(metricsRegistry.getHistogramByName(Metrics.JOB_ACQUISITION_CYCLE_TIME).getSnapshot().getCount(), greaterThan(0L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/metrics/asyncServiceTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldReportPercentilesPerInterval() {
+    runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+    long recordedCommands = metricsRegistry.getHistogramByName(Metrics.COMMAND_EXECUTION_TIME).getSnapshot().getCount();
+
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    // the timers are reset on reporting, only the command which inserted the meter logs is recorded
+    assertThat(metricsRegistry.getHistogramByName(Metrics.COMMAND_EXECUTION_TIME).getSnapshot().getCount(), is(1L));
+
+    String name = Metrics.COMMAND_EXECUTION_TIME;
+    long count = managementService.createMetricsQuery().name(name + Metrics.TIMER_COUNT_SUFFIX).sum();
+    long p50 = intervalValue(Metrics.TIMER_VALUE_PREFIX + name + Metrics.TIMER_P50_SUFFIX);
+    long p99 = intervalValue(Metrics.TIMER_VALUE_PREFIX + name + Metrics.TIMER_P99_SUFFIX);
+    long max = intervalValue(Metrics.TIMER_VALUE_PREFIX + name + Metrics.TIMER_MAX_SUFFIX);
+
+    assertThat(count, is(recordedCommands));
+    assertThat(p50, lessThanOrEqualTo(p99));
+    assertThat(p99, lessThanOrEqualTo(max));
+    assertThat(managementService.createMetricsQuery().name(name + Metrics.TIMER_COUNT_SUFFIX).interval().size(), is(1));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/metrics/asyncServiceTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldNotSumUpPercentiles() {
+    String name = Metrics.COMMAND_EXECUTION_TIME;
+    Histogram histogram = metricsRegistry.getHistogramByName(name);
+
+    runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+    long firstMax = histogram.getSnapshot().getMax();
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    runtimeService.startProcessInstanceByKey("asyncServiceTaskProcess");
+    long secondMax = histogram.getSnapshot().getMax();
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    // both reports fall into the same interval which holds the highest reported maximum
+    assertThat(intervalValue(Metrics.TIMER_VALUE_PREFIX + name + Metrics.TIMER_MAX_SUFFIX), is(Math.max(firstMax, secondMax)));
+
+    try {
+      managementService.createMetricsQuery().name(Metrics.TIMER_VALUE_PREFIX + name + Metrics.TIMER_MAX_SUFFIX).sum();
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertThat(e.getMessage(), containsString("can not be summed up"));
+    }
+  }
+
+  @Test
+  public void shouldSumUpMeterWithSuffixOfTimerValue() {
+    String name = "custom-max";
+    metricsRegistry.createMeter(name);
+    try {
+      metricsRegistry.markOccurrence(name, 3);
+      processEngineConfiguration.getDbMetricsReporter().reportNow();
+      metricsRegistry.markOccurrence(name, 4);
+      processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+      assertThat(managementService.createMetricsQuery().name(name).sum(), is(7L));
+      assertThat(intervalValue(name), is(7L));
+    }
+    finally {
+      metricsRegistry.getMeters().remove(name);
+    }
+  }
+
+  @Test
+  public void shouldNotRegisterMeterWithPrefixOfTimerValues() {
+    try {
+      metricsRegistry.createMeter(Metrics.TIMER_VALUE_PREFIX + "custom");
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertThat(e.getMessage(), containsString("reserved"));
+    }
+
+    try {
+      processEngineConfiguration.getDbMetricsReporter().reportValueAtOnce(Metrics.TIMER_VALUE_PREFIX + "custom", 1);
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertThat(e.getMessage(), containsString("reserved"));
+    }
+  }
+
+  protected long intervalValue(String name) {
+    List<MetricIntervalValue> values = managementService.createMetricsQuery().name(name).interval();
+    assertThat(values.size(), is(1));
+    return values.get(0).getValue();
+  }
+
+  protected void assertWithinPrecision(long actual, long expected) {
+    assertThat(actual, greaterThanOrEqualTo(expected));
+    assertThat(actual, lessThanOrEqualTo(expected + expected / 32));
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.repository;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.camunda.bpm.engine.repository.DeploymentWithDefinitions;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ParallelDeploymentParseTest {
+
+  protected static final int NUMBER_OF_PROCESSES = 20;
+
+  protected static final String CMMN_RESOURCE = "org/camunda/bpm/engine/test/api/cmmn/oneTaskCase.cmmn";
+  protected static final String DMN_RESOURCE = "org/camunda/bpm/engine/test/api/dmn/Example.dmn";
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setDeploymentParseThreads(4);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RepositoryService repositoryService;
+  protected ManagementService managementService;
+
+  @Before
+  public void init() {
+    repositoryService = engineRule.getRepositoryService();
+    managementService = engineRule.getManagementService();
+  }
+
+  @Test
+  public void shouldDeployAllResources() {
+    // given
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment()
+      .addClasspathResource(CMMN_RESOURCE)
+      .addClasspathResource(DMN_RESOURCE);
+
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      deploymentBuilder.addModelInstance("process" + i + ".bpmn", createProcess("process" + i));
+    }
+
+    // when
+    DeploymentWithDefinitions deployment = testRule.deploy(deploymentBuilder);
+
+    // then
+    List<ProcessDefinition> processDefinitions = deployment.getDeployedProcessDefinitions();
+    assertThat(processDefinitions.size(), is(NUMBER_OF_PROCESSES));
+    assertThat(deployment.getDeployedCaseDefinitions().size(), is(1));
+    assertThat(deployment.getDeployedDecisionDefinitions().size(), is(1));
+
+    for (ProcessDefinition processDefinition : processDefinitions) {
+      assertThat(processDefinition.getResourceName(), is(processDefinition.getKey() + ".bpmn"));
+    }
+
+    // and the job declarations of all processes are registered
+    assertThat(managementService.createJobDefinitionQuery().count(), is((long) NUMBER_OF_PROCESSES));
+    assertThat(managementService.createJobQuery().timers().count(), is((long) NUMBER_OF_PROCESSES));
+  }
+
+  @Test
+  public void shouldDeployDefinitionsInOrderOfResources() {
+    // given
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment();
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      deploymentBuilder.addModelInstance("process" + i + ".bpmn", createProcess("process" + i));
+    }
+
+    // when
+    DeploymentWithDefinitions deployment = testRule.deploy(deploymentBuilder);
+
+    // then the definitions are deployed in the order of the resources, as if they were parsed sequentially
+    List<String> resourceNames = new ArrayList<String>(((DeploymentEntity) deployment).getResources().keySet());
+    List<ProcessDefinition> processDefinitions = deployment.getDeployedProcessDefinitions();
+
+    for (int i = 0; i < processDefinitions.size(); i++) {
+      assertThat(processDefinitions.get(i).getResourceName(), is(resourceNames.get(i)));
+    }
+  }
+
+  @Test
+  public void shouldFailIfOneResourceIsInvalid() {
+    // given
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment()
+      .addString("invalid.bpmn", "<definitions />");
+
+    for (int i = 0; i < NUMBER_OF_PROCESSES; i++) {
+      deploymentBuilder.addModelInstance("process" + i + ".bpmn", createProcess("process" + i));
+    }
+
+    try {
+      // when
+      deploymentBuilder.deploy();
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then
+      assertThat(e.getMessage(), containsString("invalid.bpmn"));
+    }
+
+    assertThat(repositoryService.createDeploymentQuery().count(), is(0L));
+    assertThat(repositoryService.createProcessDefinitionQuery().count(), is(0L));
+  }
+
+  protected BpmnModelInstance createProcess(String processDefinitionKey) {
+    return Bpmn.createExecutableProcess(processDefinitionKey)
+      .startEvent()
+        .timerWithCycle("R2/PT1H")
+      .userTask()
+      .endEvent()
+      .done();
+  }
+
+}
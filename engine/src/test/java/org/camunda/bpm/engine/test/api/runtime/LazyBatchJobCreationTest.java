@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.batch.history.HistoricBatch;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.api.AbstractAsyncOperationsTest;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class LazyBatchJobCreationTest extends AbstractAsyncOperationsTest {
+
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  public ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected int defaultBatchJobsPerSeed;
+  protected int defaultInvocationsPerBatchJob;
+
+  @Before
+  public void initServices() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    historyService = engineRule.getHistoryService();
+  }
+
+  @Before
+  public void enableLazyBatchJobCreation() {
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    defaultBatchJobsPerSeed = configuration.getBatchJobsPerSeed();
+    defaultInvocationsPerBatchJob = configuration.getInvocationsPerBatchJob();
+
+    configuration.setLazyBatchJobCreationEnabled(true);
+    configuration.setBatchJobsPerSeed(2);
+  }
+
+  @After
+  public void resetEngineSettings() {
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setLazyBatchJobCreationEnabled(false);
+    configuration.setBatchJobsPerSeed(defaultBatchJobsPerSeed);
+    configuration.setInvocationsPerBatchJob(defaultInvocationsPerBatchJob);
+  }
+
+  @After
+  public void removeBatches() {
+    for (Batch batch : managementService.createBatchQuery().list()) {
+      managementService.deleteBatch(batch.getId(), true);
+    }
+
+    for (HistoricBatch historicBatch : historyService.createHistoricBatchQuery().list()) {
+      historyService.deleteHistoricBatch(historicBatch.getId());
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldCreateDeletionJobsPageByPage() {
+    // given
+    startTestProcesses(5);
+    ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery().processDefinitionKey(ONE_TASK_PROCESS);
+
+    // when
+    Batch batch = runtimeService.deleteProcessInstancesAsync(query, TESTING_INSTANCE_DELETE);
+
+    // then
+    assertThat(batch.getTotalJobs(), is(5));
+
+    executeSeedJob(batch);
+    assertThat(getBatchJobs(batch).size(), is(2));
+
+    int seedJobExecutions = executeSeedJobs(batch) + 1;
+    assertThat(seedJobExecutions, is(3));
+    assertThat(getBatchJobs(batch).size(), is(5));
+
+    executeBatchJobs(batch);
+    assertThat(runtimeService.createProcessInstanceQuery().count(), is(0L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldCreateDeletionJobsForVariableQuery() {
+    // given
+    List<String> matchingIds = new ArrayList<String>();
+    for (int i = 0; i < 6; i++) {
+      String id = runtimeService.startProcessInstanceByKey(ONE_TASK_PROCESS,
+          Variables.createVariables().putValue("number", i).putValue("name", "instance" + (i % 2))).getId();
+      if (i >= 2 && i % 2 == 0) {
+        matchingIds.add(id);
+      }
+    }
+
+    ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery()
+        .variableValueGreaterThanOrEqual("number", 2)
+        .variableValueEquals("name", "instance0");
+
+    // when
+    Batch batch = runtimeService.deleteProcessInstancesAsync(query, TESTING_INSTANCE_DELETE);
+    executeSeedJobs(batch);
+    executeBatchJobs(batch);
+
+    // then
+    assertThat(batch.getTotalJobs(), is(2));
+    assertThat(runtimeService.createProcessInstanceQuery().count(), is(4L));
+    for (String id : matchingIds) {
+      assertThat(runtimeService.createProcessInstanceQuery().processInstanceId(id).count(), is(0L));
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldCreateSuspensionJobsPageByPage() {
+    // given
+    engineRule.getProcessEngineConfiguration().setInvocationsPerBatchJob(2);
+    startTestProcesses(7);
+    ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery().active();
+
+    // when
+    Batch batch = runtimeService.updateProcessInstanceSuspensionState()
+        .byProcessInstanceQuery(query)
+        .suspendAsync();
+
+    // then
+    assertThat(batch.getTotalJobs(), is(4));
+
+    executeSeedJob(batch);
+    assertThat(getBatchJobs(batch).size(), is(2));
+
+    executeSeedJobs(batch);
+    assertThat(getBatchJobs(batch).size(), is(4));
+
+    executeBatchJobs(batch);
+    assertThat(runtimeService.createProcessInstanceQuery().suspended().count(), is(7L));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  @Test
+  public void shouldFailForEmptyQueryResult() {
+    // given
+    ProcessInstanceQuery query = runtimeService.createProcessInstanceQuery().processDefinitionKey(ONE_TASK_PROCESS);
+
+    try {
+      // when
+      runtimeService.deleteProcessInstancesAsync(query, TESTING_INSTANCE_DELETE);
+      fail("exception expected");
+    }
+    catch (BadUserRequestException e) {
+      // then
+      assertThat(managementService.createBatchQuery().count(), is(0L));
+    }
+  }
+
+  /**
+   * Executes the seed job of the batch until it has created all batch jobs.
+   *
+   * @return the number of seed job executions
+   */
+  protected int executeSeedJobs(Batch batch) {
+    int executions = 0;
+    Job seedJob = getSeedJob(batch);
+    while (seedJob != null) {
+      managementService.executeJob(seedJob.getId());
+      executions++;
+      seedJob = getSeedJob(batch);
+    }
+    return executions;
+  }
+
+  protected Job getSeedJob(Batch batch) {
+    return managementService.createJobQuery().jobDefinitionId(batch.getSeedJobDefinitionId()).singleResult();
+  }
+
+  protected List<Job> getBatchJobs(Batch batch) {
+    return managementService.createJobQuery().jobDefinitionId(batch.getBatchJobDefinitionId()).list();
+  }
+
+}
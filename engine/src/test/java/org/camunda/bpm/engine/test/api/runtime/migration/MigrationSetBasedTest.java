@@ -0,0 +1,380 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime.migration;
+
+import static org.camunda.bpm.engine.test.api.runtime.migration.ModifiableBpmnModelInstance.modify;
+import static org.camunda.bpm.engine.test.util.ActivityInstanceAssert.assertThat;
+import static org.camunda.bpm.engine.test.util.ActivityInstanceAssert.describeActivityInstanceTree;
+import static org.camunda.bpm.engine.test.util.ExecutionAssert.assertThat;
+import static org.camunda.bpm.engine.test.util.ExecutionAssert.describeExecutionTree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
+import org.camunda.bpm.engine.impl.history.event.HistoricActivityInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.CompositeDbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.migration.MigrationPlan;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.api.runtime.migration.models.ProcessModels;
+import org.camunda.bpm.engine.test.util.ExecutionTree;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class MigrationSetBasedTest {
+
+  protected static final BpmnModelInstance RENAMED_TASK_PROCESS = modify(ProcessModels.ONE_TASK_PROCESS)
+    .changeElementId("userTask", "newUserTask")
+    .changeElementName("newUserTask", "New User Task");
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setSetBasedMigrationEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule rule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected MigrationTestRule testHelper = new MigrationTestRule(rule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(rule).around(testHelper);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+
+  @Before
+  public void initServices() {
+    processEngineConfiguration = rule.getProcessEngineConfiguration();
+    runtimeService = rule.getRuntimeService();
+    taskService = rule.getTaskService();
+    historyService = rule.getHistoryService();
+  }
+
+  @Test
+  public void shouldMigrateWaitingProcessInstancesInBulk() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(RENAMED_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask", "newUserTask")
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 5);
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+
+    // then
+    for (String processInstanceId : processInstanceIds) {
+      assertThat(runtimeService.getActivityInstance(processInstanceId))
+        .hasStructure(
+          describeActivityInstanceTree(targetProcessDefinition.getId())
+            .activity("newUserTask")
+          .done());
+
+      assertThat(ExecutionTree.forExecution(processInstanceId, rule.getProcessEngine()))
+        .matches(
+          describeExecutionTree("newUserTask").scope().id(processInstanceId)
+          .done());
+    }
+
+    List<Task> tasks = taskService.createTaskQuery().processDefinitionId(targetProcessDefinition.getId()).list();
+    Assert.assertEquals(5, tasks.size());
+    for (Task task : tasks) {
+      Assert.assertEquals("newUserTask", task.getTaskDefinitionKey());
+    }
+
+    // and the process instances can be completed
+    for (Task task : tasks) {
+      taskService.complete(task.getId());
+    }
+    Assert.assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void shouldMigrateHistoryOfWaitingProcessInstancesInBulk() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(RENAMED_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask", "newUserTask")
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 3);
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+
+    // then
+    for (HistoricProcessInstance processInstance : historyService.createHistoricProcessInstanceQuery().list()) {
+      Assert.assertEquals(targetProcessDefinition.getId(), processInstance.getProcessDefinitionId());
+    }
+
+    List<HistoricActivityInstance> activityInstances = historyService.createHistoricActivityInstanceQuery()
+      .unfinished()
+      .list();
+    Assert.assertEquals(3, activityInstances.size());
+    for (HistoricActivityInstance activityInstance : activityInstances) {
+      Assert.assertEquals(targetProcessDefinition.getId(), activityInstance.getProcessDefinitionId());
+      Assert.assertEquals("newUserTask", activityInstance.getActivityId());
+      Assert.assertEquals("New User Task", activityInstance.getActivityName());
+    }
+
+    Assert.assertEquals(3, historyService.createHistoricActivityInstanceQuery()
+      .processDefinitionId(sourceProcessDefinition.getId())
+      .activityId("startEvent")
+      .count());
+
+    for (HistoricTaskInstance taskInstance : historyService.createHistoricTaskInstanceQuery().list()) {
+      Assert.assertEquals(targetProcessDefinition.getId(), taskInstance.getProcessDefinitionId());
+      Assert.assertEquals("newUserTask", taskInstance.getTaskDefinitionKey());
+    }
+
+    List<HistoricVariableInstance> variableInstances = historyService.createHistoricVariableInstanceQuery().list();
+    Assert.assertEquals(3, variableInstances.size());
+    for (HistoricVariableInstance variableInstance : variableInstances) {
+      Assert.assertEquals(targetProcessDefinition.getId(), variableInstance.getProcessDefinitionId());
+    }
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void shouldMigrateHistoryOfTaskVariablesInBulk() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(RENAMED_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask", "newUserTask")
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 3);
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.setVariableLocal(task.getId(), "taskVariable", task.getId());
+    }
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+
+    // then the history of the task variables of the process instances migrated in bulk is migrated
+    // (the first process instance is migrated one by one to validate the migration of the group)
+    List<HistoricVariableInstance> variableInstances = historyService.createHistoricVariableInstanceQuery()
+      .variableName("taskVariable")
+      .processInstanceIdIn(processInstanceIds.get(1), processInstanceIds.get(2))
+      .list();
+    Assert.assertEquals(2, variableInstances.size());
+    for (HistoricVariableInstance variableInstance : variableInstances) {
+      Assert.assertEquals(targetProcessDefinition.getId(), variableInstance.getProcessDefinitionId());
+    }
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void shouldMigrateOneByOneWithCustomHistoryEventHandler() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(RENAMED_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask", "newUserTask")
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 3);
+
+    final List<String> migratedProcessInstanceIds = new ArrayList<String>();
+    HistoryEventHandler historyEventHandler = processEngineConfiguration.getHistoryEventHandler();
+    processEngineConfiguration.setHistoryEventHandler(new CompositeDbHistoryEventHandler(new HistoryEventHandler() {
+
+      public void handleEvent(HistoryEvent historyEvent) {
+        if (historyEvent instanceof HistoricActivityInstanceEventEntity
+            && HistoryEventTypes.ACTIVITY_INSTANCE_MIGRATE.getEventName().equals(historyEvent.getEventType())) {
+          migratedProcessInstanceIds.add(historyEvent.getProcessInstanceId());
+        }
+      }
+
+      public void handleEvents(List<HistoryEvent> historyEvents) {
+        for (HistoryEvent historyEvent : historyEvents) {
+          handleEvent(historyEvent);
+        }
+      }
+    }));
+
+    // when
+    try {
+      runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+    }
+    finally {
+      processEngineConfiguration.setHistoryEventHandler(historyEventHandler);
+    }
+
+    // then the custom history event handler is notified about every migrated process instance
+    Assert.assertEquals(new HashSet<String>(processInstanceIds), new HashSet<String>(migratedProcessInstanceIds));
+    Assert.assertEquals(3, migratedProcessInstanceIds.size());
+  }
+
+  @Test
+  public void shouldNotMigrateConcurrentlyChangedTask() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(RENAMED_TASK_PROCESS);
+
+    final List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 2);
+    final String targetProcessDefinitionId = targetProcessDefinition.getId();
+
+    // when a task is changed after it was read for the migration
+    DbBulkOperation taskUpdate = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<DbBulkOperation>() {
+      public DbBulkOperation execute(CommandContext commandContext) {
+        List<TaskEntity> tasks = commandContext.getTaskManager().findTasksByProcessInstanceIds(processInstanceIds);
+        tasks.get(0).setRevision(tasks.get(0).getRevision() - 1);
+        return commandContext.getTaskManager().updateTasksForSetBasedMigration(tasks, targetProcessDefinitionId, "newUserTask");
+      }
+    });
+
+    // then the changed task is not updated
+    Assert.assertEquals(1, taskUpdate.getRowsAffected());
+  }
+
+  @Test
+  public void shouldMigrateProcessInstancesGroupedByActivity() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.TWO_TASKS_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.TWO_TASKS_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 4);
+    for (String processInstanceId : processInstanceIds.subList(0, 2)) {
+      Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+      taskService.complete(task.getId());
+    }
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+
+    // then
+    for (int i = 0; i < processInstanceIds.size(); i++) {
+      String processInstanceId = processInstanceIds.get(i);
+      String activityId = i < 2 ? "userTask2" : "userTask1";
+
+      assertThat(runtimeService.getActivityInstance(processInstanceId))
+        .hasStructure(
+          describeActivityInstanceTree(targetProcessDefinition.getId())
+            .activity(activityId)
+          .done());
+
+      Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+      Assert.assertEquals(targetProcessDefinition.getId(), task.getProcessDefinitionId());
+      Assert.assertEquals(activityId, task.getTaskDefinitionKey());
+    }
+  }
+
+  @Test
+  public void shouldMigrateProcessInstancesIntoScopeActivityOneByOne() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SCOPE_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 3);
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+
+    // then the user task became a scope in every process instance
+    for (String processInstanceId : processInstanceIds) {
+      assertThat(ExecutionTree.forExecution(processInstanceId, rule.getProcessEngine()))
+        .matches(
+          describeExecutionTree(null).scope().id(processInstanceId)
+            .child("userTask").scope()
+          .done());
+    }
+  }
+
+  @Test
+  public void shouldMigrateConcurrentProcessInstancesOneByOne() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.PARALLEL_GATEWAY_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.PARALLEL_GATEWAY_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    List<String> processInstanceIds = startProcessInstances(sourceProcessDefinition, 3);
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(processInstanceIds).execute();
+
+    // then
+    for (String processInstanceId : processInstanceIds) {
+      assertThat(runtimeService.getActivityInstance(processInstanceId))
+        .hasStructure(
+          describeActivityInstanceTree(targetProcessDefinition.getId())
+            .activity("userTask1")
+            .activity("userTask2")
+          .done());
+    }
+    Assert.assertEquals(6, taskService.createTaskQuery().processDefinitionId(targetProcessDefinition.getId()).count());
+  }
+
+  protected List<String> startProcessInstances(ProcessDefinition processDefinition, int count) {
+    List<String> processInstanceIds = new ArrayList<String>();
+    for (int i = 0; i < count; i++) {
+      ProcessInstance processInstance = runtimeService.startProcessInstanceById(processDefinition.getId(),
+          Variables.createVariables().putValue("index", i));
+      processInstanceIds.add(processInstance.getId());
+    }
+    return processInstanceIds;
+  }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.parse;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseSnapshotCache;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+import org.junit.rules.TemporaryFolder;
+import org.xml.sax.helpers.AttributesImpl;
+
+public class BpmnParseSnapshotCacheTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+    .startEvent()
+    .userTask("task")
+    .endEvent()
+    .done();
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setBpmnParseSnapshotCacheEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected BpmnParseSnapshotCache snapshotCache;
+
+  @Before
+  public void init() {
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    snapshotCache = processEngineConfiguration.getBpmnParseSnapshotCache();
+    snapshotCache.clear();
+  }
+
+  @After
+  public void tearDown() {
+    snapshotCache.clear();
+  }
+
+  @Test
+  public void shouldNotParseUnchangedResourceOnRedeployment() {
+    // given
+    testRule.deploy(PROCESS);
+    long hits = snapshotCache.getHitCount();
+
+    // when
+    testRule.deploy(PROCESS);
+
+    // then
+    assertThat(snapshotCache.getHitCount() - hits, is(1L));
+
+    ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery().latestVersion().singleResult();
+    assertThat(processDefinition.getVersion(), is(2));
+
+    runtimeService.startProcessInstanceById(processDefinition.getId());
+    assertThat(engineRule.getTaskService().createTaskQuery().taskDefinitionKey("task").count(), is(1L));
+  }
+
+  @Test
+  public void shouldNotParseResourceWhenReloadingDefinition() {
+    // given
+    String processDefinitionId = testRule.deployAndGetDefinition(PROCESS).getId();
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+    long hits = snapshotCache.getHitCount();
+
+    // when
+    runtimeService.startProcessInstanceById(processDefinitionId);
+
+    // then
+    assertThat(snapshotCache.getHitCount() - hits, is(1L));
+    assertThat(engineRule.getTaskService().createTaskQuery().taskDefinitionKey("task").count(), is(1L));
+  }
+
+  @Test
+  public void shouldNotUseSnapshotParsedWithOtherXxeProcessing() {
+    // given a snapshot parsed with XXE processing
+    boolean enableXxeProcessing = processEngineConfiguration.isEnableXxeProcessing();
+    processEngineConfiguration.setEnableXxeProcessing(true);
+    try {
+      testRule.deploy(PROCESS);
+    }
+    finally {
+      processEngineConfiguration.setEnableXxeProcessing(enableXxeProcessing);
+    }
+
+    processEngineConfiguration.setEnableXxeProcessing(false);
+    long hits = snapshotCache.getHitCount();
+
+    // when the resource is deployed with XXE processing disabled
+    try {
+      testRule.deploy(PROCESS);
+    }
+    finally {
+      processEngineConfiguration.setEnableXxeProcessing(enableXxeProcessing);
+    }
+
+    // then the snapshot is not used
+    assertThat(snapshotCache.getHitCount() - hits, is(0L));
+    assertThat(snapshotCache.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotCacheInvalidResource() {
+    try {
+      repositoryService.createDeployment()
+        .addString("invalid.bpmn", "<definitions />")
+        .deploy();
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    assertThat(snapshotCache.size(), is(0));
+  }
+
+  @Test
+  public void shouldReadSnapshotFromDirectory() throws Exception {
+    // given
+    File snapshotDirectory = temporaryFolder.newFolder();
+    byte[] resource = Bpmn.convertToString(PROCESS).getBytes("UTF-8");
+
+    BpmnParseSnapshotCache cache = new BpmnParseSnapshotCache(10, snapshotDirectory);
+    String key = cache.createKey(resource, true, false);
+    Element rootElement = new Element(null, "definitions", "definitions", null, null);
+    AttributesImpl attributes = new AttributesImpl();
+    attributes.addAttribute("", "id", "id", "CDATA", "process");
+    rootElement.add(new Element(null, "process", "process", attributes, null));
+    cache.put(key, rootElement);
+
+    // when the snapshot is read by another cache, e.g. after a restart
+    BpmnParseSnapshotCache otherCache = new BpmnParseSnapshotCache(10, snapshotDirectory);
+    Element snapshot = otherCache.get(key);
+
+    // then
+    assertThat(snapshot, is(notNullValue()));
+    assertThat(snapshot.getTagName(), is("definitions"));
+    assertThat(snapshot.element("process").attribute("id"), is("process"));
+
+    // and the key depends on the schema validation and the XXE processing
+    assertThat(otherCache.get(otherCache.createKey(resource, false, false)), is(nullValue()));
+    assertThat(otherCache.get(otherCache.createKey(resource, true, true)), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDiscardSnapshotWithOtherClasses() throws Exception {
+    // given a snapshot file which contains another class than an element tree
+    BpmnParseSnapshotCache cache = new BpmnParseSnapshotCache(10, temporaryFolder.newFolder());
+    String key = cache.createKey("<definitions />".getBytes("UTF-8"), true, false);
+
+    cache.getSnapshotDirectory().mkdirs();
+    File snapshotFile = new File(cache.getSnapshotDirectory(), key + ".snapshot");
+    ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(snapshotFile));
+    try {
+      outputStream.writeObject(new Date());
+    }
+    finally {
+      outputStream.close();
+    }
+
+    // when
+    Element snapshot = cache.get(key);
+
+    // then the file is not deserialized and removed
+    assertThat(snapshot, is(nullValue()));
+    assertThat(snapshotFile.exists(), is(false));
+  }
+
+}
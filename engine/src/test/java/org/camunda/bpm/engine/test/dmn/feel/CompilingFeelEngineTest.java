@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.dmn.feel;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.camunda.bpm.dmn.engine.DmnDecisionTableResult;
+import org.camunda.bpm.engine.DecisionService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.dmn.feel.CompilingFeelEngine;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class CompilingFeelEngineTest {
+
+  protected static final String DMN_DECISION_TABLE = "org/camunda/bpm/engine/test/api/dmn/Example.dmn";
+
+  @ClassRule
+  public static ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setDmnInputEntryCompilationEnabled(true);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected DecisionService decisionService;
+  protected CompilingFeelEngine feelEngine;
+
+  @Before
+  public void init() {
+    decisionService = engineRule.getDecisionService();
+    feelEngine = (CompilingFeelEngine) engineRule.getProcessEngineConfiguration()
+        .getDmnEngineConfiguration()
+        .getFeelEngine();
+  }
+
+  @Test
+  public void shouldUseCompilingFeelEngine() {
+    assertThat(engineRule.getProcessEngineConfiguration().getDmnEngineConfiguration().getFeelEngine(),
+        is(instanceOf(CompilingFeelEngine.class)));
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldCompileInputEntriesOnDeployment() {
+    assertTrue(feelEngine.getCompiledExpressionsCount() > 0);
+  }
+
+  @Deployment(resources = DMN_DECISION_TABLE)
+  @Test
+  public void shouldEvaluateCompiledInputEntries() {
+    DmnDecisionTableResult result = decisionService.evaluateDecisionTableByKey("decision",
+        Variables.createVariables().putValue("status", "silver").putValue("sum", 723));
+
+    assertThat((String) result.getSingleResult().getFirstEntry(), is("ok"));
+
+    result = decisionService.evaluateDecisionTableByKey("decision",
+        Variables.createVariables().putValue("status", "bronze").putValue("sum", 723));
+
+    assertThat((String) result.getSingleResult().getFirstEntry(), is("notok"));
+  }
+
+  @Test
+  public void shouldNotCompileMoreExpressionsThanLimit() {
+    CompilingFeelEngine boundedFeelEngine = new CompilingFeelEngine(feelEngine.getDelegate(), 1);
+
+    assertThat(boundedFeelEngine.compileUnaryTests("\"a\""), is(notNullValue()));
+    assertThat(boundedFeelEngine.compileUnaryTests("\"b\""), is(nullValue()));
+    assertThat(boundedFeelEngine.compileUnaryTests("\"a\""), is(notNullValue()));
+    assertThat(boundedFeelEngine.getCompiledExpressionsCount(), is(1));
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.dmn.feel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.camunda.bpm.engine.impl.dmn.feel.SimpleUnaryTests;
+import org.junit.Test;
+
+public class SimpleUnaryTestsTest {
+
+  @Test
+  public void shouldTestStringLiterals() {
+    SimpleUnaryTests tests = SimpleUnaryTests.compile("\"bronze\",\"silver\"");
+
+    assertTrue(tests.isSupported());
+    assertEquals(Boolean.TRUE, tests.test("silver"));
+    assertEquals(Boolean.FALSE, tests.test("gold"));
+    assertNull(tests.test(5));
+    assertNull(tests.test(null));
+  }
+
+  @Test
+  public void shouldTestStringLiteralWithComma() {
+    SimpleUnaryTests tests = SimpleUnaryTests.compile("\"a,b\"");
+
+    assertEquals(Boolean.TRUE, tests.test("a,b"));
+    assertEquals(Boolean.FALSE, tests.test("a"));
+  }
+
+  @Test
+  public void shouldTestNumberLiterals() {
+    SimpleUnaryTests tests = SimpleUnaryTests.compile("1, 2.5, -3");
+
+    assertEquals(Boolean.TRUE, tests.test(1));
+    assertEquals(Boolean.TRUE, tests.test(1L));
+    assertEquals(Boolean.TRUE, tests.test(1.0));
+    assertEquals(Boolean.TRUE, tests.test(2.5));
+    assertEquals(Boolean.TRUE, tests.test(new BigDecimal("-3.00")));
+    assertEquals(Boolean.FALSE, tests.test(2));
+    assertNull(tests.test("1"));
+  }
+
+  @Test
+  public void shouldTestComparisons() {
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile("< 1000").test(999));
+    assertEquals(Boolean.FALSE, SimpleUnaryTests.compile("< 1000").test(1000));
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile("<= 1000").test(1000));
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile("> 0.5").test(0.6));
+    assertEquals(Boolean.FALSE, SimpleUnaryTests.compile("> 0.5").test(0.5));
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile(">= 0.5").test(0.5));
+  }
+
+  @Test
+  public void shouldTestIntervals() {
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile("[1..5]").test(1));
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile("[1..5]").test(5));
+    assertEquals(Boolean.FALSE, SimpleUnaryTests.compile("]1..5]").test(1));
+    assertEquals(Boolean.FALSE, SimpleUnaryTests.compile("[1..5[").test(5));
+    assertEquals(Boolean.FALSE, SimpleUnaryTests.compile("(1..5)").test(5));
+    assertEquals(Boolean.TRUE, SimpleUnaryTests.compile("(1..5)").test(4.99));
+  }
+
+  @Test
+  public void shouldNotSupportOtherExpressions() {
+    assertFalse(SimpleUnaryTests.compile("not(\"a\")").isSupported());
+    assertFalse(SimpleUnaryTests.compile("< limit").isSupported());
+    assertFalse(SimpleUnaryTests.compile("date and time(\"2015-11-30T12:00:00\")").isSupported());
+    assertFalse(SimpleUnaryTests.compile("\"a\\\"b\"").isSupported());
+    assertFalse(SimpleUnaryTests.compile("\"a\", 1").isSupported());
+    assertFalse(SimpleUnaryTests.compile("-").isSupported());
+    assertFalse(SimpleUnaryTests.compile("").isSupported());
+  }
+
+}
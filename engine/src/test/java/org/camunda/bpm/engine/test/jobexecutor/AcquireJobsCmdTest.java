@@ -83,6 +83,51 @@ public class AcquireJobsCmdTest extends PluggableProcessEngineTestCase {
     assertEquals(0, acquiredJobs.size());
   }
 
+  @Deployment(resources={"org/camunda/bpm/engine/test/standalone/jobexecutor/oneJobProcess.bpmn20.xml"})
+  public void testLookAheadForNextDueJob() {
+    Date now = new Date(ClockUtil.getCurrentTime().getTime() / 1000 * 1000);
+    ClockUtil.setCurrentTime(now);
+    processEngineConfiguration.getJobExecutor().setDueDateLookAhead(10000);
+
+    try {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+      Job job = managementService.createJobQuery().singleResult();
+
+      // given a job which becomes due within the look-ahead
+      setJobDueDate(job, new Date(now.getTime() + 5000));
+
+      // then the acquirejobs command does not acquire the job but knows its due date
+      AcquiredJobs acquiredJobs = executeAcquireJobsCommand();
+      assertEquals(0, acquiredJobs.size());
+      assertEquals(5000, acquiredJobs.getTimeUntilNextDueJob());
+
+      // given a job which becomes due after the look-ahead
+      setJobDueDate(job, new Date(now.getTime() + 20000));
+
+      // then the acquirejobs command does not know of it
+      acquiredJobs = executeAcquireJobsCommand();
+      assertEquals(0, acquiredJobs.size());
+      assertEquals(-1, acquiredJobs.getTimeUntilNextDueJob());
+    }
+    finally {
+      processEngineConfiguration.getJobExecutor().setDueDateLookAhead(0);
+      ClockUtil.reset();
+    }
+  }
+
+  protected void setJobDueDate(final Job job, final Date dueDate) {
+    processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getJobManager()
+            .findJobById(job.getId())
+            .setDuedate(dueDate);
+          return null;
+        }
+
+      });
+  }
+
   protected void makeSureJobDue(final Job job) {
     processEngineConfiguration.getCommandExecutorTxRequired()
       .execute(new Command<Void>() {
@@ -160,6 +160,34 @@ public class BackoffJobAcquisitionStrategyTest {
     Assert.assertEquals(BackoffJobAcquisitionStrategy.DEFAULT_EXECUTION_SATURATION_WAIT_TIME, strategy.getWaitTime());
   }
 
+  @Test
+  public void testIdleWaitTimeUntilNextDueJob() {
+    // given a job acquisition strategy and a job acquisition context
+    // with no acquired jobs but a job which becomes due soon
+    JobAcquisitionContext context = new JobAcquisitionContext();
+
+    AcquiredJobs acquiredJobs = buildAcquiredJobs(NUM_JOBS_TO_ACQUIRE, 0, 0);
+    acquiredJobs.setTimeUntilNextDueJob(20);
+    context.submitAcquiredJobs(ENGINE_NAME, acquiredJobs);
+
+    // when reconfiguring the strategy
+    strategy.reconfigure(context);
+
+    // then the strategy waits until the job is due instead of the level 1 idle time
+    Assert.assertEquals(20L, strategy.getWaitTime());
+
+    // when the job becomes due later than the idle time
+    context.reset();
+    acquiredJobs = buildAcquiredJobs(NUM_JOBS_TO_ACQUIRE, 0, 0);
+    acquiredJobs.setTimeUntilNextDueJob(MAX_IDLE_TIME * 10);
+    context.submitAcquiredJobs(ENGINE_NAME, acquiredJobs);
+
+    strategy.reconfigure(context);
+
+    // then the idle time is not extended
+    Assert.assertEquals((long) (BASE_IDLE_WAIT_TIME * IDLE_INCREASE_FACTOR), strategy.getWaitTime());
+  }
+
   /**
    * numJobsToAcquire >= numJobsAcquired >= numJobsFailedToLock must hold
    */
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.FailedJobListener;
+import org.camunda.bpm.engine.impl.jobexecutor.JobFailureCircuitBreaker;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.api.mgmt.AlwaysFailingDelegate;
+import org.camunda.bpm.engine.test.util.ClockTestUtil;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobExecutorAcquireJobsCircuitBreakerTest extends AbstractJobExecutorAcquireJobsTest {
+
+  protected static final int FAILURE_THRESHOLD = 2;
+  protected static final long FAILURE_WINDOW = 60 * 1000;
+  protected static final long BACKOFF = 10 * 1000;
+
+  protected static final BpmnModelInstance FAILING_PROCESS = Bpmn.createExecutableProcess("failingProcess")
+      .startEvent()
+      .serviceTask("task")
+        .camundaAsyncBefore()
+        .camundaClass(AlwaysFailingDelegate.class.getName())
+      .endEvent()
+      .done();
+
+  @Before
+  public void setUp() {
+    configuration.setJobFailureCircuitBreaker(new JobFailureCircuitBreaker(FAILURE_THRESHOLD, FAILURE_WINDOW, BACKOFF));
+
+    rule.manageDeployment(rule.getRepositoryService()
+        .createDeployment()
+        .addModelInstance("failingProcess.bpmn", FAILING_PROCESS)
+        .deploy());
+  }
+
+  @After
+  public void tearDown() {
+    configuration.setJobFailureCircuitBreaker(null);
+  }
+
+  @Test
+  public void testJobsNotAcquiredWhileCircuitBreakerIsOpen() {
+    // given
+    startProcess("failingProcess", "task", 3);
+    List<Job> jobs = managementService.createJobQuery().list();
+
+    // when the jobs fail less often than the threshold
+    executeFailingJob(jobs.get(0));
+
+    // then they are acquired
+    assertEquals(3, findAcquirableJobs().size());
+
+    // when the threshold is reached
+    executeFailingJob(jobs.get(1));
+
+    // then the jobs of the job definition are not acquired
+    assertEquals(0, findAcquirableJobs().size());
+
+    // until the backoff has elapsed
+    ClockTestUtil.incrementClock(BACKOFF / 1000 + 1);
+
+    assertEquals(3, findAcquirableJobs().size());
+  }
+
+  @Test
+  public void testFailuresAreCountedWithinWindow() {
+    // given
+    startProcess("failingProcess", "task", 3);
+    List<Job> jobs = managementService.createJobQuery().list();
+
+    // when the jobs fail in different windows
+    executeFailingJob(jobs.get(0));
+    ClockTestUtil.incrementClock(FAILURE_WINDOW / 1000 + 1);
+    executeFailingJob(jobs.get(1));
+
+    // then they are still acquired
+    assertEquals(3, findAcquirableJobs().size());
+  }
+
+  @Test
+  public void testFailuresAreNotCountedOnRollback() {
+    // given
+    startProcess("failingProcess", "task", 3);
+    List<Job> jobs = managementService.createJobQuery().list();
+
+    // when the failure handling of the jobs is rolled back
+    handleFailureAndRollback(jobs.get(0));
+    handleFailureAndRollback(jobs.get(1));
+
+    // then they are still acquired
+    assertEquals(3, findAcquirableJobs().size());
+  }
+
+  protected void executeFailingJob(Job job) {
+    try {
+      managementService.executeJob(job.getId());
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+  }
+
+  protected void handleFailureAndRollback(Job job) {
+    final CommandExecutor commandExecutor = configuration.getCommandExecutorTxRequired();
+    final String jobId = job.getId();
+
+    try {
+      commandExecutor.execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          new FailedJobListener(commandExecutor, jobId, new RuntimeException("job failed")).execute(commandContext);
+          throw new ProcessEngineException("failure handling rolled back");
+        }
+      });
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.test.Deployment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobExecutorAcquireJobsSkipLockedTest extends AbstractJobExecutorAcquireJobsTest {
+
+  @Before
+  public void prepareProcessEngineConfiguration() {
+    configuration.setJobExecutorAcquireWithSkipLocked(true);
+  }
+
+  @After
+  public void resetProcessEngineConfiguration() {
+    configuration.setJobExecutorAcquireWithSkipLocked(false);
+  }
+
+  @Test
+  public void testProcessEngineConfiguration() {
+    assertTrue(configuration.isJobExecutorAcquireWithSkipLocked());
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/jobexecutor/simpleAsyncProcess.bpmn20.xml")
+  public void testJobsAreAcquired() {
+    // given
+    runtimeService.startProcessInstanceByKey("simpleAsyncProcess");
+    runtimeService.startProcessInstanceByKey("simpleAsyncProcess");
+
+    // then the jobs are acquired on every database
+    assertEquals(2, findAcquirableJobs().size());
+  }
+
+  @Test
+  public void testSkipLockedStatementMapping() {
+    assertEquals("selectNextJobsToExecuteSkipLocked_postgres_or_mysql", mapSkipLockedStatement(DbSqlSessionFactory.POSTGRES));
+    assertEquals("selectNextJobsToExecuteSkipLocked_postgres_or_mysql", mapSkipLockedStatement(DbSqlSessionFactory.MYSQL));
+    assertEquals("selectNextJobsToExecuteSkipLocked_postgres_or_mysql", mapSkipLockedStatement(DbSqlSessionFactory.MARIADB));
+
+    // fall back to the optimistic acquisition
+    assertEquals("selectNextJobsToExecuteSkipLocked", mapSkipLockedStatement(DbSqlSessionFactory.H2));
+    assertEquals("selectNextJobsToExecuteSkipLocked", mapSkipLockedStatement(DbSqlSessionFactory.ORACLE));
+  }
+
+  protected String mapSkipLockedStatement(String databaseType) {
+    DbSqlSessionFactory dbSqlSessionFactory = new DbSqlSessionFactory();
+    dbSqlSessionFactory.setDatabaseType(databaseType);
+    return dbSqlSessionFactory.mapStatement("selectNextJobsToExecuteSkipLocked");
+  }
+
+}
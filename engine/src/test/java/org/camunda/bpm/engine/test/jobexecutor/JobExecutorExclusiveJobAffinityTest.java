@@ -0,0 +1,235 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobExecutorExclusiveJobAffinityTest {
+
+  protected static final BpmnModelInstance PARALLEL_ASYNC_PROCESS = Bpmn.createExecutableProcess("process")
+    .startEvent()
+    .parallelGateway("fork")
+    .serviceTask("task1")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .parallelGateway("join")
+    .endEvent()
+    .moveToNode("fork")
+    .serviceTask("task2")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .connectTo("join")
+    .done();
+
+  protected static final BpmnModelInstance CHANGE_OTHER_JOB_PROCESS = Bpmn.createExecutableProcess("process")
+    .startEvent()
+    .parallelGateway("fork")
+    .serviceTask("task1")
+      .camundaAsyncBefore()
+      .camundaClass(ChangeOtherJobDelegate.class.getName())
+    .parallelGateway("join")
+    .endEvent()
+    .moveToNode("fork")
+    .serviceTask("task2")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .connectTo("join")
+    .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected ProcessEngineConfigurationImpl configuration;
+
+  protected JobExecutor defaultJobExecutor;
+  protected SynchronousJobExecutor jobExecutor;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    configuration = engineRule.getProcessEngineConfiguration();
+
+    defaultJobExecutor = configuration.getJobExecutor();
+    jobExecutor = new SynchronousJobExecutor();
+    configuration.setJobExecutor(jobExecutor);
+
+    configuration.setJobExecutorExclusiveJobAffinity(true);
+  }
+
+  @After
+  public void reset() {
+    configuration.setJobExecutor(defaultJobExecutor);
+    configuration.setJobExecutorExclusiveJobAffinity(false);
+  }
+
+  @Test
+  public void shouldExecuteExclusiveJobsOfProcessInstanceInSameThread() {
+    // given
+    testRule.deploy(PARALLEL_ASYNC_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    Job job = managementService.createJobQuery().activityId("task1").singleResult();
+
+    // when only the first job is handed to the job executor
+    jobExecutor.executeJobs(Collections.singletonList(job.getId()), getProcessEngine());
+
+    // then the second job of the instance is executed too
+    assertEquals(0, managementService.createJobQuery().count());
+    assertNull(runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).singleResult());
+  }
+
+  @Test
+  public void shouldNotLockExclusiveJobsIfDisabled() {
+    // given
+    configuration.setJobExecutorExclusiveJobAffinity(false);
+
+    testRule.deploy(PARALLEL_ASYNC_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    Job job = managementService.createJobQuery().activityId("task1").singleResult();
+
+    // when
+    jobExecutor.executeJobs(Collections.singletonList(job.getId()), getProcessEngine());
+
+    // then the second job is left to the job acquisition
+    assertEquals(1, managementService.createJobQuery().count());
+    JobEntity remainingJob = (JobEntity) managementService.createJobQuery().activityId("task2").singleResult();
+    assertNull(remainingJob.getLockOwner());
+  }
+
+  @Test
+  public void shouldNotLockExclusiveJobsOfProcessInstanceHeldByOtherLockOwner() {
+    // given an exclusive job of the instance is locked by another job executor
+    testRule.deploy(PARALLEL_ASYNC_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    Job job = managementService.createJobQuery().activityId("task1").singleResult();
+    Job otherJob = managementService.createJobQuery().activityId("task2").singleResult();
+    lockJob(otherJob.getId(), "otherLockOwner");
+
+    // when
+    jobExecutor.executeJobs(Collections.singletonList(job.getId()), getProcessEngine());
+
+    // then the locked job is not taken over
+    assertEquals(1, managementService.createJobQuery().count());
+    JobEntity remainingJob = (JobEntity) managementService.createJobQuery().activityId("task2").singleResult();
+    assertEquals("otherLockOwner", remainingJob.getLockOwner());
+  }
+
+  @Test
+  public void shouldNotLockExclusiveJobsChangedInSameTransaction() {
+    // given
+    testRule.deploy(CHANGE_OTHER_JOB_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    Job job = managementService.createJobQuery().activityId("task1").singleResult();
+
+    // when the first job changes the second one
+    jobExecutor.executeJobs(Collections.singletonList(job.getId()), getProcessEngine());
+
+    // then the second job is changed but not locked
+    assertEquals(1, managementService.createJobQuery().count());
+    JobEntity remainingJob = (JobEntity) managementService.createJobQuery().activityId("task2").singleResult();
+    assertEquals(ChangeOtherJobDelegate.PRIORITY, remainingJob.getPriority());
+    assertNull(remainingJob.getLockOwner());
+  }
+
+  protected void lockJob(final String jobId, final String lockOwner) {
+    configuration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        JobEntity job = commandContext.getJobManager().findJobById(jobId);
+        job.setLockOwner(lockOwner);
+        job.setLockExpirationTime(new Date(ClockUtil.getCurrentTime().getTime() + 60 * 1000));
+        return null;
+      }
+    });
+  }
+
+  protected ProcessEngineImpl getProcessEngine() {
+    return (ProcessEngineImpl) engineRule.getProcessEngine();
+  }
+
+  public static class ChangeOtherJobDelegate implements JavaDelegate {
+
+    public static final long PRIORITY = 42;
+
+    public void execute(DelegateExecution execution) throws Exception {
+      ManagementService managementService = execution.getProcessEngineServices().getManagementService();
+      Job otherJob = managementService.createJobQuery().activityId("task2").singleResult();
+      managementService.setJobPriority(otherJob.getId(), PRIORITY);
+    }
+  }
+
+  /**
+   * Executes the jobs in the calling thread and never acquires jobs.
+   */
+  public class SynchronousJobExecutor extends JobExecutor {
+
+    @Override
+    public boolean isActive() {
+      return true;
+    }
+
+    protected void startExecutingJobs() {
+      // do nothing
+    }
+
+    protected void stopExecutingJobs() {
+      // do nothing
+    }
+
+    public void jobWasAdded() {
+      // do nothing
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      getExecuteJobsRunnable(jobIds, processEngine).run();
+    }
+
+  }
+
+}
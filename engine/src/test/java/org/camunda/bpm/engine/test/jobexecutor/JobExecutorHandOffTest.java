@@ -0,0 +1,280 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobExecutorHandOffTest {
+
+  protected static final BpmnModelInstance ASYNC_PROCESS = Bpmn.createExecutableProcess("process")
+    .startEvent()
+    .serviceTask("task")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .endEvent()
+    .done();
+
+  protected static final BpmnModelInstance PARALLEL_ASYNC_PROCESS = Bpmn.createExecutableProcess("process")
+    .startEvent()
+    .parallelGateway("fork")
+    .serviceTask("task1")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .parallelGateway("join")
+    .endEvent()
+    .moveToNode("fork")
+    .serviceTask("task2")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .connectTo("join")
+    .done();
+
+  protected static final BpmnModelInstance PARALLEL_USER_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+    .startEvent()
+    .parallelGateway("fork")
+    .serviceTask("task1")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .parallelGateway("join")
+    .endEvent()
+    .moveToNode("fork")
+    .userTask("userTask")
+    .serviceTask("task2")
+      .camundaAsyncBefore()
+      .camundaExpression("${true}")
+    .connectTo("join")
+    .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+  protected ProcessEngineConfigurationImpl configuration;
+
+  protected JobExecutor defaultJobExecutor;
+  protected RecordingJobExecutor jobExecutor;
+
+  @Before
+  public void init() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    managementService = engineRule.getManagementService();
+    configuration = engineRule.getProcessEngineConfiguration();
+
+    defaultJobExecutor = configuration.getJobExecutor();
+    jobExecutor = new RecordingJobExecutor();
+    configuration.setJobExecutor(jobExecutor);
+
+    configuration.setJobExecutorHandOffNewJobs(true);
+  }
+
+  @After
+  public void reset() {
+    configuration.setJobExecutor(defaultJobExecutor);
+    configuration.setJobExecutorHandOffNewJobs(false);
+  }
+
+  @Test
+  public void shouldHandOffLockedJobAfterCommit() {
+    // given
+    testRule.deploy(ASYNC_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertEquals(1, jobExecutor.handedOffJobIds.size());
+    assertEquals(job.getId(), jobExecutor.handedOffJobIds.get(0).get(0));
+    assertEquals(jobExecutor.getLockOwner(), job.getLockOwner());
+    assertEquals(0, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldHandOffExclusiveJobsOfProcessInstanceInOneBatch() {
+    // given
+    testRule.deploy(PARALLEL_ASYNC_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertEquals(1, jobExecutor.handedOffJobIds.size());
+    assertEquals(2, jobExecutor.handedOffJobIds.get(0).size());
+
+    HashSet<String> jobIds = new HashSet<String>();
+    for (Job job : managementService.createJobQuery().list()) {
+      jobIds.add(job.getId());
+    }
+    assertEquals(jobIds, new HashSet<String>(jobExecutor.handedOffJobIds.get(0)));
+  }
+
+  @Test
+  public void shouldNotHandOffJobsIfDisabled() {
+    // given
+    configuration.setJobExecutorHandOffNewJobs(false);
+    testRule.deploy(ASYNC_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then the job executor is only hinted
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertTrue(jobExecutor.handedOffJobIds.isEmpty());
+    assertNull(job.getLockOwner());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldUnlockRejectedJobs() {
+    // given
+    jobExecutor.acceptHandOff = false;
+    testRule.deploy(ASYNC_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then the job is left to the job acquisition
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertEquals(1, jobExecutor.handedOffJobIds.size());
+    assertNull(job.getLockOwner());
+    assertNull(job.getLockExpirationTime());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldHintJobExecutorWithoutHandOffSupport() {
+    // given
+    jobExecutor.supportsHandOff = false;
+    testRule.deploy(ASYNC_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then the job is not locked but left to the job acquisition
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertTrue(jobExecutor.handedOffJobIds.isEmpty());
+    assertNull(job.getLockOwner());
+    assertNull(job.getLockExpirationTime());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  public void shouldNotHandOffExclusiveJobOfLockedProcessInstance() {
+    // given an exclusive job of the instance is executed by another job executor
+    configuration.setJobExecutorHandOffNewJobs(false);
+    testRule.deploy(PARALLEL_USER_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    lockJob(managementService.createJobQuery().activityId("task1").singleResult().getId(), "otherLockOwner");
+    configuration.setJobExecutorHandOffNewJobs(true);
+
+    // when
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    // then
+    JobEntity job = (JobEntity) managementService.createJobQuery().activityId("task2").singleResult();
+    assertTrue(jobExecutor.handedOffJobIds.isEmpty());
+    assertNull(job.getLockOwner());
+  }
+
+  protected void lockJob(final String jobId, final String lockOwner) {
+    configuration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        JobEntity job = commandContext.getJobManager().findJobById(jobId);
+        job.setLockOwner(lockOwner);
+        job.setLockExpirationTime(new Date(ClockUtil.getCurrentTime().getTime() + 60 * 1000));
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Records the jobs handed off to it and executes no jobs.
+   */
+  public class RecordingJobExecutor extends JobExecutor {
+
+    public boolean supportsHandOff = true;
+    public boolean acceptHandOff = true;
+    public List<List<String>> handedOffJobIds = new ArrayList<List<String>>();
+    public int jobsAdded = 0;
+
+    @Override
+    public boolean isActive() {
+      return true;
+    }
+
+    protected void startExecutingJobs() {
+      // do nothing
+    }
+
+    protected void stopExecutingJobs() {
+      // do nothing
+    }
+
+    public void jobWasAdded() {
+      jobsAdded++;
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // do nothing
+    }
+
+    public boolean supportsHandOff() {
+      return supportsHandOff;
+    }
+
+    public boolean handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      handedOffJobIds.add(new ArrayList<String>(jobIds));
+      return acceptHandOff;
+    }
+
+  }
+
+}
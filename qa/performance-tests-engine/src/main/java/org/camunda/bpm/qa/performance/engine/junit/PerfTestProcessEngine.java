@@ -63,6 +63,8 @@ public class PerfTestProcessEngine {
 
     processEngineConfiguration.setJdbcBatchProcessing(Boolean.valueOf(properties.getProperty("jdbcBatchProcessing")));
 
+    processEngineConfiguration.setDmnInputEntryCompilationEnabled(Boolean.valueOf(properties.getProperty("dmnInputEntryCompilation")));
+
     // load plugins
     String processEnginePlugins = properties.getProperty("processEnginePlugins", "");
     for (String pluginName : processEnginePlugins.split(",")) {
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Marks a meter of the metrics registry many times, optionally with a tag,
+ * to measure the contention of concurrent marks.
+ */
+public class MarkMeterStep extends ProcessEngineAwareStep {
+
+  protected String name;
+  protected String tag;
+  protected int marksPerRun;
+
+  public MarkMeterStep(String name, String tag, int marksPerRun, ProcessEngine processEngine) {
+    super(processEngine);
+    this.name = name;
+    this.tag = tag;
+    this.marksPerRun = marksPerRun;
+  }
+
+  @Override
+  public void execute(PerfTestRunContext context) {
+    MetricsRegistry metricsRegistry = ((ProcessEngineImpl) processEngine).getProcessEngineConfiguration().getMetricsRegistry();
+
+    if (tag != null) {
+      for (int i = 0; i < marksPerRun; i++) {
+        metricsRegistry.markOccurrence(name, tag);
+      }
+    }
+    else {
+      for (int i = 0; i < marksPerRun; i++) {
+        metricsRegistry.markOccurrence(name);
+      }
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Sets the retries of jobs with a batch and executes the seed job and all batch
+ * jobs of the batch synchronously.
+ */
+public class SetJobRetriesBatchStep extends ProcessEngineAwareStep {
+
+  protected List<String> jobIds;
+  protected int retries;
+
+  public SetJobRetriesBatchStep(ProcessEngine processEngine, List<String> jobIds, int retries) {
+    super(processEngine);
+    this.jobIds = jobIds;
+    this.retries = retries;
+  }
+
+  @Override
+  public void execute(PerfTestRunContext context) {
+    ManagementService managementService = processEngine.getManagementService();
+
+    Batch batch = managementService.setJobRetriesAsync(jobIds, retries);
+
+    executeJobs(managementService, batch.getSeedJobDefinitionId());
+    executeJobs(managementService, batch.getBatchJobDefinitionId());
+
+    managementService.deleteBatch(batch.getId(), true);
+  }
+
+  protected void executeJobs(ManagementService managementService, String jobDefinitionId) {
+    for (Job job : managementService.createJobQuery().jobDefinitionId(jobDefinitionId).list()) {
+      managementService.executeJob(job.getId());
+    }
+  }
+
+}
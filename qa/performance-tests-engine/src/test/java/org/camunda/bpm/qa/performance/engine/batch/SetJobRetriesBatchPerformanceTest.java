@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.SetJobRetriesBatchStep;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the throughput of batch jobs which set the retries of all their jobs
+ * with one statement against batch jobs which set them job by job. Each run
+ * updates the same jobs, so run it with -DnumberOfThreads=1.
+ */
+public class SetJobRetriesBatchPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final int NUMBER_OF_JOBS = 100;
+  protected static final int RETRIES = 5;
+
+  protected static final BpmnModelInstance ASYNC_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineConfigurationImpl configuration;
+  protected int defaultInvocationsPerBatchJob;
+  protected boolean defaultBulkExecutionEnabled;
+
+  protected String deploymentId;
+  protected List<String> jobIds;
+
+  @Before
+  public void createJobs() {
+    configuration = ((ProcessEngineImpl) engine).getProcessEngineConfiguration();
+    defaultInvocationsPerBatchJob = configuration.getInvocationsPerBatchJob();
+    defaultBulkExecutionEnabled = configuration.isBatchJobBulkExecutionEnabled();
+    configuration.setInvocationsPerBatchJob(NUMBER_OF_JOBS);
+
+    deploymentId = repositoryService.createDeployment()
+        .addModelInstance("process.bpmn", ASYNC_PROCESS)
+        .deploy()
+        .getId();
+
+    for (int i = 0; i < NUMBER_OF_JOBS; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    jobIds = new ArrayList<String>();
+    for (Job job : engine.getManagementService().createJobQuery().processDefinitionKey("process").list()) {
+      jobIds.add(job.getId());
+    }
+  }
+
+  @After
+  public void deleteJobs() {
+    configuration.setInvocationsPerBatchJob(defaultInvocationsPerBatchJob);
+    configuration.setBatchJobBulkExecutionEnabled(defaultBulkExecutionEnabled);
+    repositoryService.deleteDeployment(deploymentId, true);
+  }
+
+  @Test
+  public void bulkExecution() {
+    configuration.setBatchJobBulkExecutionEnabled(true);
+
+    performanceTest()
+      .step(new SetJobRetriesBatchStep(engine, jobIds, RETRIES))
+    .run();
+  }
+
+  @Test
+  public void executionPerJob() {
+    configuration.setBatchJobBulkExecutionEnabled(false);
+
+    performanceTest()
+      .step(new SetJobRetriesBatchStep(engine, jobIds, RETRIES))
+    .run();
+  }
+
+}
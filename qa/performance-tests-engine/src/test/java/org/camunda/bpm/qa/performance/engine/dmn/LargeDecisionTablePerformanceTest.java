@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.dmn;
+
+import java.util.Map;
+
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.dmn.Dmn;
+import org.camunda.bpm.model.dmn.DmnModelInstance;
+import org.camunda.bpm.model.dmn.HitPolicy;
+import org.camunda.bpm.model.dmn.impl.DmnModelConstants;
+import org.camunda.bpm.model.dmn.instance.Decision;
+import org.camunda.bpm.model.dmn.instance.DecisionTable;
+import org.camunda.bpm.model.dmn.instance.Definitions;
+import org.camunda.bpm.model.dmn.instance.Input;
+import org.camunda.bpm.model.dmn.instance.InputEntry;
+import org.camunda.bpm.model.dmn.instance.InputExpression;
+import org.camunda.bpm.model.dmn.instance.Output;
+import org.camunda.bpm.model.dmn.instance.OutputEntry;
+import org.camunda.bpm.model.dmn.instance.Rule;
+import org.camunda.bpm.model.dmn.instance.Text;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.EvaluateDecisionTableStep;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Evaluate generated decision tables with a large number of rules. Each rule
+ * tests a string input and a number input; only the last rule matches.
+ *
+ * <p>Set the property <code>dmnInputEntryCompilation</code> to compare the
+ * results with compiled input entries.</p>
+ */
+public class LargeDecisionTablePerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  private static final String DECISION_KEY = "largeDecisionTable";
+
+  protected String deploymentId;
+
+  @After
+  public void deleteDeployment() {
+    if (deploymentId != null) {
+      repositoryService.deleteDeployment(deploymentId, true);
+      deploymentId = null;
+    }
+  }
+
+  @Test
+  public void oneThousandRules() {
+    evaluateDecisionTableWithRules(1000);
+  }
+
+  @Test
+  public void tenThousandRules() {
+    evaluateDecisionTableWithRules(10000);
+  }
+
+  @Test
+  public void oneHundredThousandRules() {
+    evaluateDecisionTableWithRules(100000);
+  }
+
+  protected void evaluateDecisionTableWithRules(int numberOfRules) {
+    deploymentId = repositoryService.createDeployment()
+      .addModelInstance("largeDecisionTable.dmn", createDecisionTable(numberOfRules))
+      .deploy()
+      .getId();
+
+    Map<String, Object> variables = Variables.createVariables()
+      .putValue("category", "category" + (numberOfRules - 1))
+      .putValue("amount", numberOfRules);
+
+    performanceTest()
+      .step(new EvaluateDecisionTableStep(engine, DECISION_KEY, variables))
+    .run();
+  }
+
+  protected DmnModelInstance createDecisionTable(int numberOfRules) {
+    DmnModelInstance modelInstance = Dmn.createEmptyModel();
+    Definitions definitions = modelInstance.newInstance(Definitions.class);
+    definitions.setId(DmnModelConstants.DMN_ELEMENT_DEFINITIONS);
+    definitions.setName(DmnModelConstants.DMN_ELEMENT_DEFINITIONS);
+    definitions.setNamespace(DmnModelConstants.CAMUNDA_NS);
+    modelInstance.setDefinitions(definitions);
+
+    Decision decision = modelInstance.newInstance(Decision.class);
+    decision.setId(DECISION_KEY);
+    decision.setName("Benchmark");
+    definitions.addChildElement(decision);
+
+    DecisionTable decisionTable = modelInstance.newInstance(DecisionTable.class);
+    decisionTable.setId(DmnModelConstants.DMN_ELEMENT_DECISION_TABLE);
+    decisionTable.setHitPolicy(HitPolicy.COLLECT);
+    decision.addChildElement(decisionTable);
+
+    decisionTable.addChildElement(createInput(modelInstance, "category", "string"));
+    decisionTable.addChildElement(createInput(modelInstance, "amount", "integer"));
+
+    Output output = modelInstance.newInstance(Output.class);
+    output.setName("result");
+    output.setTypeRef("string");
+    decisionTable.addChildElement(output);
+
+    for (int i = 0; i < numberOfRules; i++) {
+      Rule rule = modelInstance.newInstance(Rule.class);
+      rule.getInputEntries().add(createInputEntry(modelInstance, "\"category" + i + "\""));
+      rule.getInputEntries().add(createInputEntry(modelInstance, "[" + i + ".." + numberOfRules + "]"));
+      rule.getOutputEntries().add(createOutputEntry(modelInstance, "\"rule" + i + "\""));
+      decisionTable.getRules().add(rule);
+    }
+
+    return modelInstance;
+  }
+
+  protected Input createInput(DmnModelInstance modelInstance, String expression, String typeRef) {
+    Input input = modelInstance.newInstance(Input.class);
+    input.setLabel(expression);
+
+    InputExpression inputExpression = modelInstance.newInstance(InputExpression.class);
+    inputExpression.setTypeRef(typeRef);
+    Text text = modelInstance.newInstance(Text.class);
+    text.setTextContent(expression);
+    inputExpression.setText(text);
+    input.setInputExpression(inputExpression);
+
+    return input;
+  }
+
+  protected InputEntry createInputEntry(DmnModelInstance modelInstance, String expression) {
+    InputEntry inputEntry = modelInstance.newInstance(InputEntry.class);
+    Text text = modelInstance.newInstance(Text.class);
+    text.setTextContent(expression);
+    inputEntry.setText(text);
+    return inputEntry;
+  }
+
+  protected OutputEntry createOutputEntry(DmnModelInstance modelInstance, String expression) {
+    OutputEntry outputEntry = modelInstance.newInstance(OutputEntry.class);
+    Text text = modelInstance.newInstance(Text.class);
+    text.setTextContent(expression);
+    outputEntry.setText(text);
+    return outputEntry;
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2013-2018 camunda services GmbH and various authors (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.metrics;
+
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.MarkMeterStep;
+import org.junit.Test;
+
+/**
+ * Marks the activity instance meters from all threads of the performance test.
+ * Run with the benchmark profile and e.g. -DnumberOfThreads=64 to see how the
+ * throughput of the meters scales with the number of threads.
+ */
+public class MeterContentionPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final int MARKS_PER_RUN = 10000;
+
+  @Test
+  public void markMeter() {
+    performanceTest()
+      .step(new MarkMeterStep(Metrics.ACTIVTY_INSTANCE_START, null, MARKS_PER_RUN, engine))
+    .run();
+  }
+
+  @Test
+  public void markTaggedMeter() {
+    performanceTest()
+      .step(new MarkMeterStep(Metrics.ACTIVTY_INSTANCE_START, "invoice", MARKS_PER_RUN, engine))
+    .run();
+  }
+
+}